@@ -0,0 +1,233 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.wren.base;
+
+import com.google.common.collect.HashMultimap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.SetMultimap;
+import io.trino.sql.tree.DefaultTraversalVisitor;
+import io.trino.sql.tree.Table;
+import io.wren.base.dto.Column;
+import io.wren.base.dto.CumulativeMetric;
+import io.wren.base.dto.Manifest;
+import io.wren.base.dto.Metric;
+import io.wren.base.dto.Model;
+import io.wren.base.dto.Relationship;
+import io.wren.base.dto.View;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+
+import static com.google.common.collect.ImmutableMap.toImmutableMap;
+import static com.google.common.collect.ImmutableSet.toImmutableSet;
+import static io.wren.base.sqlrewrite.Utils.parseSql;
+import static java.util.Objects.requireNonNull;
+import static java.util.function.Function.identity;
+
+/**
+ * The difference between two manifests, compared by the name and the definition of each object.
+ * <p>
+ * The changes of the macros, the enums and the date spine can't be traced to the objects using them,
+ * so they make every object changed, and so does moving to another catalog or schema.
+ */
+public class ManifestDiff
+{
+    private final boolean sameSchema;
+    private final boolean globalChanged;
+    private final Set<String> changedObjects;
+    private final Set<String> removedObjects;
+    private final Set<String> changedRelationships;
+
+    public static ManifestDiff diff(Manifest previous, Manifest current)
+    {
+        requireNonNull(previous, "previous is null");
+        requireNonNull(current, "current is null");
+        ImmutableSet.Builder<String> changedObjects = ImmutableSet.builder();
+        ImmutableSet.Builder<String> removedObjects = ImmutableSet.builder();
+        diff(previous.getModels(), current.getModels(), Model::getName, changedObjects, removedObjects);
+        diff(previous.getMetrics(), current.getMetrics(), Metric::getName, changedObjects, removedObjects);
+        diff(previous.getCumulativeMetrics(), current.getCumulativeMetrics(), CumulativeMetric::getName, changedObjects, removedObjects);
+        diff(previous.getViews(), current.getViews(), View::getName, changedObjects, removedObjects);
+        ImmutableSet.Builder<String> changedRelationships = ImmutableSet.builder();
+        diff(previous.getRelationships(), current.getRelationships(), Relationship::getName, changedRelationships, changedRelationships);
+
+        return new ManifestDiff(
+                previous.getCatalog().equals(current.getCatalog()) && previous.getSchema().equals(current.getSchema()),
+                !previous.getMacros().equals(current.getMacros())
+                        || !previous.getEnumDefinitions().equals(current.getEnumDefinitions())
+                        || !Objects.equals(previous.getDateSpine(), current.getDateSpine()),
+                changedObjects.build(),
+                removedObjects.build(),
+                changedRelationships.build());
+    }
+
+    private static <T> void diff(
+            List<T> previous,
+            List<T> current,
+            Function<T, String> nameGetter,
+            ImmutableSet.Builder<String> changed,
+            ImmutableSet.Builder<String> removed)
+    {
+        Map<String, T> previousByName = previous.stream().collect(toImmutableMap(nameGetter, identity(), (first, second) -> second));
+        Set<String> currentNames = new HashSet<>();
+        for (T object : current) {
+            String name = nameGetter.apply(object);
+            currentNames.add(name);
+            if (!object.equals(previousByName.get(name))) {
+                changed.add(name);
+            }
+        }
+        previousByName.keySet().stream()
+                .filter(name -> !currentNames.contains(name))
+                .forEach(removed::add);
+    }
+
+    private ManifestDiff(boolean sameSchema, boolean globalChanged, Set<String> changedObjects, Set<String> removedObjects, Set<String> changedRelationships)
+    {
+        this.sameSchema = sameSchema;
+        this.globalChanged = globalChanged;
+        this.changedObjects = changedObjects;
+        this.removedObjects = removedObjects;
+        this.changedRelationships = changedRelationships;
+    }
+
+    /**
+     * @return true if both manifests have the same catalog and schema, so the objects of the previous one can be updated in place
+     */
+    public boolean isSameSchema()
+    {
+        return sameSchema;
+    }
+
+    /**
+     * @return true if the macros, enums or date spine changed, which could change any object
+     */
+    public boolean isGlobalChanged()
+    {
+        return globalChanged;
+    }
+
+    /**
+     * @return the models, metrics, cumulative metrics and views which are added or whose definitions changed
+     */
+    public Set<String> getChangedObjects()
+    {
+        return changedObjects;
+    }
+
+    public Set<String> getRemovedObjects()
+    {
+        return removedObjects;
+    }
+
+    /**
+     * @return the relationships which are added, removed or whose definitions changed
+     */
+    public Set<String> getChangedRelationships()
+    {
+        return changedRelationships;
+    }
+
+    public boolean isEmpty()
+    {
+        return sameSchema && !globalChanged && changedObjects.isEmpty() && removedObjects.isEmpty() && changedRelationships.isEmpty();
+    }
+
+    /**
+     * The objects whose rewritten SQL could change: the changed objects, the models using a changed relationship,
+     * and every object depending on them through a relationship column, a base object or a view statement.
+     */
+    public Set<String> getAffectedObjects(WrenMDL current)
+    {
+        if (!sameSchema || globalChanged) {
+            return getAllObjects(current);
+        }
+
+        SetMultimap<String, String> dependents = HashMultimap.create();
+        Set<String> affected = new HashSet<>(changedObjects);
+        for (Model model : current.listModels()) {
+            if (model.getBaseObject() != null) {
+                dependents.put(model.getBaseObject(), model.getName());
+            }
+            for (Column column : model.getColumns()) {
+                if (column.getRelationship().isPresent()) {
+                    dependents.put(column.getType(), model.getName());
+                    if (changedRelationships.contains(column.getRelationship().get())) {
+                        affected.add(model.getName());
+                    }
+                }
+            }
+        }
+        current.listRelationships().stream()
+                .filter(relationship -> changedRelationships.contains(relationship.getName()))
+                .forEach(relationship -> affected.addAll(relationship.getModels()));
+        current.listMetrics().forEach(metric -> dependents.put(metric.getBaseObject(), metric.getName()));
+        current.listCumulativeMetrics().forEach(metric -> dependents.put(metric.getBaseObject(), metric.getName()));
+        for (View view : current.listViews()) {
+            getReferencedTables(view).forEach(table -> dependents.put(table, view.getName()));
+        }
+        // an object still depending on a removed one has to be analyzed again to fail as a full deployment does
+        affected.addAll(removedObjects);
+
+        Deque<String> queue = new ArrayDeque<>(affected);
+        while (!queue.isEmpty()) {
+            for (String dependent : dependents.get(queue.poll())) {
+                if (affected.add(dependent)) {
+                    queue.add(dependent);
+                }
+            }
+        }
+        return affected.stream()
+                .filter(current::isObjectExist)
+                .collect(toImmutableSet());
+    }
+
+    private static Set<String> getAllObjects(WrenMDL mdl)
+    {
+        ImmutableSet.Builder<String> builder = ImmutableSet.builder();
+        mdl.listModels().forEach(model -> builder.add(model.getName()));
+        mdl.listMetrics().forEach(metric -> builder.add(metric.getName()));
+        mdl.listCumulativeMetrics().forEach(metric -> builder.add(metric.getName()));
+        mdl.listViews().forEach(view -> builder.add(view.getName()));
+        return builder.build();
+    }
+
+    private static Set<String> getReferencedTables(View view)
+    {
+        Set<String> tables = new HashSet<>();
+        try {
+            new DefaultTraversalVisitor<Void>()
+            {
+                @Override
+                protected Void visitTable(Table node, Void context)
+                {
+                    tables.add(node.getName().getSuffix());
+                    return null;
+                }
+            }.process(parseSql(view.getStatement()), null);
+        }
+        catch (RuntimeException e) {
+            // an invalid view doesn't depend on anything, it's only described again if it changes itself
+            return Set.of();
+        }
+        return tables;
+    }
+}
@@ -55,6 +55,8 @@ public class WrenMDL
     private final String catalog;
     private final String schema;
     private final Manifest manifest;
+    // the manifest before rendering the macros, to find the objects unchanged in the next deployment
+    private final Manifest originalManifest;
     private final Map<String, Model> models;
     private final Map<String, Metric> metrics;
     private final Map<String, CumulativeMetric> cumulativeMetrics;
@@ -63,18 +65,28 @@ public class WrenMDL
     public static WrenMDL fromJson(String manifest)
             throws JsonProcessingException
     {
-        return new WrenMDL(MAPPER.readValue(manifest, Manifest.class));
+        return new WrenMDL(MAPPER.readValue(manifest, Manifest.class), Optional.empty());
     }
 
     public static WrenMDL fromManifest(Manifest manifest)
     {
-        return new WrenMDL(manifest);
+        return new WrenMDL(manifest, Optional.empty());
     }
 
-    private WrenMDL(Manifest manifest)
+    /**
+     * Build the MDL of the manifest, reusing the rendered models and metrics of the previous MDL
+     * whose definitions and macros didn't change.
+     */
+    public static WrenMDL fromManifest(Manifest manifest, WrenMDL previous)
+    {
+        return new WrenMDL(manifest, Optional.of(previous));
+    }
+
+    private WrenMDL(Manifest manifest, Optional<WrenMDL> previous)
     {
         requireNonNull(manifest, "manifest is null");
-        this.manifest = renderManifest(manifest);
+        this.originalManifest = manifest;
+        this.manifest = renderManifest(manifest, previous.filter(mdl -> mdl.originalManifest.getMacros().equals(manifest.getMacros())));
         this.catalog = manifest.getCatalog();
         this.schema = manifest.getSchema();
         this.models = listModels().stream().collect(toImmutableMap(Model::getName, identity()));
@@ -83,12 +95,22 @@ public class WrenMDL
         this.relationships = listRelationships().stream().collect(toImmutableMap(Relationship::getName, identity()));
     }
 
-    private Manifest renderManifest(Manifest original)
+    private Manifest renderManifest(Manifest original, Optional<WrenMDL> previous)
     {
         String macroTags = original.getMacros().stream()
                 .filter(macro -> macro.getParameters().stream().noneMatch(parameter -> parameter.getType() == MACRO))
                 .map(JinjavaUtils::getMacroTag).collect(joining("\n"));
-        List<Model> renderedModels = original.getModels().stream().map(model -> {
+        Map<String, Model> previousModels = previous.map(mdl -> mdl.originalManifest.getModels().stream()
+                        .collect(toImmutableMap(Model::getName, identity(), (first, second) -> second)))
+                .orElseGet(ImmutableMap::of);
+        Map<String, Metric> previousMetrics = previous.map(mdl -> mdl.originalManifest.getMetrics().stream()
+                        .collect(toImmutableMap(Metric::getName, identity(), (first, second) -> second)))
+                .orElseGet(ImmutableMap::of);
+        // rendering the macros through Jinjava is the most expensive part, so each object is rendered in parallel
+        List<Model> renderedModels = original.getModels().parallelStream().map(model -> {
+            if (model.equals(previousModels.get(model.getName()))) {
+                return previous.get().models.get(model.getName());
+            }
             List<io.wren.base.dto.Column> processed = model.getColumns().stream().map(column -> renderExpression(column, macroTags, original)).collect(toList());
             return new Model(
                     model.getName(),
@@ -102,16 +124,19 @@ public class WrenMDL
                     model.getProperties());
         }).collect(toList());
 
-        List<Metric> renderedMetrics = original.getMetrics().stream().map(metric ->
-                new Metric(metric.getName(),
-                        metric.getBaseObject(),
-                        metric.getDimension().stream().map(column -> renderExpression(column, macroTags, original)).collect(toList()),
-                        metric.getMeasure().stream().map(column -> renderExpression(column, macroTags, original)).collect(toList()),
-                        metric.getTimeGrain(),
-                        metric.isCached(),
-                        metric.getRefreshTime(),
-                        metric.getProperties())
-        ).collect(toList());
+        List<Metric> renderedMetrics = original.getMetrics().parallelStream().map(metric -> {
+            if (metric.equals(previousMetrics.get(metric.getName()))) {
+                return previous.get().metrics.get(metric.getName());
+            }
+            return new Metric(metric.getName(),
+                    metric.getBaseObject(),
+                    metric.getDimension().stream().map(column -> renderExpression(column, macroTags, original)).collect(toList()),
+                    metric.getMeasure().stream().map(column -> renderExpression(column, macroTags, original)).collect(toList()),
+                    metric.getTimeGrain(),
+                    metric.isCached(),
+                    metric.getRefreshTime(),
+                    metric.getProperties());
+        }).collect(toList());
 
         return Manifest.builder(original)
                 .setModels(renderedModels)
@@ -151,6 +176,14 @@ public class WrenMDL
         return manifest;
     }
 
+    /**
+     * @return the manifest as deployed, before the macros are rendered
+     */
+    public Manifest getOriginalManifest()
+    {
+        return originalManifest;
+    }
+
     public List<Model> listModels()
     {
         return manifest.getModels();
@@ -29,6 +29,7 @@
 package io.wren.base.client.duckdb;
 
 import io.airlift.configuration.Config;
+import io.airlift.configuration.ConfigDescription;
 import io.airlift.units.DataSize;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
@@ -40,18 +41,24 @@ public class DuckDBConfig
     public static final String DUCKDB_TEMP_DIRECTORY = "duckdb.temp-directory";
     public static final String DUCKDB_MAX_CONCURRENT_TASKS = "duckdb.max-concurrent-tasks";
     public static final String DUCKDB_MAX_CONCURRENT_METADATA_QUERIES = "duckdb.max-concurrent-metadata-queries";
+    public static final String DUCKDB_MAX_CONCURRENT_CACHE_QUERIES = "duckdb.max-concurrent-cache-queries";
     public static final String DUCKDB_MAX_CACHE_QUERY_TIMEOUT = "duckdb.max-cache-query-timeout";
 
     public static final String DUCKDB_MAX_CACHE_TABLE_SIZE_RATIO = "duckdb.max-cache-table-size-ratio";
     public static final String DUCKDB_CACHE_TASK_RETRY_DELAY = "duckdb.cache-task-retry-delay";
+    public static final String DUCKDB_CACHE_FETCH_SIZE = "duckdb.cache-fetch-size";
+    public static final String DUCKDB_CACHE_APPEND_BATCH_SIZE = "duckdb.cache-append-batch-size";
     private DataSize memoryLimit = DataSize.of(Runtime.getRuntime().maxMemory() / 2, DataSize.Unit.BYTE);
     private String homeDirectory;
     private String tempDirectory = "/tmp/duck";
     private int maxConcurrentTasks = 10;
     private int maxConcurrentMetadataQueries = 10;
+    private int maxConcurrentCacheQueries = 10;
     private double maxCacheTableSizeRatio = 0.5;
     private long maxCacheQueryTimeout = 20;
     private long cacheTaskRetryDelay = 60;
+    private int cacheFetchSize = 10_000;
+    private int cacheAppendBatchSize = 100_000;
 
     public DataSize getMemoryLimit()
     {
@@ -108,6 +115,19 @@ public class DuckDBConfig
         this.maxConcurrentMetadataQueries = maxConcurrentMetadataQueries;
     }
 
+    @Min(1)
+    public int getMaxConcurrentCacheQueries()
+    {
+        return maxConcurrentCacheQueries;
+    }
+
+    @Config(DUCKDB_MAX_CONCURRENT_CACHE_QUERIES)
+    @ConfigDescription("The number of queries answered by the cached tables that run at the same time, separately from the cache building tasks")
+    public void setMaxConcurrentCacheQueries(int maxConcurrentCacheQueries)
+    {
+        this.maxConcurrentCacheQueries = maxConcurrentCacheQueries;
+    }
+
     @Min(0)
     @Max(1)
     public double getMaxCacheTableSizeRatio()
@@ -142,4 +162,30 @@ public class DuckDBConfig
     {
         this.cacheTaskRetryDelay = cacheTaskRetryDelay;
     }
+
+    @Min(1)
+    public int getCacheFetchSize()
+    {
+        return cacheFetchSize;
+    }
+
+    @Config(DUCKDB_CACHE_FETCH_SIZE)
+    @ConfigDescription("The number of rows fetched from the data source at a time when a cache is streamed into DuckDB")
+    public void setCacheFetchSize(int cacheFetchSize)
+    {
+        this.cacheFetchSize = cacheFetchSize;
+    }
+
+    @Min(1)
+    public int getCacheAppendBatchSize()
+    {
+        return cacheAppendBatchSize;
+    }
+
+    @Config(DUCKDB_CACHE_APPEND_BATCH_SIZE)
+    @ConfigDescription("The number of rows appended to the DuckDB table before they are flushed and the progress of the cache task is updated")
+    public void setCacheAppendBatchSize(int cacheAppendBatchSize)
+    {
+        this.cacheAppendBatchSize = cacheAppendBatchSize;
+    }
 }
@@ -15,10 +15,13 @@
 package io.wren.base.client.duckdb;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
 import io.airlift.log.Logger;
 import io.airlift.units.DataSize;
+import io.airlift.units.Duration;
 import io.wren.base.Parameter;
 import io.wren.base.WrenException;
 import io.wren.base.client.AutoCloseableIterator;
@@ -41,28 +44,57 @@ import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Consumer;
 
 import static io.wren.base.client.duckdb.DuckdbTypes.toPGType;
 import static java.lang.String.format;
+import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.Executors.newCachedThreadPool;
+import static java.util.concurrent.TimeUnit.MINUTES;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
 
 public final class DuckdbClient
         implements Client
 {
     private static final Logger LOG = Logger.get(DuckdbClient.class);
+    // a query still running on a retired pool after the timeout is aborted
+    private static final Duration POOL_DRAIN_TIMEOUT = new Duration(10, MINUTES);
+    private static final long POOL_DRAIN_POLL_MILLIS = 100;
+    private static final ExecutorService POOL_DRAIN_EXECUTOR = newCachedThreadPool(new ThreadFactoryBuilder()
+            .setNameFormat("duckdb-pool-drain-%s")
+            .setDaemon(true)
+            .build());
+
     private final DuckDBConfig duckDBConfig;
     private final CacheStorageConfig cacheStorageConfig;
     private final DuckDBSettingSQL duckDBSettingSQL;
+    private final Consumer<Duration> poolDrainListener;
     private DuckDBConnection duckDBConnection;
-    private HikariDataSource connectionPool;
+    private volatile HikariDataSource connectionPool;
 
     public DuckdbClient(
             DuckDBConfig duckDBConfig,
             @Nullable CacheStorageConfig cacheStorageConfig,
             @Nullable DuckDBSettingSQL duckDBSettingSQL)
+    {
+        this(duckDBConfig, cacheStorageConfig, duckDBSettingSQL, drainTime -> {});
+    }
+
+    /**
+     * @param poolDrainListener called with the time taken to drain a retired connection pool before it's closed
+     */
+    public DuckdbClient(
+            DuckDBConfig duckDBConfig,
+            @Nullable CacheStorageConfig cacheStorageConfig,
+            @Nullable DuckDBSettingSQL duckDBSettingSQL,
+            Consumer<Duration> poolDrainListener)
     {
         this.duckDBConfig = duckDBConfig;
         this.cacheStorageConfig = cacheStorageConfig;
         this.duckDBSettingSQL = duckDBSettingSQL;
+        this.poolDrainListener = requireNonNull(poolDrainListener, "poolDrainListener is null");
         init();
     }
 
@@ -78,7 +110,7 @@ public final class DuckdbClient
             // close this connection
             Class.forName("org.duckdb.DuckDBDriver");
             duckDBConnection = (DuckDBConnection) DriverManager.getConnection("jdbc:duckdb:");
-            initPool();
+            connectionPool = createPool();
             if (duckDBSettingSQL != null) {
                 if (duckDBSettingSQL.getInitSQL() != null) {
                     executeDDL(duckDBSettingSQL.getInitSQL());
@@ -97,9 +129,19 @@ public final class DuckdbClient
         }
     }
 
-    public synchronized void initPool()
+    private HikariDataSource createPool()
     {
-        connectionPool = new HikariDataSource(getHikariConfig(duckDBConfig, cacheStorageConfig, duckDBConnection, duckDBSettingSQL));
+        HikariDataSource pool = new HikariDataSource(getHikariConfig(duckDBConfig, cacheStorageConfig, duckDBConnection, duckDBSettingSQL));
+        // make sure the session SQL works before any query is sent to the pool
+        try (Connection connection = pool.getConnection();
+                Statement statement = connection.createStatement()) {
+            statement.execute("SELECT 1");
+        }
+        catch (SQLException | RuntimeException e) {
+            pool.close();
+            throw new WrenException(StandardErrorCode.GENERIC_USER_ERROR, e);
+        }
+        return pool;
     }
 
     private static HikariConfig getHikariConfig(
@@ -114,8 +156,8 @@ public final class DuckdbClient
         config.setPoolName("DUCKDB_POOL");
         config.setConnectionTimeout(10000);
         config.setMinimumIdle(duckDBConfig.getMaxConcurrentTasks());
-        // remain some query slots for metadata queries
-        config.setMaximumPoolSize(duckDBConfig.getMaxConcurrentTasks() + duckDBConfig.getMaxConcurrentMetadataQueries());
+        // remain some query slots for the cache queries and metadata queries
+        config.setMaximumPoolSize(duckDBConfig.getMaxConcurrentTasks() + duckDBConfig.getMaxConcurrentCacheQueries() + duckDBConfig.getMaxConcurrentMetadataQueries());
         String initSql = buildConnectionInitSql(duckDBSettingSQL, cacheStorageConfig, duckDBConfig);
         config.setConnectionInitSql(initSql);
         return config;
@@ -256,10 +298,59 @@ public final class DuckdbClient
         }
     }
 
-    public synchronized void closeAndInitPool()
+    /**
+     * Close the client once the running queries return their connections. The client shouldn't be handed
+     * to new queries anymore, but a query that got it just before could still borrow a connection meanwhile.
+     */
+    public CompletableFuture<Void> closeGracefully()
+    {
+        return drainAndClose(connectionPool).thenRun(() -> {
+            try {
+                duckDBConnection.close();
+            }
+            catch (SQLException e) {
+                LOG.warn(e, "Failed to close the DuckDB connection");
+            }
+        });
+    }
+
+    /**
+     * Build a pool with the current session SQL and redirect the new connections to it. The previous pool is closed
+     * in the background once its connections are returned. If the new pool can't be built, the previous one is kept.
+     */
+    public synchronized CompletableFuture<Void> swapPool()
     {
-        connectionPool.close();
-        initPool();
+        HikariDataSource newPool = createPool();
+        HikariDataSource oldPool = connectionPool;
+        connectionPool = newPool;
+        return drainAndClose(oldPool);
+    }
+
+    private CompletableFuture<Void> drainAndClose(HikariDataSource pool)
+    {
+        long start = System.nanoTime();
+        return CompletableFuture.runAsync(() -> {
+            HikariPoolMXBean poolBean = pool.getHikariPoolMXBean();
+            // close the idle connections now, and the active ones as soon as they are returned
+            poolBean.softEvictConnections();
+            try {
+                do {
+                    Thread.sleep(POOL_DRAIN_POLL_MILLIS);
+                }
+                while (poolBean.getActiveConnections() > 0 && System.nanoTime() - start < POOL_DRAIN_TIMEOUT.roundTo(NANOSECONDS));
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            int activeConnections = poolBean.getActiveConnections();
+            if (activeConnections > 0) {
+                LOG.warn("Close the retired DuckDB pool with %s active connections after %s", activeConnections, POOL_DRAIN_TIMEOUT);
+            }
+            pool.close();
+            Duration drainTime = Duration.nanosSince(start);
+            LOG.info("Retired DuckDB pool closed after %s", drainTime);
+            poolDrainListener.accept(drainTime);
+        }, POOL_DRAIN_EXECUTOR);
     }
 
     public static class Builder
@@ -267,6 +358,7 @@ public final class DuckdbClient
         private DuckDBConfig duckDBConfig;
         private CacheStorageConfig cacheStorageConfig;
         private DuckDBSettingSQL duckDBSettingSQL;
+        private Consumer<Duration> poolDrainListener = drainTime -> {};
 
         public Builder setDuckDBConfig(DuckDBConfig duckDBConfig)
         {
@@ -286,9 +378,15 @@ public final class DuckdbClient
             return this;
         }
 
+        public Builder setPoolDrainListener(Consumer<Duration> poolDrainListener)
+        {
+            this.poolDrainListener = poolDrainListener;
+            return this;
+        }
+
         public DuckdbClient build()
         {
-            return new DuckdbClient(duckDBConfig, cacheStorageConfig, duckDBSettingSQL);
+            return new DuckdbClient(duckDBConfig, cacheStorageConfig, duckDBSettingSQL, poolDrainListener);
         }
 
         public Optional<DuckdbClient> buildSafely()
@@ -56,7 +56,7 @@ public class DuckdbS3StyleStorageConfig
     @ConfigSecuritySensitive
     public DuckdbS3StyleStorageConfig setAccessKey(String accessKey)
     {
-        this.accessKey = Optional.of(accessKey);
+        this.accessKey = Optional.ofNullable(accessKey);
         return this;
     }
 
@@ -70,7 +70,7 @@ public class DuckdbS3StyleStorageConfig
     @ConfigSecuritySensitive
     public DuckdbS3StyleStorageConfig setSecretKey(String secretKey)
     {
-        this.secretKey = Optional.of(secretKey);
+        this.secretKey = Optional.ofNullable(secretKey);
         return this;
     }
 
@@ -83,7 +83,7 @@ public class DuckdbS3StyleStorageConfig
     @ConfigDescription("The storage region")
     public DuckdbS3StyleStorageConfig setRegion(String region)
     {
-        this.region = Optional.of(region);
+        this.region = Optional.ofNullable(region);
         return this;
     }
 
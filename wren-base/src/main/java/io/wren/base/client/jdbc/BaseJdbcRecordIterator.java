@@ -49,11 +49,25 @@ public abstract class BaseJdbcRecordIterator<T>
 
     public BaseJdbcRecordIterator(Client client, String sql, List<Parameter> parameters)
             throws SQLException
+    {
+        this(client, sql, parameters, 0);
+    }
+
+    /**
+     * @param fetchSize the number of rows fetched from the database at a time, 0 leaves it to the driver
+     */
+    public BaseJdbcRecordIterator(Client client, String sql, List<Parameter> parameters, int fetchSize)
+            throws SQLException
     {
         requireNonNull(client, "client is null");
         connection = client.createConnection();
         try {
             statement = connection.prepareStatement(sql);
+            if (fetchSize > 0) {
+                // some drivers, e.g. PostgreSQL, fetch the rows by a cursor only outside the auto-commit mode
+                connection.setAutoCommit(false);
+                statement.setFetchSize(fetchSize);
+            }
             setParameter(parameters);
             resultSet = statement.executeQuery();
 
@@ -17,6 +17,8 @@ import io.airlift.configuration.Config;
 import io.airlift.configuration.ConfigDescription;
 import io.airlift.configuration.ConfigSecuritySensitive;
 import io.airlift.configuration.validation.FileExists;
+import io.airlift.units.DataSize;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
 
 import java.util.Optional;
@@ -29,6 +31,18 @@ public class BigQueryConfig
     public static final String BIGQUERY_LOCATION = "bigquery.location";
     public static final String BIGQUERY_BUCKET_NAME = "bigquery.bucket-name";
     public static final String BIGQUERY_METADATA_SCHEMA_PREFIX = "bigquery.metadata.schema.prefix";
+    public static final String BIGQUERY_CACHE_INGESTION = "bigquery.cache-ingestion";
+    public static final String BIGQUERY_STORAGE_READ_MAX_STREAMS = "bigquery.storage-read.max-streams";
+    public static final String BIGQUERY_STORAGE_READ_BUFFER_SIZE = "bigquery.storage-read.buffer-size";
+
+    public enum CacheIngestion
+    {
+        // export the cache to the bucket as parquet files, which are read by DuckDB
+        EXPORT,
+        // read the cache by the BigQuery Storage Read API and append it to DuckDB directly
+        STORAGE_READ,
+    }
+
     private Optional<String> credentialsKey = Optional.empty();
     private Optional<String> credentialsFile = Optional.empty();
     private Optional<String> projectId = Optional.empty();
@@ -37,6 +51,9 @@ public class BigQueryConfig
 
     private Optional<String> bucketName = Optional.empty();
     private String metadataSchemaPrefix = "";
+    private CacheIngestion cacheIngestion = CacheIngestion.EXPORT;
+    private int storageReadMaxStreams = 8;
+    private DataSize storageReadBufferSize = DataSize.of(256, DataSize.Unit.MEGABYTE);
 
     public Optional<String> getCredentialsKey()
     {
@@ -117,4 +134,46 @@ public class BigQueryConfig
         this.metadataSchemaPrefix = metadataSchemaPrefix;
         return this;
     }
+
+    @NotNull
+    public CacheIngestion getCacheIngestion()
+    {
+        return cacheIngestion;
+    }
+
+    @Config(BIGQUERY_CACHE_INGESTION)
+    @ConfigDescription("How the caches are loaded into DuckDB: EXPORT stages them in the bucket, STORAGE_READ streams them by the BigQuery Storage Read API")
+    public BigQueryConfig setCacheIngestion(CacheIngestion cacheIngestion)
+    {
+        this.cacheIngestion = cacheIngestion;
+        return this;
+    }
+
+    @Min(1)
+    public int getStorageReadMaxStreams()
+    {
+        return storageReadMaxStreams;
+    }
+
+    @Config(BIGQUERY_STORAGE_READ_MAX_STREAMS)
+    @ConfigDescription("The maximum number of streams read in parallel when a cache is read by the BigQuery Storage Read API")
+    public BigQueryConfig setStorageReadMaxStreams(int storageReadMaxStreams)
+    {
+        this.storageReadMaxStreams = storageReadMaxStreams;
+        return this;
+    }
+
+    @NotNull
+    public DataSize getStorageReadBufferSize()
+    {
+        return storageReadBufferSize;
+    }
+
+    @Config(BIGQUERY_STORAGE_READ_BUFFER_SIZE)
+    @ConfigDescription("The record batches read by the streams but not appended to DuckDB yet, the streams wait when the buffer is full")
+    public BigQueryConfig setStorageReadBufferSize(DataSize storageReadBufferSize)
+    {
+        this.storageReadBufferSize = storageReadBufferSize;
+        return this;
+    }
 }
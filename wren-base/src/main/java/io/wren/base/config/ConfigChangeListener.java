@@ -12,22 +12,14 @@
  * limitations under the License.
  */
 
-package io.wren.main.connector.postgres;
+package io.wren.base.config;
 
-import io.wren.cache.CacheService;
-import io.wren.cache.PathInfo;
-
-import java.util.Optional;
-
-public class PostgresCacheService
-        implements CacheService
+/**
+ * Notified by {@link ConfigManager} after a config update is published.
+ * The listeners are called one by one on the thread which updates the configs, so they should return quickly.
+ */
+@FunctionalInterface
+public interface ConfigChangeListener
 {
-    @Override
-    public Optional<PathInfo> createCache(String catalog, String schema, String name, String statement)
-    {
-        return Optional.empty();
-    }
-
-    @Override
-    public void deleteTarget(PathInfo pathInfo) {}
+    void configChanged(ConfigSnapshot previous, ConfigSnapshot current);
 }
@@ -16,9 +16,11 @@ package io.wren.base.config;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.google.common.collect.ImmutableMap;
 import com.google.inject.Inject;
 import io.airlift.log.Logger;
 import io.airlift.units.DataSize;
+import io.airlift.units.Duration;
 import io.wren.base.WrenException;
 import io.wren.base.client.duckdb.CacheStorageConfig;
 import io.wren.base.client.duckdb.DuckDBConfig;
@@ -41,12 +43,16 @@ import java.util.Objects;
 import java.util.Optional;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import static com.google.common.base.MoreObjects.toStringHelper;
 import static io.airlift.configuration.ConfigurationLoader.loadPropertiesFrom;
+import static io.wren.base.client.duckdb.DuckDBConfig.DUCKDB_CACHE_APPEND_BATCH_SIZE;
+import static io.wren.base.client.duckdb.DuckDBConfig.DUCKDB_CACHE_FETCH_SIZE;
 import static io.wren.base.client.duckdb.DuckDBConfig.DUCKDB_CACHE_TASK_RETRY_DELAY;
 import static io.wren.base.client.duckdb.DuckDBConfig.DUCKDB_HOME_DIRECTORY;
 import static io.wren.base.client.duckdb.DuckDBConfig.DUCKDB_MAX_CACHE_QUERY_TIMEOUT;
+import static io.wren.base.client.duckdb.DuckDBConfig.DUCKDB_MAX_CONCURRENT_CACHE_QUERIES;
 import static io.wren.base.client.duckdb.DuckDBConfig.DUCKDB_MAX_CONCURRENT_METADATA_QUERIES;
 import static io.wren.base.client.duckdb.DuckDBConfig.DUCKDB_MAX_CONCURRENT_TASKS;
 import static io.wren.base.client.duckdb.DuckDBConfig.DUCKDB_MEMORY_LIMIT;
@@ -69,8 +75,23 @@ import static io.wren.base.config.PostgresConfig.POSTGRES_JDBC_URL;
 import static io.wren.base.config.PostgresConfig.POSTGRES_PASSWORD;
 import static io.wren.base.config.PostgresConfig.POSTGRES_USER;
 import static io.wren.base.config.PostgresWireProtocolConfig.PG_WIRE_PROTOCOL_AUTH_FILE;
+import static io.wren.base.config.PostgresWireProtocolConfig.PG_WIRE_PROTOCOL_NETTY_ALLOCATOR_POOLED;
+import static io.wren.base.config.PostgresWireProtocolConfig.PG_WIRE_PROTOCOL_NETTY_ALLOCATOR_PREFER_DIRECT;
+import static io.wren.base.config.PostgresWireProtocolConfig.PG_WIRE_PROTOCOL_NETTY_RECEIVE_BUFFER_SIZE;
+import static io.wren.base.config.PostgresWireProtocolConfig.PG_WIRE_PROTOCOL_NETTY_SEND_BUFFER_SIZE;
+import static io.wren.base.config.PostgresWireProtocolConfig.PG_WIRE_PROTOCOL_NETTY_TCP_NO_DELAY;
 import static io.wren.base.config.PostgresWireProtocolConfig.PG_WIRE_PROTOCOL_NETTY_THREAD_COUNT;
+import static io.wren.base.config.PostgresWireProtocolConfig.PG_WIRE_PROTOCOL_NETTY_TRANSPORT;
+import static io.wren.base.config.PostgresWireProtocolConfig.PG_WIRE_PROTOCOL_NETTY_WRITE_BUFFER_HIGH_WATER_MARK;
+import static io.wren.base.config.PostgresWireProtocolConfig.PG_WIRE_PROTOCOL_NETTY_WRITE_BUFFER_LOW_WATER_MARK;
+import static io.wren.base.config.PostgresWireProtocolConfig.PG_WIRE_PROTOCOL_PLANNED_STATEMENT_CACHE_SIZE;
 import static io.wren.base.config.PostgresWireProtocolConfig.PG_WIRE_PROTOCOL_PORT;
+import static io.wren.base.config.PostgresWireProtocolConfig.PG_WIRE_PROTOCOL_QUERY_HISTORY_SIZE;
+import static io.wren.base.config.PostgresWireProtocolConfig.PG_WIRE_PROTOCOL_RESULT_CACHE_MAX_ENTRY_SIZE;
+import static io.wren.base.config.PostgresWireProtocolConfig.PG_WIRE_PROTOCOL_RESULT_CACHE_MAX_SIZE;
+import static io.wren.base.config.PostgresWireProtocolConfig.PG_WIRE_PROTOCOL_RESULT_CACHE_TTL;
+import static io.wren.base.config.PostgresWireProtocolConfig.PG_WIRE_PROTOCOL_SLOW_QUERY_LOG_FILE;
+import static io.wren.base.config.PostgresWireProtocolConfig.PG_WIRE_PROTOCOL_SLOW_QUERY_THRESHOLD;
 import static io.wren.base.config.PostgresWireProtocolConfig.PG_WIRE_PROTOCOL_SSL_ENABLED;
 import static io.wren.base.config.SnowflakeConfig.SNOWFLAKE_DATABASE;
 import static io.wren.base.config.SnowflakeConfig.SNOWFLAKE_JDBC_URL;
@@ -79,29 +100,24 @@ import static io.wren.base.config.SnowflakeConfig.SNOWFLAKE_ROLE;
 import static io.wren.base.config.SnowflakeConfig.SNOWFLAKE_SCHEMA;
 import static io.wren.base.config.SnowflakeConfig.SNOWFLAKE_USER;
 import static io.wren.base.config.SnowflakeConfig.SNOWFLAKE_WAREHOUSE;
+import static io.wren.base.metadata.StandardErrorCode.GENERIC_USER_ERROR;
 import static io.wren.base.metadata.StandardErrorCode.NOT_FOUND;
 import static java.lang.String.format;
+import static java.util.Objects.requireNonNull;
 import static java.util.stream.Collectors.toList;
 import static java.util.stream.Collectors.toMap;
 
 public class ConfigManager
 {
     private static final Logger LOG = Logger.get(ConfigManager.class);
-    private final Map<String, String> configs = new HashMap<>();
     private final String configFile = System.getProperty("config");
     private final Set<String> requiredReload = new HashSet<>();
     private final Set<String> staticConfigs = new HashSet<>();
-    private Optional<WrenConfig> wrenConfig;
-    private Optional<PostgresConfig> postgresConfig;
-    private Optional<BigQueryConfig> bigQueryConfig;
-    private Optional<DuckDBConfig> duckDBConfig;
-    private Optional<PostgresWireProtocolConfig> postgresWireProtocolConfig;
-    private Optional<DuckdbS3StyleStorageConfig> duckdbS3StyleStorageConfig;
-    private Optional<DuckDBConnectorConfig> duckDBConnectorConfig;
-    private Optional<SnowflakeConfig> snowflakeConfig;
-    private Optional<CouchbaseConfig> couchbaseConfig;
+    private final List<ConfigChangeListener> listeners = new CopyOnWriteArrayList<>();
+    // Written only in the synchronized setConfigs. The readers get a consistent version without locking.
+    private volatile ConfigSnapshot snapshot;
     // All configs set by user and config files. It's used to sync with config file.
-    private Properties setConfigs = new Properties();
+    private final Properties setConfigs = new Properties();
 
     @Inject
     public ConfigManager(
@@ -115,17 +131,9 @@ public class ConfigManager
             SnowflakeConfig snowflakeConfig,
             CouchbaseConfig couchbaseConfig)
     {
-        this.wrenConfig = Optional.of(wrenConfig);
-        this.postgresConfig = Optional.of(postgresConfig);
-        this.bigQueryConfig = Optional.of(bigQueryConfig);
-        this.duckDBConfig = Optional.of(duckDBConfig);
-        this.postgresWireProtocolConfig = Optional.of(postgresWireProtocolConfig);
-        this.duckdbS3StyleStorageConfig = Optional.of(duckdbS3StyleStorageConfig);
-        this.duckDBConnectorConfig = Optional.of(duckDBConnectorConfig);
-        this.snowflakeConfig = Optional.of(snowflakeConfig);
-        this.couchbaseConfig = Optional.of(couchbaseConfig);
-
+        Map<String, String> values = new HashMap<>();
         initConfig(
+                values,
                 wrenConfig,
                 postgresConfig,
                 bigQueryConfig,
@@ -136,6 +144,20 @@ public class ConfigManager
                 snowflakeConfig,
                 couchbaseConfig);
 
+        Map<Class<?>, Object> configs = new HashMap<>();
+        configs.put(WrenConfig.class, wrenConfig);
+        configs.put(PostgresConfig.class, postgresConfig);
+        configs.put(BigQueryConfig.class, bigQueryConfig);
+        configs.put(DuckDBConfig.class, duckDBConfig);
+        configs.put(PostgresWireProtocolConfig.class, postgresWireProtocolConfig);
+        configs.put(DuckDBConnectorConfig.class, duckDBConnectorConfig);
+        configs.put(SnowflakeConfig.class, snowflakeConfig);
+        configs.put(CouchbaseConfig.class, couchbaseConfig);
+        if (wrenConfig.getDataSourceType() == WrenConfig.DataSourceType.BIGQUERY) {
+            configs.put(CacheStorageConfig.class, duckdbS3StyleStorageConfig);
+        }
+        this.snapshot = new ConfigSnapshot(0, values, configs);
+
         try {
             setConfigs.putAll(loadPropertiesFrom(configFile));
         }
@@ -145,6 +167,7 @@ public class ConfigManager
     }
 
     private void initConfig(
+            Map<String, String> values,
             WrenConfig wrenConfig,
             PostgresConfig postgresConfig,
             BigQueryConfig bigQueryConfig,
@@ -155,55 +178,78 @@ public class ConfigManager
             SnowflakeConfig snowflakeConfig,
             CouchbaseConfig couchbaseConfig)
     {
-        initConfig(WrenConfig.WREN_DIRECTORY, wrenConfig.getWrenMDLDirectory().getPath(), false, true);
-        initConfig(WrenConfig.WREN_DATASOURCE_TYPE, Optional.ofNullable(wrenConfig.getDataSourceType()).map(Enum::name).orElse(null), true, false);
-        initConfig(WrenConfig.WREN_ENABLE_DYNAMIC_FIELDS, Boolean.toString(wrenConfig.getEnableDynamicFields()), false, false);
-        initConfig(DUCKDB_STORAGE_ENDPOINT, duckdbS3StyleStorageConfig.getEndpoint(), false, true);
-        initConfig(DUCKDB_STORAGE_ACCESS_KEY, duckdbS3StyleStorageConfig.getAccessKey().orElse(null), true, false);
-        initConfig(DUCKDB_STORAGE_SECRET_KEY, duckdbS3StyleStorageConfig.getSecretKey().orElse(null), true, false);
-        initConfig(DUCKDB_STORAGE_REGION, duckdbS3StyleStorageConfig.getRegion().orElse(null), true, false);
-        initConfig(DUCKDB_STORAGE_URL_STYLE, duckdbS3StyleStorageConfig.getUrlStyle(), false, false);
-        initConfig(DUCKDB_MEMORY_LIMIT, duckDBConfig.getMemoryLimit().toString(), true, false);
-        initConfig(DUCKDB_HOME_DIRECTORY, duckDBConfig.getHomeDirectory(), true, false);
-        initConfig(DUCKDB_TEMP_DIRECTORY, duckDBConfig.getTempDirectory(), true, false);
-        initConfig(DUCKDB_MAX_CONCURRENT_TASKS, Integer.toString(duckDBConfig.getMaxConcurrentTasks()), false, true);
+        initConfig(values, WrenConfig.WREN_DIRECTORY, wrenConfig.getWrenMDLDirectory().getPath(), false, true);
+        initConfig(values, WrenConfig.WREN_DATASOURCE_TYPE, Optional.ofNullable(wrenConfig.getDataSourceType()).map(Enum::name).orElse(null), true, false);
+        initConfig(values, WrenConfig.WREN_ENABLE_DYNAMIC_FIELDS, Boolean.toString(wrenConfig.getEnableDynamicFields()), false, false);
+        initConfig(values, WrenConfig.WREN_MAX_CONCURRENT_VIEW_DESCRIPTIONS, Integer.toString(wrenConfig.getMaxConcurrentViewDescriptions()), false, false);
+        initConfig(values, WrenConfig.WREN_QUERY_COALESCING_BUFFER_SIZE, wrenConfig.getQueryCoalescingBufferSize().toString(), false, false);
+        initConfig(values, DUCKDB_STORAGE_ENDPOINT, duckdbS3StyleStorageConfig.getEndpoint(), false, true);
+        initConfig(values, DUCKDB_STORAGE_ACCESS_KEY, duckdbS3StyleStorageConfig.getAccessKey().orElse(null), true, false);
+        initConfig(values, DUCKDB_STORAGE_SECRET_KEY, duckdbS3StyleStorageConfig.getSecretKey().orElse(null), true, false);
+        initConfig(values, DUCKDB_STORAGE_REGION, duckdbS3StyleStorageConfig.getRegion().orElse(null), true, false);
+        initConfig(values, DUCKDB_STORAGE_URL_STYLE, duckdbS3StyleStorageConfig.getUrlStyle(), false, false);
+        initConfig(values, DUCKDB_MEMORY_LIMIT, duckDBConfig.getMemoryLimit().toString(), true, false);
+        initConfig(values, DUCKDB_HOME_DIRECTORY, duckDBConfig.getHomeDirectory(), true, false);
+        initConfig(values, DUCKDB_TEMP_DIRECTORY, duckDBConfig.getTempDirectory(), true, false);
+        initConfig(values, DUCKDB_MAX_CONCURRENT_TASKS, Integer.toString(duckDBConfig.getMaxConcurrentTasks()), false, true);
         // TODO: should support reload this config
-        initConfig(DUCKDB_MAX_CONCURRENT_METADATA_QUERIES, Integer.toString(duckDBConfig.getMaxConcurrentMetadataQueries()), false, true);
-        initConfig(DUCKDB_MAX_CACHE_QUERY_TIMEOUT, Long.toString(duckDBConfig.getMaxCacheQueryTimeout()), false, true);
-        initConfig(DUCKDB_CACHE_TASK_RETRY_DELAY, Long.toString(duckDBConfig.getCacheTaskRetryDelay()), false, true);
-        initConfig(PG_WIRE_PROTOCOL_PORT, postgresWireProtocolConfig.getPort(), false, true);
-        initConfig(PG_WIRE_PROTOCOL_SSL_ENABLED, Boolean.toString(postgresWireProtocolConfig.isSslEnable()), false, true);
-        initConfig(PG_WIRE_PROTOCOL_NETTY_THREAD_COUNT, Integer.toString(postgresWireProtocolConfig.getNettyThreadCount()), false, true);
-        initConfig(PG_WIRE_PROTOCOL_AUTH_FILE, postgresWireProtocolConfig.getAuthFile().getPath(), false, true);
-        initConfig(BigQueryConfig.BIGQUERY_CRENDITALS_KEY, bigQueryConfig.getCredentialsKey().orElse(null), true, false);
-        initConfig(BigQueryConfig.BIGQUERY_CRENDITALS_FILE, bigQueryConfig.getCredentialsFile().orElse(null), true, false);
-        initConfig(BigQueryConfig.BIGQUERY_PROJECT_ID, bigQueryConfig.getProjectId().orElse(null), true, false);
-        initConfig(BigQueryConfig.BIGQUERY_LOCATION, bigQueryConfig.getLocation().orElse(null), true, false);
-        initConfig(BigQueryConfig.BIGQUERY_BUCKET_NAME, bigQueryConfig.getBucketName().orElse(null), true, false);
-        initConfig(BigQueryConfig.BIGQUERY_METADATA_SCHEMA_PREFIX, bigQueryConfig.getMetadataSchemaPrefix(), true, false);
-        initConfig(POSTGRES_JDBC_URL, postgresConfig.getJdbcUrl(), true, false);
-        initConfig(POSTGRES_USER, postgresConfig.getUser(), true, false);
-        initConfig(POSTGRES_PASSWORD, postgresConfig.getPassword(), true, false);
-        initConfig(DUCKDB_CONNECTOR_INIT_SQL_PATH, duckDBConnectorConfig.getInitSQLPath(), false, false);
-        initConfig(DUCKDB_CONNECTOR_SESSION_SQL_PATH, duckDBConnectorConfig.getSessionSQLPath(), false, false);
-        initConfig(SNOWFLAKE_JDBC_URL, snowflakeConfig.getJdbcUrl(), true, false);
-        initConfig(SNOWFLAKE_USER, snowflakeConfig.getUser(), true, false);
-        initConfig(SNOWFLAKE_PASSWORD, snowflakeConfig.getPassword(), true, false);
-        initConfig(SNOWFLAKE_DATABASE, snowflakeConfig.getDatabase().orElse(null), true, false);
-        initConfig(SNOWFLAKE_SCHEMA, snowflakeConfig.getSchema().orElse(null), true, false);
-        initConfig(SNOWFLAKE_WAREHOUSE, snowflakeConfig.getWarehouse().orElse(null), true, false);
-        initConfig(SNOWFLAKE_ROLE, snowflakeConfig.getRole().orElse(null), true, false);
-        initConfig(COUCHBASE_JDBC_URL, couchbaseConfig.getJdbcUrl(), true, false);
-        initConfig(COUCHBASE_SERVER, couchbaseConfig.getServer(), true, false);
-        initConfig(COUCHBASE_USER, couchbaseConfig.getUser(), true, false);
-        initConfig(COUCHBASE_PASSWORD, couchbaseConfig.getPassword(), true, false);
-        initConfig(COUCHBASE_N1QL_PORT, couchbaseConfig.getN1QLPort().orElse(""), true, false);
-        initConfig(COUCHBASE_USE_SSL, String.valueOf(couchbaseConfig.getUseSSL().orElse(true)), true, false);
+        initConfig(values, DUCKDB_MAX_CONCURRENT_METADATA_QUERIES, Integer.toString(duckDBConfig.getMaxConcurrentMetadataQueries()), false, true);
+        initConfig(values, DUCKDB_MAX_CONCURRENT_CACHE_QUERIES, Integer.toString(duckDBConfig.getMaxConcurrentCacheQueries()), false, true);
+        initConfig(values, DUCKDB_MAX_CACHE_QUERY_TIMEOUT, Long.toString(duckDBConfig.getMaxCacheQueryTimeout()), false, true);
+        initConfig(values, DUCKDB_CACHE_TASK_RETRY_DELAY, Long.toString(duckDBConfig.getCacheTaskRetryDelay()), false, true);
+        initConfig(values, DUCKDB_CACHE_FETCH_SIZE, Integer.toString(duckDBConfig.getCacheFetchSize()), false, false);
+        initConfig(values, DUCKDB_CACHE_APPEND_BATCH_SIZE, Integer.toString(duckDBConfig.getCacheAppendBatchSize()), false, false);
+        initConfig(values, PG_WIRE_PROTOCOL_PORT, postgresWireProtocolConfig.getPort(), false, true);
+        initConfig(values, PG_WIRE_PROTOCOL_SSL_ENABLED, Boolean.toString(postgresWireProtocolConfig.isSslEnable()), false, true);
+        initConfig(values, PG_WIRE_PROTOCOL_NETTY_THREAD_COUNT, Integer.toString(postgresWireProtocolConfig.getNettyThreadCount()), false, true);
+        initConfig(values, PG_WIRE_PROTOCOL_AUTH_FILE, postgresWireProtocolConfig.getAuthFile().getPath(), false, true);
+        initConfig(values, PG_WIRE_PROTOCOL_PLANNED_STATEMENT_CACHE_SIZE, Long.toString(postgresWireProtocolConfig.getPlannedStatementCacheSize()), false, true);
+        initConfig(values, PG_WIRE_PROTOCOL_NETTY_TRANSPORT, postgresWireProtocolConfig.getNettyTransport().name(), false, true);
+        initConfig(values, PG_WIRE_PROTOCOL_NETTY_TCP_NO_DELAY, Boolean.toString(postgresWireProtocolConfig.isTcpNoDelay()), false, true);
+        initConfig(values, PG_WIRE_PROTOCOL_NETTY_SEND_BUFFER_SIZE, postgresWireProtocolConfig.getSendBufferSize().toString(), false, true);
+        initConfig(values, PG_WIRE_PROTOCOL_NETTY_RECEIVE_BUFFER_SIZE, postgresWireProtocolConfig.getReceiveBufferSize().toString(), false, true);
+        initConfig(values, PG_WIRE_PROTOCOL_NETTY_WRITE_BUFFER_LOW_WATER_MARK, postgresWireProtocolConfig.getWriteBufferLowWaterMark().toString(), false, true);
+        initConfig(values, PG_WIRE_PROTOCOL_NETTY_WRITE_BUFFER_HIGH_WATER_MARK, postgresWireProtocolConfig.getWriteBufferHighWaterMark().toString(), false, true);
+        initConfig(values, PG_WIRE_PROTOCOL_NETTY_ALLOCATOR_POOLED, Boolean.toString(postgresWireProtocolConfig.isAllocatorPooled()), false, true);
+        initConfig(values, PG_WIRE_PROTOCOL_NETTY_ALLOCATOR_PREFER_DIRECT, Boolean.toString(postgresWireProtocolConfig.isAllocatorPreferDirect()), false, true);
+        initConfig(values, PG_WIRE_PROTOCOL_QUERY_HISTORY_SIZE, Integer.toString(postgresWireProtocolConfig.getQueryHistorySize()), false, true);
+        initConfig(values, PG_WIRE_PROTOCOL_SLOW_QUERY_THRESHOLD, postgresWireProtocolConfig.getSlowQueryThreshold().toString(), false, true);
+        initConfig(values, PG_WIRE_PROTOCOL_SLOW_QUERY_LOG_FILE, postgresWireProtocolConfig.getSlowQueryLogFile().getPath(), false, true);
+        initConfig(values, PG_WIRE_PROTOCOL_RESULT_CACHE_MAX_SIZE, postgresWireProtocolConfig.getResultCacheMaxSize().toString(), false, true);
+        initConfig(values, PG_WIRE_PROTOCOL_RESULT_CACHE_MAX_ENTRY_SIZE, postgresWireProtocolConfig.getResultCacheMaxEntrySize().toString(), false, true);
+        initConfig(values, PG_WIRE_PROTOCOL_RESULT_CACHE_TTL, postgresWireProtocolConfig.getResultCacheTtl().toString(), false, true);
+        initConfig(values, BigQueryConfig.BIGQUERY_CRENDITALS_KEY, bigQueryConfig.getCredentialsKey().orElse(null), true, false);
+        initConfig(values, BigQueryConfig.BIGQUERY_CRENDITALS_FILE, bigQueryConfig.getCredentialsFile().orElse(null), true, false);
+        initConfig(values, BigQueryConfig.BIGQUERY_PROJECT_ID, bigQueryConfig.getProjectId().orElse(null), true, false);
+        initConfig(values, BigQueryConfig.BIGQUERY_LOCATION, bigQueryConfig.getLocation().orElse(null), true, false);
+        initConfig(values, BigQueryConfig.BIGQUERY_BUCKET_NAME, bigQueryConfig.getBucketName().orElse(null), true, false);
+        initConfig(values, BigQueryConfig.BIGQUERY_METADATA_SCHEMA_PREFIX, bigQueryConfig.getMetadataSchemaPrefix(), true, false);
+        initConfig(values, BigQueryConfig.BIGQUERY_CACHE_INGESTION, bigQueryConfig.getCacheIngestion().name(), false, false);
+        initConfig(values, BigQueryConfig.BIGQUERY_STORAGE_READ_MAX_STREAMS, Integer.toString(bigQueryConfig.getStorageReadMaxStreams()), false, false);
+        initConfig(values, BigQueryConfig.BIGQUERY_STORAGE_READ_BUFFER_SIZE, bigQueryConfig.getStorageReadBufferSize().toString(), false, false);
+        initConfig(values, POSTGRES_JDBC_URL, postgresConfig.getJdbcUrl(), true, false);
+        initConfig(values, POSTGRES_USER, postgresConfig.getUser(), true, false);
+        initConfig(values, POSTGRES_PASSWORD, postgresConfig.getPassword(), true, false);
+        initConfig(values, DUCKDB_CONNECTOR_INIT_SQL_PATH, duckDBConnectorConfig.getInitSQLPath(), false, false);
+        initConfig(values, DUCKDB_CONNECTOR_SESSION_SQL_PATH, duckDBConnectorConfig.getSessionSQLPath(), false, false);
+        initConfig(values, SNOWFLAKE_JDBC_URL, snowflakeConfig.getJdbcUrl(), true, false);
+        initConfig(values, SNOWFLAKE_USER, snowflakeConfig.getUser(), true, false);
+        initConfig(values, SNOWFLAKE_PASSWORD, snowflakeConfig.getPassword(), true, false);
+        initConfig(values, SNOWFLAKE_DATABASE, snowflakeConfig.getDatabase().orElse(null), true, false);
+        initConfig(values, SNOWFLAKE_SCHEMA, snowflakeConfig.getSchema().orElse(null), true, false);
+        initConfig(values, SNOWFLAKE_WAREHOUSE, snowflakeConfig.getWarehouse().orElse(null), true, false);
+        initConfig(values, SNOWFLAKE_ROLE, snowflakeConfig.getRole().orElse(null), true, false);
+        initConfig(values, COUCHBASE_JDBC_URL, couchbaseConfig.getJdbcUrl(), true, false);
+        initConfig(values, COUCHBASE_SERVER, couchbaseConfig.getServer(), true, false);
+        initConfig(values, COUCHBASE_USER, couchbaseConfig.getUser(), true, false);
+        initConfig(values, COUCHBASE_PASSWORD, couchbaseConfig.getPassword(), true, false);
+        initConfig(values, COUCHBASE_N1QL_PORT, couchbaseConfig.getN1QLPort().orElse(""), true, false);
+        initConfig(values, COUCHBASE_USE_SSL, String.valueOf(couchbaseConfig.getUseSSL().orElse(true)), true, false);
     }
 
-    private void initConfig(String key, String value, boolean requiredReload, boolean isStatic)
+    private void initConfig(Map<String, String> values, String key, String value, boolean requiredReload, boolean isStatic)
     {
-        configs.put(key, value);
+        values.put(key, value);
 
         if (requiredReload) {
             this.requiredReload.add(key);
@@ -214,193 +260,196 @@ public class ConfigManager
         }
     }
 
+    /**
+     * @return the configs of the latest version. Read the snapshot once to get several configs of the same version.
+     */
+    public ConfigSnapshot getSnapshot()
+    {
+        return snapshot;
+    }
+
     public <T> T getConfig(Class<T> config)
     {
-        if (config == WrenConfig.class) {
-            return (T) wrenConfig.orElseGet(() -> {
-                WrenConfig result = getWrenConfig();
-                wrenConfig = Optional.of(result);
-                return result;
-            });
-        }
-        if (config == BigQueryConfig.class) {
-            return (T) bigQueryConfig.orElseGet(() -> {
-                BigQueryConfig result = getBigQueryConfig();
-                bigQueryConfig = Optional.of(result);
-                return result;
-            });
-        }
-        if (config == PostgresConfig.class) {
-            return (T) postgresConfig.orElseGet(() -> {
-                PostgresConfig result = getPostgresConfig();
-                postgresConfig = Optional.of(result);
-                return result;
-            });
-        }
-        if (config == DuckDBConfig.class) {
-            return (T) duckDBConfig.orElseGet(() -> {
-                DuckDBConfig result = getDuckDBConfig();
-                duckDBConfig = Optional.of(result);
-                return result;
-            });
-        }
-        if (config == PostgresWireProtocolConfig.class) {
-            return (T) postgresWireProtocolConfig.orElseGet(() -> {
-                PostgresWireProtocolConfig result = getPostgresWireProtocolConfig();
-                postgresWireProtocolConfig = Optional.of(result);
-                return result;
-            });
-        }
-        if (config == CacheStorageConfig.class &&
-                wrenConfig.map(WrenConfig::getDataSourceType).stream().anyMatch(type -> type == WrenConfig.DataSourceType.BIGQUERY)) {
-            return (T) duckdbS3StyleStorageConfig.orElseGet(() -> {
-                DuckdbS3StyleStorageConfig result = getDuckdbS3StyleStorageConfig();
-                duckdbS3StyleStorageConfig = Optional.of(result);
-                return result;
-            });
-        }
-        if (config == DuckDBConnectorConfig.class) {
-            return (T) duckDBConnectorConfig.orElseGet(() -> {
-                DuckDBConnectorConfig result = getDuckDBConnectorConfig();
-                duckDBConnectorConfig = Optional.of(result);
-                return result;
-            });
-        }
-        if (config == SnowflakeConfig.class) {
-            return (T) snowflakeConfig.orElseGet(() -> {
-                SnowflakeConfig result = getSnowflakeConfig();
-                snowflakeConfig = Optional.of(result);
-                return result;
-            });
+        return snapshot.getConfig(config);
+    }
+
+    /**
+     * Register a listener notified after each accepted config update, including the reset to the default configs.
+     */
+    public void addListener(ConfigChangeListener listener)
+    {
+        listeners.add(requireNonNull(listener, "listener is null"));
+    }
+
+    private static Map<Class<?>, Object> parseConfigs(Map<String, String> values)
+    {
+        try {
+            ImmutableMap.Builder<Class<?>, Object> configs = ImmutableMap.builder();
+            WrenConfig wrenConfig = getWrenConfig(values);
+            configs.put(WrenConfig.class, wrenConfig);
+            configs.put(PostgresConfig.class, getPostgresConfig(values));
+            configs.put(BigQueryConfig.class, getBigQueryConfig(values));
+            configs.put(DuckDBConfig.class, getDuckDBConfig(values));
+            configs.put(PostgresWireProtocolConfig.class, getPostgresWireProtocolConfig(values));
+            configs.put(DuckDBConnectorConfig.class, getDuckDBConnectorConfig(values));
+            configs.put(SnowflakeConfig.class, getSnowflakeConfig(values));
+            configs.put(CouchbaseConfig.class, getCouchbaseConfig(values));
+            if (wrenConfig.getDataSourceType() == WrenConfig.DataSourceType.BIGQUERY) {
+                configs.put(CacheStorageConfig.class, getDuckdbS3StyleStorageConfig(values));
+            }
+            return configs.buildOrThrow();
         }
-        if (config == CouchbaseConfig.class) {
-            return (T) couchbaseConfig.orElseGet(() -> {
-                CouchbaseConfig result = getCouchbaseConfig();
-                couchbaseConfig = Optional.of(result);
-                return result;
-            });
+        catch (RuntimeException e) {
+            throw new WrenException(GENERIC_USER_ERROR, "Invalid config: " + e.getMessage(), e);
         }
-        throw new RuntimeException("Unknown config class: " + config.getName());
     }
 
-    private WrenConfig getWrenConfig()
+    private static WrenConfig getWrenConfig(Map<String, String> values)
     {
         WrenConfig result = new WrenConfig();
-        Optional.ofNullable(configs.get(WrenConfig.WREN_DIRECTORY))
+        Optional.ofNullable(values.get(WrenConfig.WREN_DIRECTORY))
                 .ifPresent(directory -> result.setWrenMDLDirectory(new File(directory)));
-        result.setDataSourceType(WrenConfig.DataSourceType.valueOf(configs.get(WrenConfig.WREN_DATASOURCE_TYPE).toUpperCase(Locale.ROOT)));
-        result.setEnableDynamicFields(Boolean.parseBoolean(configs.get(WrenConfig.WREN_ENABLE_DYNAMIC_FIELDS)));
+        result.setDataSourceType(WrenConfig.DataSourceType.valueOf(values.get(WrenConfig.WREN_DATASOURCE_TYPE).toUpperCase(Locale.ROOT)));
+        result.setEnableDynamicFields(Boolean.parseBoolean(values.get(WrenConfig.WREN_ENABLE_DYNAMIC_FIELDS)));
+        result.setMaxConcurrentViewDescriptions(Integer.parseInt(values.get(WrenConfig.WREN_MAX_CONCURRENT_VIEW_DESCRIPTIONS)));
+        result.setQueryCoalescingBufferSize(DataSize.valueOf(values.get(WrenConfig.WREN_QUERY_COALESCING_BUFFER_SIZE)));
         return result;
     }
 
-    private BigQueryConfig getBigQueryConfig()
+    private static BigQueryConfig getBigQueryConfig(Map<String, String> values)
     {
         BigQueryConfig result = new BigQueryConfig();
-        result.setCredentialsKey(configs.get(BigQueryConfig.BIGQUERY_CRENDITALS_KEY));
-        result.setCredentialsFile(configs.get(BigQueryConfig.BIGQUERY_CRENDITALS_FILE));
-        result.setProjectId(configs.get(BigQueryConfig.BIGQUERY_PROJECT_ID));
-        result.setLocation(configs.get(BigQueryConfig.BIGQUERY_LOCATION));
-        result.setBucketName(configs.get(BigQueryConfig.BIGQUERY_BUCKET_NAME));
-        result.setMetadataSchemaPrefix(configs.get(BigQueryConfig.BIGQUERY_METADATA_SCHEMA_PREFIX));
+        result.setCredentialsKey(values.get(BigQueryConfig.BIGQUERY_CRENDITALS_KEY));
+        result.setCredentialsFile(values.get(BigQueryConfig.BIGQUERY_CRENDITALS_FILE));
+        result.setProjectId(values.get(BigQueryConfig.BIGQUERY_PROJECT_ID));
+        result.setLocation(values.get(BigQueryConfig.BIGQUERY_LOCATION));
+        result.setBucketName(values.get(BigQueryConfig.BIGQUERY_BUCKET_NAME));
+        result.setMetadataSchemaPrefix(values.get(BigQueryConfig.BIGQUERY_METADATA_SCHEMA_PREFIX));
+        result.setCacheIngestion(BigQueryConfig.CacheIngestion.valueOf(values.get(BigQueryConfig.BIGQUERY_CACHE_INGESTION).toUpperCase(Locale.ROOT)));
+        result.setStorageReadMaxStreams(Integer.parseInt(values.get(BigQueryConfig.BIGQUERY_STORAGE_READ_MAX_STREAMS)));
+        result.setStorageReadBufferSize(DataSize.valueOf(values.get(BigQueryConfig.BIGQUERY_STORAGE_READ_BUFFER_SIZE)));
         return result;
     }
 
-    private PostgresConfig getPostgresConfig()
+    private static PostgresConfig getPostgresConfig(Map<String, String> values)
     {
         PostgresConfig result = new PostgresConfig();
-        result.setJdbcUrl(configs.get(POSTGRES_JDBC_URL));
-        result.setUser(configs.get(POSTGRES_USER));
-        result.setPassword(configs.get(POSTGRES_PASSWORD));
+        result.setJdbcUrl(values.get(POSTGRES_JDBC_URL));
+        result.setUser(values.get(POSTGRES_USER));
+        result.setPassword(values.get(POSTGRES_PASSWORD));
         return result;
     }
 
-    private DuckDBConfig getDuckDBConfig()
+    private static DuckDBConfig getDuckDBConfig(Map<String, String> values)
     {
         DuckDBConfig result = new DuckDBConfig();
-        result.setMemoryLimit(DataSize.valueOf(configs.get(DUCKDB_MEMORY_LIMIT)));
-        result.setHomeDirectory(configs.get(DUCKDB_HOME_DIRECTORY));
-        result.setTempDirectory(configs.get(DUCKDB_TEMP_DIRECTORY));
-        result.setMaxConcurrentTasks(Integer.parseInt(configs.get(DUCKDB_MAX_CONCURRENT_TASKS)));
-        result.setMaxConcurrentMetadataQueries(Integer.parseInt(configs.get(DUCKDB_MAX_CONCURRENT_METADATA_QUERIES)));
-        result.setMaxCacheQueryTimeout(Integer.parseInt(configs.get(DUCKDB_MAX_CACHE_QUERY_TIMEOUT)));
-        result.setCacheTaskRetryDelay(Integer.parseInt(configs.get(DUCKDB_CACHE_TASK_RETRY_DELAY)));
+        result.setMemoryLimit(DataSize.valueOf(values.get(DUCKDB_MEMORY_LIMIT)));
+        result.setHomeDirectory(values.get(DUCKDB_HOME_DIRECTORY));
+        result.setTempDirectory(values.get(DUCKDB_TEMP_DIRECTORY));
+        result.setMaxConcurrentTasks(Integer.parseInt(values.get(DUCKDB_MAX_CONCURRENT_TASKS)));
+        result.setMaxConcurrentMetadataQueries(Integer.parseInt(values.get(DUCKDB_MAX_CONCURRENT_METADATA_QUERIES)));
+        result.setMaxConcurrentCacheQueries(Integer.parseInt(values.get(DUCKDB_MAX_CONCURRENT_CACHE_QUERIES)));
+        result.setMaxCacheQueryTimeout(Integer.parseInt(values.get(DUCKDB_MAX_CACHE_QUERY_TIMEOUT)));
+        result.setCacheTaskRetryDelay(Integer.parseInt(values.get(DUCKDB_CACHE_TASK_RETRY_DELAY)));
+        result.setCacheFetchSize(Integer.parseInt(values.get(DUCKDB_CACHE_FETCH_SIZE)));
+        result.setCacheAppendBatchSize(Integer.parseInt(values.get(DUCKDB_CACHE_APPEND_BATCH_SIZE)));
         return result;
     }
 
-    private PostgresWireProtocolConfig getPostgresWireProtocolConfig()
+    private static PostgresWireProtocolConfig getPostgresWireProtocolConfig(Map<String, String> values)
     {
         PostgresWireProtocolConfig result = new PostgresWireProtocolConfig();
-        result.setPort(configs.get(PG_WIRE_PROTOCOL_PORT));
-        result.setSslEnable(Boolean.parseBoolean(configs.get(PG_WIRE_PROTOCOL_SSL_ENABLED)));
-        result.setNettyThreadCount(Integer.parseInt(configs.get(PG_WIRE_PROTOCOL_NETTY_THREAD_COUNT)));
-        result.setAuthFile(new File(configs.get(PG_WIRE_PROTOCOL_AUTH_FILE)));
+        result.setPort(values.get(PG_WIRE_PROTOCOL_PORT));
+        result.setSslEnable(Boolean.parseBoolean(values.get(PG_WIRE_PROTOCOL_SSL_ENABLED)));
+        result.setNettyThreadCount(Integer.parseInt(values.get(PG_WIRE_PROTOCOL_NETTY_THREAD_COUNT)));
+        result.setAuthFile(new File(values.get(PG_WIRE_PROTOCOL_AUTH_FILE)));
+        result.setPlannedStatementCacheSize(Long.parseLong(values.get(PG_WIRE_PROTOCOL_PLANNED_STATEMENT_CACHE_SIZE)));
+        result.setNettyTransport(PostgresWireProtocolConfig.NettyTransport.valueOf(values.get(PG_WIRE_PROTOCOL_NETTY_TRANSPORT).toUpperCase(Locale.ROOT)));
+        result.setTcpNoDelay(Boolean.parseBoolean(values.get(PG_WIRE_PROTOCOL_NETTY_TCP_NO_DELAY)));
+        result.setSendBufferSize(DataSize.valueOf(values.get(PG_WIRE_PROTOCOL_NETTY_SEND_BUFFER_SIZE)));
+        result.setReceiveBufferSize(DataSize.valueOf(values.get(PG_WIRE_PROTOCOL_NETTY_RECEIVE_BUFFER_SIZE)));
+        result.setWriteBufferLowWaterMark(DataSize.valueOf(values.get(PG_WIRE_PROTOCOL_NETTY_WRITE_BUFFER_LOW_WATER_MARK)));
+        result.setWriteBufferHighWaterMark(DataSize.valueOf(values.get(PG_WIRE_PROTOCOL_NETTY_WRITE_BUFFER_HIGH_WATER_MARK)));
+        result.setAllocatorPooled(Boolean.parseBoolean(values.get(PG_WIRE_PROTOCOL_NETTY_ALLOCATOR_POOLED)));
+        result.setAllocatorPreferDirect(Boolean.parseBoolean(values.get(PG_WIRE_PROTOCOL_NETTY_ALLOCATOR_PREFER_DIRECT)));
+        result.setQueryHistorySize(Integer.parseInt(values.get(PG_WIRE_PROTOCOL_QUERY_HISTORY_SIZE)));
+        result.setSlowQueryThreshold(Duration.valueOf(values.get(PG_WIRE_PROTOCOL_SLOW_QUERY_THRESHOLD)));
+        result.setSlowQueryLogFile(new File(values.get(PG_WIRE_PROTOCOL_SLOW_QUERY_LOG_FILE)));
+        result.setResultCacheMaxSize(DataSize.valueOf(values.get(PG_WIRE_PROTOCOL_RESULT_CACHE_MAX_SIZE)));
+        result.setResultCacheMaxEntrySize(DataSize.valueOf(values.get(PG_WIRE_PROTOCOL_RESULT_CACHE_MAX_ENTRY_SIZE)));
+        result.setResultCacheTtl(Duration.valueOf(values.get(PG_WIRE_PROTOCOL_RESULT_CACHE_TTL)));
         return result;
     }
 
-    private DuckdbS3StyleStorageConfig getDuckdbS3StyleStorageConfig()
+    private static DuckdbS3StyleStorageConfig getDuckdbS3StyleStorageConfig(Map<String, String> values)
     {
         DuckdbS3StyleStorageConfig result = new DuckdbS3StyleStorageConfig();
-        result.setEndpoint(configs.get(DUCKDB_STORAGE_ENDPOINT));
-        result.setAccessKey(configs.get(DUCKDB_STORAGE_ACCESS_KEY));
-        result.setSecretKey(configs.get(DUCKDB_STORAGE_SECRET_KEY));
-        result.setRegion(configs.get(DUCKDB_STORAGE_REGION));
-        result.setUrlStyle(configs.get(DUCKDB_STORAGE_URL_STYLE));
+        result.setEndpoint(values.get(DUCKDB_STORAGE_ENDPOINT));
+        result.setAccessKey(values.get(DUCKDB_STORAGE_ACCESS_KEY));
+        result.setSecretKey(values.get(DUCKDB_STORAGE_SECRET_KEY));
+        result.setRegion(values.get(DUCKDB_STORAGE_REGION));
+        result.setUrlStyle(values.get(DUCKDB_STORAGE_URL_STYLE));
         return result;
     }
 
-    private DuckDBConnectorConfig getDuckDBConnectorConfig()
+    private static DuckDBConnectorConfig getDuckDBConnectorConfig(Map<String, String> values)
     {
         DuckDBConnectorConfig result = new DuckDBConnectorConfig();
-        result.setInitSQLPath(configs.get(DUCKDB_CONNECTOR_INIT_SQL_PATH));
-        result.setSessionSQLPath(configs.get(DUCKDB_CONNECTOR_SESSION_SQL_PATH));
+        result.setInitSQLPath(values.get(DUCKDB_CONNECTOR_INIT_SQL_PATH));
+        result.setSessionSQLPath(values.get(DUCKDB_CONNECTOR_SESSION_SQL_PATH));
         return result;
     }
 
-    private SnowflakeConfig getSnowflakeConfig()
+    private static SnowflakeConfig getSnowflakeConfig(Map<String, String> values)
     {
         SnowflakeConfig config = new SnowflakeConfig();
-        config.setJdbcUrl(configs.get(SNOWFLAKE_JDBC_URL));
-        config.setUser(configs.get(SNOWFLAKE_USER));
-        config.setPassword(configs.get(SNOWFLAKE_PASSWORD));
-        config.setDatabase(configs.get(SNOWFLAKE_DATABASE));
-        config.setSchema(configs.get(SNOWFLAKE_SCHEMA));
-        config.setWarehouse(configs.get(SNOWFLAKE_WAREHOUSE));
-        config.setRole(configs.get(SNOWFLAKE_ROLE));
+        config.setJdbcUrl(values.get(SNOWFLAKE_JDBC_URL));
+        config.setUser(values.get(SNOWFLAKE_USER));
+        config.setPassword(values.get(SNOWFLAKE_PASSWORD));
+        config.setDatabase(values.get(SNOWFLAKE_DATABASE));
+        config.setSchema(values.get(SNOWFLAKE_SCHEMA));
+        config.setWarehouse(values.get(SNOWFLAKE_WAREHOUSE));
+        config.setRole(values.get(SNOWFLAKE_ROLE));
         return config;
     }
 
-    private CouchbaseConfig getCouchbaseConfig()
+    private static CouchbaseConfig getCouchbaseConfig(Map<String, String> values)
     {
         CouchbaseConfig config = new CouchbaseConfig();
-        config.setJdbcUrl(configs.get(COUCHBASE_JDBC_URL));
-        config.setUser(configs.get(COUCHBASE_USER));
-        config.setPassword(configs.get(COUCHBASE_PASSWORD));
-        config.setServer(configs.get(COUCHBASE_SERVER));
-        config.setN1QLPort(configs.get(COUCHBASE_N1QL_PORT));
-        config.setUseSSL(Boolean.parseBoolean(configs.get(COUCHBASE_USE_SSL)));
+        config.setJdbcUrl(values.get(COUCHBASE_JDBC_URL));
+        config.setUser(values.get(COUCHBASE_USER));
+        config.setPassword(values.get(COUCHBASE_PASSWORD));
+        config.setServer(values.get(COUCHBASE_SERVER));
+        config.setN1QLPort(values.get(COUCHBASE_N1QL_PORT));
+        config.setUseSSL(Boolean.parseBoolean(values.get(COUCHBASE_USE_SSL)));
         return config;
     }
 
     public synchronized boolean setConfigs(List<ConfigEntry> configEntries, boolean reset)
     {
-        if (reset) {
-            reset();
-        }
+        ConfigSnapshot previous = snapshot;
+        Map<String, String> values = reset ? defaultValues() : new HashMap<>(previous.getValues());
 
         Map<String, String> update = configEntries.stream()
                 .map(entry -> Map.entry(entry.getName(), entry.getValue()))
                 .collect(toMap(Map.Entry::getKey, entry -> entry.getValue().trim()));
-        update.forEach(this::setConfigInternal);
         boolean needReload = false;
         for (ConfigEntry configEntry : configEntries) {
-            needReload |= setConfigInternal(configEntry.getName(), configEntry.getValue());
+            needReload |= setConfigInternal(values, configEntry.getName(), configEntry.getValue());
+        }
+        // parse all configs before publishing, so an invalid value is rejected without changing anything
+        ConfigSnapshot current = new ConfigSnapshot(previous.getVersion() + 1, values, parseConfigs(values));
+        snapshot = current;
+
+        if (reset) {
+            setConfigs.clear();
         }
-        resetCache();
         syncFile(update);
+        notifyListeners(previous, current);
         return needReload;
     }
 
-    private boolean setConfigInternal(String key, String value)
+    private boolean setConfigInternal(Map<String, String> values, String key, String value)
     {
         // ignore all static config changes
         if (staticConfigs.contains(key)) {
@@ -408,8 +457,8 @@ public class ConfigManager
         }
 
         // Only allow set the config that already exists.
-        if (configs.containsKey(key)) {
-            configs.put(key, value);
+        if (values.containsKey(key)) {
+            values.put(key, value);
         }
         else {
             throw new WrenException(NOT_FOUND, "Config not found: " + key);
@@ -418,22 +467,11 @@ public class ConfigManager
         return requiredReload.contains(key);
     }
 
-    private void resetCache()
+    private Map<String, String> defaultValues()
     {
-        wrenConfig = Optional.empty();
-        postgresConfig = Optional.empty();
-        bigQueryConfig = Optional.empty();
-        duckDBConfig = Optional.empty();
-        postgresWireProtocolConfig = Optional.empty();
-        duckdbS3StyleStorageConfig = Optional.empty();
-        duckDBConnectorConfig = Optional.empty();
-    }
-
-    private void reset()
-    {
-        configs.clear();
-        setConfigs.clear();
+        Map<String, String> values = new HashMap<>();
         initConfig(
+                values,
                 new WrenConfig(),
                 new PostgresConfig(),
                 new BigQueryConfig(),
@@ -443,6 +481,19 @@ public class ConfigManager
                 new DuckDBConnectorConfig(),
                 new SnowflakeConfig(),
                 new CouchbaseConfig());
+        return values;
+    }
+
+    private void notifyListeners(ConfigSnapshot previous, ConfigSnapshot current)
+    {
+        for (ConfigChangeListener listener : listeners) {
+            try {
+                listener.configChanged(previous, current);
+            }
+            catch (RuntimeException e) {
+                LOG.error(e, "Config listener %s failed at version %s", listener, current.getVersion());
+            }
+        }
     }
 
     private void syncFile(Map<String, String> updated)
@@ -476,13 +527,14 @@ public class ConfigManager
 
     public List<ConfigEntry> getConfigs()
     {
-        return configs.entrySet().stream().map(entry -> new ConfigEntry(entry.getKey(), entry.getValue())).collect(toList());
+        return snapshot.getValues().entrySet().stream().map(entry -> new ConfigEntry(entry.getKey(), entry.getValue())).collect(toList());
     }
 
     public ConfigEntry getConfig(String key)
     {
-        if (configs.containsKey(key)) {
-            return new ConfigEntry(key, configs.get(key));
+        Map<String, String> values = snapshot.getValues();
+        if (values.containsKey(key)) {
+            return new ConfigEntry(key, values.get(key));
         }
         throw new WrenException(NOT_FOUND, "Config not found: " + key);
     }
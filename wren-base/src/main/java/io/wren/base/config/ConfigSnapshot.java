@@ -0,0 +1,92 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.wren.base.config;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * An immutable view of all the configs at one version. {@link ConfigManager} publishes a new snapshot
+ * for each accepted update, so a reader holding a snapshot sees the raw values and the typed configs of
+ * the same version, no matter how many updates happen meanwhile.
+ */
+public final class ConfigSnapshot
+{
+    private final long version;
+    // the values of the unset configs are null, so it can't be an ImmutableMap
+    private final Map<String, String> values;
+    private final Map<Class<?>, Object> configs;
+
+    ConfigSnapshot(long version, Map<String, String> values, Map<Class<?>, Object> configs)
+    {
+        this.version = version;
+        this.values = Collections.unmodifiableMap(new HashMap<>(requireNonNull(values, "values is null")));
+        this.configs = ImmutableMap.copyOf(requireNonNull(configs, "configs is null"));
+    }
+
+    public long getVersion()
+    {
+        return version;
+    }
+
+    public Map<String, String> getValues()
+    {
+        return values;
+    }
+
+    public <T> T getConfig(Class<T> configClass)
+    {
+        Object config = configs.get(configClass);
+        if (config == null) {
+            throw new RuntimeException("Unknown config class: " + configClass.getName());
+        }
+        return configClass.cast(config);
+    }
+
+    /**
+     * @return the keys whose value differs from the one in {@code previous}
+     */
+    public Set<String> changedKeys(ConfigSnapshot previous)
+    {
+        ImmutableSet.Builder<String> changed = ImmutableSet.builder();
+        values.forEach((key, value) -> {
+            if (!previous.values.containsKey(key) || !Objects.equals(value, previous.values.get(key))) {
+                changed.add(key);
+            }
+        });
+        previous.values.keySet().stream()
+                .filter(key -> !values.containsKey(key))
+                .forEach(changed::add);
+        return changed.build();
+    }
+
+    @Override
+    public String toString()
+    {
+        return toStringHelper(this)
+                .add("version", version)
+                .add("configs", configs.keySet())
+                .toString();
+    }
+}
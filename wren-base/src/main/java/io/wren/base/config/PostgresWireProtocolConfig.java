@@ -14,10 +14,17 @@
 package io.wren.base.config;
 
 import io.airlift.configuration.Config;
+import io.airlift.configuration.ConfigDescription;
+import io.airlift.units.DataSize;
+import io.airlift.units.Duration;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
 
 import java.io.File;
 
+import static java.util.concurrent.TimeUnit.SECONDS;
+
 public class PostgresWireProtocolConfig
 {
     public static final String PG_WIRE_PROTOCOL_ENABLED = "pg-wire-protocol.enabled";
@@ -25,12 +32,52 @@ public class PostgresWireProtocolConfig
     public static final String PG_WIRE_PROTOCOL_NETTY_THREAD_COUNT = "pg-wire-protocol.netty.thread.count";
     public static final String PG_WIRE_PROTOCOL_AUTH_FILE = "pg-wire-protocol.auth.file";
     public static final String PG_WIRE_PROTOCOL_PORT = "pg-wire-protocol.port";
+    public static final String PG_WIRE_PROTOCOL_PLANNED_STATEMENT_CACHE_SIZE = "pg-wire-protocol.planned-statement-cache.size";
+    public static final String PG_WIRE_PROTOCOL_NETTY_TRANSPORT = "pg-wire-protocol.netty.transport";
+    public static final String PG_WIRE_PROTOCOL_NETTY_TCP_NO_DELAY = "pg-wire-protocol.netty.tcp-no-delay";
+    public static final String PG_WIRE_PROTOCOL_NETTY_SEND_BUFFER_SIZE = "pg-wire-protocol.netty.send-buffer-size";
+    public static final String PG_WIRE_PROTOCOL_NETTY_RECEIVE_BUFFER_SIZE = "pg-wire-protocol.netty.receive-buffer-size";
+    public static final String PG_WIRE_PROTOCOL_NETTY_WRITE_BUFFER_LOW_WATER_MARK = "pg-wire-protocol.netty.write-buffer-low-water-mark";
+    public static final String PG_WIRE_PROTOCOL_NETTY_WRITE_BUFFER_HIGH_WATER_MARK = "pg-wire-protocol.netty.write-buffer-high-water-mark";
+    public static final String PG_WIRE_PROTOCOL_NETTY_ALLOCATOR_POOLED = "pg-wire-protocol.netty.allocator.pooled";
+    public static final String PG_WIRE_PROTOCOL_NETTY_ALLOCATOR_PREFER_DIRECT = "pg-wire-protocol.netty.allocator.prefer-direct";
+    public static final String PG_WIRE_PROTOCOL_QUERY_HISTORY_SIZE = "pg-wire-protocol.query-history.size";
+    public static final String PG_WIRE_PROTOCOL_SLOW_QUERY_THRESHOLD = "pg-wire-protocol.slow-query.threshold";
+    public static final String PG_WIRE_PROTOCOL_SLOW_QUERY_LOG_FILE = "pg-wire-protocol.slow-query.log-file";
+    public static final String PG_WIRE_PROTOCOL_RESULT_CACHE_MAX_SIZE = "pg-wire-protocol.result-cache.max-size";
+    public static final String PG_WIRE_PROTOCOL_RESULT_CACHE_MAX_ENTRY_SIZE = "pg-wire-protocol.result-cache.max-entry-size";
+    public static final String PG_WIRE_PROTOCOL_RESULT_CACHE_TTL = "pg-wire-protocol.result-cache.ttl";
+
+    public enum NettyTransport
+    {
+        /**
+         * Use epoll if the native library is available, otherwise NIO
+         */
+        AUTO,
+        NIO,
+        EPOLL,
+    }
 
     private String port = "7432";
     private boolean sslEnable;
     private int nettyThreadCount;
     private File authFile = new File("etc/accounts");
     private boolean pgWireProtocolEnabled;
+    private long plannedStatementCacheSize = 10_000;
+    private NettyTransport nettyTransport = NettyTransport.AUTO;
+    private boolean tcpNoDelay = true;
+    private DataSize sendBufferSize = DataSize.of(0, DataSize.Unit.BYTE);
+    private DataSize receiveBufferSize = DataSize.of(0, DataSize.Unit.BYTE);
+    private DataSize writeBufferLowWaterMark = DataSize.of(32, DataSize.Unit.KILOBYTE);
+    private DataSize writeBufferHighWaterMark = DataSize.of(64, DataSize.Unit.KILOBYTE);
+    private boolean allocatorPooled = true;
+    private boolean allocatorPreferDirect = true;
+    private int queryHistorySize = 1000;
+    private Duration slowQueryThreshold = new Duration(0, SECONDS);
+    private File slowQueryLogFile = new File("var/log/slow-query.log");
+    private DataSize resultCacheMaxSize = DataSize.of(0, DataSize.Unit.BYTE);
+    private DataSize resultCacheMaxEntrySize = DataSize.of(8, DataSize.Unit.MEGABYTE);
+    private Duration resultCacheTtl = new Duration(60, SECONDS);
 
     @NotNull
     public String getPort()
@@ -93,4 +140,212 @@ public class PostgresWireProtocolConfig
     {
         return pgWireProtocolEnabled;
     }
+
+    @Min(0)
+    public long getPlannedStatementCacheSize()
+    {
+        return plannedStatementCacheSize;
+    }
+
+    @Config(PG_WIRE_PROTOCOL_PLANNED_STATEMENT_CACHE_SIZE)
+    @ConfigDescription("Max number of planned statements shared by all the sessions. 0 disables the sharing")
+    public PostgresWireProtocolConfig setPlannedStatementCacheSize(long plannedStatementCacheSize)
+    {
+        this.plannedStatementCacheSize = plannedStatementCacheSize;
+        return this;
+    }
+
+    @NotNull
+    public NettyTransport getNettyTransport()
+    {
+        return nettyTransport;
+    }
+
+    @Config(PG_WIRE_PROTOCOL_NETTY_TRANSPORT)
+    @ConfigDescription("Netty transport: AUTO uses epoll when the native library is available on Linux, otherwise NIO")
+    public PostgresWireProtocolConfig setNettyTransport(NettyTransport nettyTransport)
+    {
+        this.nettyTransport = nettyTransport;
+        return this;
+    }
+
+    public boolean isTcpNoDelay()
+    {
+        return tcpNoDelay;
+    }
+
+    @Config(PG_WIRE_PROTOCOL_NETTY_TCP_NO_DELAY)
+    public PostgresWireProtocolConfig setTcpNoDelay(boolean tcpNoDelay)
+    {
+        this.tcpNoDelay = tcpNoDelay;
+        return this;
+    }
+
+    @NotNull
+    public DataSize getSendBufferSize()
+    {
+        return sendBufferSize;
+    }
+
+    @Config(PG_WIRE_PROTOCOL_NETTY_SEND_BUFFER_SIZE)
+    @ConfigDescription("SO_SNDBUF of the client connections. 0 keeps the OS default")
+    public PostgresWireProtocolConfig setSendBufferSize(DataSize sendBufferSize)
+    {
+        this.sendBufferSize = sendBufferSize;
+        return this;
+    }
+
+    @NotNull
+    public DataSize getReceiveBufferSize()
+    {
+        return receiveBufferSize;
+    }
+
+    @Config(PG_WIRE_PROTOCOL_NETTY_RECEIVE_BUFFER_SIZE)
+    @ConfigDescription("SO_RCVBUF of the client connections. 0 keeps the OS default")
+    public PostgresWireProtocolConfig setReceiveBufferSize(DataSize receiveBufferSize)
+    {
+        this.receiveBufferSize = receiveBufferSize;
+        return this;
+    }
+
+    @NotNull
+    public DataSize getWriteBufferLowWaterMark()
+    {
+        return writeBufferLowWaterMark;
+    }
+
+    @Config(PG_WIRE_PROTOCOL_NETTY_WRITE_BUFFER_LOW_WATER_MARK)
+    public PostgresWireProtocolConfig setWriteBufferLowWaterMark(DataSize writeBufferLowWaterMark)
+    {
+        this.writeBufferLowWaterMark = writeBufferLowWaterMark;
+        return this;
+    }
+
+    @NotNull
+    public DataSize getWriteBufferHighWaterMark()
+    {
+        return writeBufferHighWaterMark;
+    }
+
+    @Config(PG_WIRE_PROTOCOL_NETTY_WRITE_BUFFER_HIGH_WATER_MARK)
+    public PostgresWireProtocolConfig setWriteBufferHighWaterMark(DataSize writeBufferHighWaterMark)
+    {
+        this.writeBufferHighWaterMark = writeBufferHighWaterMark;
+        return this;
+    }
+
+    @AssertTrue(message = PG_WIRE_PROTOCOL_NETTY_WRITE_BUFFER_HIGH_WATER_MARK + " must not be less than " + PG_WIRE_PROTOCOL_NETTY_WRITE_BUFFER_LOW_WATER_MARK)
+    public boolean isWriteBufferWaterMarkValid()
+    {
+        return writeBufferHighWaterMark.toBytes() >= writeBufferLowWaterMark.toBytes();
+    }
+
+    public boolean isAllocatorPooled()
+    {
+        return allocatorPooled;
+    }
+
+    @Config(PG_WIRE_PROTOCOL_NETTY_ALLOCATOR_POOLED)
+    @ConfigDescription("Use PooledByteBufAllocator for the client connections, otherwise UnpooledByteBufAllocator")
+    public PostgresWireProtocolConfig setAllocatorPooled(boolean allocatorPooled)
+    {
+        this.allocatorPooled = allocatorPooled;
+        return this;
+    }
+
+    public boolean isAllocatorPreferDirect()
+    {
+        return allocatorPreferDirect;
+    }
+
+    @Config(PG_WIRE_PROTOCOL_NETTY_ALLOCATOR_PREFER_DIRECT)
+    public PostgresWireProtocolConfig setAllocatorPreferDirect(boolean allocatorPreferDirect)
+    {
+        this.allocatorPreferDirect = allocatorPreferDirect;
+        return this;
+    }
+
+    @Min(0)
+    public int getQueryHistorySize()
+    {
+        return queryHistorySize;
+    }
+
+    @Config(PG_WIRE_PROTOCOL_QUERY_HISTORY_SIZE)
+    @ConfigDescription("Number of the recent queries kept in memory for /v1/queries. 0 disables the history")
+    public PostgresWireProtocolConfig setQueryHistorySize(int queryHistorySize)
+    {
+        this.queryHistorySize = queryHistorySize;
+        return this;
+    }
+
+    @NotNull
+    public Duration getSlowQueryThreshold()
+    {
+        return slowQueryThreshold;
+    }
+
+    @Config(PG_WIRE_PROTOCOL_SLOW_QUERY_THRESHOLD)
+    @ConfigDescription("Queries taking longer than the threshold are appended to the slow query log file. 0 disables the log")
+    public PostgresWireProtocolConfig setSlowQueryThreshold(Duration slowQueryThreshold)
+    {
+        this.slowQueryThreshold = slowQueryThreshold;
+        return this;
+    }
+
+    @NotNull
+    public File getSlowQueryLogFile()
+    {
+        return slowQueryLogFile;
+    }
+
+    @Config(PG_WIRE_PROTOCOL_SLOW_QUERY_LOG_FILE)
+    public PostgresWireProtocolConfig setSlowQueryLogFile(File slowQueryLogFile)
+    {
+        this.slowQueryLogFile = slowQueryLogFile;
+        return this;
+    }
+
+    @NotNull
+    public DataSize getResultCacheMaxSize()
+    {
+        return resultCacheMaxSize;
+    }
+
+    @Config(PG_WIRE_PROTOCOL_RESULT_CACHE_MAX_SIZE)
+    @ConfigDescription("Off-heap memory for the query results shared by all the sessions. 0 disables the result cache")
+    public PostgresWireProtocolConfig setResultCacheMaxSize(DataSize resultCacheMaxSize)
+    {
+        this.resultCacheMaxSize = resultCacheMaxSize;
+        return this;
+    }
+
+    @NotNull
+    public DataSize getResultCacheMaxEntrySize()
+    {
+        return resultCacheMaxEntrySize;
+    }
+
+    @Config(PG_WIRE_PROTOCOL_RESULT_CACHE_MAX_ENTRY_SIZE)
+    @ConfigDescription("Results larger than this are sent without being cached")
+    public PostgresWireProtocolConfig setResultCacheMaxEntrySize(DataSize resultCacheMaxEntrySize)
+    {
+        this.resultCacheMaxEntrySize = resultCacheMaxEntrySize;
+        return this;
+    }
+
+    @NotNull
+    public Duration getResultCacheTtl()
+    {
+        return resultCacheTtl;
+    }
+
+    @Config(PG_WIRE_PROTOCOL_RESULT_CACHE_TTL)
+    @ConfigDescription("Max time a cached result is reused. The refresh time of the models a query reads shortens it")
+    public PostgresWireProtocolConfig setResultCacheTtl(Duration resultCacheTtl)
+    {
+        this.resultCacheTtl = resultCacheTtl;
+        return this;
+    }
 }
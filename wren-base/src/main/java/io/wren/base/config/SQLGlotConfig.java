@@ -15,20 +15,33 @@
 package io.wren.base.config;
 
 import io.airlift.configuration.Config;
+import io.airlift.configuration.ConfigDescription;
+import io.airlift.units.DataSize;
+import io.airlift.units.Duration;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
 
 import java.io.IOException;
 import java.net.ServerSocket;
 import java.util.Optional;
 
+import static io.airlift.units.DataSize.Unit.MEGABYTE;
 import static java.lang.System.getenv;
+import static java.util.concurrent.TimeUnit.SECONDS;
 
 public class SQLGlotConfig
 {
     public static final String SQLGLOT_PORT = "sqlglot.port";
+    public static final String SQLGLOT_TRANSPILE_CACHE_MAX_SIZE = "sqlglot.transpile-cache.max-size";
+    public static final String SQLGLOT_CIRCUIT_BREAKER_FAILURE_THRESHOLD = "sqlglot.circuit-breaker.failure-threshold";
+    public static final String SQLGLOT_CIRCUIT_BREAKER_OPEN_DURATION = "sqlglot.circuit-breaker.open-duration";
 
     private int port = Optional.ofNullable(getenv("SQLGLOT_PORT"))
             .map(Integer::parseInt)
             .orElse(8000);
+    private DataSize transpileCacheMaxSize = DataSize.of(32, MEGABYTE);
+    private int circuitBreakerFailureThreshold = 5;
+    private Duration circuitBreakerOpenDuration = new Duration(10, SECONDS);
 
     public int getPort()
     {
@@ -41,6 +54,45 @@ public class SQLGlotConfig
         this.port = port;
     }
 
+    @NotNull
+    public DataSize getTranspileCacheMaxSize()
+    {
+        return transpileCacheMaxSize;
+    }
+
+    @Config(SQLGLOT_TRANSPILE_CACHE_MAX_SIZE)
+    @ConfigDescription("Max size of the transpiled statements kept by the SQLGlot client. 0 disables the cache")
+    public void setTranspileCacheMaxSize(DataSize transpileCacheMaxSize)
+    {
+        this.transpileCacheMaxSize = transpileCacheMaxSize;
+    }
+
+    @Min(1)
+    public int getCircuitBreakerFailureThreshold()
+    {
+        return circuitBreakerFailureThreshold;
+    }
+
+    @Config(SQLGLOT_CIRCUIT_BREAKER_FAILURE_THRESHOLD)
+    @ConfigDescription("Consecutive failures to reach the SQLGlot server before the requests fail fast")
+    public void setCircuitBreakerFailureThreshold(int circuitBreakerFailureThreshold)
+    {
+        this.circuitBreakerFailureThreshold = circuitBreakerFailureThreshold;
+    }
+
+    @NotNull
+    public Duration getCircuitBreakerOpenDuration()
+    {
+        return circuitBreakerOpenDuration;
+    }
+
+    @Config(SQLGLOT_CIRCUIT_BREAKER_OPEN_DURATION)
+    @ConfigDescription("How long the requests fail fast before one is sent to check if the SQLGlot server is back")
+    public void setCircuitBreakerOpenDuration(Duration circuitBreakerOpenDuration)
+    {
+        this.circuitBreakerOpenDuration = circuitBreakerOpenDuration;
+    }
+
     public static SQLGlotConfig createConfigWithFreePort()
     {
         SQLGlotConfig config = new SQLGlotConfig();
@@ -15,6 +15,9 @@
 package io.wren.base.config;
 
 import io.airlift.configuration.Config;
+import io.airlift.configuration.ConfigDescription;
+import io.airlift.units.DataSize;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
 
 import java.io.File;
@@ -24,6 +27,8 @@ public class WrenConfig
     public static final String WREN_DIRECTORY = "wren.directory";
     public static final String WREN_DATASOURCE_TYPE = "wren.datasource.type";
     public static final String WREN_ENABLE_DYNAMIC_FIELDS = "wren.experimental-enable-dynamic-fields";
+    public static final String WREN_MAX_CONCURRENT_VIEW_DESCRIPTIONS = "wren.max-concurrent-view-descriptions";
+    public static final String WREN_QUERY_COALESCING_BUFFER_SIZE = "wren.query-coalescing.buffer-size";
 
     public enum DataSourceType
     {
@@ -37,6 +42,8 @@ public class WrenConfig
     private File wrenMDLDirectory = new File("etc/mdl");
     private DataSourceType dataSourceType = DataSourceType.DUCKDB;
     private boolean enableDynamicFields;
+    private int maxConcurrentViewDescriptions = 8;
+    private DataSize queryCoalescingBufferSize = DataSize.of(16, DataSize.Unit.MEGABYTE);
 
     @NotNull
     public File getWrenMDLDirectory()
@@ -74,4 +81,32 @@ public class WrenConfig
         this.enableDynamicFields = enableDynamicFields;
         return this;
     }
+
+    @Min(1)
+    public int getMaxConcurrentViewDescriptions()
+    {
+        return maxConcurrentViewDescriptions;
+    }
+
+    @Config(WREN_MAX_CONCURRENT_VIEW_DESCRIPTIONS)
+    @ConfigDescription("The number of views described with the data source at the same time when the MDL is deployed")
+    public WrenConfig setMaxConcurrentViewDescriptions(int maxConcurrentViewDescriptions)
+    {
+        this.maxConcurrentViewDescriptions = maxConcurrentViewDescriptions;
+        return this;
+    }
+
+    @NotNull
+    public DataSize getQueryCoalescingBufferSize()
+    {
+        return queryCoalescingBufferSize;
+    }
+
+    @Config(WREN_QUERY_COALESCING_BUFFER_SIZE)
+    @ConfigDescription("The rows of a data source query kept to be replayed to the identical queries joining it, 0B disables the coalescing")
+    public WrenConfig setQueryCoalescingBufferSize(DataSize queryCoalescingBufferSize)
+    {
+        this.queryCoalescingBufferSize = queryCoalescingBufferSize;
+        return this;
+    }
 }
@@ -14,9 +14,44 @@
 
 package io.wren.base.sql;
 
+import io.trino.sql.tree.Statement;
 import io.wren.base.SessionContext;
 
+import java.util.List;
+import java.util.Optional;
+
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static io.trino.sql.SqlFormatter.formatSql;
+
 public interface SqlConverter
 {
     String convert(String sql, SessionContext sessionContext);
+
+    /**
+     * Convert a statement the planner has parsed already. The converters which rewrite the AST
+     * should override it to skip parsing the formatted statement again.
+     */
+    default String convert(Statement statement, SessionContext sessionContext)
+    {
+        return convert(formatSql(statement), sessionContext);
+    }
+
+    /**
+     * Convert many statements at once, in one round trip for the converters which call a remote service.
+     * A statement which fails to convert doesn't fail the others, its result is empty.
+     * Convert it with {@link #convert(String, SessionContext)} to get the failure.
+     */
+    default List<Optional<String>> convertAll(List<String> sqls, SessionContext sessionContext)
+    {
+        return sqls.stream()
+                .map(sql -> {
+                    try {
+                        return Optional.of(convert(sql, sessionContext));
+                    }
+                    catch (RuntimeException e) {
+                        return Optional.<String>empty();
+                    }
+                })
+                .collect(toImmutableList());
+    }
 }
@@ -0,0 +1,241 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.wren.base.sqlrewrite;
+
+import com.google.common.collect.ImmutableList;
+import io.trino.sql.tree.Cast;
+import io.trino.sql.tree.CoalesceExpression;
+import io.trino.sql.tree.DereferenceExpression;
+import io.trino.sql.tree.Expression;
+import io.trino.sql.tree.ExpressionRewriter;
+import io.trino.sql.tree.ExpressionTreeRewriter;
+import io.trino.sql.tree.FunctionCall;
+import io.trino.sql.tree.GroupBy;
+import io.trino.sql.tree.Identifier;
+import io.trino.sql.tree.LongLiteral;
+import io.trino.sql.tree.QualifiedName;
+import io.trino.sql.tree.Query;
+import io.trino.sql.tree.SelectItem;
+import io.trino.sql.tree.SimpleGroupBy;
+import io.trino.sql.tree.SingleColumn;
+import io.trino.sql.tree.StringLiteral;
+import io.wren.base.CatalogSchemaTableName;
+import io.wren.base.WrenMDL;
+import io.wren.base.dto.Column;
+import io.wren.base.dto.Metric;
+import io.wren.base.dto.TimeUnit;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+import static io.trino.sql.QueryUtil.selectList;
+import static io.trino.sql.QueryUtil.simpleQuery;
+import static io.trino.sql.QueryUtil.table;
+import static io.wren.base.dto.TimeUnit.MONTH;
+import static io.wren.base.dto.TimeUnit.QUARTER;
+import static io.wren.base.dto.TimeUnit.WEEK;
+import static io.wren.base.dto.TimeUnit.YEAR;
+import static io.wren.base.sqlrewrite.Utils.parseExpression;
+import static io.wren.base.sqlrewrite.Utils.parseType;
+import static java.util.Locale.ENGLISH;
+
+/**
+ * Aggregate navigation: answer a metric from the cached table of another metric on the same base object
+ * by aggregating the cached rows again.
+ * <p>
+ * Every dimension of the requested metric must be a dimension of the cached metric, or a {@code date_trunc}
+ * of a dimension at the same or a finer time unit. Every measure must be a sum, count, min or max
+ * that the cached metric also has, since the other aggregations can't be computed from the partial results.
+ * A measure is cast back to its declared type, since the sum of the partial results may be wider, e.g. HUGEINT in DuckDB.
+ */
+final class AggregateNavigation
+{
+    private static final Map<String, String> REAGGREGATIONS = Map.of(
+            "sum", "sum",
+            "count", "sum",
+            "min", "min",
+            "max", "max");
+    private static final Set<TimeUnit> WEEK_UNALIGNED = Set.of(YEAR, QUARTER, MONTH);
+
+    private AggregateNavigation() {}
+
+    /**
+     * @param converter the name of the cached table of a metric if it's ready
+     * @return the query which rolls up the smallest suitable cached metric table into the requested metric
+     */
+    static Optional<Query> rollUp(Metric metric, WrenMDL mdl, Function<CatalogSchemaTableName, Optional<String>> converter)
+    {
+        return mdl.listMetrics().stream()
+                .filter(candidate -> candidate.isCached() && !candidate.getName().equals(metric.getName()))
+                .filter(candidate -> candidate.getBaseObject().equals(metric.getBaseObject()))
+                .sorted(Comparator.comparingInt(candidate -> candidate.getDimension().size()))
+                .map(candidate -> rollUp(metric, candidate)
+                        .flatMap(selectItems -> converter.apply(new CatalogSchemaTableName(mdl.getCatalog(), mdl.getSchema(), candidate.getName()))
+                                .map(cachedTable -> toQuery(selectItems, metric.getDimension().size(), cachedTable))))
+                .flatMap(Optional::stream)
+                .findFirst();
+    }
+
+    private static Optional<List<SelectItem>> rollUp(Metric metric, Metric cached)
+    {
+        ImmutableList.Builder<SelectItem> selectItems = ImmutableList.builder();
+        for (Column dimension : metric.getDimension()) {
+            Optional<Expression> expression = rollUpDimension(normalize(dimension, metric), cached);
+            if (expression.isEmpty()) {
+                return Optional.empty();
+            }
+            selectItems.add(new SingleColumn(expression.get(), new Identifier(dimension.getName(), true)));
+        }
+        for (Column measure : metric.getMeasure()) {
+            Optional<Expression> expression = rollUpMeasure(normalize(measure, metric), cached);
+            if (expression.isEmpty()) {
+                return Optional.empty();
+            }
+            selectItems.add(new SingleColumn(new Cast(expression.get(), parseType(measure.getType())), new Identifier(measure.getName(), true)));
+        }
+        return Optional.of(selectItems.build());
+    }
+
+    private static Optional<Expression> rollUpDimension(Expression dimension, Metric cached)
+    {
+        Optional<Column> same = findColumn(cached.getDimension(), dimension, cached);
+        if (same.isPresent()) {
+            return Optional.of(columnReference(same.get()));
+        }
+
+        Optional<TimeUnit> unit = getTruncatedUnit(dimension);
+        if (unit.isEmpty()) {
+            return Optional.empty();
+        }
+        Expression truncated = ((FunctionCall) dimension).getArguments().get(1);
+        return cached.getDimension().stream()
+                .filter(column -> {
+                    Expression expression = normalize(column, cached);
+                    if (expression.equals(truncated)) {
+                        return true;
+                    }
+                    return getTruncatedUnit(expression)
+                            .filter(cachedUnit -> canRollUp(cachedUnit, unit.get()))
+                            .isPresent()
+                            && ((FunctionCall) expression).getArguments().get(1).equals(truncated);
+                })
+                .findFirst()
+                .map(column -> new FunctionCall(
+                        QualifiedName.of("date_trunc"),
+                        List.of(new StringLiteral(unit.get().name().toLowerCase(ENGLISH)), columnReference(column))));
+    }
+
+    private static Optional<Expression> rollUpMeasure(Expression measure, Metric cached)
+    {
+        if (!(measure instanceof FunctionCall functionCall)
+                || functionCall.isDistinct()
+                || functionCall.getFilter().isPresent()
+                || functionCall.getWindow().isPresent()
+                || functionCall.getOrderBy().isPresent()) {
+            return Optional.empty();
+        }
+        String aggregation = functionCall.getName().toString().toLowerCase(ENGLISH);
+        String reaggregation = REAGGREGATIONS.get(aggregation);
+        if (reaggregation == null) {
+            return Optional.empty();
+        }
+        return findColumn(cached.getMeasure(), measure, cached)
+                .map(column -> {
+                    Expression rolledUp = new FunctionCall(QualifiedName.of(reaggregation), List.of(columnReference(column)));
+                    // a count of no rows is 0, while the sum of no partial counts is null
+                    return aggregation.equals("count") ? new CoalesceExpression(rolledUp, new LongLiteral("0")) : rolledUp;
+                });
+    }
+
+    private static Optional<TimeUnit> getTruncatedUnit(Expression expression)
+    {
+        if (expression instanceof FunctionCall functionCall
+                && functionCall.getName().toString().equalsIgnoreCase("date_trunc")
+                && functionCall.getArguments().size() == 2
+                && functionCall.getArguments().get(0) instanceof StringLiteral unit) {
+            try {
+                return Optional.of(TimeUnit.timeUnit(unit.getValue()));
+            }
+            catch (IllegalArgumentException e) {
+                return Optional.empty();
+            }
+        }
+        return Optional.empty();
+    }
+
+    // The units are declared from the coarsest to the finest, and a week may span two months.
+    private static boolean canRollUp(TimeUnit from, TimeUnit to)
+    {
+        return from.ordinal() >= to.ordinal() && !(from == WEEK && WEEK_UNALIGNED.contains(to));
+    }
+
+    private static Optional<Column> findColumn(List<Column> columns, Expression expression, Metric metric)
+    {
+        return columns.stream()
+                .filter(column -> normalize(column, metric).equals(expression))
+                .findFirst();
+    }
+
+    private static Expression columnReference(Column column)
+    {
+        return new Identifier(column.getName(), true);
+    }
+
+    private static Query toQuery(List<SelectItem> selectItems, int dimensions, String cachedTable)
+    {
+        Optional<GroupBy> groupBy = dimensions == 0
+                ? Optional.empty()
+                : Optional.of(new GroupBy(false, List.of(new SimpleGroupBy(
+                IntStream.rangeClosed(1, dimensions)
+                        .mapToObj(ordinal -> (Expression) new LongLiteral(String.valueOf(ordinal)))
+                        .toList()))));
+        return simpleQuery(
+                selectList(selectItems.toArray(SelectItem[]::new)),
+                table(QualifiedName.of(cachedTable)),
+                Optional.empty(),
+                groupBy,
+                Optional.empty(),
+                Optional.empty(),
+                Optional.empty(),
+                Optional.empty());
+    }
+
+    // The columns of the base object could be referred with or without its name, and identifiers are compared by their values.
+    private static Expression normalize(Column column, Metric metric)
+    {
+        return ExpressionTreeRewriter.rewriteWith(new ExpressionRewriter<Void>()
+        {
+            @Override
+            public Expression rewriteIdentifier(Identifier node, Void context, ExpressionTreeRewriter<Void> treeRewriter)
+            {
+                return new Identifier(node.getValue(), true);
+            }
+
+            @Override
+            public Expression rewriteDereferenceExpression(DereferenceExpression node, Void context, ExpressionTreeRewriter<Void> treeRewriter)
+            {
+                if (node.getBase() instanceof Identifier base && base.getValue().equals(metric.getBaseObject()) && node.getField().isPresent()) {
+                    return new Identifier(node.getField().get().getValue(), true);
+                }
+                return treeRewriter.defaultRewrite(node, context);
+            }
+        }, parseExpression(column.getSqlExpression()));
+    }
+}
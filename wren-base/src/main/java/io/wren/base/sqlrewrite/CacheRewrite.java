@@ -13,6 +13,7 @@
  */
 package io.wren.base.sqlrewrite;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import io.airlift.log.Logger;
 import io.trino.sql.SqlFormatter;
@@ -32,11 +33,13 @@ import io.trino.sql.tree.WithQuery;
 import io.wren.base.CatalogSchemaTableName;
 import io.wren.base.SessionContext;
 import io.wren.base.WrenMDL;
+import io.wren.base.dto.Metric;
 import io.wren.base.sqlrewrite.analyzer.CacheAnalysis;
 import io.wren.base.sqlrewrite.analyzer.Field;
 import io.wren.base.sqlrewrite.analyzer.Scope;
 
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -68,7 +71,11 @@ public class CacheRewrite
         try {
             Statement statement = parseSql(sql);
             CacheAnalysis aggregationAnalysis = new CacheAnalysis();
-            Statement rewritten = (Statement) new Rewriter(sessionContext, converter, wrenMDL, aggregationAnalysis).process(statement, Optional.empty());
+            Rewriter rewriter = new Rewriter(sessionContext, converter, wrenMDL, aggregationAnalysis);
+            Statement rewritten = (Statement) rewriter.process(statement, Optional.empty());
+            if (!rewriter.rollups.isEmpty()) {
+                rewritten = (Statement) new WithRewriter(ImmutableList.copyOf(rewriter.rollups.values())).process(rewritten);
+            }
             if (rewritten instanceof Query
                     && aggregationAnalysis.onlyCachedTables()) {
                 return Optional.of(SqlFormatter.formatSql(rewritten, DUCKDB));
@@ -86,6 +93,8 @@ public class CacheRewrite
         private final SessionContext sessionContext;
         private final Function<CatalogSchemaTableName, Optional<String>> converter;
         private final Map<QualifiedName, String> visitedAggregationTables = new HashMap<>();
+        // the metrics answered by rolling up the cached table of another metric, keyed by the metric name
+        private final Map<String, WithQuery> rollups = new LinkedHashMap<>();
         private final WrenMDL wrenMDL;
         private final CacheAnalysis aggregationAnalysis;
 
@@ -171,22 +180,40 @@ public class CacheRewrite
                 if (cachedTableOpt.isPresent()) {
                     aggregationAnalysis.addCachedTables(catalogSchemaTableName);
                     String cachedTable = cachedTableOpt.get();
-                    String schemaName = catalogSchemaTableName.getSchemaTableName().getSchemaName();
-                    String tableName = catalogSchemaTableName.getSchemaTableName().getTableName();
-                    visitedAggregationTables.put(QualifiedName.of(tableName), cachedTable);
-                    visitedAggregationTables.put(QualifiedName.of(schemaName, tableName), cachedTable);
-                    visitedAggregationTables.put(QualifiedName.of(catalogSchemaTableName.getCatalogName(), schemaName, tableName), cachedTable);
-                    if (node.getLocation().isPresent()) {
-                        return new Table(
-                                node.getLocation().get(),
-                                QualifiedName.of(cachedTable));
+                    return toCachedTable(node, catalogSchemaTableName, cachedTable);
+                }
+            }
+            Optional<Metric> metric = wrenMDL.getMetric(catalogSchemaTableName);
+            if (metric.isPresent()) {
+                String rollupName = metric.get().getName() + "_rollup";
+                if (!rollups.containsKey(metric.get().getName())) {
+                    Optional<Query> rollup = AggregateNavigation.rollUp(metric.get(), wrenMDL, this::convertTable);
+                    if (rollup.isEmpty()) {
+                        return node;
                     }
-                    return new Table(QualifiedName.of(cachedTable));
+                    rollups.put(metric.get().getName(), new WithQuery(new Identifier(rollupName, true), rollup.get(), Optional.empty()));
                 }
+                aggregationAnalysis.addCachedTables(catalogSchemaTableName);
+                return toCachedTable(node, catalogSchemaTableName, rollupName);
             }
             return node;
         }
 
+        private Node toCachedTable(Table node, CatalogSchemaTableName catalogSchemaTableName, String cachedTable)
+        {
+            String schemaName = catalogSchemaTableName.getSchemaTableName().getSchemaName();
+            String tableName = catalogSchemaTableName.getSchemaTableName().getTableName();
+            visitedAggregationTables.put(QualifiedName.of(tableName), cachedTable);
+            visitedAggregationTables.put(QualifiedName.of(schemaName, tableName), cachedTable);
+            visitedAggregationTables.put(QualifiedName.of(catalogSchemaTableName.getCatalogName(), schemaName, tableName), cachedTable);
+            if (node.getLocation().isPresent()) {
+                return new Table(
+                        node.getLocation().get(),
+                        QualifiedName.of(cachedTable));
+            }
+            return new Table(QualifiedName.of(cachedTable));
+        }
+
         private Optional<String> convertTable(CatalogSchemaTableName cachedTable)
         {
             return converter.apply(cachedTable);
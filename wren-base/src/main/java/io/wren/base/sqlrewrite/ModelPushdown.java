@@ -0,0 +1,325 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.wren.base.sqlrewrite;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Iterables;
+import io.trino.sql.tree.AliasedRelation;
+import io.trino.sql.tree.AllColumns;
+import io.trino.sql.tree.ArithmeticBinaryExpression;
+import io.trino.sql.tree.ArithmeticUnaryExpression;
+import io.trino.sql.tree.BetweenPredicate;
+import io.trino.sql.tree.Cast;
+import io.trino.sql.tree.ComparisonExpression;
+import io.trino.sql.tree.DefaultTraversalVisitor;
+import io.trino.sql.tree.DereferenceExpression;
+import io.trino.sql.tree.Expression;
+import io.trino.sql.tree.ExpressionRewriter;
+import io.trino.sql.tree.ExpressionTreeRewriter;
+import io.trino.sql.tree.Identifier;
+import io.trino.sql.tree.InListExpression;
+import io.trino.sql.tree.InPredicate;
+import io.trino.sql.tree.IsNotNullPredicate;
+import io.trino.sql.tree.IsNullPredicate;
+import io.trino.sql.tree.LikePredicate;
+import io.trino.sql.tree.Limit;
+import io.trino.sql.tree.Literal;
+import io.trino.sql.tree.LogicalExpression;
+import io.trino.sql.tree.LongLiteral;
+import io.trino.sql.tree.Node;
+import io.trino.sql.tree.NotExpression;
+import io.trino.sql.tree.QuerySpecification;
+import io.trino.sql.tree.Relation;
+import io.trino.sql.tree.SelectItem;
+import io.trino.sql.tree.SingleColumn;
+import io.trino.sql.tree.Statement;
+import io.trino.sql.tree.Table;
+import io.wren.base.WrenMDL;
+import io.wren.base.dto.Column;
+import io.wren.base.dto.Model;
+import io.wren.base.sqlrewrite.analyzer.Analysis;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.Set;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static com.google.common.collect.ImmutableSet.toImmutableSet;
+import static io.trino.sql.ExpressionFormatter.formatExpression;
+import static io.trino.sql.SqlFormatter.Dialect.DEFAULT;
+import static io.trino.sql.tree.LogicalExpression.Operator.AND;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * The part of a query which could be evaluated inside the CTE of a model instead of after the whole model is built.
+ * <p>
+ * A model is eligible only if it's referenced once in the statement, and it's the only relation of its query specification.
+ * The predicate is made of the conjuncts of the WHERE clause which only use literals and the non-calculated columns of the model,
+ * and the limit is pushed only if the query specification neither filters, sorts nor aggregates the rows after the pushed predicate.
+ * The query itself is not changed, so the pushed predicate is evaluated again after the model.
+ */
+public class ModelPushdown
+{
+    public static final ModelPushdown NONE = new ModelPushdown(Optional.empty(), OptionalLong.empty());
+
+    private final Optional<Expression> predicate;
+    private final OptionalLong limit;
+
+    public ModelPushdown(Optional<Expression> predicate, OptionalLong limit)
+    {
+        this.predicate = requireNonNull(predicate, "predicate is null");
+        this.limit = requireNonNull(limit, "limit is null");
+    }
+
+    /**
+     * @return the pushdown of each model in the statement, keyed by the model name
+     */
+    public static Map<String, ModelPushdown> collect(Statement root, Analysis analysis, WrenMDL mdl)
+    {
+        Collector collector = new Collector(analysis);
+        collector.process(root, null);
+
+        ImmutableMap.Builder<String, ModelPushdown> builder = ImmutableMap.builder();
+        collector.specifications.forEach((name, specification) -> {
+            if (collector.references.get(name) != 1) {
+                return;
+            }
+            mdl.getModel(name)
+                    .map(model -> of(specification, model))
+                    .filter(pushdown -> !pushdown.isEmpty())
+                    .ifPresent(pushdown -> builder.put(name, pushdown));
+        });
+        return builder.buildOrThrow();
+    }
+
+    private static ModelPushdown of(QuerySpecification specification, Model model)
+    {
+        String relationName = getRelationName(specification.getFrom().orElseThrow());
+        Set<String> baseColumns = model.getColumns().stream()
+                .filter(column -> !column.isCalculated() && column.getRelationship().isEmpty())
+                .map(Column::getName)
+                .collect(toImmutableSet());
+
+        List<Expression> conjuncts = specification.getWhere().map(ModelPushdown::extractConjuncts).orElse(List.of());
+        List<Expression> pushed = conjuncts.stream()
+                .filter(conjunct -> isPushable(conjunct, relationName, baseColumns))
+                .map(ModelPushdown::unqualify)
+                .toList();
+        Optional<Expression> predicate = switch (pushed.size()) {
+            case 0 -> Optional.empty();
+            case 1 -> Optional.of(pushed.get(0));
+            default -> Optional.of(new LogicalExpression(AND, pushed));
+        };
+
+        OptionalLong limit = OptionalLong.empty();
+        if (pushed.size() == conjuncts.size()
+                && specification.getGroupBy().isEmpty()
+                && specification.getHaving().isEmpty()
+                && specification.getWindows().isEmpty()
+                && specification.getOrderBy().isEmpty()
+                && specification.getOffset().isEmpty()
+                && !specification.getSelect().isDistinct()
+                && specification.getSelect().getSelectItems().stream().allMatch(selectItem -> isColumnReference(selectItem, relationName, baseColumns))
+                && specification.getLimit().orElse(null) instanceof Limit node
+                && node.getRowCount() instanceof LongLiteral rowCount) {
+            limit = OptionalLong.of(rowCount.getValue());
+        }
+        return new ModelPushdown(predicate, limit);
+    }
+
+    private static List<Expression> extractConjuncts(Expression expression)
+    {
+        if (expression instanceof LogicalExpression logicalExpression && logicalExpression.getOperator() == AND) {
+            List<Expression> conjuncts = new ArrayList<>();
+            logicalExpression.getTerms().forEach(term -> conjuncts.addAll(extractConjuncts(term)));
+            return conjuncts;
+        }
+        return List.of(expression);
+    }
+
+    // Only deterministic expressions without parameters, functions or subqueries are pushed.
+    private static boolean isPushable(Node node, String relationName, Set<String> baseColumns)
+    {
+        if (node instanceof Identifier identifier) {
+            return baseColumns.contains(identifier.getValue());
+        }
+        if (node instanceof DereferenceExpression dereference) {
+            return dereference.getBase() instanceof Identifier base
+                    && base.getValue().equals(relationName)
+                    && dereference.getField().map(field -> baseColumns.contains(field.getValue())).orElse(false);
+        }
+        if (node instanceof Cast cast) {
+            return isPushable(cast.getExpression(), relationName, baseColumns);
+        }
+        if (node instanceof Literal
+                || node instanceof ComparisonExpression
+                || node instanceof BetweenPredicate
+                || node instanceof InPredicate
+                || node instanceof InListExpression
+                || node instanceof LikePredicate
+                || node instanceof IsNullPredicate
+                || node instanceof IsNotNullPredicate
+                || node instanceof NotExpression
+                || node instanceof LogicalExpression
+                || node instanceof ArithmeticBinaryExpression
+                || node instanceof ArithmeticUnaryExpression) {
+            return node.getChildren().stream().allMatch(child -> isPushable(child, relationName, baseColumns));
+        }
+        return false;
+    }
+
+    // The pushed predicate is evaluated on the output columns of the model, so the relation name is removed.
+    private static Expression unqualify(Expression expression)
+    {
+        return ExpressionTreeRewriter.rewriteWith(new ExpressionRewriter<Void>()
+        {
+            @Override
+            public Expression rewriteIdentifier(Identifier node, Void context, ExpressionTreeRewriter<Void> treeRewriter)
+            {
+                return new Identifier(node.getValue(), true);
+            }
+
+            @Override
+            public Expression rewriteDereferenceExpression(DereferenceExpression node, Void context, ExpressionTreeRewriter<Void> treeRewriter)
+            {
+                return new Identifier(node.getField().orElseThrow().getValue(), true);
+            }
+        }, expression);
+    }
+
+    private static boolean isColumnReference(SelectItem selectItem, String relationName, Set<String> baseColumns)
+    {
+        if (selectItem instanceof AllColumns) {
+            return true;
+        }
+        return selectItem instanceof SingleColumn singleColumn
+                && (singleColumn.getExpression() instanceof Identifier || singleColumn.getExpression() instanceof DereferenceExpression)
+                && isPushable(singleColumn.getExpression(), relationName, baseColumns);
+    }
+
+    private static String getRelationName(Relation relation)
+    {
+        if (relation instanceof AliasedRelation aliasedRelation) {
+            return aliasedRelation.getAlias().getValue();
+        }
+        return Iterables.getLast(((Table) relation).getName().getOriginalParts()).getValue();
+    }
+
+    public Optional<Expression> getPredicate()
+    {
+        return predicate;
+    }
+
+    public OptionalLong getLimit()
+    {
+        return limit;
+    }
+
+    public boolean isEmpty()
+    {
+        return predicate.isEmpty() && limit.isEmpty();
+    }
+
+    public ModelPushdown withoutLimit()
+    {
+        return new ModelPushdown(predicate, OptionalLong.empty());
+    }
+
+    /**
+     * Wrap the sql of the model source with the predicate and the limit.
+     */
+    public String apply(String sql, String alias)
+    {
+        if (isEmpty()) {
+            return sql;
+        }
+        StringBuilder builder = new StringBuilder("SELECT * FROM (").append(sql).append(") AS \"").append(alias).append('"');
+        predicate.ifPresent(expression -> builder.append(" WHERE ").append(formatExpression(expression, DEFAULT)));
+        limit.ifPresent(rowCount -> builder.append(" LIMIT ").append(rowCount));
+        return builder.toString();
+    }
+
+    @Override
+    public boolean equals(Object o)
+    {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        ModelPushdown that = (ModelPushdown) o;
+        return Objects.equals(predicate, that.predicate)
+                && Objects.equals(limit, that.limit);
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return Objects.hash(predicate, limit);
+    }
+
+    @Override
+    public String toString()
+    {
+        return toStringHelper(this)
+                .add("predicate", predicate)
+                .add("limit", limit)
+                .toString();
+    }
+
+    private static class Collector
+            extends DefaultTraversalVisitor<Void>
+    {
+        private final Analysis analysis;
+        private final Map<String, Integer> references = new HashMap<>();
+        private final Map<String, QuerySpecification> specifications = new HashMap<>();
+
+        private Collector(Analysis analysis)
+        {
+            this.analysis = analysis;
+        }
+
+        @Override
+        protected Void visitTable(Table node, Void context)
+        {
+            analysis.getSourceNodeNames(node).ifPresent(name -> references.merge(name.toString(), 1, Integer::sum));
+            return null;
+        }
+
+        @Override
+        protected Void visitQuerySpecification(QuerySpecification node, Void context)
+        {
+            node.getFrom()
+                    .flatMap(this::getModelTable)
+                    .flatMap(analysis::getSourceNodeNames)
+                    .ifPresent(name -> specifications.put(name.toString(), node));
+            return super.visitQuerySpecification(node, context);
+        }
+
+        private Optional<Table> getModelTable(Relation relation)
+        {
+            if (relation instanceof AliasedRelation aliasedRelation && aliasedRelation.getColumnNames().isEmpty()) {
+                relation = aliasedRelation.getRelation();
+            }
+            return relation instanceof Table table ? Optional.of(table) : Optional.empty();
+        }
+    }
+}
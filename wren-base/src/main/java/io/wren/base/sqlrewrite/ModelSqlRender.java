@@ -19,6 +19,7 @@ import io.trino.sql.tree.Expression;
 import io.wren.base.Utils;
 import io.wren.base.WrenMDL;
 import io.wren.base.dto.Column;
+import io.wren.base.dto.JoinType;
 import io.wren.base.dto.Model;
 import io.wren.base.dto.Relationable;
 import io.wren.base.dto.Relationship;
@@ -46,17 +47,50 @@ public class ModelSqlRender
         extends RelationableSqlRender
 {
     private final Set<String> requiredFields;
+    private final ModelPushdown pushdown;
 
     public ModelSqlRender(Relationable relationable, WrenMDL mdl, Set<String> requiredFields)
     {
-        super(relationable, mdl);
-        this.requiredFields = requireNonNull(requiredFields);
+        this(relationable, mdl, requiredFields, ModelPushdown.NONE);
     }
 
     public ModelSqlRender(Relationable relationable, WrenMDL mdl)
+    {
+        this(relationable, mdl, relationable.getColumns().stream().map(Column::getName).collect(toImmutableSet()), ModelPushdown.NONE);
+    }
+
+    public ModelSqlRender(Relationable relationable, WrenMDL mdl, Set<String> requiredFields, ModelPushdown pushdown)
     {
         super(relationable, mdl);
-        this.requiredFields = relationable.getColumns().stream().map(Column::getName).collect(toImmutableSet());
+        this.requiredFields = requireNonNull(requiredFields);
+        this.pushdown = requireNonNull(pushdown, "pushdown is null");
+    }
+
+    /**
+     * Join elimination: the columns of the model to render when the query only uses the given fields.
+     * A calculated field through to-one relationships is dropped if it isn't used, since its join neither adds a used column
+     * nor changes the row count of the model. The other columns are always rendered.
+     */
+    public static Set<String> getRenderedFields(Model model, WrenMDL mdl, Set<String> usedFields)
+    {
+        return model.getColumns().stream()
+                .filter(column -> usedFields.contains(column.getName()) || !isToOneRelationshipField(column, model, mdl))
+                .map(Column::getName)
+                .collect(toImmutableSet());
+    }
+
+    private static boolean isToOneRelationshipField(Column column, Model model, WrenMDL mdl)
+    {
+        if (!column.isCalculated() || column.getRelationship().isPresent() || column.getExpression().isEmpty()) {
+            return false;
+        }
+        Set<ExpressionRelationshipInfo> relationshipInfos = ExpressionRelationshipAnalyzer.getRelationships(parseExpression(column.getSqlExpression()), mdl, model);
+        return !relationshipInfos.isEmpty()
+                && relationshipInfos.stream()
+                .map(ExpressionRelationshipInfo::getRelationships)
+                .flatMap(List::stream)
+                .map(Relationship::getJoinType)
+                .noneMatch(JoinType::isToMany);
     }
 
     @Override
@@ -191,7 +225,7 @@ public class ModelSqlRender
                 .distinct()
                 .collect(toImmutableList());
         String tableJoins = format("(%s) AS \"%s\" %s",
-                getBaseModelSql(baseModel),
+                getBaseModelSql(baseModel, pushdown.withoutLimit()),
                 baseModel.getName(),
                 requiredRelationships.stream()
                         .map(relationship -> format(" LEFT JOIN \"%s\" ON %s", relationship.getModels().get(1), relationship.getQualifiedCondition()))
@@ -224,7 +258,7 @@ public class ModelSqlRender
         baseModel.getColumns().stream()
                 .filter(column -> column.getRelationship().isEmpty() && column.getExpression().isPresent())
                 .forEach(column -> collectRelationship(column, baseModel));
-        String baseModelSql = getBaseModelSql(baseModel);
+        String baseModelSql = getBaseModelSql(baseModel, pushdown);
         String calculatedFieldsWithoutRelationship = getModelSubQuerySelectItemsExpression(calculatedScopeSelectItems);
         String calculatedSubQuery = format("""
                         (SELECT %s FROM (%s) AS "%s") AS "%s"
@@ -262,7 +296,7 @@ public class ModelSqlRender
                             relationshipInfo.getAlias());
 
                     String tableJoins = format("(%s) AS \"%s\" %s",
-                            getBaseModelSql(baseModel),
+                            getBaseModelSql(baseModel, pushdown.withoutLimit()),
                             baseModel.getName(),
                             relationshipInfo.getExpressionRelationshipInfo().stream()
                                     .map(ExpressionRelationshipInfo::getRelationships)
@@ -285,13 +319,15 @@ public class ModelSqlRender
                 .collect(toImmutableList());
     }
 
-    private String getBaseModelSql(Model model)
+    // The relationship subqueries are joined on the primary key of the base model, so they only share the pushed predicate.
+    // Pushing the limit into them could pick the different rows from the base model.
+    private String getBaseModelSql(Model model, ModelPushdown pushdown)
     {
         String selectItems = model.getColumns().stream()
                 .filter(column -> !column.isCalculated())
                 .filter(column -> column.getRelationship().isEmpty())
                 .map(column -> format("%s AS \"%s\"", column.getSqlExpression(), column.getName()))
                 .collect(joining(", "));
-        return format("SELECT %s FROM %s AS \"%s\"", selectItems, refSql, model.getName());
+        return pushdown.apply(format("SELECT %s FROM %s AS \"%s\"", selectItems, refSql, model.getName()), model.getName());
     }
 }
@@ -46,6 +46,11 @@ public class RelationInfo
         }
     }
 
+    public static RelationInfo get(Model model, WrenMDL mdl, Set<String> requiredFields, ModelPushdown pushdown)
+    {
+        return new ModelSqlRender(model, mdl, requiredFields, pushdown).render();
+    }
+
     public static RelationInfo get(Relationable relationable, WrenMDL mdl)
     {
         if (relationable instanceof Model) {
@@ -17,6 +17,7 @@ package io.wren.base.sqlrewrite;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.HashMultimap;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.SetMultimap;
 import io.trino.sql.tree.DefaultTraversalVisitor;
@@ -44,11 +45,16 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Predicate;
 
+import static com.google.common.collect.ImmutableMap.toImmutableMap;
 import static com.google.common.collect.ImmutableSet.toImmutableSet;
 import static io.trino.sql.tree.DereferenceExpression.getQualifiedName;
 import static java.lang.String.format;
 import static java.util.Objects.requireNonNull;
+import static java.util.function.Function.identity;
 import static java.util.stream.Collectors.groupingBy;
 import static java.util.stream.Collectors.mapping;
 import static java.util.stream.Collectors.toSet;
@@ -56,7 +62,7 @@ import static java.util.stream.Collectors.toSet;
 // TODO: take care view
 public class WrenDataLineage
 {
-    public static final WrenDataLineage EMPTY = new WrenDataLineage(WrenMDL.EMPTY);
+    public static final WrenDataLineage EMPTY = analyze(WrenMDL.EMPTY);
     private final WrenMDL mdl;
     // key: column name, value: source columns name. format in QualifiedName is modelName.columnName
     private final Map<QualifiedName, Set<QualifiedName>> sourceColumnsMap;
@@ -64,14 +70,27 @@ public class WrenDataLineage
 
     public static WrenDataLineage analyze(WrenMDL mdl)
     {
-        return new WrenDataLineage(mdl);
+        return new WrenDataLineage(mdl, Optional.empty(), ImmutableSet.of());
     }
 
-    private WrenDataLineage(WrenMDL mdl)
+    /**
+     * Analyze the MDL again after a deployment, reusing the lineage of the previous MDL for the objects
+     * which are not affected by the changes. The previous MDL must be in the same catalog and schema.
+     *
+     * @param affectedObjects the objects changed or depending on a changed object, see {@link io.wren.base.ManifestDiff#getAffectedObjects(WrenMDL)}
+     */
+    public static WrenDataLineage analyze(WrenMDL mdl, WrenDataLineage previous, Set<String> affectedObjects)
+    {
+        return new WrenDataLineage(mdl, Optional.of(previous), affectedObjects);
+    }
+
+    private WrenDataLineage(WrenMDL mdl, Optional<WrenDataLineage> previous, Set<String> affectedObjects)
     {
         this.mdl = requireNonNull(mdl);
-        this.sourceColumnsMap = collectSourceColumns();
-        this.requiredFields = collectRequiredFieldsByColumn();
+        requireNonNull(affectedObjects, "affectedObjects is null");
+        Predicate<String> reusable = objectName -> previous.isPresent() && !affectedObjects.contains(objectName);
+        this.sourceColumnsMap = collectSourceColumns(previous, reusable);
+        this.requiredFields = collectRequiredFieldsByColumn(previous, reusable);
     }
 
     /**
@@ -140,39 +159,28 @@ public class WrenDataLineage
         return result;
     }
 
-    private Map<QualifiedName, Set<QualifiedName>> collectSourceColumns()
+    private Map<QualifiedName, Set<QualifiedName>> collectSourceColumns(Optional<WrenDataLineage> previous, Predicate<String> reusable)
     {
-        Map<QualifiedName, Set<QualifiedName>> sourceColumnsMap = new HashMap<>();
-        for (Model model : mdl.listModels()) {
+        // the objects are analyzed in parallel, each of them only reads the MDL
+        Map<QualifiedName, Set<QualifiedName>> sourceColumnsMap = new ConcurrentHashMap<>();
+        mdl.listModels().parallelStream().forEach(model -> {
             for (Column column : model.getColumns()) {
-                SetMultimap<String, String> sourceColumns = getSourceColumns(mdl, model, column);
+                QualifiedName columnName = QualifiedName.of(model.getName(), column.getName());
                 sourceColumnsMap.put(
-                        QualifiedName.of(model.getName(), column.getName()),
-                        // TODO: maybe we can make getSourceColumns return Set<QualifiedName>
-                        sourceColumns.asMap().entrySet().stream()
-                                .map(e ->
-                                        e.getValue().stream()
-                                                .map(name -> QualifiedName.of(e.getKey(), name))
-                                                .collect(toImmutableSet()))
-                                .flatMap(Set::stream)
-                                .collect(toImmutableSet()));
+                        columnName,
+                        getPrevious(previous, reusable, columnName, lineage -> lineage.sourceColumnsMap)
+                                .orElseGet(() -> toQualifiedNames(getSourceColumns(mdl, model, column))));
             }
-        }
-        for (Metric metric : mdl.listMetrics()) {
+        });
+        mdl.listMetrics().parallelStream().forEach(metric -> {
             for (Column column : metric.getColumns()) {
-                SetMultimap<String, String> sourceColumns = getSourceColumns(mdl, metric, column);
+                QualifiedName columnName = QualifiedName.of(metric.getName(), column.getName());
                 sourceColumnsMap.put(
-                        QualifiedName.of(metric.getName(), column.getName()),
-                        // TODO: maybe we can make getSourceColumns return Set<QualifiedName>
-                        sourceColumns.asMap().entrySet().stream()
-                                .map(e ->
-                                        e.getValue().stream()
-                                                .map(name -> QualifiedName.of(e.getKey(), name))
-                                                .collect(toImmutableSet()))
-                                .flatMap(Set::stream)
-                                .collect(toImmutableSet()));
+                        columnName,
+                        getPrevious(previous, reusable, columnName, lineage -> lineage.sourceColumnsMap)
+                                .orElseGet(() -> toQualifiedNames(getSourceColumns(mdl, metric, column))));
             }
-        }
+        });
         for (CumulativeMetric cumulativeMetric : mdl.listCumulativeMetrics()) {
             Utils.checkArgument(mdl.isObjectExist(cumulativeMetric.getBaseObject()), "cumulative metric base object %s not exist", cumulativeMetric.getBaseObject());
             // handle measure
@@ -184,20 +192,45 @@ public class WrenDataLineage
                     QualifiedName.of(cumulativeMetric.getName(), cumulativeMetric.getWindow().getName()),
                     ImmutableSet.of(QualifiedName.of(cumulativeMetric.getBaseObject(), cumulativeMetric.getWindow().getRefColumn())));
         }
-        return sourceColumnsMap;
+        return ImmutableMap.copyOf(sourceColumnsMap);
+    }
+
+    private static Set<QualifiedName> toQualifiedNames(SetMultimap<String, String> sourceColumns)
+    {
+        // TODO: maybe we can make getSourceColumns return Set<QualifiedName>
+        return sourceColumns.asMap().entrySet().stream()
+                .map(e ->
+                        e.getValue().stream()
+                                .map(name -> QualifiedName.of(e.getKey(), name))
+                                .collect(toImmutableSet()))
+                .flatMap(Set::stream)
+                .collect(toImmutableSet());
+    }
+
+    private static <T> Optional<T> getPrevious(
+            Optional<WrenDataLineage> previous,
+            Predicate<String> reusable,
+            QualifiedName columnName,
+            Function<WrenDataLineage, Map<QualifiedName, T>> getter)
+    {
+        if (!reusable.test(getTable(columnName))) {
+            return Optional.empty();
+        }
+        return previous.map(lineage -> getter.apply(lineage).get(columnName));
     }
 
-    private Map<QualifiedName, List<Vertex>> collectRequiredFieldsByColumn()
+    private Map<QualifiedName, List<Vertex>> collectRequiredFieldsByColumn(Optional<WrenDataLineage> previous, Predicate<String> reusable)
     {
-        Map<QualifiedName, List<Vertex>> columnLineages = new HashMap<>();
-        sourceColumnsMap.forEach(((column, sourceColumns) -> {
-            DirectedAcyclicGraph<Vertex, Object> graph = new DirectedAcyclicGraph<>(Object.class);
-            Map<String, Vertex> vertexes = new HashMap<>();
-            collectRequiredFields(column, graph, vertexes);
-            columnLineages.put(column, ImmutableList.copyOf(graph.iterator()));
-        }));
-
-        return columnLineages;
+        return sourceColumnsMap.keySet().parallelStream()
+                .collect(toImmutableMap(
+                        identity(),
+                        column -> getPrevious(previous, reusable, column, lineage -> lineage.requiredFields)
+                                .orElseGet(() -> {
+                                    DirectedAcyclicGraph<Vertex, Object> graph = new DirectedAcyclicGraph<>(Object.class);
+                                    Map<String, Vertex> vertexes = new HashMap<>();
+                                    collectRequiredFields(column, graph, vertexes);
+                                    return ImmutableList.copyOf(graph.iterator());
+                                })));
     }
 
     private void collectRequiredFields(
@@ -17,7 +17,11 @@ package io.wren.base.sqlrewrite;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Iterables;
+import com.google.common.collect.Sets;
+import io.trino.sql.tree.AllColumns;
+import io.trino.sql.tree.DefaultTraversalVisitor;
 import io.trino.sql.tree.DereferenceExpression;
+import io.trino.sql.tree.Identifier;
 import io.trino.sql.tree.Node;
 import io.trino.sql.tree.QualifiedName;
 import io.trino.sql.tree.Statement;
@@ -46,6 +50,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
 
 import static com.google.common.base.Strings.nullToEmpty;
 import static com.google.common.collect.ImmutableList.toImmutableList;
@@ -87,6 +93,7 @@ public class WrenSqlRewrite
     public Statement apply(Statement root, SessionContext sessionContext, Analysis analysis, AnalyzedMDL analyzedMDL)
     {
         WrenMDL wrenMDL = analyzedMDL.getWrenMDL();
+        Map<String, ModelPushdown> pushdowns = ModelPushdown.collect(root, analysis, wrenMDL);
         Set<QueryDescriptor> allDescriptors;
         // TODO: Currently DynamicCalculatedField is a experimental feature, and buggy. After all issues are solved,
         //  we should always enable this setting.
@@ -109,7 +116,7 @@ public class WrenSqlRewrite
 
             ImmutableList.Builder<QueryDescriptor> descriptorsBuilder = ImmutableList.builder();
             tableRequiredFields.forEach((name, value) -> {
-                addDescriptor(name, value, wrenMDL, descriptorsBuilder);
+                addDescriptor(name, value, wrenMDL, pushdowns.getOrDefault(name, ModelPushdown.NONE), descriptorsBuilder);
                 visitedTables.remove(toCatalogSchemaTableName(sessionContext, QualifiedName.of(name)));
             });
 
@@ -120,7 +127,8 @@ public class WrenSqlRewrite
                     .anyMatch(Optional::isPresent)) {
                 withQueries.add(WithRewriter.getWithQuery(DateSpineInfo.get(wrenMDL.getDateSpine())));
             }
-            descriptorsBuilder.build().forEach(queryDescriptor -> withQueries.add(WithRewriter.getWithQuery(queryDescriptor)));
+            removeSharedPushdown(descriptorsBuilder.build(), pushdowns, name -> RelationInfo.get(wrenMDL.getModel(name).orElseThrow(), wrenMDL, tableRequiredFields.get(name)))
+                    .forEach(queryDescriptor -> withQueries.add(WithRewriter.getWithQuery(queryDescriptor)));
 
             // If a selected table lacks any required fields, create a dummy with query for it.
             visitedTables.stream().filter(table -> wrenMDL.isObjectExist(table.getSchemaTableName().getTableName()))
@@ -130,7 +138,21 @@ public class WrenSqlRewrite
             return (Statement) new Rewriter(wrenMDL, analysis).process(rewriteWith);
         }
         else {
-            Set<QueryDescriptor> modelDescriptors = analysis.getModels().stream().map(model -> RelationInfo.get(model, wrenMDL)).collect(toSet());
+            // The used fields come from the data lineage. A column named anywhere in the statement is also kept in case the analysis misses it.
+            // The models required by the other descriptors are rendered again with all the columns and without the pushdown in the dependency graph.
+            // The analysis doesn't resolve a qualified all columns like o.*, so all the columns are rendered for such a statement.
+            LinkedHashMap<String, Set<String>> tableRequiredFields = getTableRequiredFields(analyzedMDL.getWrenDataLineage(), analysis);
+            Set<String> identifiers = collectIdentifiers(root);
+            boolean eliminateJoins = !hasQualifiedAllColumns(root);
+            Set<QueryDescriptor> modelDescriptors = analysis.getModels().stream()
+                    .map(model -> RelationInfo.get(
+                            model,
+                            wrenMDL,
+                            eliminateJoins
+                                    ? ModelSqlRender.getRenderedFields(model, wrenMDL, Sets.union(tableRequiredFields.getOrDefault(model.getName(), Set.of()), identifiers))
+                                    : model.getColumns().stream().map(Column::getName).collect(toImmutableSet()),
+                            pushdowns.getOrDefault(model.getName(), ModelPushdown.NONE)))
+                    .collect(toSet());
             Set<QueryDescriptor> metricDescriptors = analysis.getMetrics().stream().map(metric -> RelationInfo.get(metric, wrenMDL)).collect(toSet());
             Set<QueryDescriptor> cumulativeMetricDescriptors = analysis.getCumulativeMetrics().stream().map(metric -> CumulativeMetricInfo.get(metric, wrenMDL)).collect(toSet());
             allDescriptors = ImmutableSet.<QueryDescriptor>builder()
@@ -142,11 +164,11 @@ public class WrenSqlRewrite
         }
     }
 
-    private void addDescriptor(String name, Set<String> requiredFields, WrenMDL wrenMDL, ImmutableList.Builder<QueryDescriptor> descriptorsBuilder)
+    private void addDescriptor(String name, Set<String> requiredFields, WrenMDL wrenMDL, ModelPushdown pushdown, ImmutableList.Builder<QueryDescriptor> descriptorsBuilder)
     {
         if (wrenMDL.getModel(name).isPresent()) {
             Model model = wrenMDL.getModel(name).get();
-            descriptorsBuilder.add(RelationInfo.get(model, wrenMDL, requiredFields));
+            descriptorsBuilder.add(RelationInfo.get(model, wrenMDL, requiredFields, pushdown));
         }
         else if (wrenMDL.getMetric(name).isPresent()) {
             Metric metric = wrenMDL.getMetric(name).get();
@@ -176,6 +198,62 @@ public class WrenSqlRewrite
         // If the table is not found in mdl, it could be a remote table or a CTE.
     }
 
+    private static Set<String> collectIdentifiers(Node root)
+    {
+        ImmutableSet.Builder<String> identifiers = ImmutableSet.builder();
+        new DefaultTraversalVisitor<Void>()
+        {
+            @Override
+            protected Void visitIdentifier(Identifier node, Void context)
+            {
+                identifiers.add(node.getValue());
+                return null;
+            }
+
+            @Override
+            protected Void visitDereferenceExpression(DereferenceExpression node, Void context)
+            {
+                node.getField().ifPresent(field -> identifiers.add(field.getValue()));
+                return super.visitDereferenceExpression(node, context);
+            }
+        }.process(root, null);
+        return identifiers.build();
+    }
+
+    private static boolean hasQualifiedAllColumns(Node root)
+    {
+        AtomicBoolean found = new AtomicBoolean();
+        new DefaultTraversalVisitor<Void>()
+        {
+            @Override
+            protected Void visitAllColumns(AllColumns node, Void context)
+            {
+                if (node.getTarget().isPresent()) {
+                    found.set(true);
+                }
+                return super.visitAllColumns(node, context);
+            }
+        }.process(root, null);
+        return found.get();
+    }
+
+    // A model used by another descriptor is shared by all its references, so it can't be filtered for one of them.
+    private static List<QueryDescriptor> removeSharedPushdown(List<QueryDescriptor> descriptors, Map<String, ModelPushdown> pushdowns, Function<String, QueryDescriptor> renderWithoutPushdown)
+    {
+        if (pushdowns.isEmpty()) {
+            return descriptors;
+        }
+        Set<String> requiredObjects = descriptors.stream()
+                .map(QueryDescriptor::getRequiredObjects)
+                .flatMap(Set::stream)
+                .collect(toImmutableSet());
+        return descriptors.stream()
+                .map(descriptor -> pushdowns.containsKey(descriptor.getName()) && requiredObjects.contains(descriptor.getName())
+                        ? renderWithoutPushdown.apply(descriptor.getName())
+                        : descriptor)
+                .collect(toImmutableList());
+    }
+
     private Statement apply(
             Statement root,
             SessionContext sessionContext,
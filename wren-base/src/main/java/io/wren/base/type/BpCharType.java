@@ -54,10 +54,7 @@ public class BpCharType
     @Override
     public int writeAsBinary(ByteBuf buffer, @Nonnull String value)
     {
-        byte[] bytes = value.getBytes(UTF_8);
-        buffer.writeInt(bytes.length);
-        buffer.writeBytes(bytes);
-        return INT32_BYTE_SIZE + bytes.length;
+        return writeUTF8(buffer, value);
     }
 
     @Override
@@ -24,6 +24,8 @@ import java.time.format.DateTimeFormatterBuilder;
 import java.time.format.ResolverStyle;
 import java.util.Locale;
 
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.lang.Math.toIntExact;
 import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.time.format.DateTimeFormatter.ISO_LOCAL_DATE;
 
@@ -74,6 +76,9 @@ public class DateType
     @Override
     public byte[] encodeAsUTF8Text(@Nonnull LocalDate value)
     {
+        if (PgDatetimeUtils.isFourDigitYear(value.getYear())) {
+            return PgDatetimeUtils.formatDate(value);
+        }
         return value.format(ISO_FORMATTER_AD).getBytes(UTF_8);
     }
 
@@ -87,13 +92,16 @@ public class DateType
     @Override
     public int writeAsBinary(ByteBuf buffer, @Nonnull LocalDate value)
     {
-        throw new UnsupportedOperationException();
+        buffer.writeInt(TYPE_LEN);
+        buffer.writeInt(PgDatetimeUtils.toPgDate(toIntExact(value.toEpochDay())));
+        return INT32_BYTE_SIZE + TYPE_LEN;
     }
 
     @Override
     public LocalDate readBinaryValue(ByteBuf buffer, int valueLength)
     {
-        throw new UnsupportedOperationException();
+        checkArgument(valueLength == TYPE_LEN, "valueLength must be %s because date is a 32 bit int. Actual length is %s", TYPE_LEN, valueLength);
+        return LocalDate.ofEpochDay(PgDatetimeUtils.toTrinoDate(buffer.readInt()));
     }
 
     @Override
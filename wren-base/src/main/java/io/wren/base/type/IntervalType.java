@@ -34,34 +34,6 @@ public class IntervalType
     private static final int TYPE_LEN = 16;
     private static final int TYPE_MOD = -1;
     public static final IntervalType INTERVAL = new IntervalType();
-    private static final PeriodFormatter DAY_FORMATTER = new PeriodFormatterBuilder()
-            .appendYears()
-            .appendSuffix(" year", " years")
-            .appendSeparator(" ")
-            .appendMonths()
-            .appendSuffix(" mon", " mons")
-            .appendSeparator(" ")
-            .appendWeeks()
-            .appendSuffix(" weeks")
-            .appendSeparator(" ")
-            .appendDays()
-            .appendSuffix(" day", " days")
-            .toFormatter();
-
-    private static final PeriodFormatter TIME_FORMATTER = new PeriodFormatterBuilder()
-            .printZeroAlways()
-            .minimumPrintedDigits(2)
-            .appendHours()
-            .appendSeparator(":")
-            .minimumPrintedDigits(2)
-            .printZeroAlways()
-            .appendMinutes()
-            .appendSeparator(":")
-            .minimumPrintedDigits(2)
-            .printZeroAlways()
-            .appendSecondsWithOptionalMillis()
-            .toFormatter();
-
     private static final PeriodFormatter PG_INTERVAL_FORMATTER = new PeriodFormatterBuilder()
             .appendYears()
             .appendSuffix(" years ")
@@ -150,21 +122,54 @@ public class IntervalType
     @Override
     public byte[] encodeAsUTF8Text(@Nonnull Period value)
     {
-        StringBuilder sb = new StringBuilder();
-        sb.append(DAY_FORMATTER.print(value));
-        sb.append(" ");
-        // the negative sign need to be placed before the time, like -00:00:01
-        if (value.getHours() < 0 || value.getMinutes() < 0 || value.getSeconds() < 0 || value.getMillis() < 0) {
-            sb.append("-");
+        // Printed field by field, e.g. 1 year 2 mons 3 days 04:05:06.789, without the intermediate periods of a PeriodFormatter
+        StringBuilder sb = new StringBuilder(32);
+        appendField(sb, value.getYears(), " year", " years");
+        appendField(sb, value.getMonths(), " mon", " mons");
+        appendField(sb, value.getWeeks(), " weeks", " weeks");
+        appendField(sb, value.getDays(), " day", " days");
+
+        int hours = value.getHours();
+        int minutes = value.getMinutes();
+        int seconds = value.getSeconds();
+        int millis = value.getMillis();
+        // a zero interval prints its time, like PostgreSQL does
+        if (hours != 0 || minutes != 0 || seconds != 0 || millis != 0 || sb.isEmpty()) {
+            if (!sb.isEmpty()) {
+                sb.append(' ');
+            }
+            // the negative sign need to be placed before the time, like -00:00:01
+            if (hours < 0 || minutes < 0 || seconds < 0 || millis < 0) {
+                sb.append('-');
+            }
+            appendDigits(sb, Math.abs(hours), 2).append(':');
+            appendDigits(sb, Math.abs(minutes), 2).append(':');
+            appendDigits(sb, Math.abs(seconds), 2);
+            if (millis != 0) {
+                appendDigits(sb.append('.'), Math.abs(millis), 3);
+            }
+        }
+        return sb.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void appendField(StringBuilder sb, int value, String singular, String plural)
+    {
+        if (value != 0) {
+            if (!sb.isEmpty()) {
+                sb.append(' ');
+            }
+            sb.append(value).append(value == 1 ? singular : plural);
+        }
+    }
+
+    private static StringBuilder appendDigits(StringBuilder sb, int value, int minDigits)
+    {
+        for (int i = 1, bound = 10; i < minDigits; i++, bound *= 10) {
+            if (value < bound) {
+                sb.append('0');
+            }
         }
-        Period absValue = new Period(
-                Math.abs(value.getHours()),
-                Math.abs(value.getMinutes()),
-                Math.abs(value.getSeconds()),
-                Math.abs(value.getMillis()));
-        sb.append(TIME_FORMATTER.print(absValue));
-
-        return sb.toString().replace("00:00:00", "").trim().getBytes(StandardCharsets.UTF_8);
+        return sb.append(value);
     }
 
     @Override
@@ -55,10 +55,7 @@ public class JsonType
     @Override
     public int writeAsBinary(ByteBuf buffer, @Nonnull String value)
     {
-        byte[] bytes = encodeAsUTF8Text(value);
-        buffer.writeInt(bytes.length);
-        buffer.writeBytes(bytes);
-        return INT32_BYTE_SIZE + bytes.length;
+        return writeUTF8(buffer, value);
     }
 
     @Override
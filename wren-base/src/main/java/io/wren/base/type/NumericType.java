@@ -20,7 +20,7 @@ import javax.annotation.Nonnull;
 
 import java.math.BigDecimal;
 import java.math.BigInteger;
-import java.math.MathContext;
+import java.math.RoundingMode;
 import java.nio.charset.StandardCharsets;
 
 public class NumericType
@@ -35,6 +35,17 @@ public class NumericType
     private static final short NUMERIC_POS = 0x0000;
     private static final short NUMERIC_NEG = 0x4000;
     private static final short NUMERIC_NAN = (short) 0xC000;
+    private static final int NBASE = 10000;
+
+    // The largest scale whose fraction still fits in a long after being padded to whole DEC_DIGITS blocks
+    private static final int MAX_COMPACT_SCALE = 16;
+    // The most DEC_DIGITS blocks whose unscaled value fits in a long
+    private static final int MAX_COMPACT_DIGITS = 4;
+    private static final long[] POWERS_OF_TEN = {
+            1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L, 10_000_000L, 100_000_000L, 1_000_000_000L, 10_000_000_000L,
+            100_000_000_000L, 1_000_000_000_000L, 10_000_000_000_000L, 100_000_000_000_000L, 1_000_000_000_000_000L, 10_000_000_000_000_000L};
+    private static final long[] POWERS_OF_NBASE = {1L, 10_000L, 100_000_000L, 1_000_000_000_000L, 10_000_000_000_000_000L};
+    private static final BigInteger BIG_NBASE = BigInteger.valueOf(NBASE);
 
     public static final NumericType NUMERIC = new NumericType();
 
@@ -66,14 +77,30 @@ public class NumericType
     {
         return switch (value) {
             case BigDecimal bigDecimal -> writeAsBinary(buffer, bigDecimal);
-            // TODO: customize the handling of BigInteger for performance.
-            case BigInteger bigInteger -> writeAsBinary(buffer, new BigDecimal(bigInteger));
+            case BigInteger bigInteger -> bigInteger.bitLength() < Long.SIZE - 1
+                    ? writeAsBinary(buffer, bigInteger.longValue(), 0)
+                    : writeAsBinary(buffer, new BigDecimal(bigInteger));
+            case Long longValue -> longValue == Long.MIN_VALUE
+                    ? writeAsBinary(buffer, BigDecimal.valueOf(longValue))
+                    : writeAsBinary(buffer, longValue, 0);
+            case Integer intValue -> writeAsBinary(buffer, intValue.longValue(), 0);
             default -> throw new IllegalArgumentException("Unsupported numeric type: " + value.getClass().getName());
         };
     }
 
     private int writeAsBinary(ByteBuf buffer, @Nonnull BigDecimal value)
     {
+        if (value.scale() < 0) {
+            // the display scale of numeric can't be negative, e.g. 1E+3 is sent as 1000
+            value = value.setScale(0);
+        }
+        if (value.scale() <= MAX_COMPACT_SCALE) {
+            BigInteger unscaled = value.unscaledValue();
+            if (unscaled.bitLength() < Long.SIZE - 1) {
+                return writeAsBinary(buffer, unscaled.longValue(), value.scale());
+            }
+        }
+
         // Taken from https://github.com/cockroachdb/cockroach/blob/master/pkg/sql/pgwire/types.go#L336
         // and https://github.com/postgres/postgres/blob/master/src/backend/utils/adt/numeric.c#L6760.
         // The number is split into chunks of DEC_DIGITS short values while leading and trailing 0's are omitted.
@@ -119,8 +146,6 @@ public class NumericType
                 buffer.writeShort(NUMERIC_NEG);
                 break;
             case 0:
-                buffer.writeShort(NUMERIC_NAN);
-                break;
             case 1:
                 buffer.writeShort(NUMERIC_POS);
                 break;
@@ -145,6 +170,63 @@ public class NumericType
         return INT32_BYTE_SIZE + typeLen;
     }
 
+    /**
+     * Encode a decimal whose unscaled value fits in a long with the arithmetic on the long itself,
+     * instead of splitting its decimal string. Produces the same blocks as the string based encoding.
+     */
+    private static int writeAsBinary(ByteBuf buffer, long unscaled, int scale)
+    {
+        long abs = Math.abs(unscaled);
+        long integral = abs / POWERS_OF_TEN[scale];
+        // align the fraction to whole DEC_DIGITS blocks, e.g. the fraction of 1.12 is the block 1200
+        int fractionBlocks = (scale + DEC_DIGITS - 1) / DEC_DIGITS;
+        long fraction = (abs % POWERS_OF_TEN[scale]) * POWERS_OF_TEN[fractionBlocks * DEC_DIGITS - scale];
+        while (fractionBlocks > 0 && fraction % NBASE == 0) {
+            fraction /= NBASE;
+            fractionBlocks--;
+        }
+
+        int integralBlocks = 0;
+        int integralTrailingZeros = 0;
+        for (long remaining = integral; remaining != 0; remaining /= NBASE) {
+            if (fractionBlocks == 0 && integralBlocks == integralTrailingZeros && remaining % NBASE == 0) {
+                integralTrailingZeros++;
+            }
+            integralBlocks++;
+        }
+
+        short weight;
+        short nDigits;
+        if (integralBlocks > 0) {
+            weight = (short) (integralBlocks - 1);
+            nDigits = (short) (integralBlocks - integralTrailingZeros + fractionBlocks);
+        }
+        else {
+            // the leading zero blocks of the fraction are omitted and only move the weight
+            int significantBlocks = 0;
+            for (long remaining = fraction; remaining != 0; remaining /= NBASE) {
+                significantBlocks++;
+            }
+            weight = (short) (significantBlocks - fractionBlocks - 1);
+            nDigits = (short) significantBlocks;
+            fractionBlocks = significantBlocks;
+        }
+        int typeLen = 2 * (4 + nDigits);
+
+        buffer.writeInt(typeLen);
+        buffer.writeShort(nDigits);
+        buffer.writeShort(nDigits == 0 ? 0 : weight);
+        buffer.writeShort(unscaled < 0 ? NUMERIC_NEG : NUMERIC_POS);
+        buffer.writeShort(scale);
+        for (int i = integralBlocks - 1; i >= integralTrailingZeros; i--) {
+            buffer.writeShort((int) (integral / POWERS_OF_NBASE[i] % NBASE));
+        }
+        for (int i = fractionBlocks - 1; i >= 0; i--) {
+            buffer.writeShort((int) (fraction / POWERS_OF_NBASE[i] % NBASE));
+        }
+        return INT32_BYTE_SIZE + typeLen;
+    }
+
     @Override
     public BigDecimal readBinaryValue(ByteBuf buffer, int valueLength)
     {
@@ -159,34 +241,34 @@ public class NumericType
             throw new IllegalArgumentException("Infinite or NaN values are not supported");
         }
 
-        boolean hasDp = scale > 0;
-        int sizeOfBytes = (nDigits * DEC_DIGITS) + (hasDp ? 1 : 0);
-        char[] decDigits = new char[sizeOfBytes];
-
-        int decDigitsIdx = 0;
-        for (int i = 0; i < nDigits; i++) {
-            int decDigit = buffer.readShort();
-            if (decDigit > 0) {
-                // Decode 4 digits from a 16 bit short
-                for (int j = 1000; j > 0 && decDigitsIdx < sizeOfBytes; j /= 10) {
-                    int d1 = (decDigit / j);
-                    decDigit -= d1 * j;
-                    decDigits[decDigitsIdx++] = (char) (d1 + '0');
-                }
+        // The value is the sum of digit[i] * NBASE^(weight - i), so the blocks are read as one unscaled number
+        int blockScale = (nDigits - 1 - weight) * DEC_DIGITS;
+        BigDecimal bd;
+        if (nDigits <= MAX_COMPACT_DIGITS) {
+            long unscaled = 0;
+            for (int i = 0; i < nDigits; i++) {
+                unscaled = unscaled * NBASE + buffer.readShort();
             }
-            if (hasDp && i == weight) {
-                decDigits[decDigitsIdx++] = '.';
+            bd = BigDecimal.valueOf(unscaled, blockScale);
+        }
+        else {
+            BigInteger unscaled = BigInteger.ZERO;
+            for (int i = 0; i < nDigits; i++) {
+                unscaled = unscaled.multiply(BIG_NBASE).add(BigInteger.valueOf(buffer.readShort()));
             }
+            bd = new BigDecimal(unscaled, blockScale);
         }
-
-        BigDecimal bd = new BigDecimal(decDigits)
-                .setScale(scale, MathContext.UNLIMITED.getRoundingMode());
+        bd = bd.setScale(scale, RoundingMode.HALF_UP);
         return sign == NUMERIC_NEG ? bd.negate() : bd;
     }
 
     @Override
     public byte[] encodeAsUTF8Text(@Nonnull Number value)
     {
+        if (value instanceof BigDecimal bigDecimal) {
+            // numeric is never printed in scientific notation
+            return bigDecimal.toPlainString().getBytes(StandardCharsets.UTF_8);
+        }
         return value.toString().getBytes(StandardCharsets.UTF_8);
     }
 
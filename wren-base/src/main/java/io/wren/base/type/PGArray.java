@@ -15,11 +15,13 @@
 package io.wren.base.type;
 
 import com.google.common.collect.ImmutableList;
-import com.google.common.primitives.Bytes;
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
 import io.wren.base.type.parser.PgArrayParserWrapper;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -147,9 +149,8 @@ public class PGArray
     public int writeAsBinary(ByteBuf buffer, @Nonnull List<Object> value)
     {
         int dimensions = getDimensions(value);
-
-        List<Integer> dimensionsList = new ArrayList<>();
-        buildDimensions(value, dimensionsList, dimensions, 1);
+        int[] dims = new int[dimensions];
+        buildDimensions(value, dims, 0);
 
         int bytesWritten = 4 + 4 + 4;
         final int lenIndex = buffer.writerIndex();
@@ -158,16 +159,26 @@ public class PGArray
         buffer.writeInt(1); // flags bit 0: 0=no-nulls, 1=has-nulls
         buffer.writeInt(typElem());
 
-        for (Integer dim : dimensionsList) {
-            buffer.writeInt(dim); // upper bound
-            buffer.writeInt(dim); // lower bound
+        for (int dim : dims) {
+            buffer.writeInt(dim); // dimension size
+            buffer.writeInt(1); // lower bound
             bytesWritten += 8;
         }
-        int len = bytesWritten + writeArrayAsBinary(buffer, value, dimensionsList, 1);
+        int len = bytesWritten + writeArrayAsBinary(buffer, value, dims, 0);
         buffer.setInt(lenIndex, len);
         return INT32_BYTE_SIZE + len; // add also the size of the length itself
     }
 
+    @Override
+    public int writeAsText(ByteBuf buffer, @Nonnull List<Object> value)
+    {
+        final int lenIndex = buffer.writerIndex();
+        buffer.writeInt(0);
+        int len = writeArrayAsText(buffer, value);
+        buffer.setInt(lenIndex, len);
+        return INT32_BYTE_SIZE + len;
+    }
+
     private int getDimensions(@Nonnull Object value)
     {
         int dimensions = 0;
@@ -213,60 +224,14 @@ public class PGArray
     @Override
     public byte[] encodeAsUTF8Text(@Nonnull List<Object> array)
     {
-        boolean isJson = JsonType.OID == innerType.oid();
-        List<Byte> encodedValues = new ArrayList<>();
-        encodedValues.add((byte) '{');
-        for (int i = 0; i < array.size(); i++) {
-            Object o = array.get(i);
-            if (o instanceof List) { // Nested Array -> recursive call
-                byte[] bytes = encodeAsUTF8Text((List) o);
-                for (byte b : bytes) {
-                    encodedValues.add(b);
-                }
-                if (i == 0) {
-                    encodedValues.add((byte) ',');
-                }
-            }
-            else {
-                if (i > 0) {
-                    encodedValues.add((byte) ',');
-                }
-                byte[] bytes;
-                if (o == null) {
-                    bytes = NULL_BYTES;
-                    for (byte aByte : bytes) {
-                        encodedValues.add(aByte);
-                    }
-                }
-                else {
-                    bytes = ((PGType) innerType).encodeAsUTF8Text(o);
-
-                    if (needDoubleQuoteAround(innerType.oid(), bytes)) {
-                        encodedValues.add((byte) '"');
-                    }
-                    if (isJson) {
-                        for (byte aByte : bytes) {
-                            // Escape double quotes with backslash for json
-                            char ch = (char) aByte;
-                            if (ch == '"' || ch == '\\') {
-                                encodedValues.add((byte) '\\');
-                            }
-                            encodedValues.add(aByte);
-                        }
-                    }
-                    else {
-                        for (byte aByte : bytes) {
-                            encodedValues.add(aByte);
-                        }
-                    }
-                    if (needDoubleQuoteAround(innerType.oid(), bytes)) {
-                        encodedValues.add((byte) '"');
-                    }
-                }
-            }
+        ByteBuf buffer = Unpooled.buffer();
+        try {
+            writeArrayAsText(buffer, array);
+            return ByteBufUtil.getBytes(buffer);
+        }
+        finally {
+            buffer.release();
         }
-        encodedValues.add((byte) '}');
-        return Bytes.toArray(encodedValues);
     }
 
     @Override
@@ -289,70 +254,102 @@ public class PGArray
         return (List<Object>) PgArrayParserWrapper.parse(bytes, innerType::decodeUTF8Text);
     }
 
-    private int buildDimensions(List<Object> values, List<Integer> dimensionsList, int maxDimensions, int currentDimension)
+    private static void buildDimensions(List<?> values, int[] dims, int dimension)
     {
-        if (values == null) {
-            return 1;
-        }
-        // While elements of array are also arrays
-        if (currentDimension < maxDimensions) {
-            int max = 0;
+        // every dimension is as large as its largest sub array, the smaller ones are padded with NULL
+        dims[dimension] = Math.max(dims[dimension], values.size());
+        if (dimension < dims.length - 1) {
             for (Object o : values) {
-                max = Math.max(max, buildDimensions((List<Object>) o, dimensionsList, maxDimensions, currentDimension + 1));
-            }
-
-            if (currentDimension == maxDimensions - 1) {
-                dimensionsList.add(max);
-            }
-            else {
-                Integer current = dimensionsList.get(0);
-                dimensionsList.set(0, Math.max(current, max));
+                if (o != null) {
+                    buildDimensions((List<?>) o, dims, dimension + 1);
+                }
             }
         }
-        // Add the dimensions of 1st dimension
-        if (currentDimension == 1) {
-            dimensionsList.add(0, values.size());
-        }
-        return values.size();
     }
 
-    private int writeArrayAsBinary(ByteBuf buffer, List<Object> array, List<Integer> dimensionsList, int currentDimension)
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private int writeArrayAsBinary(ByteBuf buffer, @Nullable List<?> array, int[] dims, int dimension)
     {
         int bytesWritten = 0;
-
-        if (array == null) {
-            for (int i = 0; i < dimensionsList.get(currentDimension - 1); i++) {
+        int i = 0;
+        if (dimension == dims.length - 1) {
+            if (array != null) {
+                for (Object o : array) {
+                    if (o == null) {
+                        buffer.writeInt(-1);
+                        bytesWritten += 4;
+                    }
+                    else {
+                        bytesWritten += ((PGType) innerType).writeAsBinary(buffer, o);
+                    }
+                    i++;
+                }
+            }
+            // Fill in with -1 for up to max dimensions
+            for (; i < dims[dimension]; i++) {
                 buffer.writeInt(-1);
                 bytesWritten += 4;
             }
-            return bytesWritten;
         }
+        else {
+            if (array != null) {
+                for (Object o : array) {
+                    bytesWritten += writeArrayAsBinary(buffer, (List<?>) o, dims, dimension + 1);
+                    i++;
+                }
+            }
+            for (; i < dims[dimension]; i++) {
+                bytesWritten += writeArrayAsBinary(buffer, null, dims, dimension + 1);
+            }
+        }
+        return bytesWritten;
+    }
 
-        // 2nd to last level
-        if (currentDimension == dimensionsList.size()) {
-            int i = 0;
-            for (Object o : array) {
-                if (o == null) {
-                    buffer.writeInt(-1);
-                    bytesWritten += 4;
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private int writeArrayAsText(ByteBuf buffer, List<?> array)
+    {
+        final int startIndex = buffer.writerIndex();
+        buffer.writeByte('{');
+        boolean first = true;
+        for (Object o : array) {
+            if (!first) {
+                buffer.writeByte(',');
+            }
+            first = false;
+            if (o instanceof List) { // Nested Array -> recursive call
+                writeArrayAsText(buffer, (List<?>) o);
+            }
+            else if (o == null) {
+                buffer.writeBytes(NULL_BYTES);
+            }
+            else {
+                byte[] bytes = ((PGType) innerType).encodeAsUTF8Text(o);
+                if (needDoubleQuoteAround(innerType.oid(), bytes)) {
+                    buffer.writeByte('"');
+                    writeEscaped(buffer, bytes);
+                    buffer.writeByte('"');
                 }
                 else {
-                    bytesWritten += ((PGType) innerType).writeAsBinary(buffer, o);
+                    buffer.writeBytes(bytes);
                 }
-                i++;
-            }
-            // Fill in with -1 for up to max dimensions
-            for (; i < dimensionsList.get(currentDimension - 1); i++) {
-                buffer.writeInt(-1);
-                bytesWritten += 4;
             }
         }
-        else {
-            for (Object o : array) {
-                bytesWritten += writeArrayAsBinary(buffer, (List<Object>) o, dimensionsList, currentDimension + 1);
+        buffer.writeByte('}');
+        return buffer.writerIndex() - startIndex;
+    }
+
+    private static void writeEscaped(ByteBuf buffer, byte[] element)
+    {
+        // Double quotes and backslashes inside a quoted element are escaped with backslash
+        int start = 0;
+        for (int i = 0; i < element.length; i++) {
+            if (element[i] == '"' || element[i] == '\\') {
+                buffer.writeBytes(element, start, i - start);
+                buffer.writeByte('\\');
+                start = i;
             }
         }
-        return bytesWritten;
+        buffer.writeBytes(element, start, element.length - start);
     }
 
     private void readArrayAsBinary(ByteBuf buffer,
@@ -391,7 +388,7 @@ public class PGArray
             }
         }
         if (VarcharType.OID == typeOid) {
-            return element.length == 0 || new String(element, UTF_8).equalsIgnoreCase("NULL");
+            return element.length == 0 || (element.length == NULL_BYTES.length && new String(element, UTF_8).equalsIgnoreCase("NULL"));
         }
         return false;
     }
@@ -16,6 +16,7 @@ package io.wren.base.type;
 
 import io.airlift.log.Logger;
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
 
 import javax.annotation.Nonnull;
 
@@ -197,6 +198,21 @@ public abstract class PGType<T>
 
     public abstract T readBinaryValue(ByteBuf buffer, int valueLength);
 
+    /**
+     * Write the string as UTF8 into the buffer without an intermediate byte array.
+     * The length is reserved first and updated once the value is written.
+     *
+     * @return the number of bytes written. (4 (int32)  + N)
+     */
+    protected static int writeUTF8(ByteBuf buffer, @Nonnull CharSequence value)
+    {
+        int lenIndex = buffer.writerIndex();
+        buffer.writeInt(0);
+        int len = ByteBufUtil.writeUtf8(buffer, value);
+        buffer.setInt(lenIndex, len);
+        return INT32_BYTE_SIZE + len;
+    }
+
     /**
      * Return the UTF8 encoded text representation of the value
      */
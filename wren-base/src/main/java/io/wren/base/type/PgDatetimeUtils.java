@@ -14,6 +14,12 @@
 
 package io.wren.base.type;
 
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static java.time.ZoneOffset.UTC;
+
 public final class PgDatetimeUtils
 {
     private PgDatetimeUtils() {}
@@ -59,4 +65,77 @@ public final class PgDatetimeUtils
     {
         return (microSecondsSince2k / 1000) + EPOCH_DIFF_IN_MS;
     }
+
+    /**
+     * Convert a local date time into a postgres timestamp
+     * (long microseconds since 2000-01-01)
+     */
+    public static long toPgTimestamp(LocalDateTime localDateTime)
+    {
+        return (localDateTime.toEpochSecond(UTC) - EPOCH_DIFF_IN_SEC) * 1_000_000 + localDateTime.getNano() / 1000;
+    }
+
+    /**
+     * Convert an instant into a postgres timestamp
+     * (long microseconds since 2000-01-01)
+     */
+    public static long toPgTimestamp(Instant instant)
+    {
+        return (instant.getEpochSecond() - EPOCH_DIFF_IN_SEC) * 1_000_000 + instant.getNano() / 1000;
+    }
+
+    /**
+     * Whether the year is printed as exactly 4 digits by the {@code yyyy} pattern,
+     * so that the value can be formatted by {@link #formatDate(LocalDate)} or {@link #formatTimestamp(LocalDateTime)}.
+     */
+    static boolean isFourDigitYear(int year)
+    {
+        return year >= 1 && year <= 9999;
+    }
+
+    /**
+     * Format the date as {@code yyyy-MM-dd} straight into ASCII bytes,
+     * which skips the pattern interpretation of {@link java.time.format.DateTimeFormatter}.
+     */
+    static byte[] formatDate(LocalDate date)
+    {
+        byte[] bytes = new byte[10];
+        writeDate(bytes, date.getYear(), date.getMonthValue(), date.getDayOfMonth());
+        return bytes;
+    }
+
+    /**
+     * Format the timestamp as {@code yyyy-MM-dd HH:mm:ss.SSSSSS} straight into ASCII bytes.
+     */
+    static byte[] formatTimestamp(LocalDateTime dateTime)
+    {
+        byte[] bytes = new byte[26];
+        writeDate(bytes, dateTime.getYear(), dateTime.getMonthValue(), dateTime.getDayOfMonth());
+        bytes[10] = ' ';
+        writeDigits(bytes, 11, dateTime.getHour(), 2);
+        bytes[13] = ':';
+        writeDigits(bytes, 14, dateTime.getMinute(), 2);
+        bytes[16] = ':';
+        writeDigits(bytes, 17, dateTime.getSecond(), 2);
+        bytes[19] = '.';
+        writeDigits(bytes, 20, dateTime.getNano() / 1000, 6);
+        return bytes;
+    }
+
+    private static void writeDate(byte[] bytes, int year, int month, int day)
+    {
+        writeDigits(bytes, 0, year, 4);
+        bytes[4] = '-';
+        writeDigits(bytes, 5, month, 2);
+        bytes[7] = '-';
+        writeDigits(bytes, 8, day, 2);
+    }
+
+    private static void writeDigits(byte[] bytes, int offset, int value, int digits)
+    {
+        for (int i = offset + digits - 1; i >= offset; i--) {
+            bytes[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+    }
 }
@@ -17,11 +17,10 @@ package io.wren.base.type;
 import com.carrotsearch.hppc.ByteArrayList;
 import io.netty.buffer.ByteBuf;
 
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 
-import static com.google.common.collect.ImmutableList.toImmutableList;
-
 public class RecordType
         extends PGType<Map<String, Object>>
 {
@@ -63,20 +62,21 @@ public class RecordType
         buffer.writeInt(0); // reserve space for the length of the record; updated later
         buffer.writeInt(fieldTypes.size());
         int bytesWritten = 4;
-        List<Map.Entry<String, Object>> entries = record.entrySet().stream().collect(toImmutableList());
+        // the fields are in the order of the record, so they are walked together without copying the entries
+        Iterator<Object> values = record.values().iterator();
         for (int i = 0; i < fieldTypes.size(); i++) {
             PGType fieldType = fieldTypes.get(i);
 
             buffer.writeInt(fieldType.oid());
             bytesWritten += 4;
 
-            Map.Entry<String, Object> entry = entries.get(i);
-            if (entry.getValue() == null) {
+            Object value = values.next();
+            if (value == null) {
                 buffer.writeInt(-1); // -1 data length signals a NULL
                 bytesWritten += 4;
                 continue;
             }
-            bytesWritten += fieldType.writeAsBinary(buffer, entry.getValue());
+            bytesWritten += fieldType.writeAsBinary(buffer, value);
         }
         buffer.setInt(startWriterIndex, bytesWritten);
         return 4 + bytesWritten;
@@ -95,19 +95,19 @@ public class RecordType
         ByteArrayList bytes = new ByteArrayList();
         // See PostgreSQL src/backend/utils/adt/rowtypes.c record_out(PG_FUNCTION_ARGS)
         bytes.add((byte) '(');
-        List<Map.Entry<String, Object>> rows = record.entrySet().stream().collect(toImmutableList());
+        Iterator<Object> values = record.values().iterator();
         for (int i = 0; i < record.size(); i++) {
             PGType fieldType = fieldTypes.get(i);
-            Map.Entry<String, Object> row = rows.get(i);
+            Object value = values.next();
 
             if (i > 0) {
                 bytes.add((byte) ',');
             }
-            if (row.getValue() == null) {
+            if (value == null) {
                 continue;
             }
 
-            byte[] encodedValue = fieldType.encodeAsUTF8Text(row.getValue());
+            byte[] encodedValue = fieldType.encodeAsUTF8Text(value);
             boolean needQuotes = encodedValue.length == 0;
             for (byte b : encodedValue) {
                 char c = (char) b;
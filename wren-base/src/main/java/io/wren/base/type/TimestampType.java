@@ -73,6 +73,9 @@ public class TimestampType
     public byte[] encodeAsUTF8Text(@Nonnull Object value)
     {
         LocalDateTime dt = (LocalDateTime) value;
+        if (PgDatetimeUtils.isFourDigitYear(dt.getYear())) {
+            return PgDatetimeUtils.formatTimestamp(dt);
+        }
         return PG_TIMESTAMP.format(dt).getBytes(UTF_8);
     }
 
@@ -87,7 +90,12 @@ public class TimestampType
     @Override
     public int writeAsBinary(ByteBuf buffer, @Nonnull Object value)
     {
-        throw new UnsupportedOperationException();
+        if (value instanceof LocalDateTime localDateTime) {
+            buffer.writeInt(TYPE_LEN);
+            buffer.writeLong(PgDatetimeUtils.toPgTimestamp(localDateTime));
+            return INT32_BYTE_SIZE + TYPE_LEN;
+        }
+        return super.writeAsBinary(buffer, value);
     }
 
     @Override
@@ -31,7 +31,6 @@ import java.util.Locale;
 import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.time.format.DateTimeFormatter.ISO_LOCAL_DATE;
 import static java.time.format.DateTimeFormatter.ISO_LOCAL_TIME;
-import static java.time.temporal.ChronoField.MILLI_OF_SECOND;
 
 public class TimestampWithTimeZoneType
         extends BaseTimestampType
@@ -73,7 +72,7 @@ public class TimestampWithTimeZoneType
         if (value instanceof String) {
             return ((String) value).getBytes(UTF_8);
         }
-        return ISO_FORMATTER.print(Instant.from((TemporalAccessor) value).getLong(MILLI_OF_SECOND))
+        return ISO_FORMATTER.print(Instant.from((TemporalAccessor) value).toEpochMilli())
                 .getBytes(UTF_8);
     }
 
@@ -95,7 +94,19 @@ public class TimestampWithTimeZoneType
     @Override
     public int writeAsBinary(ByteBuf buffer, @Nonnull Object value)
     {
-        throw new UnsupportedOperationException("Not implemented yet");
+        Instant instant;
+        if (value instanceof String string) {
+            instant = tryParse(string).toInstant();
+        }
+        else if (value instanceof TemporalAccessor temporal) {
+            instant = Instant.from(temporal);
+        }
+        else {
+            return super.writeAsBinary(buffer, value);
+        }
+        buffer.writeInt(TYPE_LEN);
+        buffer.writeLong(PgDatetimeUtils.toPgTimestamp(instant));
+        return INT32_BYTE_SIZE + TYPE_LEN;
     }
 
     @Override
@@ -65,10 +65,7 @@ public class VarcharType
     @Override
     public int writeAsBinary(ByteBuf buffer, @Nonnull String value)
     {
-        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
-        buffer.writeInt(bytes.length);
-        buffer.writeBytes(bytes);
-        return INT32_BYTE_SIZE + bytes.length;
+        return writeUTF8(buffer, value);
     }
 
     @Override
@@ -0,0 +1,152 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.wren.base;
+
+import io.wren.base.dto.Column;
+import io.wren.base.dto.JoinType;
+import io.wren.base.dto.Manifest;
+import io.wren.base.dto.Metric;
+import io.wren.base.dto.Model;
+import io.wren.base.dto.Relationship;
+import io.wren.base.dto.View;
+import org.testng.annotations.Test;
+
+import java.util.List;
+
+import static io.wren.base.dto.Macro.macro;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TestManifestDiff
+{
+    private final Model customer = Model.model("Customer",
+            "select * from main.customer",
+            List.of(
+                    Column.column("custkey", WrenTypes.INTEGER, null, true),
+                    Column.column("name", WrenTypes.VARCHAR, null, true)),
+            "custkey");
+    private final Model orders = Model.model("Orders",
+            "select * from main.orders",
+            List.of(
+                    Column.column("orderkey", WrenTypes.INTEGER, null, true),
+                    Column.column("custkey", WrenTypes.INTEGER, null, true),
+                    Column.column("customer", "Customer", "OrdersCustomer", true),
+                    Column.caluclatedColumn("customer_name", WrenTypes.VARCHAR, "customer.name")),
+            "orderkey");
+    private final Model lineitem = Model.model("Lineitem",
+            "select * from main.lineitem",
+            List.of(
+                    Column.column("orderkey", WrenTypes.INTEGER, null, true),
+                    Column.column("extendedprice", WrenTypes.INTEGER, null, true)),
+            "orderkey");
+    private final Relationship ordersCustomer = Relationship.relationship("OrdersCustomer", List.of("Orders", "Customer"), JoinType.MANY_TO_ONE, "Orders.custkey = Customer.custkey");
+    private final Metric customerOrders = Metric.metric("CustomerOrders", "Orders",
+            List.of(Column.column("custkey", WrenTypes.INTEGER, null, true)),
+            List.of(Column.column("order_count", WrenTypes.BIGINT, null, true, "count(orderkey)")));
+    private final View customerView = View.view("customer_view", "select * from Customer");
+
+    @Test
+    public void testUnchanged()
+    {
+        ManifestDiff diff = ManifestDiff.diff(manifest().build(), manifest().build());
+        assertThat(diff.isEmpty()).isTrue();
+        assertThat(diff.getAffectedObjects(WrenMDL.fromManifest(manifest().build()))).isEmpty();
+    }
+
+    @Test
+    public void testChangedModel()
+    {
+        Model newCustomer = Model.model("Customer",
+                "select * from main.customer",
+                List.of(
+                        Column.column("custkey", WrenTypes.INTEGER, null, true),
+                        Column.column("name", WrenTypes.VARCHAR, null, true),
+                        Column.column("phone", WrenTypes.VARCHAR, null, true)),
+                "custkey");
+        Manifest current = manifest().setModels(List.of(newCustomer, orders, lineitem)).build();
+        ManifestDiff diff = ManifestDiff.diff(manifest().build(), current);
+
+        assertThat(diff.isSameSchema()).isTrue();
+        assertThat(diff.isGlobalChanged()).isFalse();
+        assertThat(diff.getChangedObjects()).containsExactly("Customer");
+        assertThat(diff.getRemovedObjects()).isEmpty();
+        assertThat(diff.getChangedRelationships()).isEmpty();
+        // Orders uses Customer through the relationship, the metric is based on Orders and the view reads Customer
+        assertThat(diff.getAffectedObjects(WrenMDL.fromManifest(current)))
+                .containsExactlyInAnyOrder("Customer", "Orders", "CustomerOrders", "customer_view");
+    }
+
+    @Test
+    public void testChangedRelationship()
+    {
+        Relationship newOrdersCustomer = Relationship.relationship("OrdersCustomer", List.of("Orders", "Customer"), JoinType.MANY_TO_ONE, "Orders.custkey = Customer.custkey AND Orders.orderkey > 0");
+        Manifest current = manifest().setRelationships(List.of(newOrdersCustomer)).build();
+        ManifestDiff diff = ManifestDiff.diff(manifest().build(), current);
+
+        assertThat(diff.getChangedObjects()).isEmpty();
+        assertThat(diff.getChangedRelationships()).containsExactly("OrdersCustomer");
+        assertThat(diff.getAffectedObjects(WrenMDL.fromManifest(current)))
+                .containsExactlyInAnyOrder("Customer", "Orders", "CustomerOrders", "customer_view");
+    }
+
+    @Test
+    public void testRemovedModel()
+    {
+        Manifest current = manifest().setModels(List.of(customer, orders)).build();
+        ManifestDiff diff = ManifestDiff.diff(manifest().build(), current);
+
+        assertThat(diff.getChangedObjects()).isEmpty();
+        assertThat(diff.getRemovedObjects()).containsExactly("Lineitem");
+        assertThat(diff.getAffectedObjects(WrenMDL.fromManifest(current))).isEmpty();
+    }
+
+    @Test
+    public void testGlobalChanged()
+    {
+        Manifest current = manifest().setMacros(List.of(macro("pass", "(text: Expression) => {{ text }}"))).build();
+        ManifestDiff diff = ManifestDiff.diff(manifest().build(), current);
+        assertThat(diff.isGlobalChanged()).isTrue();
+        assertThat(diff.getAffectedObjects(WrenMDL.fromManifest(current)))
+                .containsExactlyInAnyOrder("Customer", "Orders", "Lineitem", "CustomerOrders", "customer_view");
+
+        current = manifest().setSchema("other").build();
+        diff = ManifestDiff.diff(manifest().build(), current);
+        assertThat(diff.isSameSchema()).isFalse();
+        assertThat(diff.getAffectedObjects(WrenMDL.fromManifest(current)))
+                .containsExactlyInAnyOrder("Customer", "Orders", "Lineitem", "CustomerOrders", "customer_view");
+    }
+
+    @Test
+    public void testReuseRenderedObjects()
+    {
+        WrenMDL previous = WrenMDL.fromManifest(manifest().build());
+        Model newLineitem = Model.model("Lineitem", "select * from main.lineitem", List.of(Column.column("orderkey", WrenTypes.INTEGER, null, true)), "orderkey");
+        WrenMDL current = WrenMDL.fromManifest(manifest().setModels(List.of(customer, orders, newLineitem)).build(), previous);
+
+        assertThat(current.getModel("Customer").orElseThrow()).isSameAs(previous.getModel("Customer").orElseThrow());
+        assertThat(current.getMetric("CustomerOrders").orElseThrow()).isSameAs(previous.getMetric("CustomerOrders").orElseThrow());
+        assertThat(current.getModel("Lineitem").orElseThrow()).isEqualTo(newLineitem);
+    }
+
+    private Manifest.Builder manifest()
+    {
+        return Manifest.builder()
+                .setCatalog("wren")
+                .setSchema("test")
+                .setModels(List.of(customer, orders, lineitem))
+                .setRelationships(List.of(ordersCustomer))
+                .setMetrics(List.of(customerOrders))
+                .setViews(List.of(customerView));
+    }
+}
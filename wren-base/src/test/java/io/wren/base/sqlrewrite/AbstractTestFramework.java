@@ -25,6 +25,7 @@ import io.wren.base.client.duckdb.DuckdbS3StyleStorageConfig;
 import io.wren.base.dto.Column;
 import io.wren.base.dto.Manifest;
 import io.wren.base.dto.Model;
+import io.wren.base.metadata.ColumnMetadata;
 import org.intellij.lang.annotations.Language;
 import org.testng.annotations.AfterClass;
 import org.testng.annotations.BeforeClass;
@@ -32,6 +33,7 @@ import org.testng.annotations.BeforeClass;
 import java.util.Arrays;
 import java.util.List;
 
+import static com.google.common.collect.ImmutableList.toImmutableList;
 import static io.trino.sql.SqlFormatter.Dialect.DUCKDB;
 import static io.trino.sql.SqlFormatter.formatSql;
 import static io.wren.base.sqlrewrite.Utils.parseSql;
@@ -100,6 +102,13 @@ public abstract class AbstractTestFramework
         }
     }
 
+    protected List<String> queryColumns(@Language("SQL") String sql)
+    {
+        return duckdbClient.describe(formatSql(parseSql(sql), DUCKDB), List.of()).stream()
+                .map(ColumnMetadata::getName)
+                .collect(toImmutableList());
+    }
+
     protected void exec(@Language("SQL") String sql)
     {
         duckdbClient.executeDDL(sql);
@@ -29,6 +29,7 @@ import org.intellij.lang.annotations.Language;
 import org.testng.annotations.Test;
 
 import java.util.List;
+import java.util.regex.Pattern;
 
 import static io.wren.base.sqlrewrite.WrenSqlRewrite.WREN_SQL_REWRITE;
 import static java.util.Objects.requireNonNull;
@@ -354,6 +355,126 @@ public abstract class AbstractTestModel
                 .doesNotThrowAnyException();
     }
 
+    @Test
+    public void testPushdown()
+    {
+        Model newOrders = addColumnsToModel(
+                orders,
+                Column.column("customer", "Customer", "OrdersCustomer", true),
+                Column.caluclatedColumn("customer_name", WrenTypes.VARCHAR, "customer.name"),
+                Column.caluclatedColumn("extended_price", WrenTypes.BIGINT, "sum(lineitem.extendedprice)"));
+        Manifest manifest = withDefaultCatalogSchema()
+                .setModels(List.of(customer, newOrders, lineitem))
+                .setRelationships(List.of(ordersCustomer, ordersLineitem))
+                .build();
+        WrenMDL mdl = WrenMDL.fromManifest(manifest);
+
+        @Language("SQL") String dateFilter = "SELECT count(*), sum(totalprice) FROM Orders WHERE orderdate >= DATE '1996-01-01' AND orderdate < DATE '1996-02-01'";
+        assertQuery(mdl, dateFilter,
+                "SELECT count(*), sum(totalprice) FROM orders WHERE orderdate >= DATE '1996-01-01' AND orderdate < DATE '1996-02-01'");
+        assertThat(countMatches(rewrite(dateFilter, mdl, true), "DATE '1996-01-01'")).isGreaterThan(1);
+        assertThat(countMatches(rewrite(dateFilter, mdl, false), "DATE '1996-01-01'")).isGreaterThan(1);
+
+        // the predicate is also pushed into the relationship subqueries of the calculated fields
+        assertQuery(mdl,
+                "SELECT o.orderkey, o.customer_name, o.extended_price FROM Orders o WHERE o.orderkey = 44995 AND o.totalprice > 0",
+                "SELECT o.orderkey, c.name, sum(l.extendedprice) FROM orders o " +
+                        "LEFT JOIN customer c ON o.custkey = c.custkey " +
+                        "LEFT JOIN lineitem l ON o.orderkey = l.orderkey " +
+                        "WHERE o.orderkey = 44995 AND o.totalprice > 0 " +
+                        "GROUP BY 1, 2");
+        // only the conjuncts of the base columns are pushed
+        assertQuery(mdl,
+                "SELECT count(*) FROM Orders WHERE orderdate < DATE '1993-01-01' AND (extended_price > 100000 OR orderkey = 1)",
+                "SELECT count(*) FROM (SELECT o.orderkey FROM orders o LEFT JOIN lineitem l ON o.orderkey = l.orderkey " +
+                        "WHERE o.orderdate < DATE '1993-01-01' GROUP BY 1 HAVING sum(l.extendedprice) > 100000 OR o.orderkey = 1)");
+
+        // the model referenced twice isn't filtered
+        @Language("SQL") String selfJoin = "SELECT count(*) FROM Orders o1 JOIN Orders o2 ON o1.orderkey = o2.orderkey WHERE o1.orderdate < DATE '1993-01-01'";
+        assertQuery(mdl, selfJoin, "SELECT count(*) FROM orders WHERE orderdate < DATE '1993-01-01'");
+        assertThat(countMatches(rewrite(selfJoin, mdl, true), "DATE '1993-01-01'")).isEqualTo(1);
+        assertThat(countMatches(rewrite(selfJoin, mdl, false), "DATE '1993-01-01'")).isEqualTo(1);
+        // the model used by the calculated field of another model isn't filtered
+        Model newLineitem = addColumnsToModel(
+                lineitem,
+                Column.column("orders", "Orders", "OrdersLineitem", true),
+                Column.caluclatedColumn("order_totalprice", WrenTypes.INTEGER, "orders.totalprice"));
+        WrenMDL lineitemMdl = WrenMDL.fromManifest(withDefaultCatalogSchema()
+                .setModels(List.of(customer, orders, newLineitem))
+                .setRelationships(List.of(ordersCustomer, ordersLineitem))
+                .build());
+        assertQuery(lineitemMdl,
+                "SELECT (SELECT count(*) FROM Orders WHERE orderkey = 1), count(order_totalprice) FROM Lineitem",
+                "SELECT (SELECT count(*) FROM orders WHERE orderkey = 1), count(o.totalprice) FROM lineitem l LEFT JOIN orders o ON l.orderkey = o.orderkey");
+
+        @Language("SQL") String limit = "SELECT orderkey, totalprice FROM Orders LIMIT 10";
+        assertThat(query(rewrite(limit, mdl, true))).hasSize(10);
+        assertThat(query(rewrite(limit, mdl, false))).hasSize(10);
+        assertThat(countMatches(rewrite(limit, mdl, true), "LIMIT 10")).isEqualTo(2);
+        assertThat(countMatches(rewrite(limit, mdl, false), "LIMIT 10")).isEqualTo(2);
+        // the limit is pushed with the predicate, but not into the relationship subqueries
+        assertQuery(mdl,
+                "SELECT count(*), sum(extended_price) FROM (SELECT * FROM Orders WHERE orderdate = DATE '1996-01-02' LIMIT 1000)",
+                "SELECT count(DISTINCT o.orderkey), sum(l.extendedprice) FROM orders o LEFT JOIN lineitem l ON o.orderkey = l.orderkey WHERE o.orderdate = DATE '1996-01-02'");
+        // the limit after sorting or aggregation isn't pushed
+        assertQuery(mdl,
+                "SELECT orderkey FROM Orders ORDER BY orderkey DESC LIMIT 3",
+                "SELECT orderkey FROM orders ORDER BY orderkey DESC LIMIT 3");
+        assertQuery(mdl,
+                "SELECT custkey, count(*) FROM Orders GROUP BY custkey ORDER BY 2 DESC, 1 LIMIT 3",
+                "SELECT custkey, count(*) FROM orders GROUP BY custkey ORDER BY 2 DESC, 1 LIMIT 3");
+    }
+
+    @Test
+    public void testJoinElimination()
+    {
+        Model newOrders = addColumnsToModel(
+                orders,
+                Column.column("customer", "Customer", "OrdersCustomer", true),
+                Column.caluclatedColumn("customer_name", WrenTypes.VARCHAR, "customer.name"),
+                Column.caluclatedColumn("customer_phone", WrenTypes.VARCHAR, "customer.phone"),
+                Column.caluclatedColumn("extended_price", WrenTypes.BIGINT, "sum(lineitem.extendedprice)"));
+        Manifest manifest = withDefaultCatalogSchema()
+                .setModels(List.of(customer, newOrders, lineitem))
+                .setRelationships(List.of(ordersCustomer, ordersLineitem))
+                .build();
+        WrenMDL mdl = WrenMDL.fromManifest(manifest);
+
+        @Language("SQL") String baseColumns = "SELECT orderkey, totalprice FROM Orders WHERE orderkey = 44995";
+        assertQuery(mdl, baseColumns, "SELECT orderkey, totalprice FROM orders WHERE orderkey = 44995");
+        // the unused to-one joins are eliminated, while the to-many one is kept
+        assertThat(rewrite(baseColumns, mdl, false))
+                .doesNotContain("customer_name")
+                .doesNotContain("\"Customer\"")
+                .contains("extended_price");
+
+        @Language("SQL") String customerName = "SELECT orderkey, customer_name FROM Orders WHERE orderkey = 44995";
+        assertQuery(mdl, customerName,
+                "SELECT o.orderkey, c.name FROM orders o LEFT JOIN customer c ON o.custkey = c.custkey WHERE o.orderkey = 44995");
+        assertThat(rewrite(customerName, mdl, false))
+                .contains("customer_name")
+                .doesNotContain("customer_phone");
+
+        assertQuery(mdl, "SELECT count(*) FROM Orders", "SELECT count(*) FROM orders");
+        assertQuery(mdl,
+                "SELECT orderkey FROM Orders ORDER BY customer_phone, orderkey LIMIT 3",
+                "SELECT o.orderkey FROM orders o LEFT JOIN customer c ON o.custkey = c.custkey ORDER BY c.phone, o.orderkey LIMIT 3");
+        assertQuery(mdl,
+                "SELECT customer_name, count(*) FROM Orders WHERE custkey = 370 GROUP BY 1",
+                "SELECT c.name, count(*) FROM orders o LEFT JOIN customer c ON o.custkey = c.custkey WHERE o.custkey = 370 GROUP BY 1");
+        assertQuery(mdl,
+                "SELECT o.orderkey, o.customer_name FROM Orders o JOIN Lineitem l ON o.orderkey = l.orderkey WHERE l.orderkey = 44995 AND l.linenumber = 1",
+                "SELECT o.orderkey, c.name FROM orders o LEFT JOIN customer c ON o.custkey = c.custkey WHERE o.orderkey = 44995");
+
+        // all columns keep the to-one calculated fields, whether qualified or not
+        List<String> allColumns = queryColumns(rewrite("SELECT * FROM Orders", mdl, false));
+        assertThat(allColumns).contains("orderkey", "totalprice", "customer_name", "customer_phone", "extended_price");
+        assertThat(queryColumns(rewrite("SELECT o.* FROM Orders o", mdl, false))).isEqualTo(allColumns);
+        assertThat(queryColumns(rewrite("SELECT Orders.* FROM Orders", mdl, false))).isEqualTo(allColumns);
+        assertThat(queryColumns(rewrite("SELECT o.*, l.linenumber FROM Orders o JOIN Lineitem l ON o.orderkey = l.orderkey", mdl, false)))
+                .isEqualTo(ImmutableList.<String>builder().addAll(allColumns).add("linenumber").build());
+    }
+
     @Test
     public void testSelectNotFound()
     {
@@ -392,6 +513,11 @@ public abstract class AbstractTestModel
         assertThat(query(rewrite(wrenSql, mdl, false))).isEqualTo(query(duckDBSql));
     }
 
+    private static int countMatches(String sql, String pattern)
+    {
+        return sql.split(Pattern.quote(pattern), -1).length - 1;
+    }
+
     private String rewrite(String sql, WrenMDL wrenMDL, boolean enableDynamicField)
     {
         SessionContext sessionContext = SessionContext.builder()
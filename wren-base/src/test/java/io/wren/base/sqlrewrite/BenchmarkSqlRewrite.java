@@ -0,0 +1,257 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.wren.base.sqlrewrite;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import io.trino.sql.SqlFormatter;
+import io.trino.sql.tree.QualifiedName;
+import io.trino.sql.tree.Statement;
+import io.wren.base.AnalyzedMDL;
+import io.wren.base.SessionContext;
+import io.wren.base.WrenMDL;
+import io.wren.base.WrenTypes;
+import io.wren.base.dto.Column;
+import io.wren.base.dto.JoinType;
+import io.wren.base.dto.Manifest;
+import io.wren.base.dto.Model;
+import io.wren.base.dto.Relationship;
+import io.wren.base.dto.View;
+import io.wren.base.sqlrewrite.analyzer.Analysis;
+import io.wren.base.sqlrewrite.analyzer.StatementAnalyzer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.testng.annotations.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static io.wren.base.sqlrewrite.Utils.parseSql;
+import static java.lang.String.format;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Every step of planning a query against a generated MDL: parsing, formatting, analysis, each rule of {@link WrenPlanner},
+ * the cache rewrite, the data lineage and building the {@link WrenMDL} itself.
+ * <p>
+ * The MDL has a chain of models where each model has a to-one relationship to the next one and a calculated field over it.
+ * The query only touches the first two models, so any step whose cost grows with the size of the MDL shows up here.
+ */
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@BenchmarkMode(Mode.AverageTime)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+public class BenchmarkSqlRewrite
+{
+    private static final SessionContext SESSION_CONTEXT = SessionContext.builder()
+            .setCatalog("wren")
+            .setSchema("test")
+            .build();
+
+    private static final String QUERY = "WITH recent AS (SELECT c_0, c_1, next_c_1 FROM model_0 WHERE c_2 > 10)\n" +
+            "SELECT r.c_0, sum(r.c_1), max(r.next_c_1), count(*) FROM recent r JOIN model_1 m ON r.c_0 = m.c_0 GROUP BY 1 ORDER BY 2 DESC LIMIT 100";
+
+    private static final List<QualifiedName> REQUIRED_FIELDS = List.of(
+            QualifiedName.of("model_0", "next_c_1"),
+            QualifiedName.of("model_1", "c_1"));
+
+    @Param({"10", "100", "1000"})
+    public int models = 10;
+
+    @Param({"8", "300"})
+    public int columns = 8;
+
+    private Manifest manifest;
+    private AnalyzedMDL analyzedMDL;
+    private Statement statement;
+    private String rewritten;
+    private Statement rewrittenStatement;
+
+    @Setup
+    public void setup()
+    {
+        manifest = generateManifest(models, columns);
+        WrenMDL wrenMDL = WrenMDL.fromManifest(manifest);
+        analyzedMDL = new AnalyzedMDL(wrenMDL, WrenDataLineage.analyze(wrenMDL), null);
+        statement = parseSql(QUERY);
+        rewritten = WrenPlanner.rewrite(QUERY, SESSION_CONTEXT, analyzedMDL);
+        rewrittenStatement = parseSql(rewritten);
+    }
+
+    @State(Scope.Benchmark)
+    public static class RuleInput
+    {
+        @Param({"GenerateViewRewrite", "MetricRollupRewrite", "WrenSqlRewrite", "EnumRewrite"})
+        public String rule = "WrenSqlRewrite";
+
+        private WrenRule wrenRule;
+        private Statement input;
+
+        @Setup
+        public void setup(BenchmarkSqlRewrite benchmark)
+        {
+            // the input of a rule is the output of the rules before it, as WrenPlanner chains them
+            Statement statement = benchmark.statement;
+            for (WrenRule current : WrenPlanner.ALL_RULES) {
+                if (current.getClass().getSimpleName().equals(rule)) {
+                    wrenRule = current;
+                    input = statement;
+                    return;
+                }
+                statement = parseSql(SqlFormatter.formatSql(current.apply(statement, SESSION_CONTEXT, benchmark.analyzedMDL)));
+            }
+            throw new IllegalArgumentException("Unknown rule: " + rule);
+        }
+    }
+
+    @Benchmark
+    public Statement parse()
+    {
+        return parseSql(QUERY);
+    }
+
+    @Benchmark
+    public Statement parseRewritten()
+    {
+        return parseSql(rewritten);
+    }
+
+    @Benchmark
+    public String formatSql()
+    {
+        return SqlFormatter.formatSql(rewrittenStatement);
+    }
+
+    @Benchmark
+    public Analysis analyze()
+    {
+        Analysis analysis = new Analysis(statement);
+        StatementAnalyzer.analyze(analysis, statement, SESSION_CONTEXT, analyzedMDL.getWrenMDL());
+        return analysis;
+    }
+
+    @Benchmark
+    public Statement applyRule(RuleInput ruleInput)
+    {
+        return ruleInput.wrenRule.apply(ruleInput.input, SESSION_CONTEXT, analyzedMDL);
+    }
+
+    @Benchmark
+    public String rewrite()
+    {
+        return WrenPlanner.rewrite(QUERY, SESSION_CONTEXT, analyzedMDL);
+    }
+
+    @Benchmark
+    public Optional<String> cacheRewrite()
+    {
+        return CacheRewrite.rewrite(SESSION_CONTEXT, QUERY, table -> Optional.of("cached_" + table.getSchemaTableName().getTableName()), analyzedMDL.getWrenMDL());
+    }
+
+    @Benchmark
+    public WrenDataLineage dataLineage()
+    {
+        return WrenDataLineage.analyze(analyzedMDL.getWrenMDL());
+    }
+
+    @Benchmark
+    public LinkedHashMap<String, Set<String>> requiredFields()
+    {
+        return analyzedMDL.getWrenDataLineage().getRequiredFields(REQUIRED_FIELDS);
+    }
+
+    @Benchmark
+    public WrenMDL fromManifest()
+    {
+        return WrenMDL.fromManifest(manifest);
+    }
+
+    @Test
+    public void verify()
+    {
+        setup();
+
+        assertThat(parseRewritten()).isEqualTo(rewrittenStatement);
+        assertThat(formatSql()).isEqualTo(rewritten);
+        assertThat(rewritten).contains("model_0").contains("model_1");
+        assertThat(analyze().getModels()).hasSize(2);
+        assertThat(cacheRewrite()).hasValueSatisfying(sql -> assertThat(sql).contains("cached_model_0").contains("cached_model_1"));
+        assertThat(requiredFields()).containsOnlyKeys("model_0", "model_1");
+        assertThat(fromManifest().listModels()).hasSize(models);
+
+        assertThat(WrenPlanner.ALL_RULES.stream().map(rule -> rule.getClass().getSimpleName()))
+                .containsExactly("GenerateViewRewrite", "MetricRollupRewrite", "WrenSqlRewrite", "EnumRewrite");
+        for (WrenRule rule : WrenPlanner.ALL_RULES) {
+            RuleInput ruleInput = new RuleInput();
+            ruleInput.rule = rule.getClass().getSimpleName();
+            ruleInput.setup(this);
+            assertThat(applyRule(ruleInput)).isNotNull();
+        }
+    }
+
+    private static Manifest generateManifest(int models, int columns)
+    {
+        ImmutableList.Builder<Model> modelBuilder = ImmutableList.builder();
+        ImmutableList.Builder<Relationship> relationshipBuilder = ImmutableList.builder();
+        for (int i = 0; i < models; i++) {
+            String name = "model_" + i;
+            ImmutableList.Builder<Column> columnBuilder = ImmutableList.builder();
+            for (int j = 0; j < columns; j++) {
+                columnBuilder.add(Column.column("c_" + j, j % 4 == 3 ? WrenTypes.VARCHAR : WrenTypes.INTEGER, null, true));
+            }
+            if (i + 1 < models) {
+                String next = "model_" + (i + 1);
+                String relationship = name + "_" + next;
+                columnBuilder.add(Column.column("next", next, relationship, true));
+                columnBuilder.add(Column.caluclatedColumn("next_c_1", WrenTypes.INTEGER, "next.c_1"));
+                relationshipBuilder.add(Relationship.relationship(relationship, List.of(name, next), JoinType.MANY_TO_ONE, format("%s.c_0 = %s.c_0", name, next)));
+            }
+            modelBuilder.add(new Model(name, format("select * from main.table_%s", i), null, null, columnBuilder.build(), "c_0", true, null, ImmutableMap.of()));
+        }
+        return Manifest.builder()
+                .setCatalog(SESSION_CONTEXT.getCatalog().orElseThrow())
+                .setSchema(SESSION_CONTEXT.getSchema().orElseThrow())
+                .setModels(modelBuilder.build())
+                .setRelationships(relationshipBuilder.build())
+                .setViews(List.of(View.view("view_0", "SELECT c_0, next_c_1 FROM model_0")))
+                .build();
+    }
+
+    public static void main(String[] args)
+            throws RunnerException
+    {
+        new Runner(new OptionsBuilder()
+                .include(".*" + BenchmarkSqlRewrite.class.getSimpleName() + ".*")
+                .build())
+                .run();
+    }
+}
@@ -50,6 +50,7 @@ public class TestCacheRewrite
                     .put(new CatalogSchemaTableName("wren", "test", "Collection"), "table_Collection")
                     .put(new CatalogSchemaTableName("wren", "test", "AvgCollection"), "table_AvgCollection")
                     .put(new CatalogSchemaTableName("wren", "test", "t-1"), "table_t-1")
+                    .put(new CatalogSchemaTableName("wren", "test", "DailyPrice"), "table_DailyPrice")
                     .put(new CatalogSchemaTableName("wren", "test", "Album"), "table_Album")
                     .put(new CatalogSchemaTableName("wren", "test", "Tag"), "table_Tag")
                     .build();
@@ -122,7 +123,40 @@ public class TestCacheRewrite
                                 List.of(
                                         TimeGrain.timeGrain("p_date", "Album.publish_date", List.of(TimeUnit.YEAR)),
                                         TimeGrain.timeGrain("r_date", "Album.release_date", List.of(TimeUnit.YEAR))),
-                                true)))
+                                true),
+                        Metric.metric(
+                                "DailyPrice",
+                                "Album",
+                                List.of(
+                                        Column.column("author", WrenTypes.VARCHAR, null, true),
+                                        Column.column("p_day", WrenTypes.DATE, null, true, "date_trunc('day', Album.publish_date)")),
+                                List.of(
+                                        Column.column("price", WrenTypes.INTEGER, null, true, "sum(Album.price)"),
+                                        Column.column("cnt", WrenTypes.BIGINT, null, true, "count(*)")),
+                                List.of(),
+                                true),
+                        Metric.metric(
+                                "AuthorPrice",
+                                "Album",
+                                List.of(Column.column("author", WrenTypes.VARCHAR, null, true)),
+                                List.of(Column.column("price", WrenTypes.INTEGER, null, true, "sum(Album.price)"))),
+                        Metric.metric(
+                                "MonthlyPrice",
+                                "Album",
+                                List.of(Column.column("p_month", WrenTypes.DATE, null, true, "date_trunc('month', publish_date)")),
+                                List.of(
+                                        Column.column("price", WrenTypes.INTEGER, null, true, "sum(price)"),
+                                        Column.column("cnt", WrenTypes.BIGINT, null, true, "count(*)"))),
+                        Metric.metric(
+                                "AlbumCount",
+                                "Album",
+                                List.of(),
+                                List.of(Column.column("cnt", WrenTypes.BIGINT, null, true, "count(*)"))),
+                        Metric.metric(
+                                "AuthorAvgPrice",
+                                "Album",
+                                List.of(Column.column("author", WrenTypes.VARCHAR, null, true)),
+                                List.of(Column.column("price", WrenTypes.DECIMAL, null, true, "avg(Album.price)")))))
                 .build());
     }
 
@@ -363,6 +397,38 @@ public class TestCacheRewrite
                 "SELECT * FROM table_AvgCollection WHERE avg = 1.0");
     }
 
+    @Test
+    public void testAggregateNavigation()
+    {
+        assertRewrite(
+                "SELECT author, price FROM AuthorPrice WHERE author = 'ZUTOMAYO'",
+                "wren",
+                "test",
+                "WITH \"AuthorPrice_rollup\" AS (SELECT \"author\" \"author\", CAST(sum(\"price\") AS integer) \"price\" FROM table_Collection GROUP BY 1) " +
+                        "SELECT author, price FROM AuthorPrice_rollup WHERE author = 'ZUTOMAYO'");
+        // a count is rolled up by summing the partial counts, and the days are truncated to months again
+        assertRewrite(
+                "SELECT * FROM wren.test.MonthlyPrice",
+                "wren",
+                "test",
+                "WITH \"MonthlyPrice_rollup\" AS (SELECT date_trunc('month', \"p_day\") \"p_month\", CAST(sum(\"price\") AS integer) \"price\", " +
+                        "CAST(coalesce(sum(\"cnt\"), 0) AS bigint) \"cnt\" " +
+                        "FROM table_DailyPrice GROUP BY 1) " +
+                        "SELECT * FROM MonthlyPrice_rollup");
+        // without a dimension, the count of an empty cached table is still 0
+        assertRewrite(
+                "SELECT cnt FROM AlbumCount",
+                "wren",
+                "test",
+                "WITH \"AlbumCount_rollup\" AS (SELECT CAST(coalesce(sum(\"cnt\"), 0) AS bigint) \"cnt\" FROM table_DailyPrice) " +
+                        "SELECT cnt FROM AlbumCount_rollup");
+        // an average can't be computed from the cached averages
+        assertThat(rewriteCached("SELECT * FROM AuthorAvgPrice")).isEmpty();
+        // all the tables should be answered by the cache
+        assertThat(rewriteCached("SELECT * FROM AuthorPrice JOIN Album ON AuthorPrice.author = Album.author")).isPresent();
+        assertThat(rewriteCached("SELECT * FROM AuthorAvgPrice JOIN Collection ON AuthorAvgPrice.author = Collection.author")).isEmpty();
+    }
+
     @DataProvider(name = "unexpectedStatementProvider")
     public Object[][] unexpectedStatementProvider()
     {
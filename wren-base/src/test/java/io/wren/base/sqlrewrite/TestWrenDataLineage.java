@@ -197,6 +197,46 @@ public class TestWrenDataLineage
         assertThat(actual).isEqualTo(expected);
     }
 
+    @Test
+    public void testAnalyzeIncrementally()
+    {
+        Model newCustomer = addColumnsToModel(
+                customer,
+                Column.column("orders", "Orders", "OrdersCustomer", true),
+                Column.caluclatedColumn("total_price", WrenTypes.BIGINT, "sum(orders.totalprice)"));
+        Model newOrders = addColumnsToModel(
+                orders,
+                Column.column("customer", "Customer", "OrdersCustomer", true),
+                Column.caluclatedColumn("customer_name", WrenTypes.BIGINT, "customer.name"));
+        Manifest manifest = withDefaultCatalogSchema()
+                .setModels(List.of(newCustomer, newOrders, lineitem))
+                .setRelationships(List.of(ordersCustomer, ordersLineitem))
+                .build();
+        WrenDataLineage previous = WrenDataLineage.analyze(WrenMDL.fromManifest(manifest));
+
+        Model changedLineitem = addColumnsToModel(
+                lineitem,
+                Column.column("orders", "Orders", "OrdersLineitem", true),
+                Column.caluclatedColumn("customer_name", WrenTypes.VARCHAR, "orders.customer_name"));
+        Manifest changed = withDefaultCatalogSchema()
+                .setModels(List.of(newCustomer, newOrders, changedLineitem))
+                .setRelationships(List.of(ordersCustomer, ordersLineitem))
+                .build();
+        WrenMDL mdl = WrenMDL.fromManifest(changed);
+        WrenDataLineage incremental = WrenDataLineage.analyze(mdl, previous, Set.of("Lineitem"));
+        WrenDataLineage full = WrenDataLineage.analyze(mdl);
+
+        for (QualifiedName column : List.of(
+                QualifiedName.of("Customer", "total_price"),
+                QualifiedName.of("Orders", "customer_name"),
+                QualifiedName.of("Lineitem", "customer_name"))) {
+            assertThat(incremental.getSourceColumns(column)).isEqualTo(full.getSourceColumns(column));
+            assertThat(incremental.getRequiredFields(column)).isEqualTo(full.getRequiredFields(column));
+        }
+        assertThat(incremental.getRequiredFields(QualifiedName.of("Lineitem", "customer_name")))
+                .containsOnlyKeys("Customer", "Orders", "Lineitem");
+    }
+
     @Test
     public void testAnalyzeModelOnModel()
     {
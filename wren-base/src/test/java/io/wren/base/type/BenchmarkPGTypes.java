@@ -0,0 +1,173 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.wren.base.type;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.joda.time.Period;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.testng.annotations.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Encodes a batch of values of one type into a data row buffer, in the text and the binary format.
+ */
+@State(Scope.Thread)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@BenchmarkMode(Mode.AverageTime)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+public class BenchmarkPGTypes
+{
+    private static final int ROWS = 1024;
+
+    @Param({"numeric", "numeric_large", "date", "timestamp", "interval", "varchar", "int4_array", "varchar_array", "record"})
+    private String type = "numeric";
+
+    private PGType<Object> pgType;
+    private List<Object> values;
+    private ByteBuf buffer;
+
+    @Setup
+    public void setup()
+    {
+        pgType = getType(type);
+        values = generateValues(type, new Random(42));
+        buffer = Unpooled.buffer(64 * ROWS);
+    }
+
+    @TearDown
+    public void tearDown()
+    {
+        buffer.release();
+    }
+
+    @Benchmark
+    public ByteBuf writeAsBinary()
+    {
+        buffer.clear();
+        for (Object value : values) {
+            pgType.writeAsBinary(buffer, value);
+        }
+        return buffer;
+    }
+
+    @Benchmark
+    public ByteBuf writeAsText()
+    {
+        buffer.clear();
+        for (Object value : values) {
+            pgType.writeAsText(buffer, value);
+        }
+        return buffer;
+    }
+
+    @Test
+    public void verify()
+    {
+        // every generated value has to be encodable in both formats
+        for (String name : List.of("numeric", "numeric_large", "date", "timestamp", "interval", "varchar", "int4_array", "varchar_array", "record")) {
+            BenchmarkPGTypes benchmark = new BenchmarkPGTypes();
+            benchmark.type = name;
+            benchmark.setup();
+            try {
+                assertThat(benchmark.writeAsBinary().readableBytes()).isGreaterThan(0);
+                assertThat(benchmark.writeAsText().readableBytes()).isGreaterThan(0);
+            }
+            finally {
+                benchmark.tearDown();
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static PGType<Object> getType(String type)
+    {
+        PGType<?> pgType = switch (type) {
+            case "numeric", "numeric_large" -> NumericType.NUMERIC;
+            case "date" -> DateType.DATE;
+            case "timestamp" -> TimestampType.TIMESTAMP;
+            case "interval" -> IntervalType.INTERVAL;
+            case "varchar" -> VarcharType.VARCHAR;
+            case "int4_array" -> PGArray.INT4_ARRAY;
+            case "varchar_array" -> PGArray.VARCHAR_ARRAY;
+            case "record" -> new RecordType(List.of(IntegerType.INTEGER, VarcharType.VARCHAR, NumericType.NUMERIC));
+            default -> throw new IllegalArgumentException("Unsupported type: " + type);
+        };
+        return (PGType<Object>) pgType;
+    }
+
+    private static List<Object> generateValues(String type, Random random)
+    {
+        List<Object> values = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            values.add(switch (type) {
+                case "numeric" -> BigDecimal.valueOf(random.nextLong() % 1_000_000_000_000L, 2);
+                case "numeric_large" -> new BigDecimal(random.nextLong() + "" + Math.abs(random.nextLong())).movePointLeft(5);
+                case "date" -> LocalDate.ofEpochDay(random.nextInt(20_000));
+                case "timestamp" -> LocalDateTime.of(LocalDate.ofEpochDay(random.nextInt(20_000)), LocalTime.ofNanoOfDay(random.nextLong(86_400_000_000_000L)));
+                case "interval" -> new Period(0, random.nextInt(12), 0, random.nextInt(30), random.nextInt(24), random.nextInt(60), random.nextInt(60), random.nextInt(1000));
+                case "varchar" -> "customer#" + random.nextInt();
+                case "int4_array" -> List.of(random.nextInt(), random.nextInt(), random.nextInt(), random.nextInt());
+                case "varchar_array" -> List.of("tag " + random.nextInt(100), "tag" + random.nextInt(100), "");
+                case "record" -> {
+                    Map<String, Object> record = new LinkedHashMap<>();
+                    record.put("f1", random.nextInt());
+                    record.put("f2", "name " + random.nextInt(1000));
+                    record.put("f3", BigDecimal.valueOf(random.nextInt(), 2));
+                    yield record;
+                }
+                default -> throw new IllegalArgumentException("Unsupported type: " + type);
+            });
+        }
+        return values;
+    }
+
+    public static void main(String[] args)
+            throws RunnerException
+    {
+        new Runner(new OptionsBuilder()
+                .include(".*" + BenchmarkPGTypes.class.getSimpleName() + ".*")
+                .build())
+                .run();
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.wren.base.type;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.joda.time.Period;
+import org.testng.annotations.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The encoders print and write the values the way PostgreSQL does.
+ */
+public class TestPGTypeEncoding
+{
+    @Test
+    public void testNumeric()
+    {
+        assertBinaryRoundTrip(NumericType.NUMERIC,
+                List.of(BigDecimal.ZERO, new BigDecimal("0.00"), new BigDecimal("1234567.12"), new BigDecimal("-0.0001234"), new BigDecimal("10000"),
+                        new BigDecimal("1.00001"), new BigDecimal("9223372036854775807"), new BigDecimal("-3141592653589793238462643.38327")));
+        assertThat(readBinary(NumericType.NUMERIC, new BigDecimal("1E+3"))).isEqualTo(new BigDecimal("1000"));
+        assertThat(readBinary(NumericType.NUMERIC, 42L)).isEqualTo(new BigDecimal("42"));
+        assertText(NumericType.NUMERIC, new BigDecimal("1E-7"), "0.0000001");
+    }
+
+    @Test
+    public void testDatetime()
+    {
+        assertBinaryRoundTrip(DateType.DATE, List.of(LocalDate.of(2000, 1, 1), LocalDate.of(1952, 4, 3), LocalDate.of(2019, 12, 31)));
+        assertText(DateType.DATE, LocalDate.of(987, 6, 5), "0987-06-05");
+        assertText(TimestampType.TIMESTAMP, LocalDateTime.of(2019, 1, 1, 1, 1, 1, 1_000_000), "2019-01-01 01:01:01.001000");
+        assertThat(readBinary(TimestampType.TIMESTAMP, LocalDateTime.of(2000, 1, 1, 0, 0, 1)))
+                .isEqualTo(PgDatetimeUtils.toTrinoTimestamp(1_000_000));
+    }
+
+    @Test
+    public void testInterval()
+    {
+        assertBinaryRoundTrip(IntervalType.INTERVAL, List.of(new Period(1, 2, 0, 3, 4, 5, 6, 789), new Period(0, 0, 0, 0, -1, -2, -3, 0)));
+        assertText(IntervalType.INTERVAL, new Period(1, 2, 0, 3, 4, 5, 6, 789), "1 year 2 mons 3 days 04:05:06.789");
+        assertText(IntervalType.INTERVAL, new Period(0, 0, 0, 1, 0, 0, 0, 0), "1 day");
+        assertText(IntervalType.INTERVAL, new Period(0, 0, 0, 0, -1, 0, 0, 0), "-01:00:00");
+        assertText(IntervalType.INTERVAL, Period.ZERO, "00:00:00");
+    }
+
+    @Test
+    public void testArray()
+    {
+        List<Object> matrix = List.of(List.of(1, 2), Arrays.asList(3, null), List.of(5, 6));
+        assertBinaryRoundTrip(PGArray.INT4_ARRAY, List.of(matrix));
+        assertText(PGArray.INT4_ARRAY, matrix, "{{1,2},{3,NULL},{5,6}}");
+        assertText(PGArray.VARCHAR_ARRAY, Arrays.asList("a b", "x\"y", "null", null, "z"), "{\"a b\",\"x\\\"y\",\"null\",NULL,z}");
+    }
+
+    @Test
+    public void testRecord()
+    {
+        RecordType recordType = new RecordType(List.of(IntegerType.INTEGER, VarcharType.VARCHAR));
+        Map<String, Object> record = new LinkedHashMap<>();
+        record.put("f1", 1);
+        record.put("f2", "a b");
+        assertText(recordType, record, "(1,\"a b\")");
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void assertText(PGType<?> pgType, Object value, String expected)
+    {
+        assertThat(((PGType<Object>) pgType).encodeAsUTF8Text(value)).isEqualTo(expected.getBytes(UTF_8));
+    }
+
+    private static <T> void assertBinaryRoundTrip(PGType<T> pgType, List<T> values)
+    {
+        for (T value : values) {
+            assertThat(readBinary(pgType, value)).isEqualTo(value);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Object readBinary(PGType<?> pgType, Object value)
+    {
+        ByteBuf buffer = Unpooled.buffer();
+        try {
+            int written = ((PGType<Object>) pgType).writeAsBinary(buffer, value);
+            assertThat(buffer.readableBytes()).isEqualTo(written);
+            int length = buffer.readInt();
+            assertThat(length).isEqualTo(written - PGType.INT32_BYTE_SIZE);
+            return pgType.readBinaryValue(buffer, length);
+        }
+        finally {
+            buffer.release();
+        }
+    }
+}
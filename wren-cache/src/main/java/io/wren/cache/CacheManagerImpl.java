@@ -193,7 +193,7 @@ public class CacheManagerImpl
             Statement parsedStatement = parseSql(wrenRewritten);
             Statement rewrittenStatement = extraRewriter.rewrite(parsedStatement);
 
-            createCache(mdl, cacheInfo, sessionContext, rewrittenStatement, duckdbTableName);
+            createCache(mdl, cacheInfo, sessionContext, rewrittenStatement, duckdbTableName, taskInfo);
             cachedTableMapping.putCachedTableMapping(catalogSchemaTableName, new CacheInfoPair(cacheInfo, duckdbTableName, createTime));
         });
     }
@@ -203,13 +203,32 @@ public class CacheManagerImpl
             CacheInfo cacheInfo,
             SessionContext sessionContext,
             Statement rewrittenStatement,
-            String duckdbTableName)
+            String duckdbTableName,
+            TaskInfo taskInfo)
     {
+        String statement = sqlConverter.convert(getFormattedSql(rewrittenStatement, sqlParser), sessionContext);
+        DuckDBConfig duckDBConfig = configManager.getConfig(DuckDBConfig.class);
+        Optional<ConnectorRecordIterator> rows = cacheService.streamCache(statement, duckDBConfig.getCacheFetchSize());
+        if (rows.isPresent()) {
+            try (ConnectorRecordIterator iterator = rows.get()) {
+                long loadedRows = new DuckdbCacheLoader(pgMetastore, duckDBConfig.getCacheAppendBatchSize())
+                        .load(iterator, duckdbTableName, taskInfo::setLoadedRows);
+                LOG.info("Loaded %s rows of cache %s into %s", loadedRows, cacheInfo.getName(), duckdbTableName);
+            }
+            catch (WrenException e) {
+                throw e;
+            }
+            catch (Exception e) {
+                throw new WrenException(GENERIC_INTERNAL_ERROR, e);
+            }
+            return;
+        }
+
         cacheService.createCache(
                         mdl.getCatalog(),
                         mdl.getSchema(),
                         cacheInfo.getName(),
-                        sqlConverter.convert(getFormattedSql(rewrittenStatement, sqlParser), sessionContext))
+                        statement)
                 .ifPresent(pathInfo -> {
                     try {
                         tempFileLocations.add(pathInfo);
@@ -252,8 +271,8 @@ public class CacheManagerImpl
                 .filter(entry -> entry.getKey().getCatalogName().equals(catalogName)
                         && entry.getKey().getSchemaTableName().getSchemaName().equals(schemaName))
                 .forEach(entry -> {
-                    entry.getValue().getTableName().ifPresent(pgMetastore::dropTableIfExists);
                     cachedTableMapping.remove(entry.getKey());
+                    entry.getValue().getTableName().ifPresent(cachedTableMapping::retireTable);
                 });
 
         tasks.keySet().stream()
@@ -276,8 +295,8 @@ public class CacheManagerImpl
         }
 
         Optional.ofNullable(cachedTableMapping.get(catalogSchemaTableName)).ifPresent(cacheInfoPair -> {
-            cacheInfoPair.getTableName().ifPresent(pgMetastore::dropTableIfExists);
             cachedTableMapping.remove(catalogSchemaTableName);
+            cacheInfoPair.getTableName().ifPresent(cachedTableMapping::retireTable);
         });
 
         Task task = tasks.remove(catalogSchemaTableName);
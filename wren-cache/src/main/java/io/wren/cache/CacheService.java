@@ -13,11 +13,24 @@
  */
 package io.wren.cache;
 
+import io.wren.base.ConnectorRecordIterator;
+
 import java.util.Optional;
 
 public interface CacheService
 {
     Optional<PathInfo> createCache(String catalog, String schema, String name, String statement);
 
+    /**
+     * Query the rows of a cache which are appended to DuckDB as they're fetched, without staging them in files.
+     * The services which export the cache to the storage return empty, and the cache is created by {@link #createCache}.
+     *
+     * @param fetchSize the number of rows fetched from the data source at a time
+     */
+    default Optional<ConnectorRecordIterator> streamCache(String statement, int fetchSize)
+    {
+        return Optional.empty();
+    }
+
     void deleteTarget(PathInfo pathInfo);
 }
@@ -16,6 +16,7 @@ package io.wren.cache;
 
 import com.google.common.collect.ImmutableList;
 import com.google.inject.Inject;
+import io.airlift.stats.TimeStat;
 import io.wren.base.ConnectorRecordIterator;
 import io.wren.base.WrenException;
 import io.wren.base.client.duckdb.DuckDBConfig;
@@ -26,7 +27,9 @@ import java.io.IOException;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
-import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeoutException;
 
 import static io.airlift.concurrent.Threads.threadsNamed;
@@ -36,14 +39,19 @@ import static io.wren.base.metadata.StandardErrorCode.EXCEEDED_TIME_LIMIT;
 import static io.wren.base.metadata.StandardErrorCode.GENERIC_INTERNAL_ERROR;
 import static java.util.Objects.requireNonNull;
 import static java.util.concurrent.CompletableFuture.runAsync;
-import static java.util.concurrent.Executors.newFixedThreadPool;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static java.util.concurrent.TimeUnit.SECONDS;
 
+/**
+ * The cache tasks, which build the cached tables, and the cache queries, which read them, run on separate pools,
+ * so the queries never wait behind a long refresh of the cached tables.
+ */
 public class CacheTaskManager
         implements Closeable
 {
     private final PgMetastore pgMetastore;
-    private final ExecutorService taskExecutorService;
+    private final TaskPool cacheTaskPool;
+    private final TaskPool cacheQueryPool;
     private final DuckDBConfig duckDBConfig;
     private final double cacheMemoryLimit;
 
@@ -52,35 +60,36 @@ public class CacheTaskManager
     {
         this.duckDBConfig = requireNonNull(duckDBConfig, "duckDBConfig is null");
         this.pgMetastore = requireNonNull(pgMetastore, "pgMetastore is null");
-        this.taskExecutorService = newFixedThreadPool(duckDBConfig.getMaxConcurrentTasks(), threadsNamed("duckdb-task-%s"));
+        this.cacheTaskPool = new TaskPool(duckDBConfig.getMaxConcurrentTasks(), "duckdb-task-%s");
+        this.cacheQueryPool = new TaskPool(duckDBConfig.getMaxConcurrentCacheQueries(), "duckdb-cache-query-%s");
         this.cacheMemoryLimit = duckDBConfig.getMaxCacheTableSizeRatio() * duckDBConfig.getMemoryLimit().toBytes();
     }
 
     public CompletableFuture<Void> addCacheTask(Runnable runnable)
     {
-        return runAsync(runnable, taskExecutorService);
+        return runAsync(cacheTaskPool.track(runnable), cacheTaskPool.executor);
     }
 
     public <T> T addCacheQueryTask(Callable<T> callable)
     {
-        try {
-            return taskExecutorService.submit(callable).get(duckDBConfig.getMaxCacheQueryTimeout(), SECONDS);
-        }
-        catch (TimeoutException e) {
-            throw new WrenException(EXCEEDED_TIME_LIMIT, "Query time limit exceeded", e);
-        }
-        catch (InterruptedException | ExecutionException e) {
-            throw new WrenException(GENERIC_INTERNAL_ERROR, e);
-        }
+        return waitForCacheQuery(cacheQueryPool.executor.submit(cacheQueryPool.track(callable)));
     }
 
     // for canner use
     public void addCacheQueryDDLTask(Runnable runnable)
+    {
+        waitForCacheQuery(cacheQueryPool.executor.submit(cacheQueryPool.track(runnable)));
+    }
+
+    private <T> T waitForCacheQuery(Future<T> future)
     {
         try {
-            taskExecutorService.submit(runnable).get(duckDBConfig.getMaxCacheQueryTimeout(), SECONDS);
+            return future.get(duckDBConfig.getMaxCacheQueryTimeout(), SECONDS);
         }
         catch (TimeoutException e) {
+            // don't let a query which is still queued take a slot after its caller gave up
+            future.cancel(false);
+            cacheQueryPool.executor.purge();
             throw new WrenException(EXCEEDED_TIME_LIMIT, "Query time limit exceeded", e);
         }
         catch (InterruptedException | ExecutionException e) {
@@ -88,6 +97,26 @@ public class CacheTaskManager
         }
     }
 
+    public int getCacheTaskQueueDepth()
+    {
+        return cacheTaskPool.executor.getQueue().size();
+    }
+
+    public TimeStat getCacheTaskWaitTime()
+    {
+        return cacheTaskPool.waitTime;
+    }
+
+    public int getCacheQueryQueueDepth()
+    {
+        return cacheQueryPool.executor.getQueue().size();
+    }
+
+    public TimeStat getCacheQueryWaitTime()
+    {
+        return cacheQueryPool.waitTime;
+    }
+
     public long getMemoryUsageBytes()
     {
         try (ConnectorRecordIterator result = pgMetastore.directQuery("SELECT memory_usage FROM pragma_database_size()", ImmutableList.of())) {
@@ -111,7 +140,37 @@ public class CacheTaskManager
     public void close()
             throws IOException
     {
-        taskExecutorService.shutdownNow();
+        cacheTaskPool.executor.shutdownNow();
+        cacheQueryPool.executor.shutdownNow();
         pgMetastore.close();
     }
+
+    private static class TaskPool
+    {
+        private final ThreadPoolExecutor executor;
+        private final TimeStat waitTime = new TimeStat(MILLISECONDS);
+
+        private TaskPool(int threads, String nameFormat)
+        {
+            this.executor = new ThreadPoolExecutor(threads, threads, 0L, MILLISECONDS, new LinkedBlockingQueue<>(), threadsNamed(nameFormat));
+        }
+
+        private Runnable track(Runnable runnable)
+        {
+            long queuedNanos = System.nanoTime();
+            return () -> {
+                waitTime.addNanos(System.nanoTime() - queuedNanos);
+                runnable.run();
+            };
+        }
+
+        private <T> Callable<T> track(Callable<T> callable)
+        {
+            long queuedNanos = System.nanoTime();
+            return () -> {
+                waitTime.addNanos(System.nanoTime() - queuedNanos);
+                return callable.call();
+            };
+        }
+    }
 }
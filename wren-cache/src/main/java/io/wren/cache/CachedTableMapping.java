@@ -15,6 +15,7 @@ package io.wren.cache;
 
 import io.wren.base.CatalogSchemaTableName;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -35,4 +36,27 @@ public interface CachedTableMapping
     Set<Map.Entry<CatalogSchemaTableName, CacheInfoPair>> entrySet();
 
     List<CacheInfoPair> getCacheInfoPairs(String catalogName, String schemaName);
+
+    /**
+     * Pin the cached tables a statement resolved, so they stay readable until the pin is closed
+     * even if a refresh replaces them in the meantime.
+     *
+     * @return empty if any of the tables has already been dropped
+     */
+    Optional<CachedTablePin> pinTables(Collection<String> tableNames);
+
+    /**
+     * Drop the cached table once no reader pins it.
+     */
+    void retireTable(String tableName);
+
+    /**
+     * @return the number of the retired tables still pinned by their readers
+     */
+    int getRetainedTableCount();
+
+    /**
+     * @return the estimated number of rows of the retired tables still pinned by their readers
+     */
+    long getRetainedTableRows();
 }
@@ -0,0 +1,43 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.wren.cache;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A reader's pin on the cached tables its statement resolved. A pinned table replaced by a refresh,
+ * or removed with its cache, stays in DuckDB until every pin on it is closed.
+ */
+public final class CachedTablePin
+        implements AutoCloseable
+{
+    private final Runnable release;
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    CachedTablePin(Runnable release)
+    {
+        this.release = requireNonNull(release, "release is null");
+    }
+
+    @Override
+    public void close()
+    {
+        if (closed.compareAndSet(false, true)) {
+            release.run();
+        }
+    }
+}
@@ -13,10 +13,18 @@
  */
 package io.wren.cache;
 
+import com.google.common.collect.ImmutableList;
 import com.google.inject.Inject;
+import io.airlift.log.Logger;
 import io.wren.base.CatalogSchemaTableName;
+import io.wren.base.ConnectorRecordIterator;
+import io.wren.base.WrenException;
 import io.wren.base.wireprotocol.PgMetastore;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -25,13 +33,26 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 
 import static com.google.common.collect.ImmutableList.toImmutableList;
+import static io.wren.base.metadata.StandardErrorCode.GENERIC_INTERNAL_ERROR;
+import static java.lang.String.format;
 import static java.util.Objects.requireNonNull;
+import static java.util.stream.Collectors.joining;
 
+/**
+ * Besides the mapping, count the readers of each cached table. A table replaced by a refresh or removed
+ * with its cache is retained until its last reader closes its {@link CachedTablePin}.
+ */
 public class DefaultCachedTableMapping
         implements CachedTableMapping
 {
+    private static final Logger LOG = Logger.get(DefaultCachedTableMapping.class);
+
     private final PgMetastore pgMetastore;
     private final ConcurrentMap<CatalogSchemaTableName, CacheInfoPair> cachedTableMapping = new ConcurrentHashMap<>();
+    // guarded by cachedTableMapping, the tables which haven't been dropped with the number of readers pinning each of them
+    private final Map<String, Integer> tableReaders = new HashMap<>();
+    // guarded by cachedTableMapping
+    private final Set<String> retainedTables = new HashSet<>();
 
     @Inject
     public DefaultCachedTableMapping(PgMetastore pgMetastore)
@@ -49,8 +70,9 @@ public class DefaultCachedTableMapping
                     cacheInfoPair.getTableName().ifPresent(pgMetastore::dropTableIfExists);
                     return;
                 }
-                existedCacheInfoPair.getTableName().ifPresent(pgMetastore::dropTableIfExists);
+                existedCacheInfoPair.getTableName().ifPresent(this::retireTable);
             }
+            cacheInfoPair.getTableName().ifPresent(tableName -> tableReaders.putIfAbsent(tableName, 0));
             cachedTableMapping.put(catalogSchemaTableName, cacheInfoPair);
         }
     }
@@ -99,4 +121,75 @@ public class DefaultCachedTableMapping
                 .map(Map.Entry::getValue)
                 .collect(toImmutableList());
     }
+
+    @Override
+    public Optional<CachedTablePin> pinTables(Collection<String> tableNames)
+    {
+        List<String> pinned = ImmutableList.copyOf(tableNames);
+        synchronized (cachedTableMapping) {
+            if (!tableReaders.keySet().containsAll(pinned)) {
+                return Optional.empty();
+            }
+            pinned.forEach(tableName -> tableReaders.merge(tableName, 1, Integer::sum));
+        }
+        return Optional.of(new CachedTablePin(() -> release(pinned)));
+    }
+
+    @Override
+    public void retireTable(String tableName)
+    {
+        synchronized (cachedTableMapping) {
+            Integer readers = tableReaders.get(tableName);
+            if (readers != null && readers > 0) {
+                LOG.debug("Retain cached table %s until its %s readers finish", tableName, readers);
+                retainedTables.add(tableName);
+                return;
+            }
+            tableReaders.remove(tableName);
+        }
+        pgMetastore.dropTableIfExists(tableName);
+    }
+
+    private void release(List<String> tableNames)
+    {
+        List<String> dropped = new ArrayList<>();
+        synchronized (cachedTableMapping) {
+            for (String tableName : tableNames) {
+                int readers = tableReaders.merge(tableName, -1, Integer::sum);
+                if (readers == 0 && retainedTables.remove(tableName)) {
+                    tableReaders.remove(tableName);
+                    dropped.add(tableName);
+                }
+            }
+        }
+        dropped.forEach(pgMetastore::dropTableIfExists);
+    }
+
+    @Override
+    public int getRetainedTableCount()
+    {
+        synchronized (cachedTableMapping) {
+            return retainedTables.size();
+        }
+    }
+
+    @Override
+    public long getRetainedTableRows()
+    {
+        List<String> tableNames;
+        synchronized (cachedTableMapping) {
+            tableNames = ImmutableList.copyOf(retainedTables);
+        }
+        if (tableNames.isEmpty()) {
+            return 0;
+        }
+        String sql = format("SELECT coalesce(sum(estimated_size), 0) FROM duckdb_tables() WHERE table_name IN (%s)",
+                tableNames.stream().map(tableName -> "'" + tableName.replace("'", "''") + "'").collect(joining(", ")));
+        try (ConnectorRecordIterator result = pgMetastore.directQuery(sql, ImmutableList.of())) {
+            return ((Number) result.next()[0]).longValue();
+        }
+        catch (Exception e) {
+            throw new WrenException(GENERIC_INTERNAL_ERROR, "Failed to get the size of the retained cached tables", e);
+        }
+    }
 }
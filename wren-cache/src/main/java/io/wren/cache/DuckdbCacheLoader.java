@@ -0,0 +1,164 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.wren.cache;
+
+import io.airlift.log.Logger;
+import io.wren.base.Column;
+import io.wren.base.ConnectorRecordIterator;
+import io.wren.base.WrenException;
+import io.wren.base.client.duckdb.DuckdbType;
+import io.wren.base.wireprotocol.PgMetastore;
+import org.duckdb.DuckDBAppender;
+import org.duckdb.DuckDBConnection;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.LongConsumer;
+
+import static io.wren.base.client.duckdb.DuckdbTypes.BLOB;
+import static io.wren.base.client.duckdb.DuckdbTypes.DECIMAL;
+import static io.wren.base.client.duckdb.DuckdbTypes.INTERVAL;
+import static io.wren.base.client.duckdb.DuckdbTypes.TIMESTAMP_WITH_TIMEZONE;
+import static io.wren.base.client.duckdb.DuckdbTypes.toDuckdbType;
+import static io.wren.base.metadata.StandardErrorCode.GENERIC_INTERNAL_ERROR;
+import static io.wren.base.metadata.StandardErrorCode.NOT_SUPPORTED;
+import static java.lang.String.format;
+import static java.util.Objects.requireNonNull;
+import static java.util.stream.Collectors.joining;
+
+/**
+ * Append the rows streamed from the data source to a DuckDB table through the DuckDB appender.
+ * The rows are flushed to the table in batches, so only a batch of rows is buffered in memory.
+ */
+public class DuckdbCacheLoader
+{
+    private static final Logger LOG = Logger.get(DuckdbCacheLoader.class);
+
+    private final PgMetastore pgMetastore;
+    private final int batchSize;
+
+    public DuckdbCacheLoader(PgMetastore pgMetastore, int batchSize)
+    {
+        this.pgMetastore = requireNonNull(pgMetastore, "pgMetastore is null");
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * @param progress called with the number of appended rows after each batch is flushed
+     * @return the number of appended rows
+     */
+    public long load(ConnectorRecordIterator rows, String tableName, LongConsumer progress)
+    {
+        pgMetastore.directDDL(createTableStatement(tableName, rows.getColumns()));
+        long loadedRows = 0;
+        try (Connection connection = pgMetastore.getClient().createConnection();
+                DuckDBAppender appender = connection.unwrap(DuckDBConnection.class).createAppender(DuckDBConnection.DEFAULT_SCHEMA, tableName)) {
+            while (rows.hasNext()) {
+                Object[] row = rows.next();
+                appender.beginRow();
+                for (Object value : row) {
+                    append(appender, value);
+                }
+                appender.endRow();
+                loadedRows++;
+                if (loadedRows % batchSize == 0) {
+                    appender.flush();
+                    progress.accept(loadedRows);
+                }
+            }
+            appender.flush();
+        }
+        catch (SQLException | RuntimeException e) {
+            LOG.error(e, "Failed to append the rows to %s", tableName);
+            pgMetastore.dropTableIfExists(tableName);
+            if (e instanceof WrenException wrenException) {
+                throw wrenException;
+            }
+            throw new WrenException(GENERIC_INTERNAL_ERROR, format("Failed to append the rows to %s", tableName), e);
+        }
+        progress.accept(loadedRows);
+        return loadedRows;
+    }
+
+    private static String createTableStatement(String tableName, List<Column> columns)
+    {
+        return format("CREATE TABLE \"%s\" (%s)",
+                tableName,
+                columns.stream()
+                        .map(column -> format("\"%s\" %s", column.getName().replace("\"", "\"\""), toColumnType(column)))
+                        .collect(joining(", ")));
+    }
+
+    private static String toColumnType(Column column)
+    {
+        DuckdbType type = toDuckdbType(column.getType());
+        if (type == BLOB || type == INTERVAL) {
+            throw new WrenException(NOT_SUPPORTED, format("Column %s of type %s can't be appended to DuckDB", column.getName(), type.getName()));
+        }
+        if (type == DECIMAL) {
+            // the default DECIMAL of DuckDB only keeps 3 fractional digits
+            return "DECIMAL(38, 9)";
+        }
+        if (type == TIMESTAMP_WITH_TIMEZONE) {
+            return "TIMESTAMPTZ";
+        }
+        return type.getName();
+    }
+
+    // DuckDB casts the appended values to the column types, so the values without a typed append are appended as strings
+    private static void append(DuckDBAppender appender, Object value)
+            throws SQLException
+    {
+        if (value == null) {
+            appender.append((String) null);
+        }
+        else if (value instanceof Boolean booleanValue) {
+            appender.append(booleanValue);
+        }
+        else if (value instanceof Byte byteValue) {
+            appender.append(byteValue);
+        }
+        else if (value instanceof Short shortValue) {
+            appender.append(shortValue);
+        }
+        else if (value instanceof Integer intValue) {
+            appender.append(intValue);
+        }
+        else if (value instanceof Long longValue) {
+            appender.append(longValue);
+        }
+        else if (value instanceof Float floatValue) {
+            appender.append(floatValue);
+        }
+        else if (value instanceof Double doubleValue) {
+            appender.append(doubleValue);
+        }
+        else if (value instanceof LocalDateTime localDateTime) {
+            appender.appendLocalDateTime(localDateTime);
+        }
+        else if (value instanceof BigDecimal decimal) {
+            appender.append(decimal.toPlainString());
+        }
+        else if (value instanceof List || value instanceof byte[]) {
+            throw new WrenException(NOT_SUPPORTED, format("Value of %s can't be appended to DuckDB", value.getClass().getSimpleName()));
+        }
+        else {
+            appender.append(value.toString());
+        }
+    }
+}
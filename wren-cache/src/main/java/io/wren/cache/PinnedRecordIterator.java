@@ -0,0 +1,68 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.wren.cache;
+
+import io.wren.base.Column;
+import io.wren.base.ConnectorRecordIterator;
+
+import java.util.List;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Keep the cached tables pinned until the rows read from them are closed.
+ */
+public class PinnedRecordIterator
+        implements ConnectorRecordIterator
+{
+    private final ConnectorRecordIterator delegate;
+    private final CachedTablePin pin;
+
+    public PinnedRecordIterator(ConnectorRecordIterator delegate, CachedTablePin pin)
+    {
+        this.delegate = requireNonNull(delegate, "delegate is null");
+        this.pin = requireNonNull(pin, "pin is null");
+    }
+
+    @Override
+    public List<Column> getColumns()
+    {
+        return delegate.getColumns();
+    }
+
+    @Override
+    public boolean hasNext()
+    {
+        return delegate.hasNext();
+    }
+
+    @Override
+    public Object[] next()
+    {
+        return delegate.next();
+    }
+
+    @Override
+    public void close()
+            throws Exception
+    {
+        try {
+            delegate.close();
+        }
+        finally {
+            pin.close();
+        }
+    }
+}
@@ -36,7 +36,8 @@ public class TaskInfo
                 taskInfo.getTaskStatus(),
                 taskInfo.getCachedTable(),
                 taskInfo.getStartTime(),
-                taskInfo.getEndTime());
+                taskInfo.getEndTime(),
+                taskInfo.getLoadedRows());
     }
 
     public enum TaskStatus
@@ -69,10 +70,12 @@ public class TaskInfo
     private TaskStatus taskStatus;
     private final Instant startTime;
     private Instant endTime;
+    // the rows appended to DuckDB so far, only reported by the caches streamed from the data source
+    private volatile Long loadedRows;
 
     public TaskInfo(String catalogName, String schemaName, String tableName, TaskStatus taskStatus, Instant startTime)
     {
-        this(catalogName, schemaName, tableName, taskStatus, null, startTime, null);
+        this(catalogName, schemaName, tableName, taskStatus, null, startTime, null, null);
     }
 
     @JsonCreator
@@ -83,7 +86,8 @@ public class TaskInfo
             @JsonProperty("taskStatus") TaskStatus taskStatus,
             @JsonProperty("cachedTable") CachedTable cachedTable,
             @JsonProperty("startTime") Instant startTime,
-            @JsonProperty("endTime") Instant endTime)
+            @JsonProperty("endTime") Instant endTime,
+            @JsonProperty("loadedRows") Long loadedRows)
 
     {
         this.catalogSchemaTableName = new CatalogSchemaTableName(requireNonNull(catalogName, "catalogName is null"),
@@ -93,6 +97,7 @@ public class TaskInfo
         this.cachedTable = cachedTable;
         this.startTime = requireNonNull(startTime, "startTime is null");
         this.endTime = endTime;
+        this.loadedRows = loadedRows;
     }
 
     public boolean inProgress()
@@ -153,6 +158,17 @@ public class TaskInfo
         return endTime;
     }
 
+    @JsonProperty
+    public Long getLoadedRows()
+    {
+        return loadedRows;
+    }
+
+    public void setLoadedRows(long loadedRows)
+    {
+        this.loadedRows = loadedRows;
+    }
+
     public TaskInfo setCachedTable(CachedTable cachedTable)
     {
         this.cachedTable = cachedTable;
@@ -168,6 +184,7 @@ public class TaskInfo
                 ", taskStatus=" + taskStatus +
                 ", startTime=" + startTime +
                 ", endTime=" + endTime +
+                ", loadedRows=" + loadedRows +
                 '}';
     }
 }
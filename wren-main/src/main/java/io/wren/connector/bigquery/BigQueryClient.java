@@ -146,6 +146,28 @@ public class BigQueryClient
         }
     }
 
+    /**
+     * Run the query and wait for it. The result is kept in the temporary destination table of the job,
+     * which could be read by the BigQuery Storage Read API.
+     */
+    public Job runQueryJob(String sql)
+    {
+        try {
+            Job job = bigQuery.create(JobInfo.of(QueryJobConfiguration.newBuilder(sql).build())).waitFor();
+            if (job == null) {
+                throw new WrenException(GENERIC_INTERNAL_ERROR, format("The job of the query [%s] no longer exists", sql));
+            }
+            if (job.getStatus().getError() != null) {
+                throw new BigQueryException(BaseHttpServiceException.UNKNOWN_CODE, job.getStatus().getError().getMessage());
+            }
+            return job;
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BigQueryException(BaseHttpServiceException.UNKNOWN_CODE, format("Failed to run the query [%s]", sql), e);
+        }
+    }
+
     public JobStatistics.QueryStatistics queryDryRun(Optional<String> datasetIdOptional, String query, List<Parameter> parameters)
     {
         try {
@@ -49,13 +49,19 @@ public class PostgresRecordIterator
     public static PostgresRecordIterator of(Client client, String sql, List<Parameter> parameters)
             throws SQLException
     {
-        return new PostgresRecordIterator(client, sql, parameters);
+        return new PostgresRecordIterator(client, sql, parameters, 0);
     }
 
-    private PostgresRecordIterator(Client client, String sql, List<Parameter> parameters)
+    public static PostgresRecordIterator of(Client client, String sql, List<Parameter> parameters, int fetchSize)
             throws SQLException
     {
-        super(client, sql, parameters);
+        return new PostgresRecordIterator(client, sql, parameters, fetchSize);
+    }
+
+    private PostgresRecordIterator(Client client, String sql, List<Parameter> parameters, int fetchSize)
+            throws SQLException
+    {
+        super(client, sql, parameters, fetchSize);
     }
 
     @Override
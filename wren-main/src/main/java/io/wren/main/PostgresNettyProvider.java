@@ -26,6 +26,7 @@ import io.wren.cache.CachedTableMapping;
 import io.wren.main.metadata.Metadata;
 import io.wren.main.pgcatalog.regtype.RegObjectFactory;
 import io.wren.main.wireprotocol.PostgresNetty;
+import io.wren.main.wireprotocol.WireProtocolStats;
 import io.wren.main.wireprotocol.auth.Authentication;
 import io.wren.main.wireprotocol.ssl.SslContextProvider;
 import org.elasticsearch.common.network.NetworkService;
@@ -47,6 +48,7 @@ public class PostgresNettyProvider
     private final CachedTableMapping cachedTableMapping;
     private final Authentication authentication;
     private final PgMetastore pgMetastore;
+    private final WireProtocolStats wireProtocolStats;
 
     @Inject
     public PostgresNettyProvider(
@@ -60,7 +62,8 @@ public class PostgresNettyProvider
             CacheManager cacheManager,
             CachedTableMapping cachedTableMapping,
             Authentication authentication,
-            PgMetastore pgMetastore)
+            PgMetastore pgMetastore,
+            WireProtocolStats wireProtocolStats)
     {
         this.postgresWireProtocolConfig = requireNonNull(postgresWireProtocolConfig, "postgreWireProtocolConfig is null");
         this.configManager = requireNonNull(configManager, "configManager is null");
@@ -73,6 +76,7 @@ public class PostgresNettyProvider
         this.cachedTableMapping = requireNonNull(cachedTableMapping, "cachedTableMapping is null");
         this.authentication = requireNonNull(authentication, "authentication is null");
         this.pgMetastore = requireNonNull(pgMetastore, "pgMetastore is null");
+        this.wireProtocolStats = requireNonNull(wireProtocolStats, "wireProtocolStats is null");
     }
 
     @Override
@@ -91,7 +95,8 @@ public class PostgresNettyProvider
                 cacheManager,
                 cachedTableMapping,
                 authentication,
-                pgMetastore);
+                pgMetastore,
+                wireProtocolStats);
         postgresNetty.start();
         return postgresNetty;
     }
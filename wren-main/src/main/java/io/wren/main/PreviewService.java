@@ -28,7 +28,6 @@
 
 package io.wren.main;
 
-import com.google.common.collect.Streams;
 import com.google.inject.Inject;
 import io.wren.base.AnalyzedMDL;
 import io.wren.base.Column;
@@ -40,13 +39,18 @@ import io.wren.base.config.WrenConfig;
 import io.wren.base.sql.SqlConverter;
 import io.wren.base.sqlrewrite.WrenPlanner;
 import io.wren.main.metadata.Metadata;
+import io.wren.main.sql.LimitPushdown;
 import io.wren.main.web.dto.QueryResultDto;
 
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static io.wren.base.sqlrewrite.Utils.parseSql;
 import static java.util.Objects.requireNonNull;
-import static java.util.stream.Collectors.toList;
 
 public class PreviewService
 {
@@ -77,11 +81,14 @@ public class PreviewService
                     .build();
 
             String planned = WrenPlanner.rewrite(sql, sessionContext, new AnalyzedMDL(mdl, null));
-            String converted = sqlConverter.convert(planned, sessionContext);
+            String converted = sqlConverter.convert(LimitPushdown.pushDown(parseSql(planned), limit), sessionContext);
             try (ConnectorRecordIterator iter = metadata.directQuery(converted, List.of())) {
-                return new QueryResultDto(
-                        iter.getColumns(),
-                        Streams.stream(iter).limit(limit).collect(toList()));
+                // the source is closed once the rows are read, without waiting for the rest of the result
+                List<Object[]> rows = new ArrayList<>();
+                while (rows.size() < limit && iter.hasNext()) {
+                    rows.add(iter.next());
+                }
+                return new QueryResultDto(iter.getColumns(), rows);
             }
             catch (Exception e) {
                 throw new RuntimeException(e);
@@ -109,17 +116,61 @@ public class PreviewService
 
     public CompletableFuture<List<Column>> dryRun(WrenMDL mdl, String sql)
     {
-        return CompletableFuture.supplyAsync(() -> {
-            WrenConfig config = configManager.getConfig(WrenConfig.class);
-            SessionContext sessionContext = SessionContext.builder()
-                    .setCatalog(mdl.getCatalog())
-                    .setSchema(mdl.getSchema())
-                    .setEnableDynamic(config.getEnableDynamicFields())
-                    .build();
+        return CompletableFuture.supplyAsync(() -> describe(plan(mdl, sql)));
+    }
 
-            String planned = WrenPlanner.rewrite(sql, sessionContext, new AnalyzedMDL(mdl, null));
-            String converted = sqlConverter.convert(planned, sessionContext);
-            return metadata.describeQuery(converted, List.of());
-        });
+    /**
+     * Plan the statement with the MDL and convert it to the dialect of the data source, in the calling thread.
+     */
+    public String plan(WrenMDL mdl, String sql)
+    {
+        WrenConfig config = configManager.getConfig(WrenConfig.class);
+        SessionContext sessionContext = SessionContext.builder()
+                .setCatalog(mdl.getCatalog())
+                .setSchema(mdl.getSchema())
+                .setEnableDynamic(config.getEnableDynamicFields())
+                .build();
+
+        String planned = WrenPlanner.rewrite(sql, sessionContext, new AnalyzedMDL(mdl, null));
+        return sqlConverter.convert(planned, sessionContext);
+    }
+
+    /**
+     * Plan the statements with the MDL and convert them to the dialect of the data source in one batch, in the calling thread.
+     *
+     * @return the converted statements in the order of {@code sqls}, empty for a statement which failed to plan or convert
+     */
+    public List<Optional<String>> planAll(WrenMDL mdl, List<String> sqls)
+    {
+        WrenConfig config = configManager.getConfig(WrenConfig.class);
+        SessionContext sessionContext = SessionContext.builder()
+                .setCatalog(mdl.getCatalog())
+                .setSchema(mdl.getSchema())
+                .setEnableDynamic(config.getEnableDynamicFields())
+                .build();
+
+        AnalyzedMDL analyzedMDL = new AnalyzedMDL(mdl, null);
+        List<Optional<String>> planned = sqls.stream()
+                .map(sql -> {
+                    try {
+                        return Optional.of(WrenPlanner.rewrite(sql, sessionContext, analyzedMDL));
+                    }
+                    catch (RuntimeException e) {
+                        return Optional.<String>empty();
+                    }
+                })
+                .collect(toImmutableList());
+        Iterator<Optional<String>> converted = sqlConverter.convertAll(planned.stream().flatMap(Optional::stream).collect(toImmutableList()), sessionContext).iterator();
+        return planned.stream()
+                .map(sql -> sql.isPresent() ? converted.next() : Optional.<String>empty())
+                .collect(toImmutableList());
+    }
+
+    /**
+     * Describe the output columns of a statement in the dialect of the data source, in the calling thread.
+     */
+    public List<Column> describe(String convertedSql)
+    {
+        return metadata.describeQuery(convertedSql, List.of());
     }
 }
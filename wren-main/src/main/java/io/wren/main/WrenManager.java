@@ -17,6 +17,8 @@ package io.wren.main;
 import com.google.inject.Inject;
 import io.airlift.log.Logger;
 import io.wren.base.AnalyzedMDL;
+import io.wren.base.CatalogSchemaTableName;
+import io.wren.base.ManifestDiff;
 import io.wren.base.WrenException;
 import io.wren.base.WrenMDL;
 import io.wren.base.config.WrenConfig;
@@ -33,7 +35,10 @@ import java.time.format.DateTimeFormatter;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
+import static com.google.common.collect.ImmutableSet.toImmutableSet;
 import static io.wren.base.Utils.checkArgument;
 import static io.wren.base.client.duckdb.FileUtil.ARCHIVED;
 import static io.wren.base.dto.Manifest.MANIFEST_JSON_CODEC;
@@ -109,7 +114,19 @@ public class WrenManager
         try {
             Files.write(wrenMDLDirectory.toPath().resolve("version"), Optional.ofNullable(version).map(v -> v.getBytes(UTF_8)).orElse(new byte[0]));
             WrenMDL oldWrenMDL = wrenMetastore.getAnalyzedMDL().getWrenMDL();
-            wrenMetastore.setWrenMDL(WrenMDL.fromManifest(manifest), version);
+            WrenMDL newWrenMDL = WrenMDL.fromManifest(manifest, oldWrenMDL);
+            ManifestDiff diff = ManifestDiff.diff(oldWrenMDL.getOriginalManifest(), manifest);
+            // the first deployment, or the one after a failed deployment, still has to initialize the pg catalog
+            if (diff.isSameSchema() && !diff.isGlobalChanged() && oldWrenMDL != WrenMDL.EMPTY && pgCatalogManager.checkRequired()) {
+                Set<String> affectedObjects = diff.getAffectedObjects(newWrenMDL);
+                LOG.info("Deploy WrenMDL incrementally, affected objects: %s, removed objects: %s", affectedObjects, diff.getRemovedObjects());
+                wrenMetastore.setWrenMDL(newWrenMDL, version, affectedObjects);
+                archiveWrenMDL(oldWrenMDL, Stream.concat(affectedObjects.stream(), diff.getRemovedObjects().stream()).collect(toImmutableSet()));
+                Files.write(wrenMDLFile.toPath(), MANIFEST_JSON_CODEC.toJson(newWrenMDL.getManifest()).getBytes(UTF_8));
+                deploy(affectedObjects, diff.getRemovedObjects());
+                return;
+            }
+            wrenMetastore.setWrenMDL(newWrenMDL, version);
             archiveWrenMDL(oldWrenMDL);
             Files.write(wrenMDLFile.toPath(), MANIFEST_JSON_CODEC.toJson(wrenMetastore.getAnalyzedMDL().getWrenMDL().getManifest()).getBytes(UTF_8));
             // pre drop if the schema name is changed.
@@ -133,10 +150,37 @@ public class WrenManager
         pgCatalogManager.initPgCatalog();
     }
 
+    /**
+     * Only the affected objects are cached and synced to the pg metastore again,
+     * the pg catalog and its functions don't depend on the MDL.
+     */
+    private void deploy(Set<String> affectedObjects, Set<String> removedObjects)
+            throws DeployException
+    {
+        AnalyzedMDL analyzedMDL = getAnalyzedMDL();
+        analyzedMDL.getWrenMDL().listCached().stream()
+                .filter(cacheInfo -> affectedObjects.contains(cacheInfo.getName()))
+                .forEach(cacheInfo -> cacheManager.createTask(analyzedMDL, cacheInfo));
+        pgCatalogManager.syncPgMetastore(affectedObjects, removedObjects);
+    }
+
     private void archiveWrenMDL(WrenMDL oldWrenMDL)
             throws IOException
     {
         cacheManager.removeCacheIfExist(oldWrenMDL.getCatalog(), oldWrenMDL.getSchema());
+        archiveWrenMDLFile();
+    }
+
+    private void archiveWrenMDL(WrenMDL oldWrenMDL, Set<String> objects)
+            throws IOException
+    {
+        objects.forEach(name -> cacheManager.removeCacheIfExist(new CatalogSchemaTableName(oldWrenMDL.getCatalog(), oldWrenMDL.getSchema(), name)));
+        archiveWrenMDLFile();
+    }
+
+    private void archiveWrenMDLFile()
+            throws IOException
+    {
         File archived = new File(wrenMDLDirectory.getAbsoluteFile() + "/" + ARCHIVED);
         if (!archived.exists()) {
             if (!archived.mkdir()) {
@@ -18,6 +18,8 @@ import io.wren.base.AnalyzedMDL;
 import io.wren.base.WrenMDL;
 import io.wren.base.sqlrewrite.WrenDataLineage;
 
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 
 import static io.wren.base.WrenMDL.EMPTY;
@@ -25,14 +27,34 @@ import static io.wren.base.WrenMDL.EMPTY;
 public class WrenMetastore
 {
     private final AtomicReference<AnalyzedMDL> analyzed = new AtomicReference<>(new AnalyzedMDL(EMPTY, WrenDataLineage.EMPTY, "0"));
+    private final AtomicLong generation = new AtomicLong();
 
     public AnalyzedMDL getAnalyzedMDL()
     {
         return analyzed.get();
     }
 
+    /**
+     * Every deploy gets a new generation, even if it has the same version, or no version at all.
+     */
+    public long getGeneration()
+    {
+        return generation.get();
+    }
+
     public synchronized void setWrenMDL(WrenMDL wrenMDL, String version)
     {
         this.analyzed.set(new AnalyzedMDL(wrenMDL, WrenDataLineage.analyze(wrenMDL), version));
+        generation.incrementAndGet();
+    }
+
+    /**
+     * Replace the MDL with one in the same catalog and schema, only analyzing the lineage of the affected objects again.
+     */
+    public synchronized void setWrenMDL(WrenMDL wrenMDL, String version, Set<String> affectedObjects)
+    {
+        WrenDataLineage previous = analyzed.get().getWrenDataLineage();
+        this.analyzed.set(new AnalyzedMDL(wrenMDL, WrenDataLineage.analyze(wrenMDL, previous, affectedObjects), version));
+        generation.incrementAndGet();
     }
 }
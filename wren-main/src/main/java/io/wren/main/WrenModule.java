@@ -25,6 +25,8 @@ import io.wren.cache.NoOpCacheManager;
 import io.wren.main.pgcatalog.NoOpPgCatalogManager;
 import io.wren.main.pgcatalog.PgCatalogManager;
 import io.wren.main.pgcatalog.PgCatalogManagerImpl;
+import io.wren.main.wireprotocol.QueryHistory;
+import io.wren.main.wireprotocol.WireProtocolStats;
 
 import static io.airlift.configuration.ConfigBinder.configBinder;
 
@@ -38,6 +40,8 @@ public class WrenModule
         configBinder(binder).bindConfig(WrenConfig.class);
         binder.bind(WrenManager.class).in(Scopes.SINGLETON);
         binder.bind(WrenMetastore.class).in(Scopes.SINGLETON);
+        binder.bind(QueryHistory.class).in(Scopes.SINGLETON);
+        binder.bind(WireProtocolStats.class).in(Scopes.SINGLETON);
         if (config.isPgWireProtocolEnabled()) {
             binder.bind(CacheManager.class).to(CacheManagerImpl.class).in(Scopes.SINGLETON);
             binder.bind(PgCatalogManager.class).to(PgCatalogManagerImpl.class).in(Scopes.SINGLETON);
@@ -15,13 +15,13 @@
 package io.wren.main.connector;
 
 import com.google.inject.Inject;
+import io.wren.base.ConnectorRecordIterator;
 import io.wren.base.config.ConfigManager;
 import io.wren.base.config.WrenConfig;
 import io.wren.cache.CacheService;
 import io.wren.cache.NOPCacheService;
 import io.wren.cache.PathInfo;
 import io.wren.main.connector.bigquery.BigQueryCacheService;
-import io.wren.main.connector.postgres.PostgresCacheService;
 
 import java.util.Optional;
 
@@ -32,7 +32,7 @@ public final class CacheServiceManager
 {
     private final ConfigManager configManager;
     private final BigQueryCacheService bigQueryCacheService;
-    private final PostgresCacheService postgresCacheService;
+    private final JdbcCacheService jdbcCacheService;
     private final CacheService nopCacheService;
     private WrenConfig.DataSourceType dataSourceType;
     private CacheService delegate;
@@ -41,10 +41,10 @@ public final class CacheServiceManager
     public CacheServiceManager(
             ConfigManager configManager,
             BigQueryCacheService bigQueryCacheService,
-            PostgresCacheService postgresCacheService,
+            JdbcCacheService jdbcCacheService,
             NOPCacheService nopCacheService)
     {
-        this.postgresCacheService = requireNonNull(postgresCacheService, "postgresCacheService is null");
+        this.jdbcCacheService = requireNonNull(jdbcCacheService, "jdbcCacheService is null");
         this.bigQueryCacheService = requireNonNull(bigQueryCacheService, "bigQueryCacheService is null");
         this.nopCacheService = requireNonNull(nopCacheService, "nopCacheService is null");
         this.configManager = requireNonNull(configManager, "configManager is null");
@@ -58,10 +58,10 @@ public final class CacheServiceManager
             case BIGQUERY:
                 delegate = bigQueryCacheService;
                 break;
-            case POSTGRES:
-                delegate = postgresCacheService;
+            case POSTGRES, SNOWFLAKE:
+                delegate = jdbcCacheService;
                 break;
-            case DUCKDB, SNOWFLAKE, COUCHBASE:
+            case DUCKDB, COUCHBASE:
                 delegate = nopCacheService;
                 break;
 
@@ -76,6 +76,12 @@ public final class CacheServiceManager
         return delegate.createCache(catalog, schema, name, statement);
     }
 
+    @Override
+    public Optional<ConnectorRecordIterator> streamCache(String statement, int fetchSize)
+    {
+        return delegate.streamCache(statement, fetchSize);
+    }
+
     @Override
     public void deleteTarget(PathInfo pathInfo)
     {
@@ -0,0 +1,57 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.wren.main.connector;
+
+import com.google.inject.Inject;
+import io.wren.base.ConnectorRecordIterator;
+import io.wren.cache.CacheService;
+import io.wren.cache.PathInfo;
+import io.wren.main.metadata.Metadata;
+
+import java.util.List;
+import java.util.Optional;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * The cache service of the data sources which can't export a query to the storage, e.g. PostgreSQL and Snowflake.
+ * The query result is streamed from the data source and appended to DuckDB directly.
+ */
+public class JdbcCacheService
+        implements CacheService
+{
+    private final Metadata metadata;
+
+    @Inject
+    public JdbcCacheService(Metadata metadata)
+    {
+        this.metadata = requireNonNull(metadata, "metadata is null");
+    }
+
+    @Override
+    public Optional<PathInfo> createCache(String catalog, String schema, String name, String statement)
+    {
+        return Optional.empty();
+    }
+
+    @Override
+    public Optional<ConnectorRecordIterator> streamCache(String statement, int fetchSize)
+    {
+        return Optional.of(metadata.directQuery(statement, List.of(), fetchSize));
+    }
+
+    @Override
+    public void deleteTarget(PathInfo pathInfo) {}
+}
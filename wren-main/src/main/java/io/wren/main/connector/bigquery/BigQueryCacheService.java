@@ -15,8 +15,10 @@
 package io.wren.main.connector.bigquery;
 
 import com.google.inject.Inject;
+import io.wren.base.ConnectorRecordIterator;
 import io.wren.base.WrenException;
 import io.wren.base.config.BigQueryConfig;
+import io.wren.base.config.ConfigManager;
 import io.wren.cache.CacheService;
 import io.wren.cache.PathInfo;
 import io.wren.main.metadata.Metadata;
@@ -25,6 +27,7 @@ import java.util.Optional;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+import static io.wren.base.config.BigQueryConfig.CacheIngestion.STORAGE_READ;
 import static io.wren.base.metadata.StandardErrorCode.GENERIC_USER_ERROR;
 import static java.lang.String.format;
 import static java.util.Objects.requireNonNull;
@@ -45,15 +48,36 @@ public class BigQueryCacheService
 
     private final Optional<String> bucketName;
     private final Metadata metadata;
+    private final BigQueryMetadata bigQueryMetadata;
+    private final ConfigManager configManager;
 
     @Inject
     public BigQueryCacheService(
             Metadata metadata,
+            BigQueryMetadata bigQueryMetadata,
+            ConfigManager configManager,
             BigQueryConfig bigQueryConfig)
     {
         requireNonNull(bigQueryConfig, "bigQueryConfig is null");
         this.bucketName = bigQueryConfig.getBucketName();
         this.metadata = requireNonNull(metadata, "metadata is null");
+        this.bigQueryMetadata = requireNonNull(bigQueryMetadata, "bigQueryMetadata is null");
+        this.configManager = requireNonNull(configManager, "configManager is null");
+    }
+
+    /**
+     * With the STORAGE_READ cache ingestion, the query result is read through the BigQuery Storage Read API
+     * and appended to DuckDB directly, so no bucket is required. The fetch size doesn't apply to the streams,
+     * which are bounded by the storage read buffer size instead.
+     */
+    @Override
+    public Optional<ConnectorRecordIterator> streamCache(String statement, int fetchSize)
+    {
+        BigQueryConfig config = configManager.getConfig(BigQueryConfig.class);
+        if (config.getCacheIngestion() != STORAGE_READ) {
+            return Optional.empty();
+        }
+        return Optional.of(bigQueryMetadata.readQueryResult(statement, config.getStorageReadMaxStreams(), config.getStorageReadBufferSize()));
     }
 
     @Override
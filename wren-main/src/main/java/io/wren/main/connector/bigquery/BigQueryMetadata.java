@@ -14,6 +14,7 @@
 
 package io.wren.main.connector.bigquery;
 
+import com.google.api.gax.core.FixedCredentialsProvider;
 import com.google.api.gax.rpc.FixedHeaderProvider;
 import com.google.api.gax.rpc.HeaderProvider;
 import com.google.auth.Credentials;
@@ -23,17 +24,24 @@ import com.google.cloud.bigquery.BigQueryException;
 import com.google.cloud.bigquery.BigQueryOptions;
 import com.google.cloud.bigquery.DatasetId;
 import com.google.cloud.bigquery.DatasetInfo;
+import com.google.cloud.bigquery.Job;
 import com.google.cloud.bigquery.JobStatistics;
+import com.google.cloud.bigquery.QueryJobConfiguration;
+import com.google.cloud.bigquery.TableId;
 import com.google.cloud.bigquery.TableResult;
+import com.google.cloud.bigquery.storage.v1.BigQueryReadClient;
+import com.google.cloud.bigquery.storage.v1.BigQueryReadSettings;
 import com.google.cloud.storage.StorageOptions;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.inject.Inject;
 import io.airlift.log.Logger;
+import io.airlift.units.DataSize;
 import io.trino.sql.tree.QualifiedName;
 import io.wren.base.Column;
 import io.wren.base.ConnectorRecordIterator;
 import io.wren.base.Parameter;
+import io.wren.base.WrenException;
 import io.wren.base.config.BigQueryConfig;
 import io.wren.base.config.ConfigManager;
 import io.wren.base.config.WrenConfig;
@@ -48,12 +56,15 @@ import io.wren.main.pgcatalog.builder.BigQueryPgFunctionBuilder;
 import io.wren.main.pgcatalog.builder.PgFunctionBuilder;
 import org.jheaps.annotations.VisibleForTesting;
 
+import java.io.IOException;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
 import static com.google.common.collect.ImmutableList.toImmutableList;
+import static io.wren.base.metadata.StandardErrorCode.GENERIC_INTERNAL_ERROR;
 import static io.wren.main.pgcatalog.PgCatalogUtils.PG_CATALOG_NAME;
+import static java.lang.String.format;
 import static java.util.Locale.ENGLISH;
 import static java.util.Objects.requireNonNull;
 
@@ -74,6 +85,7 @@ public class BigQueryMetadata
     private final PgFunctionBuilder pgFunctionBuilder;
     private BigQueryClient bigQueryClient;
     private StorageClient cacheStorageClient;
+    private SharedReadClient bigQueryReadClient;
 
     @Inject
     public BigQueryMetadata(ConfigManager configManager)
@@ -173,6 +185,31 @@ public class BigQueryMetadata
                 .collect(toImmutableList());
     }
 
+    /**
+     * Run the query and read its result table through the parallel streams of the BigQuery Storage Read API
+     * instead of paging through the query results.
+     */
+    public ConnectorRecordIterator readQueryResult(String sql, int maxStreams, DataSize bufferSize)
+    {
+        requireNonNull(sql, "sql can't be null.");
+        Job job = bigQueryClient.runQueryJob(sql);
+        JobStatistics.QueryStatistics queryStatistics = job.getStatistics();
+        List<Column> columns = queryStatistics.getSchema().getFields().stream()
+                .map(field -> new Column(field.getName(), BigQueryType.toPGType(field)))
+                .collect(toImmutableList());
+        TableId destinationTable = ((QueryJobConfiguration) job.getConfiguration()).getDestinationTable();
+        // a reload in the middle of the read retires the client, but doesn't close it under the read
+        SharedReadClient.Lease lease = acquireBigQueryReadClient();
+        try {
+            return lease.hold(new BigQueryStorageReader(lease.getClient(), maxStreams, bufferSize)
+                    .read(format("projects/%s", bigQueryClient.getProjectId()), destinationTable, columns));
+        }
+        catch (RuntimeException e) {
+            lease.close();
+            throw e;
+        }
+    }
+
     @VisibleForTesting
     public void dropTable(SchemaTableName schemaTableName)
     {
@@ -202,6 +239,10 @@ public class BigQueryMetadata
     {
         bigQueryClient = createBigQueryClient();
         cacheStorageClient = createGcsStorageClient();
+        if (bigQueryReadClient != null) {
+            bigQueryReadClient.retire();
+            bigQueryReadClient = null;
+        }
         BigQueryConfig bigQueryConfig = configManager.getConfig(BigQueryConfig.class);
         this.location = bigQueryConfig.getLocation().orElse(null);
         this.pgCatalogName = bigQueryConfig.getMetadataSchemaPrefix() + PG_CATALOG_NAME;
@@ -225,6 +266,30 @@ public class BigQueryMetadata
         return new BigQueryClient(provideBigQuery(config));
     }
 
+    private synchronized SharedReadClient.Lease acquireBigQueryReadClient()
+    {
+        if (bigQueryReadClient == null) {
+            bigQueryReadClient = new SharedReadClient(createBigQueryReadClient());
+        }
+        return bigQueryReadClient.acquire();
+    }
+
+    private BigQueryReadClient createBigQueryReadClient()
+    {
+        BigQueryConfig config = configManager.getConfig(BigQueryConfig.class);
+        BigQueryCredentialsSupplier bigQueryCredentialsSupplier = new BigQueryCredentialsSupplier(config.getCredentialsKey(), config.getCredentialsFile());
+        BigQueryReadSettings.Builder settings = BigQueryReadSettings.newBuilder()
+                .setHeaderProvider(FixedHeaderProvider.create("user-agent", "wren/1"));
+        bigQueryCredentialsSupplier.getCredentials()
+                .ifPresent(credentials -> settings.setCredentialsProvider(FixedCredentialsProvider.create(credentials)));
+        try {
+            return BigQueryReadClient.create(settings.build());
+        }
+        catch (IOException e) {
+            throw new WrenException(GENERIC_INTERNAL_ERROR, "Failed to create the BigQuery Storage Read client", e);
+        }
+    }
+
     private GcsStorageClient createGcsStorageClient()
     {
         BigQueryConfig config = configManager.getConfig(BigQueryConfig.class);
@@ -18,10 +18,12 @@ import com.google.common.collect.ImmutableList;
 import com.google.inject.Inject;
 import io.airlift.log.Logger;
 import io.trino.sql.tree.Node;
+import io.trino.sql.tree.Statement;
 import io.wren.base.SessionContext;
 import io.wren.base.sql.SqlConverter;
 import io.wren.main.WrenMetastore;
 import io.wren.main.metadata.Metadata;
+import io.wren.main.sql.FusedRewrite;
 import io.wren.main.sql.SqlRewrite;
 import io.wren.main.sql.bigquery.FlattenGroupingElements;
 import io.wren.main.sql.bigquery.RemoveCatalogSchemaColumnPrefix;
@@ -46,6 +48,18 @@ public class BigQuerySqlConverter
         implements SqlConverter
 {
     private static final Logger LOG = Logger.get(BigQuerySqlConverter.class);
+    // the node-local rewrites share one bottom-up traversal, in the order they used to run as separate passes
+    private static final FusedRewrite BIGQUERY_DIALECT_REWRITE = new FusedRewrite(ImmutableList.of(
+            RewriteToBigQueryFunction.INSTANCE,
+            RewriteToBigQueryType.INSTANCE,
+            // bigquery doesn't support parameter in types in cast
+            // this should happen after RewriteToBigQueryType since RewriteToBigQueryType will replace
+            // GenericLiteral with Cast and types in Cast could contain parameter.
+            RemoveParameterInTypesInCast.INSTANCE,
+            FlattenGroupingElements.INSTANCE,
+            RewriteNamesToAlias.INSTANCE,
+            RewriteArithmetic.INSTANCE));
+
     private final Metadata metadata;
     private final WrenMetastore wrenMetastore;
 
@@ -60,7 +74,13 @@ public class BigQuerySqlConverter
     @Override
     public String convert(@Language("sql") String sql, SessionContext sessionContext)
     {
-        Node rewrittenNode = parseSql(sql);
+        return convert(parseSql(sql), sessionContext);
+    }
+
+    @Override
+    public String convert(Statement statement, SessionContext sessionContext)
+    {
+        Node rewrittenNode = statement;
 
         List<SqlRewrite> sqlRewrites = ImmutableList.of(
                 // bigquery doesn't support column name with catalog.schema.table prefix or schema.table prefix
@@ -69,18 +89,12 @@ public class BigQuerySqlConverter
                 RemoveColumnAliasInAliasRelation.INSTANCE,
                 // bigquery doesn't support column alias in unnest alias relation
                 ReplaceColumnAliasInUnnest.INSTANCE,
-                RewriteToBigQueryFunction.INSTANCE,
-                RewriteToBigQueryType.INSTANCE,
-                // bigquery doesn't support parameter in types in cast
-                // this should happen after RewriteToBigQueryType since RewriteToBigQueryType will replace
-                // GenericLiteral with Cast and types in Cast could contain parameter.
-                RemoveParameterInTypesInCast.INSTANCE,
-                FlattenGroupingElements.INSTANCE,
-                RewriteNamesToAlias.INSTANCE,
-                RewriteArithmetic.INSTANCE,
+                BIGQUERY_DIALECT_REWRITE,
                 new TypeCoercionRewrite(wrenMetastore.getAnalyzedMDL().getWrenMDL()));
 
-        LOG.info("[Input sql]: %s", sql);
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("[Input sql]: %s", formatSql(statement));
+        }
 
         for (SqlRewrite rewrite : sqlRewrites) {
             if (LOG.isDebugEnabled()) {
@@ -92,7 +106,7 @@ public class BigQuerySqlConverter
             }
         }
         String dialectSql = formatSql(rewrittenNode, BIGQUERY);
-        LOG.info("[Dialect sql]: %s", dialectSql);
+        LOG.debug("[Dialect sql]: %s", dialectSql);
         return dialectSql;
     }
 }
@@ -0,0 +1,323 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.wren.main.connector.bigquery;
+
+import com.google.api.gax.rpc.ServerStream;
+import com.google.cloud.bigquery.TableId;
+import com.google.cloud.bigquery.storage.v1.BigQueryReadClient;
+import com.google.cloud.bigquery.storage.v1.CreateReadSessionRequest;
+import com.google.cloud.bigquery.storage.v1.DataFormat;
+import com.google.cloud.bigquery.storage.v1.ReadRowsRequest;
+import com.google.cloud.bigquery.storage.v1.ReadRowsResponse;
+import com.google.cloud.bigquery.storage.v1.ReadSession;
+import com.google.cloud.bigquery.storage.v1.ReadStream;
+import com.google.common.collect.ImmutableList;
+import com.google.protobuf.ByteString;
+import io.airlift.log.Logger;
+import io.airlift.units.DataSize;
+import io.wren.base.Column;
+import io.wren.base.ConnectorRecordIterator;
+import io.wren.base.WrenException;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.DateDayVector;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.TimeMicroVector;
+import org.apache.arrow.vector.TimeStampMicroTZVector;
+import org.apache.arrow.vector.ValueVector;
+import org.apache.arrow.vector.VectorLoader;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.complex.ListVector;
+import org.apache.arrow.vector.complex.StructVector;
+import org.apache.arrow.vector.ipc.ReadChannel;
+import org.apache.arrow.vector.ipc.message.ArrowRecordBatch;
+import org.apache.arrow.vector.ipc.message.MessageSerializer;
+import org.apache.arrow.vector.types.pojo.Schema;
+import org.apache.arrow.vector.util.ByteArrayReadableSeekableByteChannel;
+import org.apache.arrow.vector.util.Text;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+
+import static io.airlift.concurrent.Threads.daemonThreadsNamed;
+import static io.wren.base.metadata.StandardErrorCode.GENERIC_INTERNAL_ERROR;
+import static java.lang.Math.floorDiv;
+import static java.lang.Math.floorMod;
+import static java.lang.String.format;
+import static java.time.ZoneOffset.UTC;
+import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.Executors.newCachedThreadPool;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * Read a BigQuery table by the parallel streams of the BigQuery Storage Read API in the Arrow format.
+ * The record batches of the streams are buffered until they're consumed, and the streams wait
+ * while the serialized size of the buffered batches reaches the buffer size.
+ */
+public class BigQueryStorageReader
+{
+    private static final Logger LOG = Logger.get(BigQueryStorageReader.class);
+    private static final ExecutorService STREAM_EXECUTOR = newCachedThreadPool(daemonThreadsNamed("bigquery-storage-read-%s"));
+    private static final long STREAM_CLOSE_TIMEOUT_SECONDS = 10;
+
+    private final BigQueryReadClient readClient;
+    private final int maxStreams;
+    private final int bufferBytes;
+
+    public BigQueryStorageReader(BigQueryReadClient readClient, int maxStreams, DataSize bufferSize)
+    {
+        this.readClient = requireNonNull(readClient, "readClient is null");
+        this.maxStreams = maxStreams;
+        this.bufferBytes = (int) Math.min(bufferSize.toBytes(), Integer.MAX_VALUE);
+    }
+
+    /**
+     * @param parent the project billed for the read, in the form of projects/{project}
+     * @param columns the columns of the table
+     */
+    public ConnectorRecordIterator read(String parent, TableId tableId, List<Column> columns)
+    {
+        ReadSession session = readClient.createReadSession(CreateReadSessionRequest.newBuilder()
+                .setParent(parent)
+                .setReadSession(ReadSession.newBuilder()
+                        .setTable(format("projects/%s/datasets/%s/tables/%s", tableId.getProject(), tableId.getDataset(), tableId.getTable()))
+                        .setDataFormat(DataFormat.ARROW))
+                .setMaxStreamCount(maxStreams)
+                .build());
+        LOG.debug("Read %s by %s streams", tableId, session.getStreamsCount());
+        return new StreamRecordIterator(session, columns);
+    }
+
+    private class StreamRecordIterator
+            implements ConnectorRecordIterator
+    {
+        private final List<Column> columns;
+        private final Schema schema;
+        private final BufferAllocator allocator = new RootAllocator();
+        private final BlockingQueue<Batch> batches = new LinkedBlockingQueue<>();
+        private final Semaphore buffer = new Semaphore(bufferBytes);
+        private final CountDownLatch finishedStreams;
+        private final List<Future<?>> streams;
+        private int runningStreams;
+        private Batch current = Batch.EMPTY;
+        private Iterator<Object[]> rows = Collections.emptyIterator();
+        private volatile boolean closed;
+
+        private StreamRecordIterator(ReadSession session, List<Column> columns)
+        {
+            this.columns = ImmutableList.copyOf(requireNonNull(columns, "columns is null"));
+            this.schema = deserializeSchema(session.getArrowSchema().getSerializedSchema());
+            this.runningStreams = session.getStreamsCount();
+            this.finishedStreams = new CountDownLatch(runningStreams);
+            ImmutableList.Builder<Future<?>> streams = ImmutableList.builder();
+            for (ReadStream stream : session.getStreamsList()) {
+                streams.add(STREAM_EXECUTOR.submit(() -> readStream(stream.getName())));
+            }
+            this.streams = streams.build();
+        }
+
+        @Override
+        public List<Column> getColumns()
+        {
+            return columns;
+        }
+
+        @Override
+        public boolean hasNext()
+        {
+            while (!rows.hasNext()) {
+                buffer.release(current.permits());
+                current = Batch.EMPTY;
+                if (runningStreams == 0) {
+                    return false;
+                }
+                Batch batch = takeBatch();
+                if (batch.failure() != null) {
+                    throw new WrenException(GENERIC_INTERNAL_ERROR, "Failed to read the BigQuery storage stream", batch.failure());
+                }
+                if (batch == Batch.END) {
+                    runningStreams--;
+                    continue;
+                }
+                current = batch;
+                rows = batch.rows().iterator();
+            }
+            return true;
+        }
+
+        @Override
+        public Object[] next()
+        {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return rows.next();
+        }
+
+        @Override
+        public void close()
+        {
+            closed = true;
+            streams.forEach(stream -> stream.cancel(true));
+            try {
+                // the allocator can't be closed until the streams release their buffers
+                if (!finishedStreams.await(STREAM_CLOSE_TIMEOUT_SECONDS, SECONDS)) {
+                    LOG.warn("BigQuery storage streams are still running after %s seconds", STREAM_CLOSE_TIMEOUT_SECONDS);
+                    return;
+                }
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            allocator.close();
+        }
+
+        private Batch takeBatch()
+        {
+            try {
+                return batches.take();
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new WrenException(GENERIC_INTERNAL_ERROR, "Interrupted while reading the BigQuery storage streams", e);
+            }
+        }
+
+        private void readStream(String streamName)
+        {
+            try (BufferAllocator streamAllocator = allocator.newChildAllocator(streamName, 0, Long.MAX_VALUE);
+                    VectorSchemaRoot root = VectorSchemaRoot.create(schema, streamAllocator)) {
+                VectorLoader loader = new VectorLoader(root);
+                ServerStream<ReadRowsResponse> responses = readClient.readRowsCallable().call(ReadRowsRequest.newBuilder()
+                        .setReadStream(streamName)
+                        .build());
+                for (ReadRowsResponse response : responses) {
+                    if (closed) {
+                        responses.cancel();
+                        return;
+                    }
+                    if (!response.hasArrowRecordBatch()) {
+                        continue;
+                    }
+                    ByteString serialized = response.getArrowRecordBatch().getSerializedRecordBatch();
+                    // a batch larger than the buffer is read alone
+                    int permits = Math.min(serialized.size(), bufferBytes);
+                    buffer.acquire(permits);
+                    try (ArrowRecordBatch recordBatch = MessageSerializer.deserializeRecordBatch(
+                            new ReadChannel(new ByteArrayReadableSeekableByteChannel(serialized.toByteArray())),
+                            streamAllocator)) {
+                        loader.load(recordBatch);
+                    }
+                    batches.put(new Batch(toRows(root), permits, null));
+                }
+                batches.put(Batch.END);
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            catch (Throwable e) {
+                if (!closed) {
+                    batches.add(new Batch(List.of(), 0, e));
+                }
+            }
+            finally {
+                finishedStreams.countDown();
+            }
+        }
+    }
+
+    private record Batch(List<Object[]> rows, int permits, Throwable failure)
+    {
+        private static final Batch EMPTY = new Batch(List.of(), 0, null);
+        private static final Batch END = new Batch(List.of(), 0, null);
+    }
+
+    private static Schema deserializeSchema(ByteString serializedSchema)
+    {
+        try {
+            return MessageSerializer.deserializeSchema(new ReadChannel(new ByteArrayReadableSeekableByteChannel(serializedSchema.toByteArray())));
+        }
+        catch (IOException e) {
+            throw new WrenException(GENERIC_INTERNAL_ERROR, "Failed to read the Arrow schema of the BigQuery storage read session", e);
+        }
+    }
+
+    private static List<Object[]> toRows(VectorSchemaRoot root)
+    {
+        List<FieldVector> vectors = root.getFieldVectors();
+        List<Object[]> rows = new ArrayList<>(root.getRowCount());
+        for (int row = 0; row < root.getRowCount(); row++) {
+            Object[] values = new Object[vectors.size()];
+            for (int column = 0; column < vectors.size(); column++) {
+                values[column] = toJavaValue(vectors.get(column), row);
+            }
+            rows.add(values);
+        }
+        return rows;
+    }
+
+    // The values are converted like BigQueryRecordIterator, e.g. the timestamps are converted to the local date time in UTC.
+    private static Object toJavaValue(ValueVector vector, int index)
+    {
+        if (vector.isNull(index)) {
+            return null;
+        }
+        if (vector instanceof TimeStampMicroTZVector timestampVector) {
+            long micros = timestampVector.get(index);
+            return LocalDateTime.ofEpochSecond(floorDiv(micros, 1_000_000), (int) floorMod(micros, 1_000_000) * 1000, UTC);
+        }
+        if (vector instanceof DateDayVector dateVector) {
+            return LocalDate.ofEpochDay(dateVector.get(index));
+        }
+        if (vector instanceof TimeMicroVector timeVector) {
+            return LocalTime.ofNanoOfDay(timeVector.get(index) * 1000);
+        }
+        if (vector instanceof ListVector listVector) {
+            List<Object> elements = new ArrayList<>();
+            for (int i = listVector.getElementStartIndex(index); i < listVector.getElementEndIndex(index); i++) {
+                elements.add(toJavaValue(listVector.getDataVector(), i));
+            }
+            return Collections.unmodifiableList(elements);
+        }
+        if (vector instanceof StructVector structVector) {
+            Map<String, Object> fields = new LinkedHashMap<>();
+            for (FieldVector child : structVector.getChildrenFromFields()) {
+                fields.put(child.getName(), toJavaValue(child, index));
+            }
+            return Collections.unmodifiableMap(fields);
+        }
+        Object value = vector.getObject(index);
+        if (value instanceof Text text) {
+            return text.toString();
+        }
+        return value;
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.wren.main.connector.bigquery;
+
+import com.google.cloud.bigquery.storage.v1.BigQueryReadClient;
+import io.wren.base.Column;
+import io.wren.base.ConnectorRecordIterator;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static com.google.common.base.Preconditions.checkState;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A BigQuery Storage Read client shared by the cache reads. A reload retires the client instead of closing it,
+ * and it's closed once the last read through it is closed.
+ */
+final class SharedReadClient
+{
+    private final BigQueryReadClient client;
+    private int readers;
+    private boolean retired;
+
+    SharedReadClient(BigQueryReadClient client)
+    {
+        this.client = requireNonNull(client, "client is null");
+    }
+
+    /**
+     * @return the client for one read, kept open until the returned lease is closed
+     */
+    synchronized Lease acquire()
+    {
+        checkState(!retired, "The BigQuery Storage Read client has been retired");
+        readers++;
+        return new Lease();
+    }
+
+    /**
+     * Close the client once no read uses it. It can't be acquired anymore.
+     */
+    synchronized void retire()
+    {
+        retired = true;
+        closeIfUnused();
+    }
+
+    synchronized boolean isClosed()
+    {
+        return retired && readers == 0;
+    }
+
+    private synchronized void release()
+    {
+        readers--;
+        closeIfUnused();
+    }
+
+    private void closeIfUnused()
+    {
+        if (retired && readers == 0) {
+            client.close();
+        }
+    }
+
+    final class Lease
+            implements AutoCloseable
+    {
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private Lease() {}
+
+        BigQueryReadClient getClient()
+        {
+            return client;
+        }
+
+        /**
+         * Keep the lease until the rows are closed.
+         */
+        ConnectorRecordIterator hold(ConnectorRecordIterator rows)
+        {
+            return new LeasedRecordIterator(rows, this);
+        }
+
+        @Override
+        public void close()
+        {
+            if (closed.compareAndSet(false, true)) {
+                release();
+            }
+        }
+    }
+
+    private static class LeasedRecordIterator
+            implements ConnectorRecordIterator
+    {
+        private final ConnectorRecordIterator delegate;
+        private final Lease lease;
+
+        private LeasedRecordIterator(ConnectorRecordIterator delegate, Lease lease)
+        {
+            this.delegate = requireNonNull(delegate, "delegate is null");
+            this.lease = requireNonNull(lease, "lease is null");
+        }
+
+        @Override
+        public List<Column> getColumns()
+        {
+            return delegate.getColumns();
+        }
+
+        @Override
+        public boolean hasNext()
+        {
+            return delegate.hasNext();
+        }
+
+        @Override
+        public Object[] next()
+        {
+            return delegate.next();
+        }
+
+        @Override
+        public void close()
+                throws Exception
+        {
+            try {
+                delegate.close();
+            }
+            finally {
+                lease.close();
+            }
+        }
+    }
+}
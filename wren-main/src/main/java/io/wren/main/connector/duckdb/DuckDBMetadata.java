@@ -17,6 +17,7 @@ package io.wren.main.connector.duckdb;
 import com.google.common.collect.ImmutableMap;
 import com.google.inject.Inject;
 import io.airlift.log.Logger;
+import io.airlift.stats.TimeStat;
 import io.trino.sql.tree.QualifiedName;
 import io.wren.base.Column;
 import io.wren.base.ConnectorRecordIterator;
@@ -51,6 +52,7 @@ import java.util.function.Consumer;
 import static io.wren.base.metadata.StandardErrorCode.GENERIC_INTERNAL_ERROR;
 import static io.wren.main.pgcatalog.PgCatalogUtils.PG_CATALOG_NAME;
 import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static java.util.stream.Collectors.toList;
 
 public class DuckDBMetadata
@@ -59,7 +61,9 @@ public class DuckDBMetadata
     public static final Map<String, String> PG_TO_DUCKDB_FUNCTION_NAME_MAPPINGS = initPgNameToDuckDBFunctions();
     private static final Logger LOG = Logger.get(DuckDBMetadata.class);
     private final ConfigManager configManager;
-    private DuckdbClient duckdbClient;
+    // replaced by a new client on reload, while the queries running on the previous one finish
+    private volatile DuckdbClient duckdbClient;
+    private final TimeStat poolDrainTime = new TimeStat(MILLISECONDS);
     private final PgFunctionBuilder pgFunctionBuilder;
     private final AtomicReference<DuckDBSettingSQL> duckDBSettingSQL = new AtomicReference<>(new DuckDBSettingSQL());
 
@@ -136,11 +140,20 @@ public class DuckDBMetadata
         return PG_CATALOG_NAME;
     }
 
+    /**
+     * Build and validate a new client with the current settings before redirecting the new queries to it.
+     * If the new client fails to start, the previous one is kept. Otherwise, the previous one is closed in the background
+     * once its running queries are finished.
+     */
     @Override
-    public void reload()
+    public synchronized void reload()
     {
-        close();
-        this.duckdbClient = buildDuckDBClient();
+        DuckdbClient newClient = buildDuckDBClient();
+        DuckdbClient oldClient = duckdbClient;
+        duckdbClient = newClient;
+        if (oldClient != null) {
+            oldClient.closeGracefully();
+        }
     }
 
     @Override
@@ -168,12 +181,21 @@ public class DuckDBMetadata
         return duckdbClient;
     }
 
+    /**
+     * @return the time taken by the retired connection pools to finish their running queries
+     */
+    public TimeStat getPoolDrainTime()
+    {
+        return poolDrainTime;
+    }
+
     private DuckdbClient buildDuckDBClient()
     {
         return DuckdbClient.builder()
                 .setDuckDBConfig(configManager.getConfig(DuckDBConfig.class))
                 .setCacheStorageConfig(getCacheStorageConfigIfExists())
                 .setDuckDBSettingSQL(duckDBSettingSQL.get())
+                .setPoolDrainListener(poolDrainTime::add)
                 .build();
     }
 
@@ -182,7 +204,8 @@ public class DuckDBMetadata
         DuckdbClient.Builder builder = DuckdbClient.builder()
                 .setDuckDBConfig(configManager.getConfig(DuckDBConfig.class))
                 .setCacheStorageConfig(getCacheStorageConfigIfExists())
-                .setDuckDBSettingSQL(duckDBSettingSQL.get());
+                .setDuckDBSettingSQL(duckDBSettingSQL.get())
+                .setPoolDrainListener(poolDrainTime::add);
         return builder.buildSafely().orElse(builder.setDuckDBSettingSQL(null).build());
     }
 
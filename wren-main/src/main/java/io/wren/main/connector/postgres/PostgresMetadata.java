@@ -97,6 +97,17 @@ public class PostgresMetadata
         }
     }
 
+    @Override
+    public ConnectorRecordIterator directQuery(String sql, List<Parameter> parameters, int fetchSize)
+    {
+        try {
+            return new PostgresConnectorRecordIterator(PostgresRecordIterator.of(postgresClient, sql, parameters, fetchSize));
+        }
+        catch (Exception e) {
+            throw new WrenException(GENERIC_INTERNAL_ERROR, e);
+        }
+    }
+
     @Override
     public List<Column> describeQuery(String sql, List<Parameter> parameters)
     {
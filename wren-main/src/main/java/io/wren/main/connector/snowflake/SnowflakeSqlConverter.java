@@ -27,7 +27,9 @@ import io.wren.main.sqlglot.SQLGlotConverter;
 import org.intellij.lang.annotations.Language;
 
 import java.util.List;
+import java.util.Optional;
 
+import static com.google.common.collect.ImmutableList.toImmutableList;
 import static io.trino.sql.SqlFormatter.formatSql;
 import static io.wren.base.sqlrewrite.Utils.parseSql;
 
@@ -49,6 +51,24 @@ public class SnowflakeSqlConverter
 
     @Override
     public String convert(@Language("sql") String sql, SessionContext sessionContext)
+    {
+        String sqlGlotConverted = sqlGlotConverter.convert(rewrite(sql), sessionContext);
+
+        LOG.info("[Dialect sql]: %s", sqlGlotConverted);
+
+        return sqlGlotConverted;
+    }
+
+    @Override
+    public List<Optional<String>> convertAll(List<String> sqls, SessionContext sessionContext)
+    {
+        return sqlGlotConverter.convertAll(sqls.stream().map(SnowflakeSqlConverter::rewrite).collect(toImmutableList()), sessionContext);
+    }
+
+    /**
+     * The rewrites which SQLGlot doesn't do, before the statement is transpiled.
+     */
+    private static String rewrite(@Language("sql") String sql)
     {
         Node rewrittenNode = parseSql(sql);
 
@@ -68,10 +88,6 @@ public class SnowflakeSqlConverter
             }
         }
 
-        String sqlGlotConverted = sqlGlotConverter.convert(formatSql(rewrittenNode), sessionContext);
-
-        LOG.info("[Dialect sql]: %s", sqlGlotConverted);
-
-        return sqlGlotConverted;
+        return formatSql(rewrittenNode);
     }
 }
@@ -37,6 +37,16 @@ public interface Metadata
 
     ConnectorRecordIterator directQuery(String sql, List<Parameter> parameters);
 
+    /**
+     * Query a large result which is consumed as it's fetched, e.g. to stream a cache into DuckDB.
+     *
+     * @param fetchSize the number of rows fetched from the data source at a time
+     */
+    default ConnectorRecordIterator directQuery(String sql, List<Parameter> parameters, int fetchSize)
+    {
+        return directQuery(sql, parameters);
+    }
+
     List<Column> describeQuery(String sql, List<Parameter> parameters);
 
     boolean isPgCompatible();
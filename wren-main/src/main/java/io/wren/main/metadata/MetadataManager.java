@@ -42,6 +42,7 @@ public final class MetadataManager
     private final DuckDBMetadata duckDBMetadata;
     private final SnowflakeMetadata snowflakeMetadata;
     private final CouchbaseMetadata couchbaseMetadata;
+    private final QueryCoalescer queryCoalescer;
 
     private WrenConfig.DataSourceType dataSourceType;
     private Metadata delegate;
@@ -53,7 +54,8 @@ public final class MetadataManager
             PostgresMetadata postgresMetadata,
             DuckDBMetadata duckDBMetadata,
             SnowflakeMetadata snowflakeMetadata,
-            CouchbaseMetadata couchbaseMetadata)
+            CouchbaseMetadata couchbaseMetadata,
+            QueryCoalescer queryCoalescer)
     {
         this.configManager = requireNonNull(configManager, "configManager is null");
         this.bigQueryMetadata = requireNonNull(bigQueryMetadata, "bigQueryMetadata is null");
@@ -61,6 +63,7 @@ public final class MetadataManager
         this.duckDBMetadata = requireNonNull(duckDBMetadata, "duckDBMetadata is null");
         this.snowflakeMetadata = requireNonNull(snowflakeMetadata, "snowflakeMetadata is null");
         this.couchbaseMetadata = requireNonNull(couchbaseMetadata, "couchbaseMetadata is null");
+        this.queryCoalescer = requireNonNull(queryCoalescer, "queryCoalescer is null");
         this.dataSourceType = requireNonNull(configManager.getConfig(WrenConfig.class).getDataSourceType(), "dataSourceType is null");
         changeDelegate(dataSourceType);
     }
@@ -122,7 +125,16 @@ public final class MetadataManager
     @Override
     public ConnectorRecordIterator directQuery(String sql, List<Parameter> parameters)
     {
-        return delegate.directQuery(sql, parameters);
+        Metadata metadata = delegate;
+        long maxBufferBytes = configManager.getConfig(WrenConfig.class).getQueryCoalescingBufferSize().toBytes();
+        return queryCoalescer.execute(sql, parameters, maxBufferBytes, () -> metadata.directQuery(sql, parameters));
+    }
+
+    @Override
+    public ConnectorRecordIterator directQuery(String sql, List<Parameter> parameters, int fetchSize)
+    {
+        // the rows are streamed to a single consumer, so they aren't buffered for the coalesced queries
+        return delegate.directQuery(sql, parameters, fetchSize);
     }
 
     @Override
@@ -0,0 +1,427 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.wren.main.metadata;
+
+import com.google.common.collect.ImmutableList;
+import io.airlift.log.Logger;
+import io.airlift.stats.CounterStat;
+import io.wren.base.Column;
+import io.wren.base.ConnectorRecordIterator;
+import io.wren.base.Parameter;
+import io.wren.base.WrenException;
+
+import javax.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
+
+import static io.wren.base.metadata.StandardErrorCode.GENERIC_INTERNAL_ERROR;
+import static java.lang.String.format;
+import static java.util.Comparator.comparingLong;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Shares one data source execution between the identical queries running at the same time,
+ * e.g. the tiles of a dashboard opened by many viewers.
+ * <p>
+ * The first query of a statement and its parameters executes it, and the identical queries arriving before its last row
+ * is fetched join it. The rows are kept in a replay buffer so a joining query starts from the first row.
+ * Once the buffer exceeds its budget the query stops taking new subscribers, and the rows read by all its subscribers are dropped.
+ * If the buffer still exceeds its budget, the subscribers furthest behind fail, so a stalled client can't make it grow without bound.
+ * The rows are fetched by whichever subscriber reads ahead, and the source is closed when the last subscriber closes.
+ */
+public class QueryCoalescer
+{
+    private static final Logger LOG = Logger.get(QueryCoalescer.class);
+    // drop the rows read by all the subscribers in batches, the buffer is an array list
+    private static final int TRIM_BATCH_SIZE = 1024;
+
+    private final Map<Key, Flight> flights = new ConcurrentHashMap<>();
+    private final CounterStat coalescedQueries = new CounterStat();
+
+    /**
+     * @param maxBufferBytes the budget of the replay buffer of the query, or 0 to execute the query without coalescing
+     * @param executor executes the query if there is no identical query to join
+     */
+    public ConnectorRecordIterator execute(String sql, List<Parameter> parameters, long maxBufferBytes, Supplier<ConnectorRecordIterator> executor)
+    {
+        if (maxBufferBytes <= 0) {
+            return executor.get();
+        }
+        Key key = new Key(sql, parameters);
+        while (true) {
+            Flight flight = flights.get(key);
+            if (flight != null) {
+                Subscriber subscriber = flight.subscribe();
+                if (subscriber != null) {
+                    coalescedQueries.update(1);
+                    return subscriber.awaitStart();
+                }
+                flights.remove(key, flight);
+                continue;
+            }
+
+            Flight created = new Flight(key, maxBufferBytes);
+            Subscriber leader = created.subscribe();
+            if (flights.putIfAbsent(key, created) != null) {
+                continue;
+            }
+            created.start(executor);
+            return leader.awaitStart();
+        }
+    }
+
+    public CounterStat getCoalescedQueries()
+    {
+        return coalescedQueries;
+    }
+
+    int getInFlightQueries()
+    {
+        return flights.size();
+    }
+
+    private record Key(String sql, List<Parameter> parameters)
+    {
+        private Key
+        {
+            requireNonNull(sql, "sql is null");
+            parameters = ImmutableList.copyOf(parameters);
+        }
+    }
+
+    private record BufferedRow(Object[] values, long bytes) {}
+
+    private class Flight
+    {
+        private final Key key;
+        private final long maxBufferBytes;
+        private final CompletableFuture<Void> started = new CompletableFuture<>();
+        private final List<Subscriber> subscribers = new ArrayList<>();
+        private final List<BufferedRow> buffer = new ArrayList<>();
+        // the position of the first row in the buffer
+        private long bufferStart;
+        private long bufferBytes;
+        private boolean joinable = true;
+        private boolean exhausted;
+        @Nullable
+        private ConnectorRecordIterator source;
+        private List<Column> columns = ImmutableList.of();
+        @Nullable
+        private RuntimeException failure;
+
+        private Flight(Key key, long maxBufferBytes)
+        {
+            this.key = key;
+            this.maxBufferBytes = maxBufferBytes;
+        }
+
+        private void start(Supplier<ConnectorRecordIterator> executor)
+        {
+            ConnectorRecordIterator iterator;
+            List<Column> iteratorColumns;
+            try {
+                iterator = executor.get();
+                // the source is closed once exhausted, while a lagging subscriber may still ask for the columns
+                iteratorColumns = iterator.getColumns();
+            }
+            catch (RuntimeException e) {
+                synchronized (this) {
+                    failure = e;
+                    closeToSubscribers();
+                }
+                started.completeExceptionally(e);
+                return;
+            }
+            synchronized (this) {
+                source = iterator;
+                columns = iteratorColumns;
+                if (subscribers.isEmpty()) {
+                    // all the subscribers have given up waiting
+                    closeSource();
+                }
+            }
+            started.complete(null);
+        }
+
+        @Nullable
+        private synchronized Subscriber subscribe()
+        {
+            if (!joinable) {
+                return null;
+            }
+            Subscriber subscriber = new Subscriber(this);
+            subscribers.add(subscriber);
+            return subscriber;
+        }
+
+        private synchronized boolean hasNext(Subscriber subscriber)
+        {
+            if (subscriber.detached) {
+                throw new WrenException(GENERIC_INTERNAL_ERROR, format("The query fell behind the identical queries sharing its rows by more than %s bytes", maxBufferBytes));
+            }
+            if (subscriber.position < bufferStart + buffer.size()) {
+                return true;
+            }
+            if (exhausted) {
+                return false;
+            }
+            if (failure != null) {
+                throw failure;
+            }
+            try {
+                if (!source.hasNext()) {
+                    exhausted = true;
+                    closeToSubscribers();
+                    closeSource();
+                    return false;
+                }
+                Object[] row = source.next();
+                long bytes = estimateSize(row);
+                buffer.add(new BufferedRow(row, bytes));
+                bufferBytes += bytes;
+                if (bufferBytes > maxBufferBytes) {
+                    if (joinable) {
+                        LOG.debug("The rows of the query exceed %s bytes, the identical queries won't join it", maxBufferBytes);
+                        closeToSubscribers();
+                    }
+                    trim(true);
+                    detachLaggards(subscriber);
+                }
+                return true;
+            }
+            catch (RuntimeException e) {
+                failure = e;
+                closeToSubscribers();
+                closeSource();
+                throw e;
+            }
+        }
+
+        private synchronized Object[] next(Subscriber subscriber)
+        {
+            if (!hasNext(subscriber)) {
+                throw new NoSuchElementException();
+            }
+            Object[] row = buffer.get((int) (subscriber.position - bufferStart)).values();
+            subscriber.position++;
+            trim(false);
+            return row;
+        }
+
+        private synchronized void unsubscribe(Subscriber subscriber)
+        {
+            if (!subscribers.remove(subscriber)) {
+                // detached already
+                return;
+            }
+            if (subscribers.isEmpty()) {
+                closeToSubscribers();
+                closeSource();
+                buffer.clear();
+                bufferBytes = 0;
+            }
+            else {
+                trim(true);
+            }
+        }
+
+        private synchronized List<Column> getColumns()
+        {
+            return columns;
+        }
+
+        /**
+         * Drop the rows read by all the subscribers, once no new subscriber can start from the first row.
+         */
+        private void trim(boolean force)
+        {
+            if (joinable || buffer.isEmpty()) {
+                return;
+            }
+            long minPosition = minPosition(subscribers);
+            int readByAll = (int) (minPosition - bufferStart);
+            if (readByAll <= 0 || (!force && readByAll < TRIM_BATCH_SIZE && bufferBytes <= maxBufferBytes)) {
+                return;
+            }
+            List<BufferedRow> dropped = buffer.subList(0, readByAll);
+            for (BufferedRow row : dropped) {
+                bufferBytes -= row.bytes();
+            }
+            dropped.clear();
+            bufferStart = minPosition;
+        }
+
+        /**
+         * Detach the subscribers holding the oldest rows until the buffer is within its budget.
+         * The subscriber fetching the row is the furthest ahead, so it's never detached.
+         */
+        private void detachLaggards(Subscriber reader)
+        {
+            while (bufferBytes > maxBufferBytes && subscribers.size() > 1) {
+                Subscriber laggard = subscribers.stream()
+                        .filter(subscriber -> subscriber != reader)
+                        .min(comparingLong(subscriber -> subscriber.position))
+                        .orElseThrow();
+                LOG.debug("A subscriber is %s rows behind and holds more than %s bytes, detach it", bufferStart + buffer.size() - laggard.position, maxBufferBytes);
+                subscribers.remove(laggard);
+                laggard.detached = true;
+                trim(true);
+            }
+        }
+
+        private void closeToSubscribers()
+        {
+            joinable = false;
+            flights.remove(key, this);
+        }
+
+        private void closeSource()
+        {
+            if (source == null) {
+                return;
+            }
+            try {
+                source.close();
+            }
+            catch (Exception e) {
+                LOG.warn(e, "Failed to close the coalesced query");
+            }
+            source = null;
+        }
+    }
+
+    private class Subscriber
+            implements ConnectorRecordIterator
+    {
+        private final Flight flight;
+        private long position;
+        // guarded by the flight
+        private boolean detached;
+        private boolean closed;
+
+        private Subscriber(Flight flight)
+        {
+            this.flight = flight;
+        }
+
+        private Subscriber awaitStart()
+        {
+            try {
+                flight.started.get();
+                return this;
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                close();
+                throw new WrenException(GENERIC_INTERNAL_ERROR, e);
+            }
+            catch (ExecutionException e) {
+                close();
+                if (e.getCause() instanceof RuntimeException runtimeException) {
+                    throw runtimeException;
+                }
+                throw new WrenException(GENERIC_INTERNAL_ERROR, e.getCause());
+            }
+        }
+
+        @Override
+        public List<Column> getColumns()
+        {
+            return flight.getColumns();
+        }
+
+        @Override
+        public boolean hasNext()
+        {
+            return !closed && flight.hasNext(this);
+        }
+
+        @Override
+        public Object[] next()
+        {
+            if (closed) {
+                throw new NoSuchElementException();
+            }
+            return flight.next(this);
+        }
+
+        @Override
+        public void close()
+        {
+            if (!closed) {
+                closed = true;
+                flight.unsubscribe(this);
+            }
+        }
+    }
+
+    private static long minPosition(Collection<Subscriber> subscribers)
+    {
+        long min = Long.MAX_VALUE;
+        for (Subscriber subscriber : subscribers) {
+            min = Math.min(min, subscriber.position);
+        }
+        return min;
+    }
+
+    /**
+     * A rough size of the values returned by the connectors, to keep the replay buffer within its budget.
+     */
+    static long estimateSize(@Nullable Object value)
+    {
+        if (value == null) {
+            return 8;
+        }
+        if (value instanceof Object[] values) {
+            long size = 16 + 8L * values.length;
+            for (Object element : values) {
+                size += estimateSize(element);
+            }
+            return size;
+        }
+        if (value instanceof CharSequence string) {
+            return 40 + 2L * string.length();
+        }
+        if (value instanceof byte[] bytes) {
+            return 16 + bytes.length;
+        }
+        if (value instanceof Collection<?> collection) {
+            long size = 40 + 8L * collection.size();
+            for (Object element : collection) {
+                size += estimateSize(element);
+            }
+            return size;
+        }
+        if (value instanceof Map<?, ?> map) {
+            long size = 48 + 32L * map.size();
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                size += estimateSize(entry.getKey()) + estimateSize(entry.getValue());
+            }
+            return size;
+        }
+        if (value instanceof Number || value instanceof Boolean || value instanceof Character) {
+            return 16;
+        }
+        return 64;
+    }
+}
@@ -17,7 +17,7 @@ package io.wren.main.netty;
 import io.netty.bootstrap.ServerBootstrap;
 import io.netty.channel.ChannelOption;
 import io.netty.channel.EventLoopGroup;
-import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.channel.ServerChannel;
 import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.transport.TransportSettings;
 
@@ -28,10 +28,10 @@ public final class ChannelBootstrapFactory
 {
     private ChannelBootstrapFactory() {}
 
-    public static ServerBootstrap newChannelBootstrap(Settings settings, EventLoopGroup eventLoopGroup)
+    public static ServerBootstrap newChannelBootstrap(Settings settings, EventLoopGroup eventLoopGroup, Class<? extends ServerChannel> serverChannelClass)
     {
         ServerBootstrap serverBootstrap = new ServerBootstrap();
-        serverBootstrap.channel(NioServerSocketChannel.class);
+        serverBootstrap.channel(serverChannelClass);
         Boolean reuseAddress = TransportSettings.TCP_REUSE_ADDRESS.get(settings);
         return serverBootstrap
                 .group(eventLoopGroup)
@@ -0,0 +1,92 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.wren.main.netty;
+
+import io.airlift.log.Logger;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.ServerChannel;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollEventLoopGroup;
+import io.netty.channel.epoll.EpollServerSocketChannel;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.wren.base.config.PostgresWireProtocolConfig.NettyTransport;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * The resolved netty transport. The native epoll transport avoids the selector overhead of NIO
+ * when there are thousands of connections, but it's only available on Linux with the native library.
+ */
+public enum Transport
+{
+    NIO {
+        @Override
+        public EventLoopGroup newEventLoopGroup(int threadCount)
+        {
+            return new NioEventLoopGroup(threadCount);
+        }
+
+        @Override
+        public Class<? extends ServerChannel> getServerChannelClass()
+        {
+            return NioServerSocketChannel.class;
+        }
+    },
+    EPOLL {
+        @Override
+        public EventLoopGroup newEventLoopGroup(int threadCount)
+        {
+            return new EpollEventLoopGroup(threadCount);
+        }
+
+        @Override
+        public Class<? extends ServerChannel> getServerChannelClass()
+        {
+            return EpollServerSocketChannel.class;
+        }
+    };
+
+    private static final Logger LOG = Logger.get(Transport.class);
+
+    /**
+     * @param threadCount 0 means the netty default, i.e. twice the number of the processors
+     */
+    public abstract EventLoopGroup newEventLoopGroup(int threadCount);
+
+    public abstract Class<? extends ServerChannel> getServerChannelClass();
+
+    public static Transport resolve(NettyTransport nettyTransport)
+    {
+        requireNonNull(nettyTransport, "nettyTransport is null");
+        switch (nettyTransport) {
+            case NIO:
+                return NIO;
+            case EPOLL:
+                if (!Epoll.isAvailable()) {
+                    throw new IllegalStateException("Epoll transport is not available", Epoll.unavailabilityCause());
+                }
+                return EPOLL;
+            case AUTO:
+                if (Epoll.isAvailable()) {
+                    return EPOLL;
+                }
+                LOG.info("Epoll transport is not available, fall back to NIO: %s", Epoll.unavailabilityCause().getMessage());
+                return NIO;
+            default:
+                throw new IllegalArgumentException("Unsupported netty transport: " + nettyTransport);
+        }
+    }
+}
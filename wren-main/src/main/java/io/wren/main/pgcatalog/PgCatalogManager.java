@@ -16,6 +16,8 @@ package io.wren.main.pgcatalog;
 
 import io.wren.main.pgcatalog.exception.DeployException;
 
+import java.util.Set;
+
 public interface PgCatalogManager
 {
     default void initPgCatalog()
@@ -34,4 +36,13 @@ public interface PgCatalogManager
     default void syncPgMetastore()
             throws DeployException
     {}
+
+    /**
+     * Sync only the objects changed by an incremental deployment, the schema of the MDL is kept.
+     */
+    default void syncPgMetastore(Set<String> affectedObjects, Set<String> removedObjects)
+            throws DeployException
+    {
+        syncPgMetastore();
+    }
 }
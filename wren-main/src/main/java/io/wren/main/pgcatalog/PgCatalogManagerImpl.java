@@ -14,10 +14,19 @@
 
 package io.wren.main.pgcatalog;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.google.common.hash.HashCode;
 import com.google.inject.Inject;
 import io.airlift.log.Logger;
 import io.wren.base.Column;
 import io.wren.base.WrenMDL;
+import io.wren.base.config.ConfigManager;
+import io.wren.base.config.WrenConfig;
+import io.wren.base.dto.View;
 import io.wren.base.pgcatalog.function.DataSourceFunctionRegistry;
 import io.wren.base.pgcatalog.function.PgMetastoreFunctionRegistry;
 import io.wren.base.wireprotocol.PgMetastore;
@@ -29,17 +38,32 @@ import io.wren.main.pgcatalog.builder.PgMetastoreFunctionBuilder;
 import io.wren.main.pgcatalog.exception.DeployException;
 import org.apache.commons.lang3.StringUtils;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static com.google.common.hash.Hashing.sha256;
+import static io.airlift.concurrent.Threads.daemonThreadsNamed;
 import static java.lang.String.format;
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.CompletableFuture.supplyAsync;
+import static java.util.concurrent.Executors.newFixedThreadPool;
 import static java.util.stream.Collectors.joining;
 
 public class PgCatalogManagerImpl
         implements PgCatalogManager
 {
     private static final Logger LOG = Logger.get(PgCatalogManager.class);
+    private static final int DDL_BATCH_SIZE = 100;
 
     protected final String pgCatalogName;
 
@@ -51,6 +75,12 @@ public class PgCatalogManagerImpl
     private final PgMetastore pgMetastore;
     private final WrenMetastore wrenMetastore;
     private final PreviewService previewService;
+    private final ConfigManager configManager;
+    // key: the hash of the planned SQL of a view, value: the output columns of the view
+    private final Cache<HashCode, List<Column>> describedViews = CacheBuilder.newBuilder()
+            .maximumSize(10_000)
+            .recordStats()
+            .build();
 
     @Inject
     public PgCatalogManagerImpl(
@@ -58,7 +88,8 @@ public class PgCatalogManagerImpl
             PgFunctionBuilderManager pgFunctionBuilderManager,
             PgMetastore pgMetastore,
             WrenMetastore wrenMetastore,
-            PreviewService previewService)
+            PreviewService previewService,
+            ConfigManager configManager)
     {
         this.connector = requireNonNull(connector, "connector is null");
         this.pgFunctionBuilderManager = requireNonNull(pgFunctionBuilderManager, "pgFunctionBuilderManager is null");
@@ -69,6 +100,13 @@ public class PgCatalogManagerImpl
         this.pgMetastoreFunctionBuilder = new PgMetastoreFunctionBuilder(pgMetastore);
         this.wrenMetastore = requireNonNull(wrenMetastore, "wrenMetastore is null");
         this.previewService = requireNonNull(previewService, "previewService is null");
+        this.configManager = requireNonNull(configManager, "configManager is null");
+        // the described columns depend on the data source, so drop them whenever the configs change
+        configManager.addListener((previous, current) -> {
+            if (!current.changedKeys(previous).isEmpty()) {
+                describedViews.invalidateAll();
+            }
+        });
     }
 
     public void initPgCatalog()
@@ -118,55 +156,65 @@ public class PgCatalogManagerImpl
 
     public void syncPgMetastore()
             throws DeployException
+    {
+        syncPgMetastore(Optional.empty(), Set.of());
+    }
+
+    @Override
+    public void syncPgMetastore(Set<String> affectedObjects, Set<String> removedObjects)
+            throws DeployException
+    {
+        syncPgMetastore(Optional.of(affectedObjects), removedObjects);
+    }
+
+    /**
+     * @param affectedObjects the objects to create again, or empty to create the whole schema again
+     */
+    private void syncPgMetastore(Optional<Set<String>> affectedObjects, Set<String> removedObjects)
+            throws DeployException
     {
         try {
             WrenMDL mdl = wrenMetastore.getAnalyzedMDL().getWrenMDL();
-            StringBuilder sb = new StringBuilder();
+            Predicate<String> toSync = name -> affectedObjects.map(objects -> objects.contains(name)).orElse(true);
+            List<String> ddl = new ArrayList<>();
             if (StringUtils.isNotEmpty(mdl.getSchema())) {
-                sb.append(format("DROP SCHEMA IF EXISTS \"%s\" CASCADE;\n", mdl.getSchema()));
-                sb.append(format("CREATE SCHEMA IF NOT EXISTS \"%s\";\n", mdl.getSchema()));
+                if (affectedObjects.isEmpty()) {
+                    ddl.add(format("DROP SCHEMA IF EXISTS \"%s\" CASCADE;", mdl.getSchema()));
+                }
+                ddl.add(format("CREATE SCHEMA IF NOT EXISTS \"%s\";", mdl.getSchema()));
             }
-            mdl.listModels().forEach(model -> {
+            if (affectedObjects.isPresent()) {
+                Stream.concat(removedObjects.stream(), affectedObjects.get().stream())
+                        .forEach(name -> ddl.add(format("DROP TABLE IF EXISTS \"%s\".\"%s\";", mdl.getSchema(), name)));
+            }
+            mdl.listModels().stream().filter(model -> toSync.test(model.getName())).forEach(model -> {
                 String cols = model.getColumns().stream()
                         .filter(column -> column.getRelationship().isEmpty())
                         .map(column -> format("\"%s\" %s", column.getName(), pgMetastore.handlePgType(column.getType())))
                         .collect(joining(","));
-                sb.append(format("CREATE TABLE IF NOT EXISTS \"%s\".\"%s\" (%s);\n", mdl.getSchema(), model.getName(), cols));
+                ddl.add(format("CREATE TABLE IF NOT EXISTS \"%s\".\"%s\" (%s);", mdl.getSchema(), model.getName(), cols));
             });
-            mdl.listMetrics().forEach(metric -> {
+            mdl.listMetrics().stream().filter(metric -> toSync.test(metric.getName())).forEach(metric -> {
                 String cols = metric.getColumns().stream().map(column -> format("\"%s\" %s", column.getName(), pgMetastore.handlePgType(column.getType()))).collect(joining(","));
-                sb.append(format("CREATE TABLE IF NOT EXISTS \"%s\".\"%s\" (%s);\n", mdl.getSchema(), metric.getName(), cols));
+                ddl.add(format("CREATE TABLE IF NOT EXISTS \"%s\".\"%s\" (%s);", mdl.getSchema(), metric.getName(), cols));
             });
-            mdl.listCumulativeMetrics().forEach(metric -> {
+            mdl.listCumulativeMetrics().stream().filter(metric -> toSync.test(metric.getName())).forEach(metric -> {
                 String cols = format("\"%s\" %s, \"%s\" %s",
                         metric.getMeasure().getName(),
                         pgMetastore.handlePgType(metric.getMeasure().getType()),
                         metric.getWindow().getName(),
                         mdl.getColumnType(metric.getName(), metric.getWindow().getName())
                                 .orElseThrow(() -> new IllegalArgumentException("Unknown window column type")));
-                sb.append(format("CREATE TABLE IF NOT EXISTS \"%s\".\"%s\" (%s);\n", mdl.getSchema(), metric.getName(), cols));
+                ddl.add(format("CREATE TABLE IF NOT EXISTS \"%s\".\"%s\" (%s);", mdl.getSchema(), metric.getName(), cols));
             });
-            mdl.listViews()
-                    .stream()
-                    .map(view -> {
-                        try {
-                            return Optional.of(new DescribedView(view.getName(), previewService.dryRun(mdl, view.getStatement()).join()));
-                        }
-                        catch (Exception e) {
-                            LOG.error(e, "Failed to describe view %s", view.getName());
-                            return Optional.empty();
-                        }
-                    })
-                    .filter(Optional::isPresent)
-                    .map(Optional::get)
-                    .map(describedView -> (DescribedView) describedView)
+            describeViews(mdl, mdl.listViews().stream().filter(view -> toSync.test(view.getName())).collect(toImmutableList()))
                     .forEach(describedView -> {
                         String cols = describedView.columns.stream().map(column -> format("\"%s\" %s", column.getName(), column.getType().typName())).collect(joining(","));
-                        sb.append(format("CREATE TABLE IF NOT EXISTS \"%s\".\"%s\" (%s);\n", mdl.getSchema(), describedView.name, cols));
+                        ddl.add(format("CREATE TABLE IF NOT EXISTS \"%s\".\"%s\" (%s);", mdl.getSchema(), describedView.name, cols));
                     });
-            String syncSql = sb.toString();
-            LOG.info("Sync PG Metastore DDL:\n %s", syncSql);
-            if (!syncSql.isEmpty()) {
+            for (List<String> batch : Lists.partition(ddl, DDL_BATCH_SIZE)) {
+                String syncSql = String.join("\n", batch);
+                LOG.info("Sync PG Metastore DDL:\n %s", syncSql);
                 pgMetastore.directDDL(syncSql);
             }
         }
@@ -177,6 +225,70 @@ public class PgCatalogManagerImpl
         }
     }
 
+    /**
+     * Describe the views with the data source concurrently. The description of a view is cached by the hash
+     * of its planned SQL, so the views whose statements and models didn't change aren't described again on the next deployment.
+     */
+    private List<DescribedView> describeViews(WrenMDL mdl, List<View> views)
+    {
+        if (views.isEmpty()) {
+            return ImmutableList.of();
+        }
+        List<Optional<String>> plannedViews = planViews(mdl, views);
+        int concurrency = Math.min(views.size(), configManager.getConfig(WrenConfig.class).getMaxConcurrentViewDescriptions());
+        ExecutorService executor = newFixedThreadPool(concurrency, daemonThreadsNamed("view-description-%s"));
+        try {
+            List<CompletableFuture<Optional<DescribedView>>> futures = IntStream.range(0, views.size())
+                    .mapToObj(i -> supplyAsync(() -> describeView(mdl, views.get(i), plannedViews.get(i)), executor))
+                    .collect(toImmutableList());
+            return futures.stream()
+                    .map(CompletableFuture::join)
+                    .flatMap(Optional::stream)
+                    .collect(toImmutableList());
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Convert the views in one batch, which is a single request for the data sources converted by SQLGlot.
+     */
+    private List<Optional<String>> planViews(WrenMDL mdl, List<View> views)
+    {
+        try {
+            return previewService.planAll(mdl, views.stream().map(View::getStatement).collect(toImmutableList()));
+        }
+        catch (Exception e) {
+            LOG.warn(e, "Failed to plan the views in one batch, plan them one by one");
+            return Collections.nCopies(views.size(), Optional.empty());
+        }
+    }
+
+    /**
+     * @param planned the converted statement of the view, or empty to plan it again and report why it fails
+     */
+    private Optional<DescribedView> describeView(WrenMDL mdl, View view, Optional<String> planned)
+    {
+        try {
+            String sql = planned.isPresent() ? planned.get() : previewService.plan(mdl, view.getStatement());
+            List<Column> columns = describedViews.get(sha256().hashString(sql, UTF_8), () -> previewService.describe(sql));
+            return Optional.of(new DescribedView(view.getName(), columns));
+        }
+        catch (Exception e) {
+            LOG.error(e, "Failed to describe view %s", view.getName());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * A miss is a view described by the data source, or failed to describe.
+     */
+    public CacheStats getDescribedViewStats()
+    {
+        return describedViews.stats();
+    }
+
     static class DescribedView
     {
         private final String name;
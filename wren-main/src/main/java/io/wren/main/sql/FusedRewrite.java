@@ -0,0 +1,91 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.wren.main.sql;
+
+import com.google.common.collect.ImmutableList;
+import io.trino.sql.tree.Node;
+import io.wren.base.sqlrewrite.BaseRewriter;
+import io.wren.main.metadata.Metadata;
+
+import javax.annotation.Nullable;
+
+import java.util.List;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Applies the node rewrites in one bottom-up traversal, instead of rebuilding the whole tree for each of them.
+ * Each node is rebuilt from its rewritten children, then the node rewrites are applied to it in order.
+ * Node rewrites which depend on each other through the ancestors of a node, or which need an analysis of
+ * the whole statement, can't be fused and stay separate {@link SqlRewrite}s.
+ */
+public final class FusedRewrite
+        implements SqlRewrite
+{
+    private final List<NodeRewrite> rewrites;
+
+    public FusedRewrite(List<NodeRewrite> rewrites)
+    {
+        this.rewrites = ImmutableList.copyOf(rewrites);
+        checkArgument(!this.rewrites.isEmpty(), "rewrites is empty");
+    }
+
+    public List<NodeRewrite> getRewrites()
+    {
+        return rewrites;
+    }
+
+    @Override
+    public Node rewrite(Node node, Metadata metadata)
+    {
+        return new Traversal(metadata).process(node, null);
+    }
+
+    private class Traversal
+            extends BaseRewriter<Void>
+            implements NodeRewrite.Context
+    {
+        @Nullable
+        private final Metadata metadata;
+
+        private Traversal(@Nullable Metadata metadata)
+        {
+            this.metadata = metadata;
+        }
+
+        @Override
+        public Node process(Node node, @Nullable Void context)
+        {
+            Node rewritten = super.process(node, context);
+            for (NodeRewrite rewrite : rewrites) {
+                rewritten = rewrite.apply(rewritten, this);
+            }
+            return rewritten;
+        }
+
+        @Override
+        public Metadata getMetadata()
+        {
+            return metadata;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <N extends Node> N rewrite(N node)
+        {
+            return (N) process(node, null);
+        }
+    }
+}
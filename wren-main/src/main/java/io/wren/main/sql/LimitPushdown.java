@@ -0,0 +1,121 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.wren.main.sql;
+
+import io.trino.sql.tree.AllColumns;
+import io.trino.sql.tree.Limit;
+import io.trino.sql.tree.LongLiteral;
+import io.trino.sql.tree.Node;
+import io.trino.sql.tree.Offset;
+import io.trino.sql.tree.Query;
+import io.trino.sql.tree.QuerySpecification;
+import io.trino.sql.tree.Statement;
+
+import java.util.Optional;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static io.trino.sql.QueryUtil.aliased;
+import static io.trino.sql.QueryUtil.selectList;
+import static io.trino.sql.QueryUtil.simpleQuery;
+import static io.trino.sql.QueryUtil.subquery;
+
+/**
+ * Push the row limit of a preview into the statement, so the data source stops after the rows the client reads
+ * instead of computing, and billing, the whole result.
+ * <p>
+ * A query without a limit gets one, and a literal limit is lowered to the row limit, which keeps its ORDER BY.
+ * A query with an OFFSET, or a limit which isn't a literal, is wrapped in {@code SELECT * FROM (query) LIMIT n}.
+ */
+public final class LimitPushdown
+{
+    private static final String WRAPPED_QUERY_ALIAS = "preview";
+
+    private LimitPushdown() {}
+
+    public static Statement pushDown(Statement statement, long rowLimit)
+    {
+        checkArgument(rowLimit >= 0, "rowLimit is negative");
+        if (!(statement instanceof Query query)) {
+            return statement;
+        }
+        // the parser puts the ORDER BY, OFFSET and LIMIT of a simple query into its query specification
+        if (query.getQueryBody() instanceof QuerySpecification specification
+                && query.getOrderBy().isEmpty()
+                && query.getOffset().isEmpty()
+                && query.getLimit().isEmpty()) {
+            return limit(specification.getOffset(), specification.getLimit(), rowLimit)
+                    .map(limit -> (Statement) new Query(
+                            query.getWith(),
+                            new QuerySpecification(
+                                    specification.getSelect(),
+                                    specification.getFrom(),
+                                    specification.getWhere(),
+                                    specification.getGroupBy(),
+                                    specification.getHaving(),
+                                    specification.getWindows(),
+                                    specification.getOrderBy(),
+                                    specification.getOffset(),
+                                    Optional.of(limit)),
+                            Optional.empty(),
+                            Optional.empty(),
+                            Optional.empty()))
+                    .orElseGet(() -> wrap(query, rowLimit));
+        }
+        return limit(query.getOffset(), query.getLimit(), rowLimit)
+                .map(limit -> (Statement) new Query(
+                        query.getWith(),
+                        query.getQueryBody(),
+                        query.getOrderBy(),
+                        query.getOffset(),
+                        Optional.of(limit)))
+                .orElseGet(() -> wrap(query, rowLimit));
+    }
+
+    /**
+     * @return the limit which replaces the current one, or empty if the query has to be wrapped
+     */
+    private static Optional<Node> limit(Optional<Offset> offset, Optional<Node> current, long rowLimit)
+    {
+        if (offset.isPresent()) {
+            return Optional.empty();
+        }
+        if (current.isEmpty()) {
+            return Optional.of(limitOf(rowLimit));
+        }
+        if (current.get() instanceof Limit limit && limit.getRowCount() instanceof LongLiteral rowCount) {
+            return Optional.of(limitOf(Math.min(rowCount.getValue(), rowLimit)));
+        }
+        // FETCH FIRST, LIMIT ALL or a parameter
+        return Optional.empty();
+    }
+
+    private static Query wrap(Query query, long rowLimit)
+    {
+        return simpleQuery(
+                selectList(new AllColumns()),
+                aliased(subquery(query), WRAPPED_QUERY_ALIAS),
+                Optional.empty(),
+                Optional.empty(),
+                Optional.empty(),
+                Optional.empty(),
+                Optional.empty(),
+                Optional.of(limitOf(rowLimit)));
+    }
+
+    private static Limit limitOf(long rowLimit)
+    {
+        return new Limit(new LongLiteral(String.valueOf(rowLimit)));
+    }
+}
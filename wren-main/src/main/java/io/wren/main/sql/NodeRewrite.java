@@ -0,0 +1,50 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.wren.main.sql;
+
+import io.trino.sql.tree.Node;
+import io.wren.main.metadata.Metadata;
+
+import java.util.List;
+
+/**
+ * A rewrite of a single node. The node rewrites passed to a {@link FusedRewrite} share one bottom-up traversal,
+ * so a node rewrite may only look at the node and its children, which are rewritten already.
+ */
+public interface NodeRewrite
+        extends SqlRewrite
+{
+    /**
+     * @param node the node to rewrite, its children have been rewritten by all the rewrites of the traversal
+     * @return the rewritten node, or the node itself if the rewrite doesn't apply
+     */
+    Node apply(Node node, Context context);
+
+    @Override
+    default Node rewrite(Node node, Metadata metadata)
+    {
+        return new FusedRewrite(List.of(this)).rewrite(node, metadata);
+    }
+
+    interface Context
+    {
+        Metadata getMetadata();
+
+        /**
+         * Rewrite a subtree created by the node rewrite with all the rewrites of the traversal.
+         */
+        <N extends Node> N rewrite(N node);
+    }
+}
@@ -15,6 +15,7 @@
 package io.wren.main.sql;
 
 import com.google.inject.Inject;
+import io.trino.sql.tree.Statement;
 import io.wren.base.SessionContext;
 import io.wren.base.config.ConfigManager;
 import io.wren.base.config.WrenConfig;
@@ -25,6 +26,9 @@ import io.wren.main.connector.duckdb.DuckDBSqlConverter;
 import io.wren.main.connector.postgres.PostgresSqlConverter;
 import io.wren.main.connector.snowflake.SnowflakeSqlConverter;
 
+import java.util.List;
+import java.util.Optional;
+
 import static java.util.Objects.requireNonNull;
 
 public final class SqlConverterManager
@@ -95,4 +99,16 @@ public final class SqlConverterManager
     {
         return delegate.convert(sql, sessionContext);
     }
+
+    @Override
+    public String convert(Statement statement, SessionContext sessionContext)
+    {
+        return delegate.convert(statement, sessionContext);
+    }
+
+    @Override
+    public List<Optional<String>> convertAll(List<String> sqls, SessionContext sessionContext)
+    {
+        return delegate.convertAll(sqls, sessionContext);
+    }
 }
@@ -20,9 +20,7 @@ import io.trino.sql.tree.GroupBy;
 import io.trino.sql.tree.GroupingElement;
 import io.trino.sql.tree.Node;
 import io.trino.sql.tree.SimpleGroupBy;
-import io.wren.base.sqlrewrite.BaseRewriter;
-import io.wren.main.metadata.Metadata;
-import io.wren.main.sql.SqlRewrite;
+import io.wren.main.sql.NodeRewrite;
 
 import java.util.List;
 
@@ -32,46 +30,40 @@ import java.util.List;
  * GROUP BY (c1, c2) -> GROUP BY c1, c2
  */
 public class FlattenGroupingElements
-        implements SqlRewrite
+        implements NodeRewrite
 {
     public static final FlattenGroupingElements INSTANCE = new FlattenGroupingElements();
 
     @Override
-    public Node rewrite(Node node, Metadata metadata)
+    public Node apply(Node node, Context context)
     {
-        return new FlattenGroupingElementsRewriter().process(node, null);
-    }
-
-    public static class FlattenGroupingElementsRewriter
-            extends BaseRewriter<Void>
-    {
-        protected Node visitGroupBy(GroupBy node, Void context)
-        {
-            ImmutableList.Builder<GroupingElement> builder = ImmutableList.builder();
-            node.getGroupingElements().forEach(groupingElement -> {
-                if (groupingElement instanceof SimpleGroupBy) {
-                    rewriteSimpleGroupBy((SimpleGroupBy) groupingElement, builder);
-                }
-                else {
-                    builder.add(groupingElement);
-                }
-            });
-            if (node.getLocation().isPresent()) {
-                return new GroupBy(
-                        node.getLocation().get(),
-                        node.isDistinct(),
-                        builder.build());
+        if (!(node instanceof GroupBy groupBy)) {
+            return node;
+        }
+        ImmutableList.Builder<GroupingElement> builder = ImmutableList.builder();
+        groupBy.getGroupingElements().forEach(groupingElement -> {
+            if (groupingElement instanceof SimpleGroupBy) {
+                rewriteSimpleGroupBy((SimpleGroupBy) groupingElement, builder);
             }
+            else {
+                builder.add(groupingElement);
+            }
+        });
+        if (groupBy.getLocation().isPresent()) {
             return new GroupBy(
-                    node.isDistinct(),
+                    groupBy.getLocation().get(),
+                    groupBy.isDistinct(),
                     builder.build());
         }
+        return new GroupBy(
+                groupBy.isDistinct(),
+                builder.build());
+    }
 
-        private static void rewriteSimpleGroupBy(SimpleGroupBy node, ImmutableList.Builder<GroupingElement> groupingElementBuilder)
-        {
-            for (Expression expression : node.getExpressions()) {
-                groupingElementBuilder.add(new SimpleGroupBy(List.of(expression)));
-            }
+    private static void rewriteSimpleGroupBy(SimpleGroupBy node, ImmutableList.Builder<GroupingElement> groupingElementBuilder)
+    {
+        for (Expression expression : node.getExpressions()) {
+            groupingElementBuilder.add(new SimpleGroupBy(List.of(expression)));
         }
     }
 }
@@ -20,41 +20,34 @@ import io.trino.sql.tree.DataType;
 import io.trino.sql.tree.DateTimeDataType;
 import io.trino.sql.tree.GenericDataType;
 import io.trino.sql.tree.Node;
-import io.wren.base.sqlrewrite.BaseRewriter;
-import io.wren.main.metadata.Metadata;
-import io.wren.main.sql.SqlRewrite;
+import io.wren.main.sql.NodeRewrite;
 
 import java.util.Optional;
 
 public class RemoveParameterInTypesInCast
-        implements SqlRewrite
+        implements NodeRewrite
 {
     public static final RemoveParameterInTypesInCast INSTANCE = new RemoveParameterInTypesInCast();
 
     private RemoveParameterInTypesInCast() {}
 
-    public Node rewrite(Node node, Metadata metadata)
+    @Override
+    public Node apply(Node node, Context context)
     {
-        return new RemoveParameterInTypesInCastRewriter().process(node);
-    }
-
-    private static class RemoveParameterInTypesInCastRewriter
-            extends BaseRewriter<Void>
-    {
-        @Override
-        protected Node visitCast(Cast node, Void context)
-        {
-            DataType dataType = node.getType();
-            if (node.getType() instanceof GenericDataType
-                    && !((GenericDataType) node.getType()).getName().getCanonicalValue().equals("ARRAY")) {
-                GenericDataType genericDataType = (GenericDataType) node.getType();
-                dataType = new GenericDataType(Optional.empty(), genericDataType.getName(), ImmutableList.of());
-            }
-            else if (node.getType() instanceof DateTimeDataType) {
-                DateTimeDataType dateTimeDataType = (DateTimeDataType) node.getType();
-                dataType = new DateTimeDataType(dateTimeDataType.getLocation(), dateTimeDataType.getType(), dateTimeDataType.isWithTimeZone(), Optional.empty());
-            }
-            return new Cast(node.getExpression(), dataType);
+        if (!(node instanceof Cast cast)) {
+            return node;
+        }
+        DataType dataType = cast.getType();
+        if (cast.getType() instanceof GenericDataType genericDataType
+                && !genericDataType.getName().getCanonicalValue().equals("ARRAY")) {
+            dataType = new GenericDataType(Optional.empty(), genericDataType.getName(), ImmutableList.of());
+        }
+        else if (cast.getType() instanceof DateTimeDataType dateTimeDataType) {
+            dataType = new DateTimeDataType(dateTimeDataType.getLocation(), dateTimeDataType.getType(), dateTimeDataType.isWithTimeZone(), Optional.empty());
+        }
+        if (cast.getLocation().isPresent()) {
+            return new Cast(cast.getLocation().get(), cast.getExpression(), dataType, cast.isSafe(), cast.isTypeOnly());
         }
+        return new Cast(cast.getExpression(), dataType, cast.isSafe(), cast.isTypeOnly());
     }
 }
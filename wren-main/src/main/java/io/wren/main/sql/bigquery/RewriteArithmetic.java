@@ -16,14 +16,13 @@ package io.wren.main.sql.bigquery;
 
 import io.trino.sql.tree.ArithmeticBinaryExpression;
 import io.trino.sql.tree.Cast;
+import io.trino.sql.tree.Expression;
 import io.trino.sql.tree.GenericDataType;
 import io.trino.sql.tree.Identifier;
 import io.trino.sql.tree.IntervalLiteral;
 import io.trino.sql.tree.Node;
 import io.trino.sql.tree.TimestampLiteral;
-import io.wren.base.sqlrewrite.BaseRewriter;
-import io.wren.main.metadata.Metadata;
-import io.wren.main.sql.SqlRewrite;
+import io.wren.main.sql.NodeRewrite;
 
 import java.util.List;
 import java.util.Optional;
@@ -37,52 +36,31 @@ import java.util.Optional;
  * select cast(timestamp '2023-07-04 09:41:43.805201' as datetime) + interval '1 year';
  */
 public class RewriteArithmetic
-        implements SqlRewrite
+        implements NodeRewrite
 {
     public static final RewriteArithmetic INSTANCE = new RewriteArithmetic();
     public static final GenericDataType DATETIME = new GenericDataType(Optional.empty(), new Identifier("DATETIME"), List.of());
 
     @Override
-    public Node rewrite(Node node, Metadata metadata)
+    public Node apply(Node node, Context context)
     {
-        return new RewriteArithmeticRewriter().process(node, null);
+        if (!(node instanceof ArithmeticBinaryExpression arithmetic)) {
+            return node;
+        }
+        if (arithmetic.getLeft() instanceof IntervalLiteral && arithmetic.getRight() instanceof TimestampLiteral) {
+            return withOperands(arithmetic, arithmetic.getLeft(), new Cast(arithmetic.getRight(), DATETIME));
+        }
+        if (arithmetic.getLeft() instanceof TimestampLiteral && arithmetic.getRight() instanceof IntervalLiteral) {
+            return withOperands(arithmetic, new Cast(arithmetic.getLeft(), DATETIME), arithmetic.getRight());
+        }
+        return node;
     }
 
-    public static class RewriteArithmeticRewriter
-            extends BaseRewriter<Void>
+    private static ArithmeticBinaryExpression withOperands(ArithmeticBinaryExpression node, Expression left, Expression right)
     {
-        @Override
-        protected Node visitArithmeticBinary(ArithmeticBinaryExpression node, Void context)
-        {
-            if (node.getLeft() instanceof IntervalLiteral && (node.getRight() instanceof TimestampLiteral)) {
-                if (node.getLocation().isPresent()) {
-                    return new ArithmeticBinaryExpression(
-                            node.getLocation().get(),
-                            node.getOperator(),
-                            node.getLeft(),
-                            new Cast(node.getRight(), DATETIME));
-                }
-                return new ArithmeticBinaryExpression(
-                        node.getLocation().get(),
-                        node.getOperator(),
-                        node.getLeft(),
-                        new Cast(node.getRight(), DATETIME));
-            }
-            else if (node.getLeft() instanceof TimestampLiteral && node.getRight() instanceof IntervalLiteral) {
-                if (node.getLocation().isPresent()) {
-                    return new ArithmeticBinaryExpression(
-                            node.getLocation().get(),
-                            node.getOperator(),
-                            new Cast(node.getLeft(), DATETIME),
-                            node.getRight());
-                }
-                return new ArithmeticBinaryExpression(
-                        node.getLocation().get(),
-                        node.getOperator(),
-                        new Cast(node.getRight(), DATETIME),
-                        node.getRight());
-            }
-            return node;
+        if (node.getLocation().isPresent()) {
+            return new ArithmeticBinaryExpression(node.getLocation().get(), node.getOperator(), left, right);
         }
+        return new ArithmeticBinaryExpression(node.getOperator(), left, right);
     }
 }
@@ -26,9 +26,7 @@ import io.trino.sql.tree.SelectItem;
 import io.trino.sql.tree.SimpleGroupBy;
 import io.trino.sql.tree.SingleColumn;
 import io.trino.sql.tree.SortItem;
-import io.wren.base.sqlrewrite.BaseRewriter;
-import io.wren.main.metadata.Metadata;
-import io.wren.main.sql.SqlRewrite;
+import io.wren.main.sql.NodeRewrite;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -54,49 +52,32 @@ import java.util.Optional;
  * ORDER BY new_orderkey ASC
  */
 public class RewriteNamesToAlias
-        implements SqlRewrite
+        implements NodeRewrite
 {
     public static final RewriteNamesToAlias INSTANCE = new RewriteNamesToAlias();
 
     @Override
-    public Node rewrite(Node node, Metadata metadata)
+    public Node apply(Node rewritten, Context context)
     {
-        return new RewriteNamesToAliasRewriter().process(node, null);
-    }
-
-    public static class RewriteNamesToAliasRewriter
-            extends BaseRewriter<Void>
-    {
-        @Override
-        protected Node visitQuerySpecification(QuerySpecification node, Void context)
-        {
-            Map<Expression, Identifier> selectItemAliasMap = new HashMap<>();
-            for (SelectItem selectItem : node.getSelect().getSelectItems()) {
-                if (selectItem instanceof SingleColumn) {
-                    SingleColumn singleColumn = (SingleColumn) selectItem;
-                    if (singleColumn.getAlias().isPresent()) {
-                        selectItemAliasMap.putIfAbsent(singleColumn.getExpression(), singleColumn.getAlias().get());
-                    }
+        if (!(rewritten instanceof QuerySpecification node)) {
+            return rewritten;
+        }
+        Map<Expression, Identifier> selectItemAliasMap = new HashMap<>();
+        for (SelectItem selectItem : node.getSelect().getSelectItems()) {
+            if (selectItem instanceof SingleColumn) {
+                SingleColumn singleColumn = (SingleColumn) selectItem;
+                if (singleColumn.getAlias().isPresent()) {
+                    selectItemAliasMap.putIfAbsent(singleColumn.getExpression(), singleColumn.getAlias().get());
                 }
             }
+        }
 
-            Optional<OrderBy> newOrderBy = node.getOrderBy().isEmpty() ? Optional.empty() : Optional.of(rewriteOrderBy(selectItemAliasMap, node.getOrderBy().get()));
-            Optional<GroupBy> newGroupBy = node.getGroupBy().isEmpty() ? Optional.empty() : Optional.of(rewriteGroupBy(selectItemAliasMap, node.getGroupBy().get()));
+        Optional<OrderBy> newOrderBy = node.getOrderBy().isEmpty() ? Optional.empty() : Optional.of(rewriteOrderBy(selectItemAliasMap, node.getOrderBy().get()));
+        Optional<GroupBy> newGroupBy = node.getGroupBy().isEmpty() ? Optional.empty() : Optional.of(rewriteGroupBy(selectItemAliasMap, node.getGroupBy().get()));
 
-            if (node.getLocation().isPresent()) {
-                return new QuerySpecification(
-                        node.getLocation().get(),
-                        node.getSelect(),
-                        node.getFrom(),
-                        node.getWhere(),
-                        newGroupBy,
-                        node.getHaving(),
-                        node.getWindows(),
-                        newOrderBy,
-                        node.getOffset(),
-                        node.getLimit());
-            }
+        if (node.getLocation().isPresent()) {
             return new QuerySpecification(
+                    node.getLocation().get(),
                     node.getSelect(),
                     node.getFrom(),
                     node.getWhere(),
@@ -107,66 +88,76 @@ public class RewriteNamesToAlias
                     node.getOffset(),
                     node.getLimit());
         }
+        return new QuerySpecification(
+                node.getSelect(),
+                node.getFrom(),
+                node.getWhere(),
+                newGroupBy,
+                node.getHaving(),
+                node.getWindows(),
+                newOrderBy,
+                node.getOffset(),
+                node.getLimit());
+    }
 
-        private static OrderBy rewriteOrderBy(Map<Expression, Identifier> selectItemAliasMap, OrderBy orderBy)
-        {
-            ImmutableList.Builder<SortItem> sortItemBuilder = ImmutableList.builder();
-            for (SortItem sortItem : orderBy.getSortItems()) {
-                Expression sortKey = sortItem.getSortKey();
-                if (selectItemAliasMap.containsKey(sortKey)) {
-                    if (sortItem.getLocation().isPresent()) {
-                        sortItemBuilder.add(new SortItem(sortItem.getLocation().get(), selectItemAliasMap.get(sortKey), sortItem.getOrdering(), sortItem.getNullOrdering()));
-                    }
-                    else {
-                        sortItemBuilder.add(new SortItem(selectItemAliasMap.get(sortKey), sortItem.getOrdering(), sortItem.getNullOrdering()));
-                    }
+    private static OrderBy rewriteOrderBy(Map<Expression, Identifier> selectItemAliasMap, OrderBy orderBy)
+    {
+        ImmutableList.Builder<SortItem> sortItemBuilder = ImmutableList.builder();
+        for (SortItem sortItem : orderBy.getSortItems()) {
+            Expression sortKey = sortItem.getSortKey();
+            if (selectItemAliasMap.containsKey(sortKey)) {
+                if (sortItem.getLocation().isPresent()) {
+                    sortItemBuilder.add(new SortItem(sortItem.getLocation().get(), selectItemAliasMap.get(sortKey), sortItem.getOrdering(), sortItem.getNullOrdering()));
                 }
                 else {
-                    sortItemBuilder.add(sortItem);
+                    sortItemBuilder.add(new SortItem(selectItemAliasMap.get(sortKey), sortItem.getOrdering(), sortItem.getNullOrdering()));
                 }
             }
-
-            if (orderBy.getLocation().isPresent()) {
-                return new OrderBy(orderBy.getLocation().get(), sortItemBuilder.build());
+            else {
+                sortItemBuilder.add(sortItem);
             }
-            return new OrderBy(sortItemBuilder.build());
         }
 
-        private static GroupBy rewriteGroupBy(Map<Expression, Identifier> selectItemAliasMap, GroupBy node)
-        {
-            ImmutableList.Builder<GroupingElement> groupingElementBuilder = ImmutableList.builder();
-            for (GroupingElement groupingElement : node.getGroupingElements()) {
-                if (groupingElement instanceof SimpleGroupBy) {
-                    groupingElementBuilder.add(rewriteSimpleGroupBy(selectItemAliasMap, (SimpleGroupBy) groupingElement));
-                }
-                else {
-                    groupingElementBuilder.add(groupingElement);
-                }
-            }
+        if (orderBy.getLocation().isPresent()) {
+            return new OrderBy(orderBy.getLocation().get(), sortItemBuilder.build());
+        }
+        return new OrderBy(sortItemBuilder.build());
+    }
 
-            if (node.getLocation().isPresent()) {
-                return new GroupBy(
-                        node.getLocation().get(),
-                        node.isDistinct(),
-                        groupingElementBuilder.build());
+    private static GroupBy rewriteGroupBy(Map<Expression, Identifier> selectItemAliasMap, GroupBy node)
+    {
+        ImmutableList.Builder<GroupingElement> groupingElementBuilder = ImmutableList.builder();
+        for (GroupingElement groupingElement : node.getGroupingElements()) {
+            if (groupingElement instanceof SimpleGroupBy) {
+                groupingElementBuilder.add(rewriteSimpleGroupBy(selectItemAliasMap, (SimpleGroupBy) groupingElement));
             }
+            else {
+                groupingElementBuilder.add(groupingElement);
+            }
+        }
+
+        if (node.getLocation().isPresent()) {
             return new GroupBy(
+                    node.getLocation().get(),
                     node.isDistinct(),
                     groupingElementBuilder.build());
         }
+        return new GroupBy(
+                node.isDistinct(),
+                groupingElementBuilder.build());
+    }
 
-        private static GroupingElement rewriteSimpleGroupBy(Map<Expression, Identifier> selectItemAliasMap, SimpleGroupBy node)
-        {
-            ImmutableList.Builder<Expression> simpleGroupByBuilder = ImmutableList.builder();
-            for (Expression expression : node.getExpressions()) {
-                if (selectItemAliasMap.containsKey(expression)) {
-                    simpleGroupByBuilder.add(selectItemAliasMap.get(expression));
-                }
-                else {
-                    simpleGroupByBuilder.add(expression);
-                }
+    private static GroupingElement rewriteSimpleGroupBy(Map<Expression, Identifier> selectItemAliasMap, SimpleGroupBy node)
+    {
+        ImmutableList.Builder<Expression> simpleGroupByBuilder = ImmutableList.builder();
+        for (Expression expression : node.getExpressions()) {
+            if (selectItemAliasMap.containsKey(expression)) {
+                simpleGroupByBuilder.add(selectItemAliasMap.get(expression));
+            }
+            else {
+                simpleGroupByBuilder.add(expression);
             }
-            return new SimpleGroupBy(simpleGroupByBuilder.build());
         }
+        return new SimpleGroupBy(simpleGroupByBuilder.build());
     }
 }
@@ -34,15 +34,13 @@ import io.trino.sql.tree.QualifiedName;
 import io.trino.sql.tree.StringLiteral;
 import io.trino.sql.tree.TypeParameter;
 import io.wren.base.WrenException;
-import io.wren.base.sqlrewrite.BaseRewriter;
 import io.wren.base.type.PGArray;
-import io.wren.main.metadata.Metadata;
-import io.wren.main.sql.SqlRewrite;
+import io.wren.main.sql.NodeRewrite;
 
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
+import static com.google.common.collect.ImmutableList.toImmutableList;
 import static io.wren.base.metadata.StandardErrorCode.GENERIC_INTERNAL_ERROR;
 import static io.wren.base.sqlrewrite.Utils.parseType;
 import static io.wren.base.type.PGArray.allArray;
@@ -50,207 +48,192 @@ import static io.wren.connector.bigquery.BigQueryType.toBqType;
 import static java.lang.Integer.parseInt;
 
 public class RewriteToBigQueryType
-        implements SqlRewrite
+        implements NodeRewrite
 {
     public static final RewriteToBigQueryType INSTANCE = new RewriteToBigQueryType();
 
     private RewriteToBigQueryType() {}
 
     @Override
-    public Node rewrite(Node node, Metadata metadata)
+    public Node apply(Node node, Context context)
     {
-        RewriteToBigQueryTypeRewriter rewriter = new RewriteToBigQueryTypeRewriter();
-        return rewriter.process(node);
-    }
-
-    private static class RewriteToBigQueryTypeRewriter
-            extends BaseRewriter<Void>
-    {
-        @Override
-        protected Node visitGenericDataType(GenericDataType genericDataType, Void context)
-        {
+        if (node instanceof GenericDataType genericDataType) {
             return toBigQueryGenericDataType(genericDataType);
         }
-
-        @Override
-        protected Node visitGenericLiteral(GenericLiteral node, Void context)
-        {
-            // Queries with a SELECT statement that includes [type] [literal] cannot be executed in BigQuery.
-            // To overcome this limitation, we convert the query to CAST([literal] AS [type]).
-            // When working with JSON data, it is necessary to first use SAFE.PARSE_JSON to parse StringLiteral.
-            if (node.getType().equalsIgnoreCase("JSON")) {
-                // If there is the '\"' character in the JSON string, BigQuery will try to find another '\"' in the following string, so we need to escape it.
-                String value = node.getValue().replace("\"", "\\\"");
-                return new Cast(
-                        new FunctionCall(
-                                QualifiedName.of("SAFE", "PARSE_JSON"),
-                                List.of(new StringLiteral(value))),
-                        new GenericDataType(Optional.empty(), new Identifier("JSON"), List.of()));
-            }
+        if (node instanceof GenericLiteral genericLiteral) {
+            return rewriteGenericLiteral(genericLiteral, context);
+        }
+        if (node instanceof Cast cast) {
+            return rewriteCast(cast);
+        }
+        if (node instanceof BinaryLiteral binaryLiteral) {
+            // PostgreSQL uses the following format to represent binary data: \x[hexadecimal string], but BigQuery don't support this format.
+            // To overcome this limitation, we convert the query to CAST(FROM_HEX(hex string) AS BYTES).
             return new Cast(
-                    visitAndCast(new StringLiteral(node.getValue()), context),
-                    visitAndCast(parseType(node.getType()), context));
+                    new FunctionCall(QualifiedName.of("FROM_HEX"), List.of(new StringLiteral(binaryLiteral.toHexString()))),
+                    new GenericDataType(Optional.empty(), new Identifier("BYTES"), List.of()));
         }
-
-        @Override
-        protected Node visitCast(Cast node, Void context)
-        {
-            // Cast the value of the array first, because BigQuery is strict, for example we can't cast array<decimal> to array<float64>.
-            // So we do the thing like, CAST(ARRAY[true, false] AS ARRAY(boolean)) -> CAST(ARRAY[CAST(true AS BOOLEAN, CAST(false AS BOOLEAN)] AS ARRAY<BOOLEAN>)
-            if (node.getExpression() instanceof ArrayConstructor arrayConstructor &&
-                    isArray(node.getType())) {
-                DataType innerType = getArrayInnerType(node.getType());
-                DataType bqType = getBqType(innerType);
-                List<Expression> values = arrayConstructor.getValues().stream()
-                        .map(value -> new Cast(
-                                visitAndCast(value, context),
-                                bqType))
-                        .collect(Collectors.toList());
-                if (arrayConstructor.getLocation().isPresent()) {
-                    return new Cast(
-                            arrayConstructor.getLocation().get(),
-                            new ArrayConstructor(values),
-                            visitAndCast(node.getType(), context));
-                }
-                return new Cast(
-                        new ArrayConstructor(values),
-                        visitAndCast(node.getType(), context));
-            }
-            return super.visitCast(node, context);
+        if (node instanceof DecimalLiteral decimalLiteral) {
+            return new Cast(
+                    new StringLiteral(decimalLiteral.getValue()),
+                    new GenericDataType(Optional.empty(), new Identifier("NUMERIC"), List.of()));
         }
-
-        private boolean isArray(DataType type)
-        {
-            if (type instanceof GenericDataType genericDataType) {
-                return genericDataType.getName().getCanonicalValue().equalsIgnoreCase("ARRAY");
-            }
-            return false;
+        if (node instanceof CharLiteral charLiteral) {
+            return new Cast(
+                    new StringLiteral(charLiteral.getValue()),
+                    new GenericDataType(Optional.empty(), new Identifier("STRING"), List.of()));
         }
+        return node;
+    }
 
-        private DataType getArrayInnerType(DataType type)
-        {
-            if (type instanceof GenericDataType genericDataType &&
-                    genericDataType.getArguments().getFirst() instanceof TypeParameter typeParameter) {
-                return typeParameter.getValue();
-            }
-            throw new WrenException(GENERIC_INTERNAL_ERROR, "Invalid array type: " + type);
+    private static Node rewriteGenericLiteral(GenericLiteral node, Context context)
+    {
+        // Queries with a SELECT statement that includes [type] [literal] cannot be executed in BigQuery.
+        // To overcome this limitation, we convert the query to CAST([literal] AS [type]).
+        // When working with JSON data, it is necessary to first use SAFE.PARSE_JSON to parse StringLiteral.
+        if (node.getType().equalsIgnoreCase("JSON")) {
+            // If there is the '\"' character in the JSON string, BigQuery will try to find another '\"' in the following string, so we need to escape it.
+            String value = node.getValue().replace("\"", "\\\"");
+            return new Cast(
+                    new FunctionCall(
+                            QualifiedName.of("SAFE", "PARSE_JSON"),
+                            List.of(new StringLiteral(value))),
+                    new GenericDataType(Optional.empty(), new Identifier("JSON"), List.of()));
         }
+        return new Cast(
+                context.rewrite(new StringLiteral(node.getValue())),
+                context.rewrite(parseType(node.getType())));
+    }
 
-        private DataType getBqType(DataType type)
-        {
-            String typeName = type.toString();
-            if (type instanceof GenericDataType gdType) {
-                typeName = toBigQueryGenericDataType(gdType).getName().getCanonicalValue();
-            }
-            if (type instanceof DateTimeDataType dtType) {
-                typeName = dtType.getType().name();
+    private static Node rewriteCast(Cast node)
+    {
+        // Cast the value of the array first, because BigQuery is strict, for example we can't cast array<decimal> to array<float64>.
+        // So we do the thing like, CAST(ARRAY[true, false] AS ARRAY(boolean)) -> CAST(ARRAY[CAST(true AS BOOLEAN, CAST(false AS BOOLEAN)] AS ARRAY<BOOLEAN>)
+        // The type of the cast is converted already, so is the element type of the array.
+        if (node.getExpression() instanceof ArrayConstructor arrayConstructor &&
+                isArray(node.getType())) {
+            DataType bqType = getArrayInnerType(node.getType());
+            List<Expression> values = arrayConstructor.getValues().stream()
+                    .map(value -> (Expression) new Cast(value, bqType))
+                    .collect(toImmutableList());
+            if (arrayConstructor.getLocation().isPresent()) {
+                return new Cast(
+                        arrayConstructor.getLocation().get(),
+                        new ArrayConstructor(values),
+                        node.getType());
             }
-            return parseType(typeName);
+            return new Cast(
+                    new ArrayConstructor(values),
+                    node.getType());
         }
+        return node;
+    }
 
-        @Override
-        protected Node visitBinaryLiteral(BinaryLiteral node, Void context)
-        {
-            // PostgreSQL uses the following format to represent binary data: \x[hexadecimal string], but BigQuery don't support this format.
-            // To overcome this limitation, we convert the query to CAST(FROM_HEX(hex string) AS BYTES).
-            return new Cast(
-                    new FunctionCall(QualifiedName.of("FROM_HEX"), List.of(new StringLiteral(node.toHexString()))),
-                    new GenericDataType(Optional.empty(), new Identifier("BYTES"), List.of()));
+    private static boolean isArray(DataType type)
+    {
+        if (type instanceof GenericDataType genericDataType) {
+            return genericDataType.getName().getCanonicalValue().equalsIgnoreCase("ARRAY");
         }
+        return false;
+    }
 
-        @Override
-        protected Node visitDecimalLiteral(DecimalLiteral node, Void context)
-        {
-            return new Cast(
-                    new StringLiteral(node.getValue()),
-                    new GenericDataType(Optional.empty(), new Identifier("NUMERIC"), List.of()));
+    private static DataType getArrayInnerType(DataType type)
+    {
+        if (type instanceof GenericDataType genericDataType &&
+                genericDataType.getArguments().getFirst() instanceof TypeParameter typeParameter) {
+            return typeParameter.getValue();
         }
+        throw new WrenException(GENERIC_INTERNAL_ERROR, "Invalid array type: " + type);
+    }
 
-        @Override
-        protected Node visitCharLiteral(CharLiteral node, Void context)
-        {
-            return new Cast(
-                    new StringLiteral(node.getValue()),
-                    new GenericDataType(Optional.empty(), new Identifier("STRING"), List.of()));
+    private static DataType getBqType(DataType type)
+    {
+        String typeName = type.toString();
+        if (type instanceof GenericDataType gdType) {
+            typeName = toBigQueryGenericDataType(gdType).getName().getCanonicalValue();
+        }
+        if (type instanceof DateTimeDataType dtType) {
+            typeName = dtType.getType().name();
         }
+        return parseType(typeName);
+    }
 
-        private GenericDataType toBigQueryGenericDataType(GenericDataType genericDataType)
-        {
-            Optional<NodeLocation> nodeLocation = genericDataType.getLocation();
-            String typeName = genericDataType.getName().getCanonicalValue();
-            List<DataTypeParameter> parameters = visitNodes(genericDataType.getArguments(), null);
-            switch (typeName) {
-                // BigQuery only supports INT64 for integer types.
-                case "TINYINT":
-                case "SMALLINT":
-                case "INT2":
-                case "INTEGER":
-                case "INT4":
-                case "BIGINT":
-                case "INT8":
-                    return new GenericDataType(nodeLocation, new Identifier("INT64"), parameters);
-                // BigQuery only supports FLOAT64(aka. Double) for floating point types.
-                case "FLOAT":
-                case "REAL":
-                case "FLOAT4":
-                case "DOUBLE":
-                case "FLOAT8":
-                    return new GenericDataType(nodeLocation, new Identifier("FLOAT64"), parameters);
-                case "DECIMAL":
-                case "NUMERIC":
-                    if (genericDataType.getArguments().size() == 2
-                            && genericDataType.getArguments().get(0) instanceof NumericParameter) {
-                        NumericParameter precision = (NumericParameter) genericDataType.getArguments().get(0);
-                        NumericParameter scale = (NumericParameter) genericDataType.getArguments().get(1);
-                        if (parseInt(precision.getValue()) - parseInt(scale.getValue()) <= 29 && parseInt(scale.getValue()) <= 9) {
-                            return new GenericDataType(nodeLocation, new Identifier("NUMERIC"), parameters);
-                        }
-                    }
-                    return new GenericDataType(nodeLocation, new Identifier("BIGNUMERIC"), parameters);
-                case "BOOLEAN":
-                case "BOOL":
-                    return new GenericDataType(nodeLocation, new Identifier("BOOL"), parameters);
-                case "UUID":
-                case "NAME":
-                case "TEXT":
-                case "CHAR":
-                case "VARCHAR":
-                    return new GenericDataType(nodeLocation, new Identifier("STRING"), parameters);
-                case "BYTEA":
-                case "BINARY":
-                case "VARBINARY":
-                    return new GenericDataType(nodeLocation, new Identifier("BYTES"), parameters);
-                case "JSON":
-                    return new GenericDataType(nodeLocation, new Identifier("JSON"), parameters);
-                case "ARRAY":
-                    DataType innerType = getArrayInnerType(genericDataType);
-                    DataType bqType = getBqType(innerType);
-                    return new GenericDataType(nodeLocation, new Identifier("ARRAY"), List.of(new TypeParameter(bqType)));
-                case "DATE":
-                    return new GenericDataType(nodeLocation, new Identifier("DATE"), parameters);
-                case "INTERVAL":
-                    return new GenericDataType(nodeLocation, new Identifier("INTERVAL"), parameters);
-                case "TIMESTAMP":
-                    return new GenericDataType(nodeLocation, new Identifier("TIMESTAMP"), parameters);
-                default:
-                    if (typeName.startsWith("_")) {
-                        PGArray pgArray = getPgArrayType(typeName);
-                        return new GenericDataType(nodeLocation, new Identifier("ARRAY"),
-                                List.of(
-                                        new TypeParameter(new GenericDataType(nodeLocation, new Identifier(toBqType(pgArray.getInnerType()).name()), List.of()))));
+    private static GenericDataType toBigQueryGenericDataType(GenericDataType genericDataType)
+    {
+        Optional<NodeLocation> nodeLocation = genericDataType.getLocation();
+        String typeName = genericDataType.getName().getCanonicalValue();
+        List<DataTypeParameter> parameters = genericDataType.getArguments();
+        switch (typeName) {
+            // BigQuery only supports INT64 for integer types.
+            case "TINYINT":
+            case "SMALLINT":
+            case "INT2":
+            case "INTEGER":
+            case "INT4":
+            case "BIGINT":
+            case "INT8":
+                return new GenericDataType(nodeLocation, new Identifier("INT64"), parameters);
+            // BigQuery only supports FLOAT64(aka. Double) for floating point types.
+            case "FLOAT":
+            case "REAL":
+            case "FLOAT4":
+            case "DOUBLE":
+            case "FLOAT8":
+                return new GenericDataType(nodeLocation, new Identifier("FLOAT64"), parameters);
+            case "DECIMAL":
+            case "NUMERIC":
+                if (genericDataType.getArguments().size() == 2
+                        && genericDataType.getArguments().get(0) instanceof NumericParameter) {
+                    NumericParameter precision = (NumericParameter) genericDataType.getArguments().get(0);
+                    NumericParameter scale = (NumericParameter) genericDataType.getArguments().get(1);
+                    if (parseInt(precision.getValue()) - parseInt(scale.getValue()) <= 29 && parseInt(scale.getValue()) <= 9) {
+                        return new GenericDataType(nodeLocation, new Identifier("NUMERIC"), parameters);
                     }
-                    throw new UnsupportedOperationException("Unsupported type: " + typeName);
-            }
+                }
+                return new GenericDataType(nodeLocation, new Identifier("BIGNUMERIC"), parameters);
+            case "BOOLEAN":
+            case "BOOL":
+                return new GenericDataType(nodeLocation, new Identifier("BOOL"), parameters);
+            case "UUID":
+            case "NAME":
+            case "TEXT":
+            case "CHAR":
+            case "VARCHAR":
+                return new GenericDataType(nodeLocation, new Identifier("STRING"), parameters);
+            case "BYTEA":
+            case "BINARY":
+            case "VARBINARY":
+                return new GenericDataType(nodeLocation, new Identifier("BYTES"), parameters);
+            case "JSON":
+                return new GenericDataType(nodeLocation, new Identifier("JSON"), parameters);
+            case "ARRAY":
+                DataType innerType = getArrayInnerType(genericDataType);
+                DataType bqType = getBqType(innerType);
+                return new GenericDataType(nodeLocation, new Identifier("ARRAY"), List.of(new TypeParameter(bqType)));
+            case "DATE":
+                return new GenericDataType(nodeLocation, new Identifier("DATE"), parameters);
+            case "INTERVAL":
+                return new GenericDataType(nodeLocation, new Identifier("INTERVAL"), parameters);
+            case "TIMESTAMP":
+                return new GenericDataType(nodeLocation, new Identifier("TIMESTAMP"), parameters);
+            default:
+                if (typeName.startsWith("_")) {
+                    PGArray pgArray = getPgArrayType(typeName);
+                    return new GenericDataType(nodeLocation, new Identifier("ARRAY"),
+                            List.of(
+                                    new TypeParameter(new GenericDataType(nodeLocation, new Identifier(toBqType(pgArray.getInnerType()).name()), List.of()))));
+                }
+                throw new UnsupportedOperationException("Unsupported type: " + typeName);
         }
+    }
 
-        private static PGArray getPgArrayType(String arrayTypeName)
-        {
-            for (PGArray pgArray : allArray()) {
-                if (arrayTypeName.equalsIgnoreCase(pgArray.typName())) {
-                    return pgArray;
-                }
+    private static PGArray getPgArrayType(String arrayTypeName)
+    {
+        for (PGArray pgArray : allArray()) {
+            if (arrayTypeName.equalsIgnoreCase(pgArray.typName())) {
+                return pgArray;
             }
-            throw new UnsupportedOperationException("Unsupported array type: " + arrayTypeName);
         }
+        throw new UnsupportedOperationException("Unsupported array type: " + arrayTypeName);
     }
 }
@@ -0,0 +1,108 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.wren.main.sqlglot;
+
+import io.airlift.log.Logger;
+import io.airlift.units.Duration;
+
+import java.util.function.LongSupplier;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Fails the requests to the SQLGlot server fast once it couldn't be reached {@code failureThreshold} times in a row,
+ * instead of letting each query wait for the connection to fail. After {@code openDuration}, a single request is
+ * let through to probe the server. The breaker closes if the probe gets a response, and opens again otherwise.
+ */
+public class CircuitBreaker
+{
+    private static final Logger LOG = Logger.get(CircuitBreaker.class);
+
+    enum State
+    {
+        CLOSED,
+        OPEN,
+        HALF_OPEN,
+    }
+
+    private final int failureThreshold;
+    private final long openNanos;
+    private final LongSupplier ticker;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+
+    public CircuitBreaker(int failureThreshold, Duration openDuration)
+    {
+        this(failureThreshold, openDuration, System::nanoTime);
+    }
+
+    CircuitBreaker(int failureThreshold, Duration openDuration, LongSupplier ticker)
+    {
+        checkArgument(failureThreshold > 0, "failureThreshold must be positive");
+        this.failureThreshold = failureThreshold;
+        this.openNanos = requireNonNull(openDuration, "openDuration is null").roundTo(NANOSECONDS);
+        this.ticker = requireNonNull(ticker, "ticker is null");
+    }
+
+    /**
+     * @return false if the request should fail without being sent
+     */
+    public synchronized boolean tryAcquire()
+    {
+        switch (state) {
+            case CLOSED:
+                return true;
+            case OPEN:
+                if (ticker.getAsLong() - openedAt < openNanos) {
+                    return false;
+                }
+                state = State.HALF_OPEN;
+                return true;
+            case HALF_OPEN:
+                // the probe is running
+                return false;
+            default:
+                throw new IllegalStateException("Unknown state: " + state);
+        }
+    }
+
+    public synchronized void recordSuccess()
+    {
+        if (state != State.CLOSED) {
+            LOG.info("SQLGlot server is reachable again, close the circuit breaker");
+        }
+        consecutiveFailures = 0;
+        state = State.CLOSED;
+    }
+
+    public synchronized void recordFailure()
+    {
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || (state == State.CLOSED && consecutiveFailures >= failureThreshold)) {
+            LOG.warn("SQLGlot server failed %s times in a row, fail the requests for %sms", consecutiveFailures, NANOSECONDS.toMillis(openNanos));
+            state = State.OPEN;
+            openedAt = ticker.getAsLong();
+        }
+    }
+
+    synchronized State getState()
+    {
+        return state;
+    }
+}
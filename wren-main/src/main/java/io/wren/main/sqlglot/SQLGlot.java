@@ -14,6 +14,9 @@
 
 package io.wren.main.sqlglot;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableSet;
 import com.google.inject.Inject;
 import io.airlift.http.client.HttpClient;
 import io.airlift.http.client.HttpClientConfig;
@@ -21,23 +24,39 @@ import io.airlift.http.client.Request;
 import io.airlift.http.client.StringResponseHandler;
 import io.airlift.http.client.jetty.JettyHttpClient;
 import io.airlift.json.JsonCodec;
+import io.airlift.log.Logger;
 import io.airlift.units.Duration;
 import io.wren.base.config.SQLGlotConfig;
+import io.wren.main.sqlglot.dto.BatchTranspileDTO;
+import io.wren.main.sqlglot.dto.BatchTranspileResultDTO;
 import io.wren.main.sqlglot.dto.TranspileDTO;
 import jakarta.ws.rs.WebApplicationException;
 
+import javax.annotation.Nullable;
+
 import java.io.Closeable;
 import java.io.IOException;
 import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 
+import static com.google.common.base.Preconditions.checkState;
+import static com.google.common.collect.ImmutableList.toImmutableList;
 import static com.google.common.net.HttpHeaders.CONTENT_TYPE;
 import static io.airlift.http.client.JsonBodyGenerator.jsonBodyGenerator;
 import static io.airlift.http.client.Request.Builder.preparePost;
 import static io.airlift.http.client.StringResponseHandler.createStringResponseHandler;
 import static io.airlift.json.JsonCodec.jsonCodec;
 import static jakarta.ws.rs.core.MediaType.APPLICATION_JSON;
+import static java.util.Objects.requireNonNull;
 import static java.util.concurrent.TimeUnit.SECONDS;
 
+/**
+ * The client of the SQLGlot server. The transpiled statements are cached, since dashboards send the same statements
+ * again on each refresh, and the requests fail fast through a {@link CircuitBreaker} while the server can't be reached.
+ */
 public class SQLGlot
         implements Closeable
 {
@@ -62,16 +81,32 @@ public class SQLGlot
         }
     }
 
+    private static final Logger LOG = Logger.get(SQLGlot.class);
     private static final JsonCodec<TranspileDTO> TRANSPILE_DTO_JSON_CODEC = jsonCodec(TranspileDTO.class);
+    private static final JsonCodec<BatchTranspileDTO> BATCH_TRANSPILE_DTO_JSON_CODEC = jsonCodec(BatchTranspileDTO.class);
+    private static final JsonCodec<BatchTranspileResultDTO> BATCH_TRANSPILE_RESULT_DTO_JSON_CODEC = jsonCodec(BatchTranspileResultDTO.class);
+    // the responses of a proxy in front of a server which is down, any other response comes from the server itself
+    private static final Set<Integer> UNAVAILABLE_STATUS_CODES = ImmutableSet.of(502, 503, 504);
 
     private final URI baseUri;
     private final HttpClient client;
+    @Nullable
+    private final Cache<TranspileKey, String> cache;
+    private final CircuitBreaker circuitBreaker;
 
     @Inject
     public SQLGlot(SQLGlotConfig config)
     {
         this.baseUri = getBaseUri(config);
         this.client = new JettyHttpClient(new HttpClientConfig().setIdleTimeout(new Duration(20, SECONDS)));
+        long maxCacheBytes = config.getTranspileCacheMaxSize().toBytes();
+        this.cache = maxCacheBytes == 0 ? null : CacheBuilder.newBuilder()
+                .maximumWeight(maxCacheBytes)
+                // the strings are weighted by their UTF-16 size
+                .weigher((TranspileKey key, String sql) -> (key.sql().length() + sql.length()) * 2)
+                .recordStats()
+                .build();
+        this.circuitBreaker = new CircuitBreaker(config.getCircuitBreakerFailureThreshold(), config.getCircuitBreakerOpenDuration());
     }
 
     @Override
@@ -83,17 +118,109 @@ public class SQLGlot
     public String transpile(String sql, Dialect read, Dialect write)
             throws IOException
     {
+        TranspileKey key = new TranspileKey(sql, read, write);
+        Optional<String> cached = getCached(key);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+
         Request request = preparePost()
                 .setUri(baseUri.resolve("sqlglot/transpile"))
                 .setHeader(CONTENT_TYPE, APPLICATION_JSON)
                 .setBodyGenerator(jsonBodyGenerator(TRANSPILE_DTO_JSON_CODEC, new TranspileDTO(sql, read.getDialect(), write.getDialect())))
                 .build();
 
-        StringResponseHandler.StringResponse response = client.execute(request, createStringResponseHandler());
+        String transpiled = TRANSPILE_DTO_JSON_CODEC.fromJson(execute(request)).getSql();
+        putCached(key, transpiled);
+        return transpiled;
+    }
+
+    /**
+     * Transpile the statements in one request. The statements which were transpiled before are taken from the cache.
+     *
+     * @return the transpiled statements in the order of {@code sqls}, empty for a statement which failed to transpile
+     */
+    public List<Optional<String>> transpile(List<String> sqls, Dialect read, Dialect write)
+            throws IOException
+    {
+        List<Optional<String>> results = new ArrayList<>(sqls.size());
+        List<Integer> missIndexes = new ArrayList<>();
+        for (int i = 0; i < sqls.size(); i++) {
+            Optional<String> cached = getCached(new TranspileKey(sqls.get(i), read, write));
+            results.add(cached);
+            if (cached.isEmpty()) {
+                missIndexes.add(i);
+            }
+        }
+        if (missIndexes.isEmpty()) {
+            return results;
+        }
+
+        List<String> misses = missIndexes.stream().map(sqls::get).collect(toImmutableList());
+        Request request = preparePost()
+                .setUri(baseUri.resolve("sqlglot/transpile/batch"))
+                .setHeader(CONTENT_TYPE, APPLICATION_JSON)
+                .setBodyGenerator(jsonBodyGenerator(BATCH_TRANSPILE_DTO_JSON_CODEC, new BatchTranspileDTO(misses, read.getDialect(), write.getDialect())))
+                .build();
+
+        List<BatchTranspileResultDTO.Result> transpiled = BATCH_TRANSPILE_RESULT_DTO_JSON_CODEC.fromJson(execute(request)).getResults();
+        checkState(transpiled.size() == misses.size(), "SQLGlot server returned %s results for %s statements", transpiled.size(), misses.size());
+        for (int i = 0; i < misses.size(); i++) {
+            BatchTranspileResultDTO.Result result = transpiled.get(i);
+            if (result.getSql() == null) {
+                LOG.debug("Failed to transpile %s: %s", misses.get(i), result.getError());
+                continue;
+            }
+            putCached(new TranspileKey(misses.get(i), read, write), result.getSql());
+            results.set(missIndexes.get(i), Optional.of(result.getSql()));
+        }
+        return results;
+    }
+
+    private String execute(Request request)
+            throws IOException
+    {
+        if (!circuitBreaker.tryAcquire()) {
+            throw new IOException("SQLGlot server is unavailable, the circuit breaker is open");
+        }
+        StringResponseHandler.StringResponse response;
+        try {
+            response = client.execute(request, createStringResponseHandler());
+        }
+        catch (RuntimeException e) {
+            circuitBreaker.recordFailure();
+            throw new IOException("Failed to send the request to SQLGlot server", e);
+        }
+        if (UNAVAILABLE_STATUS_CODES.contains(response.getStatusCode())) {
+            circuitBreaker.recordFailure();
+            throwWebApplicationException(response);
+        }
+        // an error response of an invalid statement still shows the server is up
+        circuitBreaker.recordSuccess();
         if (response.getStatusCode() != 200) {
             throwWebApplicationException(response);
         }
-        return TRANSPILE_DTO_JSON_CODEC.fromJson(response.getBody()).getSql();
+        return response.getBody();
+    }
+
+    private Optional<String> getCached(TranspileKey key)
+    {
+        if (cache == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(cache.getIfPresent(key));
+    }
+
+    private void putCached(TranspileKey key, String transpiled)
+    {
+        if (cache != null) {
+            cache.put(key, transpiled);
+        }
+    }
+
+    public long getCacheHitCount()
+    {
+        return cache == null ? 0 : cache.stats().hitCount();
     }
 
     private static void throwWebApplicationException(StringResponseHandler.StringResponse response)
@@ -105,4 +232,14 @@ public class SQLGlot
     {
         return URI.create("http://0.0.0.0:" + config.getPort());
     }
+
+    private record TranspileKey(String sql, Dialect read, Dialect write)
+    {
+        private TranspileKey
+        {
+            requireNonNull(sql, "sql is null");
+            requireNonNull(read, "read is null");
+            requireNonNull(write, "write is null");
+        }
+    }
 }
@@ -20,6 +20,8 @@ import io.wren.base.WrenException;
 import io.wren.base.sql.SqlConverter;
 
 import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
 
 import static io.wren.base.metadata.StandardErrorCode.GENERIC_INTERNAL_ERROR;
 import static java.util.Objects.requireNonNull;
@@ -62,6 +64,18 @@ public class SQLGlotConverter
         }
     }
 
+    @Override
+    public List<Optional<String>> convertAll(List<String> sqls, SessionContext sessionContext)
+    {
+        try {
+            LOG.debug("Convert %s statements, write dialect: %s", sqls.size(), writeDialect);
+            return sqlGlot.transpile(sqls, readDialect, writeDialect);
+        }
+        catch (IOException e) {
+            throw new WrenException(GENERIC_INTERNAL_ERROR, e);
+        }
+    }
+
     public static class Builder
     {
         private SQLGlot sqlGlot;
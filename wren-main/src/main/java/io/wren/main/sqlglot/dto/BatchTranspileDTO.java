@@ -0,0 +1,56 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.wren.main.sqlglot.dto;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+public class BatchTranspileDTO
+{
+    private final List<String> statements;
+    private final String read;
+    private final String write;
+
+    @JsonCreator
+    public BatchTranspileDTO(
+            @JsonProperty("statements") List<String> statements,
+            @JsonProperty("read") String read,
+            @JsonProperty("write") String write)
+    {
+        this.statements = statements;
+        this.read = read;
+        this.write = write;
+    }
+
+    @JsonProperty
+    public List<String> getStatements()
+    {
+        return statements;
+    }
+
+    @JsonProperty
+    public String getRead()
+    {
+        return read;
+    }
+
+    @JsonProperty
+    public String getWrite()
+    {
+        return write;
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.wren.main.sqlglot.dto;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import javax.annotation.Nullable;
+
+import java.util.List;
+
+/**
+ * The results of a {@link BatchTranspileDTO}, in the order of its statements.
+ */
+public class BatchTranspileResultDTO
+{
+    private final List<Result> results;
+
+    @JsonCreator
+    public BatchTranspileResultDTO(@JsonProperty("results") List<Result> results)
+    {
+        this.results = results;
+    }
+
+    @JsonProperty
+    public List<Result> getResults()
+    {
+        return results;
+    }
+
+    /**
+     * The transpiled statement, or the error if the statement failed to transpile.
+     */
+    public static class Result
+    {
+        private final String sql;
+        private final String error;
+
+        @JsonCreator
+        public Result(
+                @JsonProperty("sql") @Nullable String sql,
+                @JsonProperty("error") @Nullable String error)
+        {
+            this.sql = sql;
+            this.error = error;
+        }
+
+        @Nullable
+        @JsonProperty
+        public String getSql()
+        {
+            return sql;
+        }
+
+        @Nullable
+        @JsonProperty
+        public String getError()
+        {
+            return error;
+        }
+    }
+}
@@ -136,8 +136,16 @@ public class DuckDBResource
             @Suspended AsyncResponse asyncResponse)
     {
         runAsync(() -> {
+            String sessionSQL = metadata.getSessionSQL();
             metadata.setSessionSQL(sql);
-            metadata.getClient().closeAndInitPool();
+            try {
+                metadata.getClient().swapPool();
+            }
+            catch (Exception e) {
+                // the previous pool is still in use
+                metadata.setSessionSQL(sessionSQL);
+                throw e;
+            }
             java.nio.file.Path sessionSQLPath = metadata.getSessionSQLPath();
             FileUtil.archiveFile(sessionSQLPath);
             FileUtil.createFile(sessionSQLPath, sql);
@@ -154,11 +162,11 @@ public class DuckDBResource
             String sessionSQL = metadata.getSessionSQL();
             metadata.appendSessionSQL(sql);
             try {
-                metadata.getClient().closeAndInitPool();
+                metadata.getClient().swapPool();
             }
             catch (Exception e) {
+                // the previous pool is still in use
                 metadata.setSessionSQL(sessionSQL);
-                metadata.getClient().initPool();
                 throw e;
             }
             FileUtil.appendToFile(metadata.getSessionSQLPath(), sql);
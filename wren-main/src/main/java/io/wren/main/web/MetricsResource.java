@@ -0,0 +1,159 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.wren.main.web;
+
+import com.google.inject.Inject;
+import io.airlift.stats.TimeDistribution;
+import io.airlift.stats.TimeStat;
+import io.wren.cache.CacheTaskManager;
+import io.wren.cache.CachedTableMapping;
+import io.wren.main.connector.duckdb.DuckDBMetadata;
+import io.wren.main.metadata.QueryCoalescer;
+import io.wren.main.wireprotocol.QueryHistory;
+import io.wren.main.wireprotocol.QueryPhase;
+import io.wren.main.wireprotocol.WireProtocolStats;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * The wire protocol stats in the Prometheus text exposition format.
+ * The quantiles are decayed over the last five minutes, while the counts and sums are cumulative.
+ */
+@Path("/v1/metrics")
+public class MetricsResource
+{
+    private static final String TEXT_FORMAT = "text/plain; version=0.0.4; charset=utf-8";
+
+    private final WireProtocolStats wireProtocolStats;
+    private final QueryHistory queryHistory;
+    private final DuckDBMetadata duckDBMetadata;
+    private final QueryCoalescer queryCoalescer;
+    private final CacheTaskManager cacheTaskManager;
+    private final CachedTableMapping cachedTableMapping;
+
+    @Inject
+    public MetricsResource(
+            WireProtocolStats wireProtocolStats,
+            QueryHistory queryHistory,
+            DuckDBMetadata duckDBMetadata,
+            QueryCoalescer queryCoalescer,
+            CacheTaskManager cacheTaskManager,
+            CachedTableMapping cachedTableMapping)
+    {
+        this.wireProtocolStats = requireNonNull(wireProtocolStats, "wireProtocolStats is null");
+        this.queryHistory = requireNonNull(queryHistory, "queryHistory is null");
+        this.duckDBMetadata = requireNonNull(duckDBMetadata, "duckDBMetadata is null");
+        this.queryCoalescer = requireNonNull(queryCoalescer, "queryCoalescer is null");
+        this.cacheTaskManager = requireNonNull(cacheTaskManager, "cacheTaskManager is null");
+        this.cachedTableMapping = requireNonNull(cachedTableMapping, "cachedTableMapping is null");
+    }
+
+    @GET
+    @Produces(TEXT_FORMAT)
+    public String getMetrics()
+    {
+        StringBuilder builder = new StringBuilder();
+
+        header(builder, "wren_query_phase_seconds", "summary", "Time spent in each phase of the wire protocol queries");
+        for (QueryPhase phase : QueryPhase.values()) {
+            summary(builder, "wren_query_phase_seconds", "{phase=\"" + phase.getMetricName() + "\"", wireProtocolStats.getPhaseTime(phase));
+        }
+
+        header(builder, "wren_query_seconds", "summary", "Elapsed time of the wire protocol queries from parse to the last row");
+        summary(builder, "wren_query_seconds", "{", wireProtocolStats.getQueryTime());
+
+        header(builder, "wren_queries_total", "counter", "Finished wire protocol queries");
+        sample(builder, "wren_queries_total{state=\"completed\"}", wireProtocolStats.getCompletedQueries().getTotalCount());
+        sample(builder, "wren_queries_total{state=\"failed\"}", wireProtocolStats.getFailedQueries().getTotalCount());
+
+        header(builder, "wren_query_planned_statement_hits_total", "counter", "Wire protocol queries planned by reusing a statement of the planned statement store");
+        sample(builder, "wren_query_planned_statement_hits_total", wireProtocolStats.getPlannedStatementHits().getTotalCount());
+
+        header(builder, "wren_query_cache_hits_total", "counter", "Wire protocol queries answered by the cached tables");
+        sample(builder, "wren_query_cache_hits_total", wireProtocolStats.getCacheHits().getTotalCount());
+
+        header(builder, "wren_query_result_cache_hits_total", "counter", "Wire protocol queries answered by the query result cache");
+        sample(builder, "wren_query_result_cache_hits_total", wireProtocolStats.getResultCacheHits().getTotalCount());
+
+        header(builder, "wren_query_coalesced_total", "counter", "Data source queries which joined an identical running query instead of executing it");
+        sample(builder, "wren_query_coalesced_total", queryCoalescer.getCoalescedQueries().getTotalCount());
+
+        header(builder, "wren_query_output_rows_total", "counter", "Rows sent to the wire protocol clients");
+        sample(builder, "wren_query_output_rows_total", wireProtocolStats.getOutputRows().getTotalCount());
+
+        header(builder, "wren_slow_query_log_dropped_total", "counter", "Slow queries not written to the slow query log because its queue was full");
+        sample(builder, "wren_slow_query_log_dropped_total", queryHistory.getDroppedSlowQueries());
+
+        header(builder, "wren_duckdb_pool_drain_seconds", "summary", "Time for the retired DuckDB connection pools to finish their running queries after a settings reload");
+        summary(builder, "wren_duckdb_pool_drain_seconds", "{", duckDBMetadata.getPoolDrainTime());
+
+        header(builder, "wren_cache_queue_depth", "gauge", "Cache tasks and cache queries waiting for a thread of their pool");
+        sample(builder, "wren_cache_queue_depth{pool=\"task\"}", cacheTaskManager.getCacheTaskQueueDepth());
+        sample(builder, "wren_cache_queue_depth{pool=\"query\"}", cacheTaskManager.getCacheQueryQueueDepth());
+
+        header(builder, "wren_cache_wait_seconds", "summary", "Time the cache tasks and cache queries waited in the queue of their pool");
+        summary(builder, "wren_cache_wait_seconds", "{pool=\"task\"", cacheTaskManager.getCacheTaskWaitTime());
+        summary(builder, "wren_cache_wait_seconds", "{pool=\"query\"", cacheTaskManager.getCacheQueryWaitTime());
+
+        header(builder, "wren_cache_retained_tables", "gauge", "Cached tables replaced or removed but kept until the queries reading them finish");
+        sample(builder, "wren_cache_retained_tables", cachedTableMapping.getRetainedTableCount());
+
+        header(builder, "wren_cache_retained_rows", "gauge", "Estimated rows of the retained cached tables");
+        sample(builder, "wren_cache_retained_rows", cachedTableMapping.getRetainedTableRows());
+        return builder.toString();
+    }
+
+    private static void header(StringBuilder builder, String name, String type, String help)
+    {
+        builder.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        builder.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    /**
+     * @param labels the opening of the label set, with the labels of the metric if any
+     */
+    private static void summary(StringBuilder builder, String name, String labels, TimeStat timeStat)
+    {
+        String separator = labels.length() > 1 ? "," : "";
+        TimeDistribution recent = timeStat.getFiveMinutes();
+        sample(builder, name + labels + separator + "quantile=\"0.5\"}", toSeconds(recent.getP50()));
+        sample(builder, name + labels + separator + "quantile=\"0.9\"}", toSeconds(recent.getP90()));
+        sample(builder, name + labels + separator + "quantile=\"0.95\"}", toSeconds(recent.getP95()));
+        sample(builder, name + labels + separator + "quantile=\"0.99\"}", toSeconds(recent.getP99()));
+
+        TimeDistribution allTime = timeStat.getAllTime();
+        String cumulativeLabels = labels.length() > 1 ? labels + "}" : "";
+        sample(builder, name + "_sum" + cumulativeLabels, allTime.getCount() == 0 ? 0 : toSeconds(allTime.getAvg() * allTime.getCount()));
+        sample(builder, name + "_count" + cumulativeLabels, allTime.getCount());
+    }
+
+    private static void sample(StringBuilder builder, String name, double value)
+    {
+        builder.append(name).append(' ').append(value).append('\n');
+    }
+
+    private static void sample(StringBuilder builder, String name, long value)
+    {
+        builder.append(name).append(' ').append(value).append('\n');
+    }
+
+    private static double toSeconds(double millis)
+    {
+        return millis / 1000;
+    }
+}
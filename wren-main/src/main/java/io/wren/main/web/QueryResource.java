@@ -0,0 +1,51 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.wren.main.web;
+
+import com.google.inject.Inject;
+import io.wren.main.wireprotocol.QueryHistory;
+import io.wren.main.wireprotocol.QueryRecord;
+import jakarta.ws.rs.DefaultValue;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+
+import java.util.List;
+
+import static java.util.Objects.requireNonNull;
+
+@Path("/v1/queries")
+public class QueryResource
+{
+    private final QueryHistory queryHistory;
+
+    @Inject
+    public QueryResource(QueryHistory queryHistory)
+    {
+        this.queryHistory = requireNonNull(queryHistory, "queryHistory is null");
+    }
+
+    @GET
+    @Produces("application/json")
+    public List<QueryRecord> getQueries(
+            @QueryParam("user") String user,
+            @QueryParam("model") String model,
+            @QueryParam("cacheHit") Boolean cacheHit,
+            @QueryParam("limit") @DefaultValue("100") int limit)
+    {
+        return queryHistory.getQueries(user, model, cacheHit, limit);
+    }
+}
@@ -0,0 +1,36 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.wren.main.wireprotocol;
+
+import io.netty.buffer.ByteBuf;
+import io.wren.base.Column;
+
+import java.util.List;
+
+/**
+ * Rows already encoded as DataRow messages, which {@link ResultSetSender} writes to the channel as they are.
+ */
+public interface EncodedRowIterator
+        extends AutoCloseable
+{
+    List<Column> getColumns();
+
+    boolean hasNext();
+
+    /**
+     * @return the next DataRow message, to be released by the channel
+     */
+    ByteBuf nextMessage();
+}
@@ -14,10 +14,14 @@
 
 package io.wren.main.wireprotocol;
 
+import io.airlift.log.Logger;
+import io.netty.channel.Channel;
 import io.wren.main.wireprotocol.message.Describe;
 import io.wren.main.wireprotocol.message.Execute;
 import io.wren.main.wireprotocol.message.ExecuteAndSendRowDescription;
+import io.wren.main.wireprotocol.message.PipelinedPlan;
 import io.wren.main.wireprotocol.message.Plan;
+import io.wren.main.wireprotocol.message.ResponseMessages;
 import io.wren.main.wireprotocol.message.SendResult;
 
 import java.util.ArrayList;
@@ -25,9 +29,15 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+import static java.util.function.Function.identity;
 
 public class MessagePlanner
 {
+    private static final Logger LOG = Logger.get(MessagePlanner.class);
+
     private MessagePlanner() {}
 
     public static List<Plan> plan(Queue<Plan> messages)
@@ -58,6 +68,60 @@ public class MessagePlanner
         return plans;
     }
 
+    /**
+     * Execute the planned messages and write their responses in protocol order.
+     * <p>
+     * A {@link PipelinedPlan} starts as soon as the plans before it have started, instead of waiting for their responses.
+     * So the executes of a batch sent before Sync (e.g. pgjdbc batch mode or npgsql multiplexing) run their queries concurrently.
+     * Any other plan runs after the responses before it are written, and the plans after it wait for it to start.
+     *
+     * @param previous completed when the responses of the previous batch are written
+     * @param executor the executor writing the responses, i.e. the event loop of the channel
+     * @return completed when all the responses are written. It never completes exceptionally.
+     */
+    public static CompletableFuture<Void> execute(List<Plan> plans, CompletableFuture<?> previous, Channel channel, WireProtocolSession session, Executor executor)
+    {
+        CompletableFuture<Void> written = previous.handle((ignored, t) -> null);
+        CompletableFuture<?> started = written;
+        for (Plan plan : plans) {
+            if (plan instanceof PipelinedPlan) {
+                CompletableFuture<CompletableFuture<Runnable>> start = started.thenApplyAsync(ignored -> start((PipelinedPlan) plan, channel, session), executor);
+                CompletableFuture<Runnable> response = start.thenCompose(identity())
+                        .exceptionally(t -> () -> ResponseMessages.sendErrorResponse(channel, t));
+                written = written.thenCombineAsync(response, (ignored, runnable) -> run(runnable), executor);
+                started = start;
+            }
+            else {
+                Runnable runnable = plan.execute(channel, session);
+                written = written.thenApplyAsync(ignored -> run(runnable), executor);
+                started = written;
+            }
+        }
+        return written;
+    }
+
+    private static CompletableFuture<Runnable> start(PipelinedPlan plan, Channel channel, WireProtocolSession session)
+    {
+        try {
+            return plan.start(channel, session);
+        }
+        catch (Exception e) {
+            LOG.error(e, "Failed to start %s", plan.getClass().getSimpleName());
+            return CompletableFuture.completedFuture(() -> ResponseMessages.sendErrorResponse(channel, e));
+        }
+    }
+
+    private static Void run(Runnable runnable)
+    {
+        try {
+            runnable.run();
+        }
+        catch (Exception e) {
+            LOG.error(e, "Failed to send the response");
+        }
+        return null;
+    }
+
     static class IndexedDescribePortal
     {
         final int index;
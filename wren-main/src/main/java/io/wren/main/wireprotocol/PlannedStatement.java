@@ -0,0 +1,199 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.wren.main.wireprotocol;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import io.trino.sql.tree.Statement;
+import io.wren.base.CatalogSchemaTableName;
+import io.wren.base.SessionContext;
+import io.wren.base.WrenMDL;
+import io.wren.base.sqlrewrite.CacheRewrite;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * The immutable result of planning a data source query. It doesn't depend on the session which planned it,
+ * so it's shared by all the prepared statements with the same statement text, parameter types and session defaults.
+ */
+public class PlannedStatement
+{
+    private final String preRewrittenStatement;
+    private final String statement;
+    private final Statement parsedStatement;
+    private final CachedStatement cachedStatement;
+    private final List<Integer> paramTypeOids;
+    private final List<String> models;
+    private final boolean isSessionCommand;
+
+    public PlannedStatement(
+            String preRewrittenStatement,
+            String statement,
+            Statement parsedStatement,
+            CachedStatement cachedStatement,
+            List<Integer> paramTypeOids,
+            List<String> models,
+            boolean isSessionCommand)
+    {
+        this.preRewrittenStatement = requireNonNull(preRewrittenStatement, "preRewrittenStatement is null");
+        this.statement = requireNonNull(statement, "statement is null");
+        this.parsedStatement = requireNonNull(parsedStatement, "parsedStatement is null");
+        this.cachedStatement = requireNonNull(cachedStatement, "cachedStatement is null");
+        this.paramTypeOids = ImmutableList.copyOf(paramTypeOids);
+        this.models = ImmutableList.copyOf(models);
+        this.isSessionCommand = isSessionCommand;
+    }
+
+    public String getPreRewrittenStatement()
+    {
+        return preRewrittenStatement;
+    }
+
+    public String getStatement()
+    {
+        return statement;
+    }
+
+    /**
+     * @return the AST of {@link #getStatement()}, so the dialect conversion doesn't parse the statement again
+     */
+    public Statement getParsedStatement()
+    {
+        return parsedStatement;
+    }
+
+    public CachedStatement getCachedStatement()
+    {
+        return cachedStatement;
+    }
+
+    public List<Integer> getParamTypeOids()
+    {
+        return paramTypeOids;
+    }
+
+    /**
+     * @return the models and metrics the statement reads
+     */
+    public List<String> getModels()
+    {
+        return models;
+    }
+
+    public boolean isSessionCommand()
+    {
+        return isSessionCommand;
+    }
+
+    public PlannedStatement withCachedStatement(CachedStatement cachedStatement)
+    {
+        return new PlannedStatement(preRewrittenStatement, statement, parsedStatement, cachedStatement, paramTypeOids, models, isSessionCommand);
+    }
+
+    public PreparedStatement toPreparedStatement(String name, String originalStatement)
+    {
+        return new PreparedStatement(
+                name,
+                statement,
+                Optional.of(parsedStatement),
+                cachedStatement.getStatement(),
+                cachedStatement.getCachedTables(),
+                paramTypeOids,
+                models,
+                originalStatement,
+                isSessionCommand,
+                QueryLevel.DATASOURCE);
+    }
+
+    @Override
+    public String toString()
+    {
+        return toStringHelper(this)
+                .add("statement", statement)
+                .add("cachedStatement", cachedStatement)
+                .add("paramTypeOids", paramTypeOids)
+                .add("models", models)
+                .add("isSessionCommand", isSessionCommand)
+                .toString();
+    }
+
+    /**
+     * The result of {@link CacheRewrite} with the cached tables it resolved.
+     * The cached tables are refreshed independently of the MDL, so the result is only valid
+     * as long as every table still resolves to the same cached table.
+     */
+    public static class CachedStatement
+    {
+        private final Optional<String> statement;
+        private final Map<CatalogSchemaTableName, Optional<String>> resolvedTables;
+
+        public static CachedStatement rewrite(
+                SessionContext sessionContext,
+                String sql,
+                Function<CatalogSchemaTableName, Optional<String>> converter,
+                WrenMDL wrenMDL)
+        {
+            Map<CatalogSchemaTableName, Optional<String>> resolvedTables = new HashMap<>();
+            Optional<String> statement = CacheRewrite.rewrite(
+                    sessionContext,
+                    sql,
+                    table -> resolvedTables.computeIfAbsent(table, converter),
+                    wrenMDL);
+            return new CachedStatement(statement, resolvedTables);
+        }
+
+        private CachedStatement(Optional<String> statement, Map<CatalogSchemaTableName, Optional<String>> resolvedTables)
+        {
+            this.statement = requireNonNull(statement, "statement is null");
+            this.resolvedTables = ImmutableMap.copyOf(resolvedTables);
+        }
+
+        public Optional<String> getStatement()
+        {
+            return statement;
+        }
+
+        public List<String> getCachedTables()
+        {
+            return resolvedTables.values().stream()
+                    .flatMap(Optional::stream)
+                    .distinct()
+                    .collect(toImmutableList());
+        }
+
+        public boolean isValid(Function<CatalogSchemaTableName, Optional<String>> converter)
+        {
+            return resolvedTables.entrySet().stream()
+                    .allMatch(entry -> entry.getValue().equals(converter.apply(entry.getKey())));
+        }
+
+        @Override
+        public String toString()
+        {
+            return toStringHelper(this)
+                    .add("statement", statement)
+                    .add("resolvedTables", resolvedTables)
+                    .toString();
+        }
+    }
+}
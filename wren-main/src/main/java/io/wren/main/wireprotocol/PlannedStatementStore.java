@@ -0,0 +1,137 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.wren.main.wireprotocol;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.ExecutionError;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import io.airlift.log.Logger;
+import io.wren.base.AnalyzedMDL;
+import io.wren.base.CatalogSchemaTableName;
+import io.wren.base.SessionContext;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import static com.google.common.base.Throwables.throwIfUnchecked;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A server-wide store of {@link PlannedStatement}, shared by all the wire protocol sessions.
+ * Many pooled connections of a BI tool prepare the same statements, so only the first one pays for planning.
+ * <p>
+ * The entries are planned against one {@link AnalyzedMDL}. When another MDL is deployed, the whole store is dropped.
+ * Concurrent misses of the same key are planned once, and the others wait for the result.
+ */
+public class PlannedStatementStore
+{
+    private static final Logger LOG = Logger.get(PlannedStatementStore.class);
+
+    private final long maxSize;
+    private final AtomicReference<Generation> generation = new AtomicReference<>();
+
+    public PlannedStatementStore(long maxSize)
+    {
+        this.maxSize = maxSize;
+    }
+
+    public boolean isEnabled()
+    {
+        return maxSize > 0;
+    }
+
+    public PlannedStatement get(
+            String statement,
+            List<Integer> paramTypes,
+            SessionContext sessionContext,
+            AnalyzedMDL analyzedMDL,
+            Function<CatalogSchemaTableName, Optional<String>> cachedTableConverter,
+            Supplier<PlannedStatement> planner)
+    {
+        if (!isEnabled()) {
+            return planner.get();
+        }
+
+        Key key = new Key(statement, ImmutableList.copyOf(paramTypes), sessionContext.getCatalog(), sessionContext.getSchema(), sessionContext.isEnableDynamicField());
+        Cache<Key, PlannedStatement> cache = getCache(analyzedMDL);
+        PlannedStatement planned;
+        try {
+            planned = cache.get(key, planner::get);
+        }
+        catch (ExecutionException | UncheckedExecutionException | ExecutionError e) {
+            throwIfUnchecked(e.getCause());
+            throw new RuntimeException(e.getCause());
+        }
+
+        if (!planned.getCachedStatement().isValid(cachedTableConverter)) {
+            // cached tables have been refreshed since the statement was planned, only the cache rewrite needs to be redone
+            planned = planned.withCachedStatement(PlannedStatement.CachedStatement.rewrite(
+                    sessionContext,
+                    planned.getPreRewrittenStatement(),
+                    cachedTableConverter,
+                    analyzedMDL.getWrenMDL()));
+            cache.put(key, planned);
+        }
+        return planned;
+    }
+
+    public CacheStats getStats()
+    {
+        Generation current = generation.get();
+        return current == null ? new CacheStats(0, 0, 0, 0, 0, 0) : current.cache().stats();
+    }
+
+    public long size()
+    {
+        Generation current = generation.get();
+        return current == null ? 0 : current.cache().size();
+    }
+
+    private Cache<Key, PlannedStatement> getCache(AnalyzedMDL analyzedMDL)
+    {
+        while (true) {
+            Generation current = generation.get();
+            if (current != null && current.analyzedMDL() == analyzedMDL) {
+                return current.cache();
+            }
+            Generation next = new Generation(analyzedMDL, CacheBuilder.newBuilder()
+                    .maximumSize(maxSize)
+                    .recordStats()
+                    .build());
+            if (generation.compareAndSet(current, next)) {
+                LOG.info("Reset planned statements for MDL version %s", analyzedMDL.getVersion());
+                return next.cache();
+            }
+        }
+    }
+
+    private record Generation(AnalyzedMDL analyzedMDL, Cache<Key, PlannedStatement> cache)
+    {
+        private Generation
+        {
+            requireNonNull(analyzedMDL, "analyzedMDL is null");
+            requireNonNull(cache, "cache is null");
+        }
+    }
+
+    private record Key(String statement, List<Integer> paramTypes, Optional<String> catalog, Optional<String> schema, boolean enableDynamicField) {}
+}
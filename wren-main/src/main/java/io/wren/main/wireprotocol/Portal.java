@@ -17,7 +17,6 @@ package io.wren.main.wireprotocol;
 import com.google.common.base.Joiner;
 import com.google.common.collect.ImmutableList;
 import io.airlift.log.Logger;
-import io.wren.base.ConnectorRecordIterator;
 import io.wren.base.Parameter;
 import io.wren.base.type.PGType;
 import io.wren.base.type.PGTypes;
@@ -26,6 +25,9 @@ import jakarta.validation.constraints.NotNull;
 import javax.annotation.Nullable;
 
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
@@ -40,8 +42,13 @@ public class Portal
     private final String name;
     private final PreparedStatement preparedStatement;
     private final List<Object> params;
-    private ConnectorRecordIterator connectorRecordIterator;
+    private QueryResult result;
     private long rowCount;
+    private int pendingExecutes;
+    @Nullable
+    private CompletableFuture<Optional<QueryResult>> execution;
+    @Nullable
+    private QueryTrace queryTrace;
 
     @Nullable
     private final FormatCodes.FormatCode[] resultFormatCodes;
@@ -96,14 +103,14 @@ public class Portal
         throw new UnsupportedOperationException();
     }
 
-    public ConnectorRecordIterator getConnectorRecordIterator()
+    public QueryResult getResult()
     {
-        return connectorRecordIterator;
+        return result;
     }
 
-    public void setConnectorRecordIterator(ConnectorRecordIterator connectorRecordIterator)
+    public void setResult(QueryResult result)
     {
-        this.connectorRecordIterator = connectorRecordIterator;
+        this.result = result;
     }
 
     public long getRowCount()
@@ -116,9 +123,46 @@ public class Portal
         this.rowCount = rowCount;
     }
 
+    public Optional<QueryTrace> getQueryTrace()
+    {
+        return Optional.ofNullable(queryTrace);
+    }
+
+    public void setQueryTrace(QueryTrace queryTrace)
+    {
+        this.queryTrace = queryTrace;
+    }
+
     public boolean isSuspended()
     {
-        return connectorRecordIterator != null;
+        return result != null;
+    }
+
+    /**
+     * Start executing this portal before the responses of the previous messages are written.
+     * The executes pipelined on the same portal share one execution, and the portal isn't closed
+     * by a later bind of the same name until all of them have sent their rows.
+     */
+    public CompletableFuture<Optional<QueryResult>> startExecution(Function<Portal, CompletableFuture<Optional<QueryResult>>> executor)
+    {
+        if (execution == null) {
+            execution = isSuspended() ? CompletableFuture.completedFuture(Optional.of(result)) : executor.apply(this);
+        }
+        pendingExecutes++;
+        return execution;
+    }
+
+    /**
+     * @return true if no pipelined execute of this portal is pending anymore
+     */
+    boolean finishExecution()
+    {
+        pendingExecutes--;
+        if (pendingExecutes > 0) {
+            return false;
+        }
+        execution = null;
+        return true;
     }
 
     public boolean isMetadataQuery()
@@ -149,22 +193,26 @@ public class Portal
                 .add("preparedStatement", preparedStatement)
                 .add("params", params)
                 .add("resultFormatCodes", resultFormatCodes)
-                .add("connectorRecordIterator", connectorRecordIterator)
+                .add("result", result)
                 .add("rowCount", rowCount)
                 .toString();
     }
 
     protected void close()
     {
-        if (connectorRecordIterator != null) {
-            LOG.info("ConnectorRecordIterable is closing.");
+        if (pendingExecutes > 0) {
+            // the pending executes release the portal after sending the rows
+            return;
+        }
+        if (result != null) {
+            LOG.info("QueryResult is closing.");
             try {
-                connectorRecordIterator.close();
+                result.close();
             }
             catch (Exception ex) {
-                LOG.error(ex, "ConnectorRecordIterable close failed");
+                LOG.error(ex, "QueryResult close failed");
             }
-            LOG.info("ConnectorRecordIterable is closed.");
+            LOG.info("QueryResult is closed.");
         }
     }
 }
@@ -19,13 +19,17 @@ import com.carrotsearch.hppc.IntSet;
 import com.google.common.net.HostAndPort;
 import io.airlift.log.Logger;
 import io.netty.bootstrap.ServerBootstrap;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.buffer.UnpooledByteBufAllocator;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelInitializer;
+import io.netty.channel.ChannelOption;
 import io.netty.channel.ChannelPipeline;
-import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.WriteBufferWaterMark;
 import io.wren.base.config.ConfigManager;
 import io.wren.base.config.PostgresWireProtocolConfig;
-import io.wren.base.config.WrenConfig;
 import io.wren.base.sql.SqlConverter;
 import io.wren.base.wireprotocol.PgMetastore;
 import io.wren.cache.CacheManager;
@@ -33,6 +37,7 @@ import io.wren.cache.CachedTableMapping;
 import io.wren.main.WrenMetastore;
 import io.wren.main.metadata.Metadata;
 import io.wren.main.netty.ChannelBootstrapFactory;
+import io.wren.main.netty.Transport;
 import io.wren.main.pgcatalog.regtype.RegObjectFactory;
 import io.wren.main.wireprotocol.auth.Authentication;
 import io.wren.main.wireprotocol.ssl.SslContextProvider;
@@ -61,6 +66,7 @@ import java.util.concurrent.ExecutionException;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Function;
 
+import static java.lang.Math.toIntExact;
 import static java.util.Objects.requireNonNull;
 import static org.elasticsearch.common.network.NetworkService.GLOBAL_NETWORK_HOST_SETTING;
 
@@ -96,8 +102,13 @@ public class PostgresNetty
     private final CachedTableMapping cachedTableMapping;
     private final ConfigManager configManager;
     private final Authentication authentication;
-    private final NioEventLoopGroup nioEventLoopGroup;
+    private final PostgresWireProtocolConfig postgresWireProtocolConfig;
+    private final Transport transport;
+    private final EventLoopGroup eventLoopGroup;
     private final PgMetastore pgMetastore;
+    private final PlannedStatementStore plannedStatementStore;
+    private final QueryResultCache queryResultCache;
+    private final WireProtocolStats wireProtocolStats;
 
     public PostgresNetty(
             NetworkService networkService,
@@ -111,7 +122,8 @@ public class PostgresNetty
             CacheManager cacheManager,
             CachedTableMapping cachedTableMapping,
             Authentication authentication,
-            PgMetastore pgMetastore)
+            PgMetastore pgMetastore,
+            WireProtocolStats wireProtocolStats)
     {
         this.settings = toWireProtocolSettings();
         this.port = postgresWireProtocolConfig.getPort();
@@ -128,14 +140,25 @@ public class PostgresNetty
         this.cacheManager = requireNonNull(cacheManager, "cacheManager is null");
         this.cachedTableMapping = requireNonNull(cachedTableMapping, "cachedTableMapping is null");
         this.authentication = requireNonNull(authentication, "authentication is null");
-        this.nioEventLoopGroup = new NioEventLoopGroup(threadCount);
+        this.postgresWireProtocolConfig = requireNonNull(postgresWireProtocolConfig, "postgresWireProtocolConfig is null");
+        this.transport = Transport.resolve(postgresWireProtocolConfig.getNettyTransport());
+        this.eventLoopGroup = transport.newEventLoopGroup(threadCount);
         this.pgMetastore = requireNonNull(pgMetastore, "pgMetastore is null");
+        this.plannedStatementStore = new PlannedStatementStore(postgresWireProtocolConfig.getPlannedStatementCacheSize());
+        this.queryResultCache = new QueryResultCache(
+                postgresWireProtocolConfig.getResultCacheMaxSize(),
+                postgresWireProtocolConfig.getResultCacheMaxEntrySize(),
+                postgresWireProtocolConfig.getResultCacheTtl());
+        // the results depend on the data source and its settings
+        configManager.addListener((previous, current) -> queryResultCache.invalidateAll());
+        this.wireProtocolStats = requireNonNull(wireProtocolStats, "wireProtocolStats is null");
     }
 
     public void start()
     {
         this.openChannels = new Netty4OpenChannelsHandler(LOGGER);
-        this.bootstrap = ChannelBootstrapFactory.newChannelBootstrap(settings, nioEventLoopGroup);
+        this.bootstrap = ChannelBootstrapFactory.newChannelBootstrap(settings, eventLoopGroup, transport.getServerChannelClass());
+        configureChildOptions(bootstrap);
 
         bootstrap.childHandler(new ChannelInitializer()
         {
@@ -145,7 +168,19 @@ public class PostgresNetty
                 ChannelPipeline pipeline = ch.pipeline();
                 pipeline.addLast("open_channels", openChannels);
                 WireProtocolSession wireProtocolSession =
-                        new WireProtocolSession(regObjectFactory, connector, sqlConverter, configManager.getConfig(WrenConfig.class), wrenMetastore, cacheManager, cachedTableMapping, authentication, pgMetastore);
+                        new WireProtocolSession(
+                                regObjectFactory,
+                                connector,
+                                sqlConverter,
+                                configManager,
+                                wrenMetastore,
+                                cacheManager,
+                                cachedTableMapping,
+                                authentication,
+                                pgMetastore,
+                                plannedStatementStore,
+                                queryResultCache,
+                                wireProtocolStats);
                 PostgresWireProtocol postgresWireProtocol = new PostgresWireProtocol(wireProtocolSession, new SslReqHandler(sslContextProvider));
                 pipeline.addLast("frame-decoder", postgresWireProtocol.decoder);
                 pipeline.addLast("handler", postgresWireProtocol.handler);
@@ -157,7 +192,7 @@ public class PostgresNetty
         boolean success = false;
         try {
             boundAddress = resolveBindAddress();
-            LOGGER.info("Postgre wire protocol server start. Bound Address: %s", boundAddress);
+            LOGGER.info("Postgre wire protocol server start. Bound Address: %s, Transport: %s", boundAddress, transport);
             success = true;
         }
         finally {
@@ -169,6 +204,26 @@ public class PostgresNetty
         }
     }
 
+    private void configureChildOptions(ServerBootstrap bootstrap)
+    {
+        ByteBufAllocator allocator = postgresWireProtocolConfig.isAllocatorPooled()
+                ? new PooledByteBufAllocator(postgresWireProtocolConfig.isAllocatorPreferDirect())
+                : new UnpooledByteBufAllocator(postgresWireProtocolConfig.isAllocatorPreferDirect());
+        bootstrap.option(ChannelOption.ALLOCATOR, allocator)
+                .childOption(ChannelOption.ALLOCATOR, allocator)
+                .childOption(ChannelOption.TCP_NODELAY, postgresWireProtocolConfig.isTcpNoDelay())
+                .childOption(ChannelOption.WRITE_BUFFER_WATER_MARK, new WriteBufferWaterMark(
+                        toIntExact(postgresWireProtocolConfig.getWriteBufferLowWaterMark().toBytes()),
+                        toIntExact(postgresWireProtocolConfig.getWriteBufferHighWaterMark().toBytes())));
+        // keep the OS default, which is auto-tuned on Linux, unless they are configured
+        if (postgresWireProtocolConfig.getSendBufferSize().toBytes() > 0) {
+            bootstrap.childOption(ChannelOption.SO_SNDBUF, toIntExact(postgresWireProtocolConfig.getSendBufferSize().toBytes()));
+        }
+        if (postgresWireProtocolConfig.getReceiveBufferSize().toBytes() > 0) {
+            bootstrap.childOption(ChannelOption.SO_RCVBUF, toIntExact(postgresWireProtocolConfig.getReceiveBufferSize().toBytes()));
+        }
+    }
+
     public HostAndPort getHostAndPort()
     {
         TransportAddress transportAddress = boundAddress.publishAddress();
@@ -266,11 +321,13 @@ public class PostgresNetty
             openChannels = null;
         }
         try {
-            nioEventLoopGroup.shutdownGracefully().get();
+            eventLoopGroup.shutdownGracefully().get();
         }
         catch (InterruptedException | ExecutionException e) {
             throw new RuntimeException(e);
         }
+        // release the direct memory of the cached results
+        queryResultCache.close();
         LOGGER.info("close all channels.");
     }
 
@@ -279,6 +336,21 @@ public class PostgresNetty
         return openChannels == null ? 0L : openChannels.numberOfOpenChannels();
     }
 
+    public Transport getTransport()
+    {
+        return transport;
+    }
+
+    public QueryResultCache getQueryResultCache()
+    {
+        return queryResultCache;
+    }
+
+    public PlannedStatementStore getPlannedStatementStore()
+    {
+        return plannedStatementStore;
+    }
+
     public long totalConnections()
     {
         return openChannels == null ? 0L : openChannels.totalChannels();
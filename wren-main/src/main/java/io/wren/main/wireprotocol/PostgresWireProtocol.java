@@ -202,6 +202,7 @@ public class PostgresWireProtocol
             extends SimpleChannelInboundHandler<ByteBuf>
     {
         private final Queue<Plan> messageQueue = new ArrayDeque<>();
+        private CompletableFuture<?> committed = CompletableFuture.completedFuture(null);
 
         @Override
         public void channelRegistered(ChannelHandlerContext ctx)
@@ -298,16 +299,14 @@ public class PostgresWireProtocol
 
         /**
          * Consume the messageQueue and plan all existed messages.
+         * The plans are pipelined after the messages committed before, and their responses are written by the event loop.
          *
-         * @return planned future
+         * @return planned future, completed when all the responses are written
          */
         private CompletableFuture<?> commitPlans()
         {
-            CompletableFuture<?> start = CompletableFuture.completedFuture(null);
-            MessagePlanner.plan(messageQueue)
-                    .stream().map(plan -> plan.execute(channel, wireProtocolSession))
-                    .forEach(start::thenRun);
-            return start;
+            committed = MessagePlanner.execute(MessagePlanner.plan(messageQueue), committed, channel, wireProtocolSession, channel.eventLoop());
+            return committed;
         }
 
         @Override
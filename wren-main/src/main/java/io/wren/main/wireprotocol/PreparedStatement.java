@@ -14,10 +14,13 @@
 
 package io.wren.main.wireprotocol;
 
+import io.trino.sql.tree.Statement;
+
 import java.util.List;
 import java.util.Optional;
 
 import static com.google.common.base.MoreObjects.toStringHelper;
+import static com.google.common.base.Preconditions.checkArgument;
 
 public class PreparedStatement
 {
@@ -26,8 +29,11 @@ public class PreparedStatement
 
     private final String name;
     private final String statement;
+    private final Optional<Statement> parsedStatement;
     private final Optional<String> cacheStatement;
+    private final List<String> cachedTables;
     private final List<Integer> paramTypeOids;
+    private final List<String> models;
     private final String originalStatement;
     private final boolean isSessionCommand;
     private final QueryLevel queryLevel;
@@ -40,22 +46,30 @@ public class PreparedStatement
             boolean isSessionCommand,
             QueryLevel queryLevel)
     {
-        this(name, statement, Optional.empty(), paramTypeOids, originalStatement, isSessionCommand, queryLevel);
+        this(name, statement, Optional.empty(), Optional.empty(), List.of(), paramTypeOids, List.of(), originalStatement, isSessionCommand, queryLevel);
     }
 
     public PreparedStatement(
             String name,
             String statement,
+            Optional<Statement> parsedStatement,
             Optional<String> cacheStatement,
+            List<String> cachedTables,
             List<Integer> paramTypeOids,
+            List<String> models,
             String originalStatement,
             boolean isSessionCommand,
             QueryLevel queryLevel)
     {
         this.name = name.isEmpty() ? RESERVED_PREPARE_NAME : name;
         this.statement = statement;
+        this.parsedStatement = parsedStatement;
         this.cacheStatement = cacheStatement;
+        this.cachedTables = cachedTables;
+        // the cached tables are pinned while the cache statement reads them, an empty list would pin nothing
+        checkArgument(cacheStatement.isEmpty() || !cachedTables.isEmpty(), "cachedTables is empty for cache statement: %s", cacheStatement.orElse(null));
         this.paramTypeOids = paramTypeOids;
+        this.models = models;
         this.originalStatement = originalStatement;
         this.isSessionCommand = isSessionCommand;
         this.queryLevel = queryLevel;
@@ -71,11 +85,24 @@ public class PreparedStatement
         return statement;
     }
 
+    /**
+     * @return the AST of {@link #getStatement()} if the planner has parsed it
+     */
+    public Optional<Statement> getParsedStatement()
+    {
+        return parsedStatement;
+    }
+
     public List<Integer> getParamTypeOids()
     {
         return paramTypeOids;
     }
 
+    public List<String> getModels()
+    {
+        return models;
+    }
+
     public String getOriginalStatement()
     {
         return originalStatement;
@@ -91,6 +118,14 @@ public class PreparedStatement
         return cacheStatement;
     }
 
+    /**
+     * @return the DuckDB tables {@link #getCacheStatement()} reads
+     */
+    public List<String> getCachedTables()
+    {
+        return cachedTables;
+    }
+
     public QueryLevel getQueryLevel()
     {
         return queryLevel;
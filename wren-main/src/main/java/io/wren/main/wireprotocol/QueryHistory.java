@@ -0,0 +1,141 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.wren.main.wireprotocol;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableList;
+import com.google.inject.Inject;
+import io.airlift.json.JsonCodec;
+import io.airlift.json.JsonCodecFactory;
+import io.airlift.log.Logger;
+import io.airlift.units.Duration;
+import io.wren.base.config.PostgresWireProtocolConfig;
+
+import javax.annotation.Nullable;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import static io.airlift.concurrent.Threads.daemonThreadsNamed;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardOpenOption.APPEND;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * The most recent finished queries, kept in a fixed size ring buffer. Adding a query only claims a slot
+ * with an atomic counter, so the wire protocol threads never wait for each other or for the readers.
+ * <p>
+ * The queries slower than the configured threshold are also appended to the slow query log file as JSON lines.
+ * The file is written by a single background thread to keep the IO off the wire protocol threads. Its queue is bounded,
+ * the records which don't fit are dropped and counted.
+ */
+public class QueryHistory
+{
+    private static final Logger LOG = Logger.get(QueryHistory.class);
+    private static final JsonCodec<QueryRecord> QUERY_RECORD_JSON_CODEC = new JsonCodecFactory().jsonCodec(QueryRecord.class);
+    private static final int SLOW_QUERY_LOG_QUEUE_SIZE = 1000;
+
+    private final AtomicReferenceArray<QueryRecord> records;
+    private final AtomicLong next = new AtomicLong();
+    private final AtomicLong droppedSlowQueries = new AtomicLong();
+    private final Optional<Duration> slowQueryThreshold;
+    private final Path slowQueryLogFile;
+    @Nullable
+    private final ExecutorService slowQueryLogExecutor;
+
+    @Inject
+    public QueryHistory(PostgresWireProtocolConfig config)
+    {
+        this(config, SLOW_QUERY_LOG_QUEUE_SIZE);
+    }
+
+    @VisibleForTesting
+    QueryHistory(PostgresWireProtocolConfig config, int slowQueryLogQueueSize)
+    {
+        this.records = new AtomicReferenceArray<>(config.getQueryHistorySize());
+        this.slowQueryThreshold = Optional.of(config.getSlowQueryThreshold()).filter(threshold -> threshold.toMillis() > 0);
+        this.slowQueryLogFile = config.getSlowQueryLogFile().toPath();
+        // a burst of slow queries or a slow disk drops the records instead of queueing them without a limit
+        this.slowQueryLogExecutor = slowQueryThreshold.isPresent() ? new ThreadPoolExecutor(
+                1,
+                1,
+                0,
+                MILLISECONDS,
+                new ArrayBlockingQueue<>(slowQueryLogQueueSize),
+                daemonThreadsNamed("slow-query-log-%s"),
+                (runnable, executor) -> droppedSlowQueries.incrementAndGet()) : null;
+    }
+
+    public void add(QueryRecord record)
+    {
+        if (records.length() > 0) {
+            records.set((int) (next.getAndIncrement() % records.length()), record);
+        }
+        if (slowQueryLogExecutor != null && record.getElapsedMicros() >= slowQueryThreshold.get().roundTo(MICROSECONDS)) {
+            slowQueryLogExecutor.execute(() -> writeSlowQuery(record));
+        }
+    }
+
+    /**
+     * @return the slow queries not written to the slow query log because its queue was full
+     */
+    public long getDroppedSlowQueries()
+    {
+        return droppedSlowQueries.get();
+    }
+
+    /**
+     * @return the queries matching all the given filters, from the newest to the oldest. A null filter matches every query.
+     */
+    public List<QueryRecord> getQueries(@Nullable String user, @Nullable String model, @Nullable Boolean cacheHit, int limit)
+    {
+        ImmutableList.Builder<QueryRecord> builder = ImmutableList.builder();
+        long end = next.get();
+        int found = 0;
+        // the queries finished while reading could overwrite the oldest slots, so it's only a best-effort snapshot
+        for (long index = end - 1; index >= Math.max(0, end - records.length()) && found < limit; index--) {
+            QueryRecord record = records.get((int) (index % records.length()));
+            if (record != null && record.matches(user, model, cacheHit)) {
+                builder.add(record);
+                found++;
+            }
+        }
+        return builder.build();
+    }
+
+    private void writeSlowQuery(QueryRecord record)
+    {
+        try {
+            Path parent = slowQueryLogFile.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            Files.writeString(slowQueryLogFile, QUERY_RECORD_JSON_CODEC.toJson(record) + "\n", UTF_8, CREATE, APPEND);
+        }
+        catch (IOException e) {
+            LOG.warn(e, "Failed to write slow query %s to %s", record.getQueryId(), slowQueryLogFile);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.wren.main.wireprotocol;
+
+import static java.util.Locale.ENGLISH;
+
+public enum QueryPhase
+{
+    // The whole planning of a data source query, a zero sample when the plan is taken from the PlannedStatementStore
+    PLANNING,
+    // Parse the statement rewritten by Wren
+    PARSE,
+    // PostgreSqlRewriteUtil patterns for the statements sent by the BI tools
+    PATTERN_REWRITE,
+    // WrenPlanner.rewrite
+    WREN_REWRITE,
+    // PostgreSqlRewrite
+    POSTGRES_REWRITE,
+    // Format the rewritten statement back to SQL
+    FORMAT,
+    // CacheRewrite
+    CACHE_REWRITE,
+    // SqlConverter.convert to the dialect of the data source, including the SQLGlot request
+    SQL_CONVERT,
+    // From sending the query to the data source (or the cache) until it returns the result iterator
+    EXECUTION,
+    // From the start of the execution until the first row is fetched
+    FIRST_ROW,
+    // Fetch, encode and write the rows to the client
+    ENCODING;
+
+    public String getMetricName()
+    {
+        return name().toLowerCase(ENGLISH);
+    }
+}
@@ -0,0 +1,188 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.wren.main.wireprotocol;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+import javax.annotation.Nullable;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * The immutable summary of a finished {@link QueryTrace}, kept in the {@link QueryHistory}.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class QueryRecord
+{
+    private final String queryId;
+    private final Optional<String> user;
+    private final String statement;
+    private final Instant createTime;
+    private final long elapsedMicros;
+    private final Map<String, Long> phaseMicros;
+    private final boolean plannedStatementHit;
+    private final List<String> models;
+    private final long rows;
+    private final long bytes;
+    private final boolean cacheHit;
+    private final Optional<String> failure;
+
+    public static QueryRecord from(QueryTrace trace)
+    {
+        ImmutableMap.Builder<String, Long> phaseMicros = ImmutableMap.builder();
+        for (QueryPhase phase : QueryPhase.values()) {
+            if (trace.isRecorded(phase)) {
+                phaseMicros.put(phase.getMetricName(), NANOSECONDS.toMicros(trace.getPhaseNanos(phase)));
+            }
+        }
+        return new QueryRecord(
+                trace.getQueryId(),
+                trace.getUser(),
+                trace.getStatement(),
+                trace.getCreateTime(),
+                NANOSECONDS.toMicros(trace.getElapsedNanos()),
+                phaseMicros.buildOrThrow(),
+                trace.isPlannedStatementHit(),
+                trace.getModels(),
+                trace.getRows(),
+                trace.getBytes(),
+                trace.isCacheHit(),
+                trace.getFailure());
+    }
+
+    @JsonCreator
+    public QueryRecord(
+            @JsonProperty("queryId") String queryId,
+            @JsonProperty("user") Optional<String> user,
+            @JsonProperty("statement") String statement,
+            @JsonProperty("createTime") Instant createTime,
+            @JsonProperty("elapsedMicros") long elapsedMicros,
+            @JsonProperty("phaseMicros") Map<String, Long> phaseMicros,
+            @JsonProperty("plannedStatementHit") boolean plannedStatementHit,
+            @JsonProperty("models") List<String> models,
+            @JsonProperty("rows") long rows,
+            @JsonProperty("bytes") long bytes,
+            @JsonProperty("cacheHit") boolean cacheHit,
+            @JsonProperty("failure") Optional<String> failure)
+    {
+        this.queryId = requireNonNull(queryId, "queryId is null");
+        this.user = requireNonNull(user, "user is null");
+        this.statement = requireNonNull(statement, "statement is null");
+        this.createTime = requireNonNull(createTime, "createTime is null");
+        this.elapsedMicros = elapsedMicros;
+        this.phaseMicros = ImmutableMap.copyOf(requireNonNull(phaseMicros, "phaseMicros is null"));
+        this.plannedStatementHit = plannedStatementHit;
+        this.models = ImmutableList.copyOf(requireNonNull(models, "models is null"));
+        this.rows = rows;
+        this.bytes = bytes;
+        this.cacheHit = cacheHit;
+        this.failure = requireNonNull(failure, "failure is null");
+    }
+
+    @JsonProperty
+    public String getQueryId()
+    {
+        return queryId;
+    }
+
+    @JsonProperty
+    public Optional<String> getUser()
+    {
+        return user;
+    }
+
+    @JsonProperty
+    public String getStatement()
+    {
+        return statement;
+    }
+
+    @JsonProperty
+    public Instant getCreateTime()
+    {
+        return createTime;
+    }
+
+    @JsonProperty
+    public long getElapsedMicros()
+    {
+        return elapsedMicros;
+    }
+
+    /**
+     * @return the time spent in each {@link QueryPhase} the query went through, keyed by {@link QueryPhase#getMetricName()}
+     */
+    @JsonProperty
+    public Map<String, Long> getPhaseMicros()
+    {
+        return phaseMicros;
+    }
+
+    /**
+     * @return true if the plan was taken from the {@link PlannedStatementStore} instead of planning the statement
+     */
+    @JsonProperty
+    public boolean isPlannedStatementHit()
+    {
+        return plannedStatementHit;
+    }
+
+    @JsonProperty
+    public List<String> getModels()
+    {
+        return models;
+    }
+
+    @JsonProperty
+    public long getRows()
+    {
+        return rows;
+    }
+
+    @JsonProperty
+    public long getBytes()
+    {
+        return bytes;
+    }
+
+    @JsonProperty
+    public boolean isCacheHit()
+    {
+        return cacheHit;
+    }
+
+    @JsonProperty
+    public Optional<String> getFailure()
+    {
+        return failure;
+    }
+
+    public boolean matches(@Nullable String user, @Nullable String model, @Nullable Boolean cacheHit)
+    {
+        return (user == null || this.user.filter(user::equals).isPresent())
+                && (model == null || models.stream().anyMatch(model::equalsIgnoreCase))
+                && (cacheHit == null || this.cacheHit == cacheHit);
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.wren.main.wireprotocol;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.wren.base.Column;
+import io.wren.base.ConnectorRecordIterator;
+import io.wren.base.type.PGType;
+import io.wren.main.wireprotocol.message.ResponseMessages;
+
+import javax.annotation.Nullable;
+
+import java.util.List;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * The result of a query sent by {@link ResultSetSender}: either the rows of the connector,
+ * or the rows encoded by the {@link QueryResultCache} with the format codes of its key.
+ */
+public final class QueryResult
+        implements AutoCloseable
+{
+    @Nullable
+    private final ConnectorRecordIterator rows;
+    @Nullable
+    private final EncodedRowIterator encodedRows;
+    private final boolean resultCacheHit;
+
+    public static QueryResult of(ConnectorRecordIterator rows)
+    {
+        return new QueryResult(requireNonNull(rows, "rows is null"), null, false);
+    }
+
+    public static QueryResult encoded(EncodedRowIterator encodedRows, boolean resultCacheHit)
+    {
+        return new QueryResult(null, requireNonNull(encodedRows, "encodedRows is null"), resultCacheHit);
+    }
+
+    private QueryResult(@Nullable ConnectorRecordIterator rows, @Nullable EncodedRowIterator encodedRows, boolean resultCacheHit)
+    {
+        this.rows = rows;
+        this.encodedRows = encodedRows;
+        this.resultCacheHit = resultCacheHit;
+    }
+
+    public List<Column> getColumns()
+    {
+        return rows != null ? rows.getColumns() : encodedRows.getColumns();
+    }
+
+    public boolean hasNext()
+    {
+        return rows != null ? rows.hasNext() : encodedRows.hasNext();
+    }
+
+    /**
+     * @return the next DataRow message, to be released by the channel
+     */
+    public ByteBuf nextDataRow(ByteBufAllocator allocator, List<PGType> schema, @Nullable FormatCodes.FormatCode[] formatCodes)
+    {
+        if (rows != null) {
+            return ResponseMessages.encodeDataRow(allocator, rows.next(), schema, formatCodes);
+        }
+        return encodedRows.nextMessage();
+    }
+
+    /**
+     * @return whether the rows are replayed from the result cache, which is false for the query that cached them
+     */
+    public boolean isResultCacheHit()
+    {
+        return resultCacheHit;
+    }
+
+    @Override
+    public void close()
+            throws Exception
+    {
+        if (rows != null) {
+            rows.close();
+        }
+        else {
+            encodedRows.close();
+        }
+    }
+}
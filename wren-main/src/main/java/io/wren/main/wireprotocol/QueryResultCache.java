@@ -0,0 +1,387 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.wren.main.wireprotocol;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalListener;
+import com.google.common.collect.ImmutableList;
+import io.airlift.log.Logger;
+import io.airlift.units.DataSize;
+import io.airlift.units.Duration;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.util.IllegalReferenceCountException;
+import io.wren.base.Column;
+import io.wren.base.ConnectorRecordIterator;
+import io.wren.base.Parameter;
+import io.wren.base.WrenException;
+import io.wren.base.type.PGType;
+import io.wren.main.wireprotocol.message.ResponseMessages;
+
+import javax.annotation.Nullable;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Supplier;
+
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static io.airlift.concurrent.Threads.daemonThreadsNamed;
+import static io.wren.base.metadata.StandardErrorCode.GENERIC_INTERNAL_ERROR;
+import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static java.util.concurrent.CompletableFuture.supplyAsync;
+import static java.util.concurrent.Executors.newCachedThreadPool;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * A server-wide cache of the query results, shared by all the wire protocol sessions.
+ * Dashboards refresh the same queries for many viewers, and a hit is answered without going to the data source or DuckDB.
+ * <p>
+ * A result is kept as the DataRow messages already encoded for the client, in the direct memory of the pooled allocator,
+ * so a hit only copies bytes to the channel. That's why the result format codes are a part of the key.
+ * The statement of a query reading the cached tables contains their DuckDB table names, and a refreshed cached table gets
+ * a new name, so the results of a replaced cached table are never reused.
+ * <p>
+ * Concurrent misses of the same key execute once. The first one encodes all the rows before sending them, so the others
+ * only wait for the query and not for the client of the first one. The waiting queries don't hold a thread.
+ */
+public class QueryResultCache
+{
+    private static final Logger LOG = Logger.get(QueryResultCache.class);
+    // Guava splits the max weight between the segments, so an entry can't be larger than the share of one segment
+    private static final int CONCURRENCY_LEVEL = 4;
+    // don't wait for a slow query forever, execute it again
+    private static final Duration MAX_FLIGHT_WAIT = new Duration(30, SECONDS);
+
+    private final long maxEntryBytes;
+    private final Duration ttl;
+    @Nullable
+    private final Cache<Key, CachedResult> cache;
+    private final Map<Key, CompletableFuture<Optional<CachedResult>>> inFlight = new ConcurrentHashMap<>();
+    // the queries of the misses, which may block on the data source, so they don't run on the common pool
+    private final ExecutorService executor = newCachedThreadPool(daemonThreadsNamed("query-result-cache-%s"));
+
+    public QueryResultCache(DataSize maxSize, DataSize maxEntrySize, Duration ttl)
+    {
+        this.maxEntryBytes = Math.min(maxEntrySize.toBytes(), maxSize.toBytes() / CONCURRENCY_LEVEL);
+        this.ttl = requireNonNull(ttl, "ttl is null");
+        if (maxSize.toBytes() == 0 || ttl.toMillis() == 0) {
+            this.cache = null;
+            return;
+        }
+        this.cache = CacheBuilder.newBuilder()
+                .concurrencyLevel(CONCURRENCY_LEVEL)
+                .maximumWeight(maxSize.toBytes())
+                .weigher((Key key, CachedResult result) -> result.size())
+                .expireAfterWrite(ttl.toMillis(), MILLISECONDS)
+                .removalListener((RemovalListener<Key, CachedResult>) notification -> notification.getValue().release())
+                .recordStats()
+                .build();
+    }
+
+    public boolean isEnabled()
+    {
+        return cache != null;
+    }
+
+    public Duration getTtl()
+    {
+        return ttl;
+    }
+
+    /**
+     * @param ttl how long the result can be reused, capped by the configured TTL
+     * @param executor executes the query on a miss
+     * @return the cached rows on a hit, otherwise the rows of the executor, which are cached if they fit in an entry
+     */
+    public CompletableFuture<QueryResult> execute(Key key, Duration ttl, Supplier<ConnectorRecordIterator> executor)
+    {
+        Optional<BufferedRows> cached = get(key);
+        if (cached.isPresent()) {
+            return completedFuture(QueryResult.encoded(cached.get(), true));
+        }
+
+        CompletableFuture<Optional<CachedResult>> flight = new CompletableFuture<>();
+        CompletableFuture<Optional<CachedResult>> leader = inFlight.putIfAbsent(key, flight);
+        if (leader != null) {
+            return leader.copy()
+                    .completeOnTimeout(Optional.empty(), MAX_FLIGHT_WAIT.toMillis(), MILLISECONDS)
+                    .thenApplyAsync(result -> result.flatMap(CachedResult::open)
+                            .map(rows -> QueryResult.encoded(rows, true))
+                            // the leader failed, its result was too large to cache, or it's still running
+                            .orElseGet(() -> QueryResult.of(executor.get())), this.executor);
+        }
+
+        long ttlNanos = Math.min(ttl.roundTo(NANOSECONDS), this.ttl.roundTo(NANOSECONDS));
+        return supplyAsync(() -> lead(key, ttlNanos, executor, flight), this.executor);
+    }
+
+    /**
+     * Encode the rows with the format codes of the key until all of them are cached or the entry is too large,
+     * and finish the flight before the client reads them.
+     */
+    private QueryResult lead(Key key, long ttlNanos, Supplier<ConnectorRecordIterator> executor, CompletableFuture<Optional<CachedResult>> flight)
+    {
+        ConnectorRecordIterator source = null;
+        ByteBuf buffer = PooledByteBufAllocator.DEFAULT.directBuffer();
+        try {
+            source = executor.get();
+            List<Column> columns = source.getColumns();
+            List<PGType> schema = columns.stream().map(Column::getType).collect(toImmutableList());
+            FormatCodes.FormatCode[] formatCodes = key.formatCodes().toArray(FormatCodes.FormatCode[]::new);
+            while (source.hasNext()) {
+                ByteBuf message = ResponseMessages.encodeDataRow(PooledByteBufAllocator.DEFAULT, source.next(), schema, formatCodes);
+                try {
+                    buffer.writeBytes(message);
+                }
+                finally {
+                    message.release();
+                }
+                if (buffer.writerIndex() > maxEntryBytes) {
+                    LOG.debug("The result is larger than %s bytes, it won't be cached", maxEntryBytes);
+                    finishFlight(key, flight, Optional.empty());
+                    return QueryResult.encoded(new BufferedRows(columns, buffer, source, schema, formatCodes), false);
+                }
+            }
+            source.close();
+
+            ByteBuf rows = buffer.capacity(buffer.writerIndex());
+            CachedResult result = new CachedResult(columns, rows, System.nanoTime() + ttlNanos);
+            // the cache releases its reference on eviction, and the leader its own after sending the rows
+            BufferedRows leaderRows = new BufferedRows(columns, rows.retainedDuplicate(), null, schema, formatCodes);
+            cache.put(key, result);
+            finishFlight(key, flight, Optional.of(result));
+            return QueryResult.encoded(leaderRows, false);
+        }
+        catch (Exception e) {
+            buffer.release();
+            closeQuietly(source);
+            finishFlight(key, flight, Optional.empty());
+            if (e instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new WrenException(GENERIC_INTERNAL_ERROR, e);
+        }
+    }
+
+    private Optional<BufferedRows> get(Key key)
+    {
+        if (cache == null) {
+            return Optional.empty();
+        }
+        CachedResult result = cache.getIfPresent(key);
+        if (result == null) {
+            return Optional.empty();
+        }
+        if (result.isExpired()) {
+            cache.asMap().remove(key, result);
+            return Optional.empty();
+        }
+        return result.open();
+    }
+
+    private void finishFlight(Key key, CompletableFuture<Optional<CachedResult>> flight, Optional<CachedResult> result)
+    {
+        inFlight.remove(key, flight);
+        flight.complete(result);
+    }
+
+    private static void closeQuietly(@Nullable ConnectorRecordIterator iterator)
+    {
+        if (iterator == null) {
+            return;
+        }
+        try {
+            iterator.close();
+        }
+        catch (Exception e) {
+            LOG.warn(e, "Failed to close the iterator");
+        }
+    }
+
+    public void invalidateAll()
+    {
+        if (cache != null) {
+            cache.invalidateAll();
+        }
+    }
+
+    /**
+     * Release the direct memory of the cached results and stop the queries of the misses.
+     */
+    public void close()
+    {
+        invalidateAll();
+        executor.shutdownNow();
+    }
+
+    public long getHitCount()
+    {
+        return cache == null ? 0 : cache.stats().hitCount();
+    }
+
+    public long size()
+    {
+        return cache == null ? 0 : cache.size();
+    }
+
+    /**
+     * @param mdlGeneration the generation of the deployed MDL, see {@link io.wren.main.WrenMetastore#getGeneration()}
+     * @param statement the statement sent to DuckDB or to the data source before the dialect conversion
+     * @param formatCodes the result format codes of the portal
+     */
+    public record Key(
+            long mdlGeneration,
+            String statement,
+            List<Parameter> parameters,
+            Optional<String> catalog,
+            Optional<String> schema,
+            boolean enableDynamicField,
+            List<FormatCodes.FormatCode> formatCodes)
+    {
+        public Key
+        {
+            requireNonNull(statement, "statement is null");
+            parameters = ImmutableList.copyOf(parameters);
+            requireNonNull(catalog, "catalog is null");
+            requireNonNull(schema, "schema is null");
+            formatCodes = ImmutableList.copyOf(formatCodes);
+        }
+
+        public static List<FormatCodes.FormatCode> formatCodes(@Nullable FormatCodes.FormatCode[] formatCodes)
+        {
+            return formatCodes == null ? ImmutableList.of() : ImmutableList.copyOf(Arrays.asList(formatCodes));
+        }
+    }
+
+    private static class CachedResult
+    {
+        private final List<Column> columns;
+        private final ByteBuf rows;
+        private final long expireNanos;
+
+        private CachedResult(List<Column> columns, ByteBuf rows, long expireNanos)
+        {
+            this.columns = ImmutableList.copyOf(columns);
+            this.rows = requireNonNull(rows, "rows is null");
+            this.expireNanos = expireNanos;
+        }
+
+        private int size()
+        {
+            return rows.capacity();
+        }
+
+        private boolean isExpired()
+        {
+            return System.nanoTime() - expireNanos > 0;
+        }
+
+        private Optional<BufferedRows> open()
+        {
+            try {
+                return Optional.of(new BufferedRows(columns, rows.retainedDuplicate(), null, ImmutableList.of(), null));
+            }
+            catch (IllegalReferenceCountException e) {
+                // evicted after the lookup
+                return Optional.empty();
+            }
+        }
+
+        private void release()
+        {
+            rows.release();
+        }
+    }
+
+    /**
+     * The encoded messages of a result, followed by the rest of the rows of the query if the result was too large to cache.
+     */
+    private static class BufferedRows
+            implements EncodedRowIterator
+    {
+        private final List<Column> columns;
+        private final ByteBuf buffered;
+        @Nullable
+        private final ConnectorRecordIterator rest;
+        private final List<PGType> schema;
+        @Nullable
+        private final FormatCodes.FormatCode[] formatCodes;
+        private boolean closed;
+
+        private BufferedRows(
+                List<Column> columns,
+                ByteBuf buffered,
+                @Nullable ConnectorRecordIterator rest,
+                List<PGType> schema,
+                @Nullable FormatCodes.FormatCode[] formatCodes)
+        {
+            this.columns = columns;
+            this.buffered = buffered;
+            this.rest = rest;
+            this.schema = schema;
+            this.formatCodes = formatCodes;
+        }
+
+        @Override
+        public List<Column> getColumns()
+        {
+            return columns;
+        }
+
+        @Override
+        public boolean hasNext()
+        {
+            return !closed && (buffered.isReadable() || (rest != null && rest.hasNext()));
+        }
+
+        @Override
+        public ByteBuf nextMessage()
+        {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            if (buffered.isReadable()) {
+                // the type byte is followed by the length of the message, which includes the length itself
+                int length = buffered.getInt(buffered.readerIndex() + 1);
+                return buffered.readRetainedSlice(length + 1);
+            }
+            return ResponseMessages.encodeDataRow(PooledByteBufAllocator.DEFAULT, rest.next(), schema, formatCodes);
+        }
+
+        @Override
+        public void close()
+                throws Exception
+        {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            buffered.release();
+            if (rest != null) {
+                rest.close();
+            }
+        }
+    }
+}
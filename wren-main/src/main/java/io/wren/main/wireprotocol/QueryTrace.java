@@ -0,0 +1,247 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.wren.main.wireprotocol;
+
+import javax.annotation.Nullable;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * The span of one query through the wire protocol pipeline, from the parse of the statement
+ * until its rows are sent. The phases of a query run one after another, possibly on different threads,
+ * so the trace is not synchronized and relies on the ordering of the futures that hand it over.
+ */
+public class QueryTrace
+{
+    private static final QueryPhase[] PHASES = QueryPhase.values();
+
+    private final String queryId;
+    private final Optional<String> user;
+    private final String statement;
+    private final Instant createTime;
+    private final long startNanos;
+    private final long[] phaseNanos = new long[PHASES.length];
+    private final boolean[] recordedPhases = new boolean[PHASES.length];
+    private long executionStartNanos;
+    private long endNanos;
+    private long rows;
+    private long bytes;
+    private List<String> models = List.of();
+    private boolean plannedStatementHit;
+    private boolean cacheHit;
+    private boolean resultCacheHit;
+    @Nullable
+    private String failure;
+
+    public QueryTrace(String queryId, Optional<String> user, String statement)
+    {
+        this.queryId = requireNonNull(queryId, "queryId is null");
+        this.user = requireNonNull(user, "user is null");
+        this.statement = requireNonNull(statement, "statement is null");
+        this.createTime = Instant.now();
+        this.startNanos = System.nanoTime();
+    }
+
+    public String getQueryId()
+    {
+        return queryId;
+    }
+
+    public Optional<String> getUser()
+    {
+        return user;
+    }
+
+    public String getStatement()
+    {
+        return statement;
+    }
+
+    public Instant getCreateTime()
+    {
+        return createTime;
+    }
+
+    /**
+     * Add the time spent in the phase since {@code startNanos}, a value of {@link System#nanoTime()}.
+     */
+    public void record(QueryPhase phase, long startNanos)
+    {
+        phaseNanos[phase.ordinal()] += System.nanoTime() - startNanos;
+        recordedPhases[phase.ordinal()] = true;
+    }
+
+    public long getPhaseNanos(QueryPhase phase)
+    {
+        return phaseNanos[phase.ordinal()];
+    }
+
+    /**
+     * @return true if the query went through the phase, even if it took no time
+     */
+    public boolean isRecorded(QueryPhase phase)
+    {
+        return recordedPhases[phase.ordinal()];
+    }
+
+    /**
+     * The plan was taken from the {@link PlannedStatementStore}, so the query records a zero {@link QueryPhase#PLANNING} sample.
+     * Ignored if the statement was planned by an earlier parse of the same query.
+     */
+    public void plannedStatementHit()
+    {
+        if (isRecorded(QueryPhase.PLANNING)) {
+            return;
+        }
+        plannedStatementHit = true;
+        recordedPhases[QueryPhase.PLANNING.ordinal()] = true;
+    }
+
+    public boolean isPlannedStatementHit()
+    {
+        return plannedStatementHit;
+    }
+
+    public void startExecution()
+    {
+        executionStartNanos = System.nanoTime();
+    }
+
+    public void firstRow()
+    {
+        if (executionStartNanos != 0 && !isRecorded(QueryPhase.FIRST_ROW)) {
+            record(QueryPhase.FIRST_ROW, executionStartNanos);
+        }
+    }
+
+    public void addRows(long rows)
+    {
+        this.rows += rows;
+    }
+
+    public long getRows()
+    {
+        return rows;
+    }
+
+    public void addBytes(long bytes)
+    {
+        this.bytes += bytes;
+    }
+
+    public long getBytes()
+    {
+        return bytes;
+    }
+
+    /**
+     * @param models the models and metrics the query reads
+     */
+    public void setModels(List<String> models)
+    {
+        this.models = requireNonNull(models, "models is null");
+    }
+
+    public List<String> getModels()
+    {
+        return models;
+    }
+
+    public void setCacheHit(boolean cacheHit)
+    {
+        this.cacheHit = cacheHit;
+    }
+
+    public boolean isCacheHit()
+    {
+        return cacheHit;
+    }
+
+    public void setResultCacheHit(boolean resultCacheHit)
+    {
+        this.resultCacheHit = resultCacheHit;
+    }
+
+    /**
+     * @return true if the rows were sent from the {@link QueryResultCache}
+     */
+    public boolean isResultCacheHit()
+    {
+        return resultCacheHit;
+    }
+
+    public void fail(Throwable throwable)
+    {
+        failure = Optional.ofNullable(throwable.getMessage()).orElse(throwable.getClass().getName());
+    }
+
+    public Optional<String> getFailure()
+    {
+        return Optional.ofNullable(failure);
+    }
+
+    /**
+     * @return false if the trace had been finished already
+     */
+    boolean finish()
+    {
+        if (endNanos != 0) {
+            return false;
+        }
+        endNanos = System.nanoTime();
+        return true;
+    }
+
+    public boolean isFinished()
+    {
+        return endNanos != 0;
+    }
+
+    public long getElapsedNanos()
+    {
+        return (isFinished() ? endNanos : System.nanoTime()) - startNanos;
+    }
+
+    @Override
+    public String toString()
+    {
+        StringBuilder phases = new StringBuilder();
+        for (QueryPhase phase : PHASES) {
+            if (recordedPhases[phase.ordinal()]) {
+                phases.append(phase.getMetricName()).append('=').append(NANOSECONDS.toMicros(phaseNanos[phase.ordinal()])).append("us ");
+            }
+        }
+        return toStringHelper(this)
+                .omitNullValues()
+                .add("queryId", queryId)
+                .add("user", user.orElse(null))
+                .add("elapsed", NANOSECONDS.toMillis(getElapsedNanos()) + "ms")
+                .add("phases", phases.toString().trim())
+                .add("plannedStatementHit", plannedStatementHit)
+                .add("models", models)
+                .add("rows", rows)
+                .add("bytes", bytes)
+                .add("cacheHit", cacheHit)
+                .add("resultCacheHit", resultCacheHit)
+                .add("failure", failure)
+                .toString();
+    }
+}
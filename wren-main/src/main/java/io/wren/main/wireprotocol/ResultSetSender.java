@@ -14,9 +14,9 @@
 
 package io.wren.main.wireprotocol;
 
+import io.netty.buffer.ByteBuf;
 import io.netty.channel.Channel;
 import io.wren.base.Column;
-import io.wren.base.ConnectorRecordIterator;
 import io.wren.base.WrenException;
 import io.wren.base.type.PGType;
 import io.wren.main.wireprotocol.message.ResponseMessages;
@@ -25,41 +25,47 @@ import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
 import java.util.List;
+import java.util.Optional;
 
 import static com.google.common.collect.ImmutableList.toImmutableList;
 import static io.wren.base.metadata.StandardErrorCode.GENERIC_INTERNAL_ERROR;
+import static java.util.Objects.requireNonNull;
 
 public class ResultSetSender
         extends BaseResultSender
 {
     private final String query;
     private final Channel channel;
-    private final ConnectorRecordIterator connectorRecordIterator;
+    private final QueryResult result;
     private final List<PGType> schema;
     private final List<Column> columns;
     private final int maxRows;
+    private final Optional<QueryTrace> queryTrace;
 
     @Nullable
     private final FormatCodes.FormatCode[] formatCodes;
 
     private long localRowCount;
+    private long localBytes;
     private long totalRowCount;
 
     public ResultSetSender(String query,
             Channel channel,
-            ConnectorRecordIterator connectorRecordIterator,
+            QueryResult result,
             int maxRows,
             long previousCount,
-            @Nullable FormatCodes.FormatCode[] formatCodes)
+            @Nullable FormatCodes.FormatCode[] formatCodes,
+            Optional<QueryTrace> queryTrace)
     {
         this.query = query;
         this.channel = channel;
-        this.connectorRecordIterator = connectorRecordIterator;
-        this.schema = connectorRecordIterator.getColumns().stream().map(Column::getType).collect(toImmutableList());
-        this.columns = connectorRecordIterator.getColumns();
+        this.result = result;
+        this.schema = result.getColumns().stream().map(Column::getType).collect(toImmutableList());
+        this.columns = result.getColumns();
         this.maxRows = maxRows;
         this.totalRowCount = previousCount;
         this.formatCodes = formatCodes;
+        this.queryTrace = requireNonNull(queryTrace, "queryTrace is null");
     }
 
     public List<Column> getColumns()
@@ -69,9 +75,15 @@ public class ResultSetSender
 
     @Override
     public void sendRow(Object[] row)
+    {
+        writeRow(ResponseMessages.encodeDataRow(channel.alloc(), row, schema, formatCodes));
+    }
+
+    private void writeRow(ByteBuf message)
     {
         localRowCount++;
-        ResponseMessages.sendDataRow(channel, row, schema, formatCodes);
+        localBytes += message.readableBytes();
+        channel.write(message);
         if (localRowCount % 1000 == 0) {
             channel.flush();
         }
@@ -112,22 +124,36 @@ public class ResultSetSender
      */
     public boolean sendResultSet()
     {
-        while (connectorRecordIterator.hasNext()) {
-            sendRow(connectorRecordIterator.next());
-            if (maxRows > 0 && connectorRecordIterator.hasNext() && localRowCount % maxRows == 0) {
-                batchFinished();
-                totalRowCount += localRowCount;
-                return false;
-            }
-        }
-        totalRowCount += localRowCount;
+        long start = System.nanoTime();
         try {
-            connectorRecordIterator.close();
-            allFinished(false);
-            return true;
+            while (result.hasNext()) {
+                ByteBuf message = result.nextDataRow(channel.alloc(), schema, formatCodes);
+                if (localRowCount == 0) {
+                    queryTrace.ifPresent(QueryTrace::firstRow);
+                }
+                writeRow(message);
+                if (maxRows > 0 && result.hasNext() && localRowCount % maxRows == 0) {
+                    batchFinished();
+                    totalRowCount += localRowCount;
+                    return false;
+                }
+            }
+            totalRowCount += localRowCount;
+            try {
+                result.close();
+                allFinished(false);
+                return true;
+            }
+            catch (Exception e) {
+                throw new WrenException(GENERIC_INTERNAL_ERROR, e);
+            }
         }
-        catch (Exception e) {
-            throw new WrenException(GENERIC_INTERNAL_ERROR, e);
+        finally {
+            queryTrace.ifPresent(trace -> {
+                trace.record(QueryPhase.ENCODING, start);
+                trace.addRows(localRowCount);
+                trace.addBytes(localBytes);
+            });
         }
     }
 }
@@ -16,22 +16,29 @@ package io.wren.main.wireprotocol;
 
 import com.google.common.collect.ImmutableList;
 import io.airlift.log.Logger;
+import io.airlift.units.Duration;
 import io.trino.sql.SqlFormatter;
 import io.trino.sql.parser.SqlParser;
 import io.trino.sql.tree.Deallocate;
+import io.trino.sql.tree.Query;
 import io.trino.sql.tree.Statement;
 import io.wren.base.AnalyzedMDL;
 import io.wren.base.Column;
 import io.wren.base.ConnectorRecordIterator;
 import io.wren.base.SessionContext;
 import io.wren.base.WrenException;
+import io.wren.base.WrenMDL;
+import io.wren.base.config.ConfigManager;
 import io.wren.base.config.WrenConfig;
+import io.wren.base.dto.Metric;
+import io.wren.base.dto.Model;
 import io.wren.base.sql.SqlConverter;
-import io.wren.base.sqlrewrite.CacheRewrite;
 import io.wren.base.sqlrewrite.WrenPlanner;
 import io.wren.base.wireprotocol.PgMetastore;
 import io.wren.cache.CacheManager;
 import io.wren.cache.CachedTableMapping;
+import io.wren.cache.CachedTablePin;
+import io.wren.cache.PinnedRecordIterator;
 import io.wren.main.WrenMetastore;
 import io.wren.main.metadata.Metadata;
 import io.wren.main.pgcatalog.regtype.RegObjectFactory;
@@ -52,6 +59,7 @@ import java.util.Properties;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
 
 import static com.google.common.collect.ImmutableList.toImmutableList;
@@ -64,6 +72,7 @@ import static io.wren.main.wireprotocol.PgQueryAnalyzer.isMetadataQuery;
 import static io.wren.main.wireprotocol.PostgresWireProtocolErrorCode.INVALID_PREPARED_STATEMENT_NAME;
 import static io.wren.main.wireprotocol.PreparedStatement.RESERVED_DRY_RUN_NAME;
 import static io.wren.main.wireprotocol.message.MessageUtils.isIgnoredCommand;
+import static io.wren.main.wireprotocol.patterns.PostgreSqlRewriteUtil.rewritePreparedChar;
 import static java.lang.String.format;
 import static java.util.Objects.isNull;
 import static java.util.Objects.requireNonNull;
@@ -86,34 +95,45 @@ public class WireProtocolSession
     private final Metadata metadata;
 
     private final SqlConverter sqlConverter;
-    private final WrenConfig wrenConfig;
+    private final ConfigManager configManager;
     private final WrenMetastore wrenMetastore;
     private final CacheManager cacheManager;
     private final CachedTableMapping cachedTableMapping;
     private final Authentication authentication;
     private final PgMetastore pgMetastore;
+    private final PlannedStatementStore plannedStatementStore;
+    private final QueryResultCache queryResultCache;
+    private final WireProtocolStats wireProtocolStats;
+    // the traces of the parsed data source queries, until their statement is bound
+    private final Map<String, QueryTrace> parsedQueries = new HashMap<>();
 
     public WireProtocolSession(
             RegObjectFactory regObjectFactory,
             Metadata metadata,
             SqlConverter sqlConverter,
-            WrenConfig wrenConfig,
+            ConfigManager configManager,
             WrenMetastore wrenMetastore,
             CacheManager cacheManager,
             CachedTableMapping cachedTableMapping,
             Authentication authentication,
-            PgMetastore pgMetastore)
+            PgMetastore pgMetastore,
+            PlannedStatementStore plannedStatementStore,
+            QueryResultCache queryResultCache,
+            WireProtocolStats wireProtocolStats)
     {
         this.sqlParser = new SqlParser();
         this.regObjectFactory = requireNonNull(regObjectFactory, "regObjectFactory is null");
         this.metadata = requireNonNull(metadata, "metadata is null");
         this.sqlConverter = sqlConverter;
-        this.wrenConfig = requireNonNull(wrenConfig, "wrenConfig is null");
+        this.configManager = requireNonNull(configManager, "configManager is null");
         this.wrenMetastore = requireNonNull(wrenMetastore, "wrenMetastore is null");
         this.cacheManager = requireNonNull(cacheManager, "cacheManager is null");
         this.cachedTableMapping = requireNonNull(cachedTableMapping, "cachedTableMapping is null");
         this.authentication = requireNonNull(authentication, "authentication is null");
         this.pgMetastore = requireNonNull(pgMetastore, "metastore is null");
+        this.plannedStatementStore = requireNonNull(plannedStatementStore, "plannedStatementStore is null");
+        this.queryResultCache = requireNonNull(queryResultCache, "queryResultCache is null");
+        this.wireProtocolStats = requireNonNull(wireProtocolStats, "wireProtocolStats is null");
     }
 
     public int getParamTypeOid(String statementName, int fieldPosition)
@@ -211,8 +231,8 @@ public class WireProtocolSession
     public Optional<List<Column>> describePortal(String name)
     {
         Portal portal = getPortal(name);
-        if (portal.isMetadataQuery() && portal.getConnectorRecordIterator() != null) {
-            return Optional.of(portal.getConnectorRecordIterator().getColumns());
+        if (portal.isMetadataQuery() && portal.getResult() != null) {
+            return Optional.of(portal.getResult().getColumns());
         }
 
         String oriStmt = portal.getPreparedStatement().getOriginalStatement();
@@ -220,13 +240,9 @@ public class WireProtocolSession
             return Optional.empty();
         }
 
-        String sql = sqlConverter.convert(
-                portal.getPreparedStatement().getStatement(),
-                SessionContext.builder()
-                        .setCatalog(getDefaultDatabase())
-                        .setSchema(getDefaultSchema())
-                        .setEnableDynamic(wrenConfig.getEnableDynamicFields())
-                        .build());
+        long start = System.nanoTime();
+        String sql = convert(portal.getPreparedStatement());
+        portal.getQueryTrace().ifPresent(trace -> trace.record(QueryPhase.SQL_CONVERT, start));
         return Optional.of(metadata.describeQuery(sql, portal.getParameters()));
     }
 
@@ -242,14 +258,28 @@ public class WireProtocolSession
      */
     public Optional<List<Column>> dryRunAfterDescribeStatement(String statementName, List<Object> params, @Nullable FormatCodes.FormatCode[] resultFormatCodes)
     {
-        parse(RESERVED_DRY_RUN_NAME, preparedStatements.get(statementName).getOriginalStatement(), preparedStatements.get(statementName).getParamTypeOids());
-        bind(RESERVED_DRY_RUN_NAME, RESERVED_DRY_RUN_NAME, params, resultFormatCodes);
-
-        Optional<List<Column>> result = describePortal(RESERVED_DRY_RUN_NAME);
-        preparedStatements.remove(RESERVED_DRY_RUN_NAME);
-        portals.remove(RESERVED_DRY_RUN_NAME);
-
-        return result;
+        // the dry run re-parses the statement, so its phases go to the trace the next bind of the statement continues
+        String name = preparedStatements.get(statementName).getName();
+        QueryTrace pending = parsedQueries.remove(name);
+        if (pending != null) {
+            parsedQueries.put(RESERVED_DRY_RUN_NAME, pending);
+        }
+        try {
+            parse(RESERVED_DRY_RUN_NAME, preparedStatements.get(statementName).getOriginalStatement(), preparedStatements.get(statementName).getParamTypeOids());
+            bind(RESERVED_DRY_RUN_NAME, RESERVED_DRY_RUN_NAME, params, resultFormatCodes);
+            return describePortal(RESERVED_DRY_RUN_NAME);
+        }
+        finally {
+            QueryTrace trace = Optional.ofNullable(portals.get(RESERVED_DRY_RUN_NAME))
+                    .flatMap(Portal::getQueryTrace)
+                    .orElseGet(() -> parsedQueries.remove(RESERVED_DRY_RUN_NAME));
+            if (trace != null) {
+                parsedQueries.put(name, trace);
+            }
+            parsedQueries.remove(RESERVED_DRY_RUN_NAME);
+            preparedStatements.remove(RESERVED_DRY_RUN_NAME);
+            portals.remove(RESERVED_DRY_RUN_NAME);
+        }
     }
 
     public void parse(String statementName, String statement, List<Integer> paramTypes)
@@ -282,7 +312,7 @@ public class WireProtocolSession
         SessionContext sessionContext = SessionContext.builder()
                 .setCatalog(getDefaultDatabase())
                 .setSchema(getDefaultSchema())
-                .setEnableDynamic(wrenConfig.getEnableDynamicFields())
+                .setEnableDynamic(configManager.getConfig(WrenConfig.class).getEnableDynamicFields())
                 .build();
         try {
             Statement metadataQueryStatement = MetastoreSqlRewrite.rewrite(regObjectFactory,
@@ -298,33 +328,101 @@ public class WireProtocolSession
     private void parseDataSourceQuery(String statementName, String statement, List<Integer> paramTypes)
     {
         String statementTrimmed = rewritePreparedChar(statement.split(";")[0].trim());
-        // To fit SQL syntax of Wren
-        String statementPreRewritten = PostgreSqlRewriteUtil.rewrite(statementTrimmed);
         SessionContext sessionContext = SessionContext.builder()
                 .setCatalog(getDefaultDatabase())
                 .setSchema(getDefaultSchema())
-                .setEnableDynamic(wrenConfig.getEnableDynamicFields())
+                .setEnableDynamic(configManager.getConfig(WrenConfig.class).getEnableDynamicFields())
                 .build();
         AnalyzedMDL analyzedMDL = wrenMetastore.getAnalyzedMDL();
+        // a re-parse of the same statement before its bind continues the trace of the previous parse
+        QueryTrace trace = Optional.ofNullable(parsedQueries.remove(statementName.isEmpty() ? PreparedStatement.RESERVED_PREPARE_NAME : statementName))
+                .filter(pending -> pending.getStatement().equals(statementTrimmed))
+                .orElseGet(() -> wireProtocolStats.newQueryTrace(this, statementTrimmed));
+        PlannedStatement plannedStatement;
+        try {
+            AtomicBoolean planned = new AtomicBoolean();
+            long start = System.nanoTime();
+            plannedStatement = plannedStatementStore.get(
+                    statementTrimmed,
+                    paramTypes,
+                    sessionContext,
+                    analyzedMDL,
+                    cachedTableMapping::convertToCachedTable,
+                    () -> {
+                        planned.set(true);
+                        return planDataSourceQuery(statementTrimmed, paramTypes, sessionContext, analyzedMDL, trace);
+                    });
+            if (planned.get()) {
+                trace.record(QueryPhase.PLANNING, start);
+            }
+            else {
+                trace.plannedStatementHit();
+            }
+        }
+        catch (RuntimeException e) {
+            trace.fail(e);
+            wireProtocolStats.queryFinished(trace);
+            throw e;
+        }
+        PreparedStatement preparedStatement = plannedStatement.toPreparedStatement(statementName, statementTrimmed);
+        preparedStatements.put(statementName, preparedStatement);
+        parsedQueries.put(preparedStatement.getName(), trace);
+        LOG.info("Create preparedStatement %s for query %s", statementName, trace.getQueryId());
+    }
+
+    private PlannedStatement planDataSourceQuery(String statementTrimmed, List<Integer> paramTypes, SessionContext sessionContext, AnalyzedMDL analyzedMDL, QueryTrace trace)
+    {
+        // To fit SQL syntax of Wren
+        long start = System.nanoTime();
+        String statementPreRewritten = PostgreSqlRewriteUtil.rewrite(statementTrimmed);
+        trace.record(QueryPhase.PATTERN_REWRITE, start);
+
+        start = System.nanoTime();
         String wrenRewritten = WrenPlanner.rewrite(
                 statementPreRewritten,
                 sessionContext,
                 analyzedMDL);
+        trace.record(QueryPhase.WREN_REWRITE, start);
         // TODO: support set session property
         // validateSetSessionProperty(statementPreRewritten);
+        start = System.nanoTime();
         Statement parsedStatement = parseSql(wrenRewritten);
+        trace.record(QueryPhase.PARSE, start);
+
+        start = System.nanoTime();
         Statement rewrittenStatement = PostgreSqlRewrite.rewrite(regObjectFactory, metadata.getDefaultCatalog(), metadata.getPgCatalogName(), parsedStatement);
         List<Integer> rewrittenParamTypes = rewriteParameters(rewrittenStatement, paramTypes);
-        preparedStatements.put(statementName,
-                new PreparedStatement(
-                        statementName,
-                        getFormattedSql(rewrittenStatement, sqlParser),
-                        CacheRewrite.rewrite(sessionContext, statementPreRewritten, cachedTableMapping::convertToCachedTable, analyzedMDL.getWrenMDL()),
-                        rewrittenParamTypes,
-                        statementTrimmed,
-                        isSessionCommand(rewrittenStatement),
-                        QueryLevel.DATASOURCE));
-        LOG.info("Create preparedStatement %s", statementName);
+        trace.record(QueryPhase.POSTGRES_REWRITE, start);
+
+        start = System.nanoTime();
+        String formattedSql = getFormattedSql(rewrittenStatement, sqlParser);
+        trace.record(QueryPhase.FORMAT, start);
+
+        start = System.nanoTime();
+        PlannedStatement.CachedStatement cachedStatement = PlannedStatement.CachedStatement.rewrite(sessionContext, statementPreRewritten, cachedTableMapping::convertToCachedTable, analyzedMDL.getWrenMDL());
+        trace.record(QueryPhase.CACHE_REWRITE, start);
+        return new PlannedStatement(
+                statementPreRewritten,
+                formattedSql,
+                rewrittenStatement,
+                cachedStatement,
+                rewrittenParamTypes,
+                getModels(parsedStatement, analyzedMDL.getWrenMDL()),
+                isSessionCommand(rewrittenStatement));
+    }
+
+    /**
+     * WrenSqlRewrite puts each model and metric the statement reads into a WITH query named after it.
+     */
+    private static List<String> getModels(Statement statement, WrenMDL wrenMDL)
+    {
+        if (!(statement instanceof Query query) || query.getWith().isEmpty()) {
+            return ImmutableList.of();
+        }
+        return query.getWith().get().getQueries().stream()
+                .map(withQuery -> withQuery.getName().getValue())
+                .filter(name -> wrenMDL.getModel(name).isPresent() || wrenMDL.getMetric(name).isPresent())
+                .collect(toImmutableList());
     }
 
     private void createMetadataQueryPreparedStatement(String statementName, String statement, String rewritten, List<Integer> paramTypes, QueryLevel level)
@@ -338,16 +436,6 @@ public class WireProtocolSession
         return SESSION_COMMAND.contains(statement.getClass());
     }
 
-    /**
-     * JDBC will transfer the prepared parameter sign `?` to `$[0-9]+`.
-     * e.g SELECT ? as c1, ? as c2  -> SELECT $1 as c1, $2 c2
-     * We need to transfer it back to `?` to match the syntax of presto.
-     */
-    private String rewritePreparedChar(String statement)
-    {
-        return statement.replaceAll("\\$[0-9]+", "?");
-    }
-
     public void bind(String portalName, String statementName, List<Object> params, @Nullable FormatCodes.FormatCode[] resultFormatCodes)
     {
         PreparedStatement preparedStatement = preparedStatements.get(statementName);
@@ -357,7 +445,7 @@ public class WireProtocolSession
                 // Execute Level 1 Query
                 LOG.debug("Bind Portal %s with parameters %s to Statement %s", portalName, params.stream().map(Object::toString).collect(Collectors.joining(",")), statementName);
                 ConnectorRecordIterator iter = pgMetastore.directQuery(portal.getPreparedStatement().getStatement(), portal.getParameters());
-                portal.setConnectorRecordIterator(iter);
+                portal.setResult(QueryResult.of(iter));
                 portals.put(portalName, portal);
                 return;
             }
@@ -376,7 +464,7 @@ public class WireProtocolSession
             try {
                 Portal portal = new Portal(portalName, preparedStatement, params, resultFormatCodes);
                 ConnectorRecordIterator iter = pgMetastore.directQuery(portal.getPreparedStatement().getStatement(), portal.getParameters());
-                portal.setConnectorRecordIterator(iter);
+                portal.setResult(QueryResult.of(iter));
                 portals.put(portalName, portal);
                 return;
             }
@@ -390,45 +478,153 @@ public class WireProtocolSession
         }
 
         // Bind Level 3 Query
-        portals.put(portalName, new Portal(portalName, preparedStatements.get(statementName), params, resultFormatCodes));
+        preparedStatement = preparedStatements.get(statementName);
+        Portal portal = new Portal(portalName, preparedStatement, params, resultFormatCodes);
+        if (!preparedStatement.getStatement().isEmpty()) {
+            // the first bind of a statement continues the trace of its parse, the later ones are new queries
+            QueryTrace trace = parsedQueries.remove(preparedStatement.getName());
+            if (trace == null) {
+                trace = wireProtocolStats.newQueryTrace(this, preparedStatement.getOriginalStatement());
+            }
+            trace.setModels(preparedStatement.getModels());
+            portal.setQueryTrace(trace);
+        }
+        portals.put(portalName, portal);
         String paramString = params.stream()
                 .map(element -> (isNull(element)) ? "null" : element.toString())
                 .collect(Collectors.joining(","));
         LOG.info("Bind Portal %s with parameters %s to Statement %s", portalName, paramString, statementName);
     }
 
-    public CompletableFuture<Optional<ConnectorRecordIterator>> execute(String portalName)
+    public CompletableFuture<Optional<QueryResult>> execute(String portalName)
     {
         return execute(portals.get(portalName));
     }
 
-    private CompletableFuture<Optional<ConnectorRecordIterator>> execute(Portal portal)
+    public CompletableFuture<Optional<QueryResult>> execute(Portal portal)
     {
         if (portal.isMetadataQuery()) {
-            return CompletableFuture.completedFuture(Optional.of(portal.getConnectorRecordIterator()));
+            return CompletableFuture.completedFuture(Optional.of(portal.getResult()));
         }
 
         String execStmt = portal.getPreparedStatement().getStatement();
-        return CompletableFuture.supplyAsync(() -> executeCache(portal).or(() -> {
-            String sql = sqlConverter.convert(execStmt,
-                    SessionContext.builder()
-                            .setCatalog(getDefaultDatabase())
-                            .setSchema(getDefaultSchema())
-                            .setEnableDynamic(wrenConfig.getEnableDynamicFields())
-                            .build());
-            return Optional.of(metadata.directQuery(sql, portal.getParameters()));
-        }));
+        Optional<QueryTrace> trace = portal.getQueryTrace();
+        if (!queryResultCache.isEnabled()) {
+            return CompletableFuture.supplyAsync(() -> {
+                trace.ifPresent(QueryTrace::startExecution);
+                return Optional.of(QueryResult.of(executeQuery(portal, trace)));
+            });
+        }
+
+        trace.ifPresent(QueryTrace::startExecution);
+        long lookupStart = System.nanoTime();
+        return queryResultCache.execute(
+                        getResultKey(portal, execStmt),
+                        getResultTtl(portal.getPreparedStatement()),
+                        () -> executeQuery(portal, trace))
+                .thenApply(result -> {
+                    if (result.isResultCacheHit()) {
+                        trace.ifPresent(value -> {
+                            value.setResultCacheHit(true);
+                            value.record(QueryPhase.EXECUTION, lookupStart);
+                        });
+                    }
+                    return Optional.of(result);
+                });
     }
 
+    private ConnectorRecordIterator executeQuery(Portal portal, Optional<QueryTrace> trace)
+    {
+        long cacheStart = System.nanoTime();
+        Optional<ConnectorRecordIterator> cached = executeCache(portal);
+        if (cached.isPresent()) {
+            trace.ifPresent(value -> {
+                value.setCacheHit(true);
+                value.record(QueryPhase.EXECUTION, cacheStart);
+            });
+            return cached.get();
+        }
+
+        long convertStart = System.nanoTime();
+        String sql = convert(portal.getPreparedStatement());
+        trace.ifPresent(value -> value.record(QueryPhase.SQL_CONVERT, convertStart));
+
+        long executionStart = System.nanoTime();
+        ConnectorRecordIterator iterator = metadata.directQuery(sql, portal.getParameters());
+        trace.ifPresent(value -> value.record(QueryPhase.EXECUTION, executionStart));
+        return iterator;
+    }
+
+    /**
+     * Convert the statement to the dialect of the data source, from its planned AST if there is one.
+     */
+    private String convert(PreparedStatement preparedStatement)
+    {
+        SessionContext sessionContext = SessionContext.builder()
+                .setCatalog(getDefaultDatabase())
+                .setSchema(getDefaultSchema())
+                .setEnableDynamic(configManager.getConfig(WrenConfig.class).getEnableDynamicFields())
+                .build();
+        return preparedStatement.getParsedStatement()
+                .map(statement -> sqlConverter.convert(statement, sessionContext))
+                .orElseGet(() -> sqlConverter.convert(preparedStatement.getStatement(), sessionContext));
+    }
+
+    /**
+     * The statement is taken before the dialect conversion, so a hit doesn't pay for it.
+     * The conversion only depends on the statement, the session and the data source, and a config change drops the whole cache.
+     * The deploy generation tells the MDLs apart even if they are deployed with the same version or without one.
+     */
+    private QueryResultCache.Key getResultKey(Portal portal, String execStmt)
+    {
+        PreparedStatement preparedStatement = portal.getPreparedStatement();
+        return new QueryResultCache.Key(
+                wrenMetastore.getGeneration(),
+                preparedStatement.getCacheStatement().orElse(execStmt),
+                portal.getParameters(),
+                Optional.ofNullable(getDefaultDatabase()),
+                Optional.ofNullable(getDefaultSchema()),
+                configManager.getConfig(WrenConfig.class).getEnableDynamicFields(),
+                QueryResultCache.Key.formatCodes(portal.getResultFormatCodes()));
+    }
+
+    /**
+     * A result isn't reused longer than the refresh time of the models and metrics it reads.
+     */
+    private Duration getResultTtl(PreparedStatement preparedStatement)
+    {
+        WrenMDL wrenMDL = wrenMetastore.getAnalyzedMDL().getWrenMDL();
+        Duration ttl = queryResultCache.getTtl();
+        for (String name : preparedStatement.getModels()) {
+            Optional<Duration> refreshTime = wrenMDL.getModel(name).map(Model::getRefreshTime)
+                    .or(() -> wrenMDL.getMetric(name).map(Metric::getRefreshTime));
+            if (refreshTime.isPresent() && refreshTime.get().compareTo(ttl) < 0) {
+                ttl = refreshTime.get();
+            }
+        }
+        return ttl;
+    }
+
+    /**
+     * The cached tables are pinned until the result is closed, so a refresh can't drop them in the middle of it.
+     * If a refresh dropped them after the statement was planned, the query goes to the data source instead.
+     */
     private Optional<ConnectorRecordIterator> executeCache(Portal portal)
     {
-        return portal.getPreparedStatement().getCacheStatement().map(statement -> {
+        PreparedStatement preparedStatement = portal.getPreparedStatement();
+        return preparedStatement.getCacheStatement().flatMap(statement -> {
+            Optional<CachedTablePin> pin = cachedTableMapping.pinTables(preparedStatement.getCachedTables());
+            if (pin.isEmpty()) {
+                LOG.debug("Cached tables have been dropped since the cache query was planned: %s", statement);
+                return Optional.empty();
+            }
             try {
-                return cacheManager.query(statement, portal.getParameters());
+                return Optional.of(new PinnedRecordIterator(cacheManager.query(statement, portal.getParameters()), pin.get()));
             }
             catch (Exception e) {
+                pin.get().close();
                 LOG.warn(e, "Failed to execute cache query: %s", statement);
-                return null;
+                return Optional.empty();
             }
         });
     }
@@ -446,6 +642,43 @@ public class WireProtocolSession
         }
     }
 
+    /**
+     * Release the portal after a pipelined execute has sent its rows. A later bind in the same pipeline
+     * might have replaced the portal, so it's only removed by name if it's still the bound one.
+     */
+    public void finishExecution(Portal portal, boolean completed)
+    {
+        if (!portal.finishExecution()) {
+            return;
+        }
+        if (completed) {
+            queryFinished(portal);
+        }
+        if (portals.get(portal.getName()) != portal) {
+            portal.close();
+        }
+        else if (completed) {
+            portals.remove(portal.getName());
+            LOG.info("Close portal %s", portal.getName());
+        }
+    }
+
+    /**
+     * Report the trace of the portal's query once all its rows are sent.
+     */
+    public void queryFinished(Portal portal)
+    {
+        portal.getQueryTrace().ifPresent(wireProtocolStats::queryFinished);
+    }
+
+    public void queryFailed(Portal portal, Throwable failure)
+    {
+        portal.getQueryTrace().ifPresent(trace -> {
+            trace.fail(failure);
+            wireProtocolStats.queryFinished(trace);
+        });
+    }
+
     public CompletableFuture<Optional<GenericTableRecordIterable>> sync()
     {
         CompletableFuture<Optional<GenericTableRecordIterable>> ended = runningQuery;
@@ -466,6 +699,7 @@ public class WireProtocolSession
             case STATEMENT:
                 Optional.ofNullable(preparedStatements.get(name)).ifPresent(preparedStatement -> {
                     preparedStatements.remove(name);
+                    parsedQueries.remove(preparedStatement.getName());
                     List<String> removedNames = portals.entrySet().stream()
                             .filter(entry -> entry.getValue().getPreparedStatement().getName().equals(preparedStatement.getName()))
                             .map(Map.Entry::getKey).collect(toImmutableList());
@@ -0,0 +1,138 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.wren.main.wireprotocol;
+
+import com.google.inject.Inject;
+import io.airlift.log.Logger;
+import io.airlift.stats.CounterStat;
+import io.airlift.stats.TimeStat;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.lang.String.format;
+import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Server-wide latency of each {@link QueryPhase} and the counters of the wire protocol queries.
+ * The stats are exported through the {@code /v1/metrics} endpoint, and each finished query is added to the {@link QueryHistory}.
+ */
+public class WireProtocolStats
+{
+    private static final Logger LOG = Logger.get(WireProtocolStats.class);
+    private static final DateTimeFormatter QUERY_ID_PREFIX_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss");
+
+    private final String queryIdPrefix = LocalDateTime.now().format(QUERY_ID_PREFIX_FORMAT);
+    private final AtomicLong querySequence = new AtomicLong();
+
+    private final Map<QueryPhase, TimeStat> phases = new EnumMap<>(QueryPhase.class);
+    private final TimeStat queryTime = new TimeStat(MILLISECONDS);
+    private final CounterStat completedQueries = new CounterStat();
+    private final CounterStat failedQueries = new CounterStat();
+    private final CounterStat plannedStatementHits = new CounterStat();
+    private final CounterStat cacheHits = new CounterStat();
+    private final CounterStat resultCacheHits = new CounterStat();
+    private final CounterStat outputRows = new CounterStat();
+    private final QueryHistory queryHistory;
+
+    @Inject
+    public WireProtocolStats(QueryHistory queryHistory)
+    {
+        this.queryHistory = requireNonNull(queryHistory, "queryHistory is null");
+        for (QueryPhase phase : QueryPhase.values()) {
+            phases.put(phase, new TimeStat(MILLISECONDS));
+        }
+    }
+
+    public QueryTrace newQueryTrace(WireProtocolSession session, String statement)
+    {
+        return new QueryTrace(format("%s_%05d", queryIdPrefix, querySequence.incrementAndGet()), session.getClientUser(), statement);
+    }
+
+    public void queryFinished(QueryTrace trace)
+    {
+        if (!trace.finish()) {
+            return;
+        }
+        for (Map.Entry<QueryPhase, TimeStat> phase : phases.entrySet()) {
+            if (trace.isRecorded(phase.getKey())) {
+                phase.getValue().addNanos(trace.getPhaseNanos(phase.getKey()));
+            }
+        }
+        queryTime.addNanos(trace.getElapsedNanos());
+        if (trace.getFailure().isPresent()) {
+            failedQueries.update(1);
+        }
+        else {
+            completedQueries.update(1);
+        }
+        if (trace.isPlannedStatementHit()) {
+            plannedStatementHits.update(1);
+        }
+        if (trace.isCacheHit()) {
+            cacheHits.update(1);
+        }
+        if (trace.isResultCacheHit()) {
+            resultCacheHits.update(1);
+        }
+        outputRows.update(trace.getRows());
+        queryHistory.add(QueryRecord.from(trace));
+        LOG.debug("Query finished: %s", trace);
+    }
+
+    public TimeStat getPhaseTime(QueryPhase phase)
+    {
+        return phases.get(phase);
+    }
+
+    public TimeStat getQueryTime()
+    {
+        return queryTime;
+    }
+
+    public CounterStat getCompletedQueries()
+    {
+        return completedQueries;
+    }
+
+    public CounterStat getFailedQueries()
+    {
+        return failedQueries;
+    }
+
+    public CounterStat getPlannedStatementHits()
+    {
+        return plannedStatementHits;
+    }
+
+    public CounterStat getCacheHits()
+    {
+        return cacheHits;
+    }
+
+    public CounterStat getResultCacheHits()
+    {
+        return resultCacheHits;
+    }
+
+    public CounterStat getOutputRows()
+    {
+        return outputRows;
+    }
+}
@@ -25,6 +25,7 @@ import io.wren.main.wireprotocol.WireProtocolSession;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import static io.netty.buffer.Unpooled.wrappedBuffer;
 import static io.wren.base.metadata.StandardErrorCode.GENERIC_INTERNAL_ERROR;
@@ -33,7 +34,7 @@ import static io.wren.main.wireprotocol.Utils.readCString;
 import static java.lang.String.format;
 
 public class Bind
-        implements Plan
+        implements PipelinedPlan
 {
     /**
      * Bind Message
@@ -110,19 +111,17 @@ public class Bind
     }
 
     @Override
-    public Runnable execute(Channel channel, WireProtocolSession session)
+    public CompletableFuture<Runnable> start(Channel channel, WireProtocolSession session)
     {
-        return () -> {
-            try {
-                List<Object> params = readParameters(session);
-                session.bind(portalName, statementName, params, resultFormats);
-                ResponseMessages.sendBindComplete(channel);
-            }
-            catch (WrenException e) {
-                LOG.error(e, "Bind failed. Portal: %s, Statement: %s", portalName, statementName);
-                ResponseMessages.sendErrorResponse(channel, e);
-            }
-        };
+        try {
+            List<Object> params = readParameters(session);
+            session.bind(portalName, statementName, params, resultFormats);
+            return CompletableFuture.completedFuture(() -> ResponseMessages.sendBindComplete(channel));
+        }
+        catch (WrenException e) {
+            LOG.error(e, "Bind failed. Portal: %s, Statement: %s", portalName, statementName);
+            return CompletableFuture.completedFuture(() -> ResponseMessages.sendErrorResponse(channel, e));
+        }
     }
 
     private List<Object> readParameters(WireProtocolSession session)
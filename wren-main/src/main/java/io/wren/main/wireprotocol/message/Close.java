@@ -80,13 +80,15 @@ public class Close
     @Override
     public void commit(CompletableFuture<?> planned, Channel channel, WireProtocolSession session)
     {
-        LOG.info("Close type: %s, name: %s", type, portalOrStatementName);
-        try {
-            session.close(type, portalOrStatementName);
-        }
-        catch (Exception e) {
-            LOG.error(format("Close failed. Caused by %s", e.getMessage()));
-        }
-        ResponseMessages.sendCloseComplete(channel);
+        planned.thenRun(() -> {
+            LOG.info("Close type: %s, name: %s", type, portalOrStatementName);
+            try {
+                session.close(type, portalOrStatementName);
+            }
+            catch (Exception e) {
+                LOG.error(format("Close failed. Caused by %s", e.getMessage()));
+            }
+            ResponseMessages.sendCloseComplete(channel);
+        });
     }
 }
@@ -17,20 +17,20 @@ package io.wren.main.wireprotocol.message;
 import io.airlift.log.Logger;
 import io.netty.buffer.ByteBuf;
 import io.netty.channel.Channel;
-import io.wren.base.ConnectorRecordIterator;
-import io.wren.main.wireprotocol.FormatCodes;
 import io.wren.main.wireprotocol.Portal;
+import io.wren.main.wireprotocol.QueryResult;
 import io.wren.main.wireprotocol.ResultSetSender;
 import io.wren.main.wireprotocol.WireProtocolSession;
 
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 import static io.wren.main.wireprotocol.Utils.readCString;
 import static io.wren.main.wireprotocol.message.MessageUtils.isIgnoredCommand;
 import static io.wren.main.wireprotocol.message.MessageUtils.sendHardWiredSessionProperty;
 
 public class Execute
-        implements Plan
+        implements PipelinedPlan
 {
     /**
      * Execute Message
@@ -74,52 +74,75 @@ public class Execute
     }
 
     @Override
-    public Runnable execute(Channel channel, WireProtocolSession session)
+    public CompletableFuture<Runnable> start(Channel channel, WireProtocolSession session)
     {
-        return () -> {
-            try {
-                Portal portal = session.getPortal(portalName);
-                String statement = portal.getPreparedStatement().getOriginalStatement();
-                if (statement.isEmpty()) {
-                    ResponseMessages.sendEmptyQueryResponse(channel);
-                    return;
-                }
-                if (isIgnoredCommand(statement)) {
+        try {
+            Portal portal = session.getPortal(portalName);
+            String statement = portal.getPreparedStatement().getOriginalStatement();
+            if (statement.isEmpty()) {
+                return CompletableFuture.completedFuture(() -> ResponseMessages.sendEmptyQueryResponse(channel));
+            }
+            if (isIgnoredCommand(statement)) {
+                return CompletableFuture.completedFuture(() -> {
                     sendHardWiredSessionProperty(channel, statement);
                     ResponseMessages.sendCommandComplete(channel, statement, 0);
-                    return;
-                }
-
-                if (!portal.isSuspended()) {
-                    Optional<ConnectorRecordIterator> connectorRecordIterable = session.execute(portalName).join();
-                    if (connectorRecordIterable.isEmpty()) {
-                        sendHardWiredSessionProperty(channel, statement);
-                        ResponseMessages.sendCommandComplete(channel, statement, 0);
-                        return;
-                    }
-                    portal.setConnectorRecordIterator(connectorRecordIterable.get());
-                }
+                });
+            }
+            return portal.startExecution(session::execute)
+                    .handle((result, failure) -> () -> sendResultSet(channel, session, portal, statement, result, failure));
+        }
+        catch (Exception e) {
+            LOG.error(e, "Error executing query: %s", portalName);
+            return CompletableFuture.completedFuture(() -> ResponseMessages.sendErrorResponse(channel, e));
+        }
+    }
 
-                ConnectorRecordIterator connectorRecordIterable = portal.getConnectorRecordIterator();
-                FormatCodes.FormatCode[] resultFormatCodes = session.getResultFormatCodes(portalName);
-                ResultSetSender resultSetSender = new ResultSetSender(
-                        statement,
-                        channel,
-                        connectorRecordIterable,
-                        maxRows,
-                        portal.getRowCount(),
-                        resultFormatCodes);
-                if (resultSetSender.sendResultSet()) {
-                    session.close(Close.CloseType.PORTAL, portalName);
-                }
-                else {
-                    portal.setRowCount(resultSetSender.getTotalRowCount());
-                }
+    private void sendResultSet(
+            Channel channel,
+            WireProtocolSession session,
+            Portal portal,
+            String statement,
+            Optional<QueryResult> result,
+            Throwable failure)
+    {
+        boolean completed = false;
+        try {
+            if (failure != null) {
+                LOG.error(failure, "Error executing query: %s", portalName);
+                session.queryFailed(portal, failure);
+                ResponseMessages.sendErrorResponse(channel, failure);
+                return;
+            }
+            if (result.isEmpty()) {
+                sendHardWiredSessionProperty(channel, statement);
+                ResponseMessages.sendCommandComplete(channel, statement, 0);
+                session.queryFinished(portal);
+                return;
             }
-            catch (Exception e) {
-                LOG.error(e, "Error executing query: %s", portalName);
-                ResponseMessages.sendErrorResponse(channel, e);
+            if (!portal.isSuspended()) {
+                portal.setResult(result.get());
+            }
+
+            ResultSetSender resultSetSender = new ResultSetSender(
+                    statement,
+                    channel,
+                    portal.getResult(),
+                    maxRows,
+                    portal.getRowCount(),
+                    portal.getResultFormatCodes(),
+                    portal.getQueryTrace());
+            completed = resultSetSender.sendResultSet();
+            if (!completed) {
+                portal.setRowCount(resultSetSender.getTotalRowCount());
             }
-        };
+        }
+        catch (Exception e) {
+            LOG.error(e, "Error executing query: %s", portalName);
+            session.queryFailed(portal, e);
+            ResponseMessages.sendErrorResponse(channel, e);
+        }
+        finally {
+            session.finishExecution(portal, completed);
+        }
     }
 }
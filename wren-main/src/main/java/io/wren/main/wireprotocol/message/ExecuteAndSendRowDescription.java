@@ -16,23 +16,24 @@ package io.wren.main.wireprotocol.message;
 
 import io.airlift.log.Logger;
 import io.netty.channel.Channel;
-import io.wren.base.ConnectorRecordIterator;
-import io.wren.main.wireprotocol.FormatCodes;
 import io.wren.main.wireprotocol.Portal;
+import io.wren.main.wireprotocol.QueryResult;
 import io.wren.main.wireprotocol.ResultSetSender;
 import io.wren.main.wireprotocol.WireProtocolSession;
 
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 import static io.wren.main.wireprotocol.message.MessageUtils.isIgnoredCommand;
 import static io.wren.main.wireprotocol.message.MessageUtils.sendHardWiredSessionProperty;
 
 public class ExecuteAndSendRowDescription
-        implements Plan
+        implements PipelinedPlan
 {
     private static final Logger LOG = Logger.get(ExecuteAndSendRowDescription.class.getName());
     private final String portalName;
     private final int maxRows;
+    private Portal portal;
     private ResultSetSender resultSetSender;
 
     public ExecuteAndSendRowDescription(Execute parent)
@@ -51,51 +52,87 @@ public class ExecuteAndSendRowDescription
         return portalName;
     }
 
+    public Portal getPortal()
+    {
+        return portal;
+    }
+
     @Override
-    public Runnable execute(Channel channel, WireProtocolSession session)
+    public CompletableFuture<Runnable> start(Channel channel, WireProtocolSession session)
     {
-        return () -> {
-            try {
-                Portal portal = session.getPortal(portalName);
-                String statement = portal.getPreparedStatement().getOriginalStatement();
-                if (statement.isEmpty()) {
+        try {
+            Portal portal = session.getPortal(portalName);
+            String statement = portal.getPreparedStatement().getOriginalStatement();
+            if (statement.isEmpty()) {
+                return CompletableFuture.completedFuture(() -> {
                     ResponseMessages.sendNoData(channel);
                     ResponseMessages.sendEmptyQueryResponse(channel);
-                    return;
-                }
-                if (isIgnoredCommand(statement)) {
+                });
+            }
+            if (isIgnoredCommand(statement)) {
+                return CompletableFuture.completedFuture(() -> {
                     ResponseMessages.sendNoData(channel);
                     sendHardWiredSessionProperty(channel, statement);
                     ResponseMessages.sendCommandComplete(channel, statement, 0);
-                    return;
-                }
-
-                if (!portal.isSuspended()) {
-                    Optional<ConnectorRecordIterator> connectorRecordIterable = session.execute(portalName).join();
-                    if (connectorRecordIterable.isEmpty()) {
-                        ResponseMessages.sendNoData(channel);
-                        sendHardWiredSessionProperty(channel, statement);
-                        ResponseMessages.sendCommandComplete(channel, statement, 0);
-                        return;
-                    }
-                    portal.setConnectorRecordIterator(connectorRecordIterable.get());
-                }
+                });
+            }
+            return portal.startExecution(session::execute)
+                    .handle((result, failure) -> () -> sendRowDescription(channel, session, portal, statement, result, failure));
+        }
+        catch (Exception e) {
+            LOG.error(e, "Describe portal and execute failed. Caused by %s", e.getMessage());
+            return CompletableFuture.completedFuture(() -> ResponseMessages.sendErrorResponse(channel, e));
+        }
+    }
 
-                ConnectorRecordIterator connectorRecordIterable = portal.getConnectorRecordIterator();
-                FormatCodes.FormatCode[] resultFormatCodes = session.getResultFormatCodes(portalName);
-                resultSetSender = new ResultSetSender(
-                        statement,
-                        channel,
-                        connectorRecordIterable,
-                        maxRows,
-                        portal.getRowCount(),
-                        resultFormatCodes);
-                ResponseMessages.sendRowDescription(channel, resultSetSender.getColumns(), resultFormatCodes);
+    private void sendRowDescription(
+            Channel channel,
+            WireProtocolSession session,
+            Portal portal,
+            String statement,
+            Optional<QueryResult> result,
+            Throwable failure)
+    {
+        try {
+            if (failure != null) {
+                LOG.error(failure, "Describe portal and execute failed. Caused by %s", failure.getMessage());
+                session.queryFailed(portal, failure);
+                ResponseMessages.sendErrorResponse(channel, failure);
+                return;
+            }
+            if (result.isEmpty()) {
+                ResponseMessages.sendNoData(channel);
+                sendHardWiredSessionProperty(channel, statement);
+                ResponseMessages.sendCommandComplete(channel, statement, 0);
+                session.queryFinished(portal);
+                return;
             }
-            catch (Exception e) {
-                LOG.error(e, "Describe portal and execute failed. Caused by %s", e.getMessage());
-                ResponseMessages.sendErrorResponse(channel, e);
+            if (!portal.isSuspended()) {
+                portal.setResult(result.get());
+            }
+
+            ResultSetSender sender = new ResultSetSender(
+                    statement,
+                    channel,
+                    portal.getResult(),
+                    maxRows,
+                    portal.getRowCount(),
+                    portal.getResultFormatCodes(),
+                    portal.getQueryTrace());
+            ResponseMessages.sendRowDescription(channel, sender.getColumns(), portal.getResultFormatCodes());
+            this.portal = portal;
+            this.resultSetSender = sender;
+        }
+        catch (Exception e) {
+            LOG.error(e, "Describe portal and execute failed. Caused by %s", e.getMessage());
+            session.queryFailed(portal, e);
+            ResponseMessages.sendErrorResponse(channel, e);
+        }
+        finally {
+            // otherwise SendResult releases the portal after sending the rows
+            if (resultSetSender == null) {
+                session.finishExecution(portal, false);
             }
-        };
+        }
     }
 }
@@ -37,12 +37,14 @@ public class Flush
     @Override
     public void commit(CompletableFuture<?> planned, Channel channel, WireProtocolSession session)
     {
-        try {
-            channel.flush();
-        }
-        catch (Throwable t) {
-            LOG.error(format("Flush failed. Caused by %s", t.getMessage()));
-            ResponseMessages.sendErrorResponse(channel, t);
-        }
+        planned.thenRun(() -> {
+            try {
+                channel.flush();
+            }
+            catch (Throwable t) {
+                LOG.error(format("Flush failed. Caused by %s", t.getMessage()));
+                ResponseMessages.sendErrorResponse(channel, t);
+            }
+        });
     }
 }
@@ -22,12 +22,13 @@ import io.wren.main.wireprotocol.WireProtocolSession;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static io.wren.main.wireprotocol.Utils.readCString;
 
 public class Parse
-        implements Plan
+        implements PipelinedPlan
 {
     /**
      * Parse Message
@@ -74,23 +75,21 @@ public class Parse
     }
 
     @Override
-    public Runnable execute(Channel channel, WireProtocolSession session)
+    public CompletableFuture<Runnable> start(Channel channel, WireProtocolSession session)
     {
-        return () -> {
-            try {
-                List<Integer> paramTypes = new ArrayList<>(parameterCount);
-                for (int i = 0; i < parameterCount; i++) {
-                    int oid = parameterTypes[i];
-                    paramTypes.add(PGTypes.oidToPgType(oid).oid());
-                }
-                LOG.debug("Create prepared statement %s query: %s", statementName, query);
-                session.parse(statementName, query, paramTypes);
-                ResponseMessages.sendParseComplete(channel);
+        try {
+            List<Integer> paramTypes = new ArrayList<>(parameterCount);
+            for (int i = 0; i < parameterCount; i++) {
+                int oid = parameterTypes[i];
+                paramTypes.add(PGTypes.oidToPgType(oid).oid());
             }
-            catch (Exception e) {
-                LOG.error(e, "Error parsing query: %s", query);
-                ResponseMessages.sendErrorResponse(channel, e);
-            }
-        };
+            LOG.debug("Create prepared statement %s query: %s", statementName, query);
+            session.parse(statementName, query, paramTypes);
+            return CompletableFuture.completedFuture(() -> ResponseMessages.sendParseComplete(channel));
+        }
+        catch (Exception e) {
+            LOG.error(e, "Error parsing query: %s", query);
+            return CompletableFuture.completedFuture(() -> ResponseMessages.sendErrorResponse(channel, e));
+        }
     }
 }
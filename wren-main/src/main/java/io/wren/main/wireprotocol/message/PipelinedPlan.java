@@ -0,0 +1,42 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.wren.main.wireprotocol.message;
+
+import io.netty.channel.Channel;
+import io.wren.main.wireprotocol.WireProtocolSession;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A plan which doesn't need to wait for the responses of the previous plans to start its work.
+ * Its session changes still happen in protocol order, but the work it waits for (e.g. the data source query of an execute)
+ * overlaps with the plans around it. Only the response is written after the responses of the previous plans.
+ */
+public interface PipelinedPlan
+        extends Plan
+{
+    /**
+     * Start this plan. It's called once all the previous plans have started.
+     *
+     * @return the future of the step writing the response of this plan
+     */
+    CompletableFuture<Runnable> start(Channel channel, WireProtocolSession session);
+
+    @Override
+    default Runnable execute(Channel channel, WireProtocolSession session)
+    {
+        return () -> start(channel, session).join().run();
+    }
+}
@@ -16,6 +16,7 @@ package io.wren.main.wireprotocol.message;
 
 import io.airlift.log.Logger;
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelFutureListener;
@@ -267,13 +268,15 @@ public class ResponseMessages
      * <p>
      * ByteN
      * The value of the column, in the format indicated by the associated format code. n is the above length.
+     * <p>
+     * The whole message is returned, the message type byte included.
      */
     @SuppressWarnings({"unchecked", "rawtypes"})
-    public static void sendDataRow(Channel channel, Object[] row, List<PGType> schema, @Nullable FormatCodes.FormatCode[] formatCodes)
+    public static ByteBuf encodeDataRow(ByteBufAllocator allocator, Object[] row, List<PGType> schema, @Nullable FormatCodes.FormatCode[] formatCodes)
     {
         int length = 4 + 2;
 
-        ByteBuf buffer = channel.alloc().buffer();
+        ByteBuf buffer = allocator.buffer();
         buffer.writeByte('D');
         buffer.writeInt(0); // will be set at the end
         buffer.writeShort(row.length);
@@ -305,7 +308,7 @@ public class ResponseMessages
         }
 
         buffer.setInt(1, length);
-        channel.write(buffer);
+        return buffer;
     }
 
     static void writeCString(ByteBuf buffer, byte[] valBytes)
@@ -16,13 +16,15 @@ package io.wren.main.wireprotocol.message;
 
 import io.airlift.log.Logger;
 import io.netty.channel.Channel;
+import io.wren.main.wireprotocol.Portal;
 import io.wren.main.wireprotocol.ResultSetSender;
 import io.wren.main.wireprotocol.WireProtocolSession;
 
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 public class SendResult
-        implements Plan
+        implements PipelinedPlan
 {
     private static final Logger LOG = Logger.get(SendResult.class.getName());
     private final ExecuteAndSendRowDescription parent;
@@ -33,24 +35,32 @@ public class SendResult
     }
 
     @Override
-    public Runnable execute(Channel channel, WireProtocolSession session)
+    public CompletableFuture<Runnable> start(Channel channel, WireProtocolSession session)
     {
-        return () -> {
-            try {
-                Optional<ResultSetSender> sender = parent.getResultSetSender();
-                if (sender.isPresent()) {
-                    if (sender.get().sendResultSet()) {
-                        session.close(Close.CloseType.PORTAL, parent.getPortalName());
-                    }
-                    else {
-                        session.getPortal(parent.getPortalName()).setRowCount(sender.get().getTotalRowCount());
-                    }
-                }
-            }
-            catch (Exception e) {
-                LOG.error(e, "Error sending result set");
-                ResponseMessages.sendErrorResponse(channel, e);
+        return CompletableFuture.completedFuture(() -> sendResultSet(channel, session));
+    }
+
+    private void sendResultSet(Channel channel, WireProtocolSession session)
+    {
+        Optional<ResultSetSender> sender = parent.getResultSetSender();
+        if (sender.isEmpty()) {
+            return;
+        }
+        Portal portal = parent.getPortal();
+        boolean completed = false;
+        try {
+            completed = sender.get().sendResultSet();
+            if (!completed) {
+                portal.setRowCount(sender.get().getTotalRowCount());
             }
-        };
+        }
+        catch (Exception e) {
+            LOG.error(e, "Error sending result set");
+            session.queryFailed(portal, e);
+            ResponseMessages.sendErrorResponse(channel, e);
+        }
+        finally {
+            session.finishExecution(portal, completed);
+        }
     }
 }
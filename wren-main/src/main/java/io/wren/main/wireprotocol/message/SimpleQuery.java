@@ -18,7 +18,8 @@ import com.google.common.collect.ImmutableList;
 import io.airlift.log.Logger;
 import io.netty.buffer.ByteBuf;
 import io.netty.channel.Channel;
-import io.wren.base.ConnectorRecordIterator;
+import io.wren.main.wireprotocol.Portal;
+import io.wren.main.wireprotocol.QueryResult;
 import io.wren.main.wireprotocol.ResultSetSender;
 import io.wren.main.wireprotocol.TransactionState;
 import io.wren.main.wireprotocol.WireProtocolSession;
@@ -79,32 +80,53 @@ public class SimpleQuery
             ResponseMessages.sendCommandComplete(channel, statement, 0);
             return CompletableFuture.completedFuture(null);
         }
+        Portal portal = null;
+        Optional<QueryResult> result = Optional.empty();
         try {
             wireProtocolSession.parse("", statement, ImmutableList.of());
             wireProtocolSession.bind("", "", ImmutableList.of(), null);
-            Optional<ConnectorRecordIterator> iterator = wireProtocolSession.execute("").join();
-            if (iterator.isEmpty()) {
+            portal = wireProtocolSession.getPortal("");
+            result = wireProtocolSession.execute(portal).join();
+            if (result.isEmpty()) {
                 sendHardWiredSessionProperty(channel, statement);
                 ResponseMessages.sendCommandComplete(channel, statement, 0);
+                wireProtocolSession.queryFinished(portal);
                 return CompletableFuture.completedFuture(null);
             }
             ResultSetSender resultSetSender = new ResultSetSender(
                     statement,
                     channel,
-                    iterator.get(),
+                    result.get(),
                     0,
                     0,
-                    null);
+                    null,
+                    portal.getQueryTrace());
             ResponseMessages.sendRowDescription(channel, resultSetSender.getColumns(), null);
             resultSetSender.sendResultSet();
+            wireProtocolSession.queryFinished(portal);
             return wireProtocolSession.sync();
         }
         catch (Exception e) {
             LOG.error(e, "Query failed. Statement: %s", statement);
+            if (portal != null) {
+                wireProtocolSession.queryFailed(portal, e);
+            }
+            // the result isn't kept by the portal
+            result.ifPresent(SimpleQuery::closeQuietly);
             ResponseMessages.sendErrorResponse(channel, e);
             CompletableFuture<?> future = CompletableFuture.completedFuture(null);
             future.completeExceptionally(e);
             return future;
         }
     }
+
+    private static void closeQuietly(QueryResult result)
+    {
+        try {
+            result.close();
+        }
+        catch (Exception e) {
+            LOG.warn(e, "Failed to close the result of the failed query");
+        }
+    }
 }
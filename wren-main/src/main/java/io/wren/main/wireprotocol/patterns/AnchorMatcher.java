@@ -0,0 +1,126 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.wren.main.wireprotocol.patterns;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * An Aho-Corasick automaton over the ASCII literal anchors of a list of patterns.
+ * {@link #match(String)} scans the statement once, case-insensitively, and returns a bitmask
+ * whose i-th bit is set when the anchor of the i-th pattern occurs in the statement.
+ * A pattern whose anchor is absent can't match, so its regex doesn't need to run.
+ */
+final class AnchorMatcher
+{
+    private static final int ALPHABET_SIZE = 128;
+
+    // transitions[state * ALPHABET_SIZE + c] is the next state of the complete automaton
+    private final int[] transitions;
+    // outputs[state] is the bitmask of the anchors ending in this state, including the ones reached by failure links
+    private final long[] outputs;
+
+    AnchorMatcher(List<String> anchors)
+    {
+        checkArgument(anchors.size() <= Long.SIZE, "at most %s anchors are supported", Long.SIZE);
+
+        List<int[]> trie = new ArrayList<>();
+        List<Long> terminals = new ArrayList<>();
+        trie.add(newState());
+        terminals.add(0L);
+        for (int i = 0; i < anchors.size(); i++) {
+            String anchor = anchors.get(i);
+            checkArgument(!anchor.isEmpty(), "anchor is empty");
+            int state = 0;
+            for (int j = 0; j < anchor.length(); j++) {
+                int c = toLowerAscii(anchor.charAt(j));
+                checkArgument(c < ALPHABET_SIZE, "anchor %s contains non-ASCII characters", anchor);
+                if (trie.get(state)[c] < 0) {
+                    trie.get(state)[c] = trie.size();
+                    trie.add(newState());
+                    terminals.add(0L);
+                }
+                state = trie.get(state)[c];
+            }
+            terminals.set(state, terminals.get(state) | (1L << i));
+        }
+
+        int stateCount = trie.size();
+        transitions = new int[stateCount * ALPHABET_SIZE];
+        outputs = new long[stateCount];
+        int[] failure = new int[stateCount];
+        Deque<Integer> queue = new ArrayDeque<>();
+
+        outputs[0] = terminals.get(0);
+        for (int c = 0; c < ALPHABET_SIZE; c++) {
+            int next = trie.get(0)[c];
+            if (next < 0) {
+                transitions[c] = 0;
+            }
+            else {
+                transitions[c] = next;
+                failure[next] = 0;
+                queue.add(next);
+            }
+        }
+        // breadth-first, so the failure state of a node is always resolved before the node itself
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            outputs[state] = terminals.get(state) | outputs[failure[state]];
+            for (int c = 0; c < ALPHABET_SIZE; c++) {
+                int next = trie.get(state)[c];
+                int fallback = transitions[failure[state] * ALPHABET_SIZE + c];
+                if (next < 0) {
+                    transitions[state * ALPHABET_SIZE + c] = fallback;
+                }
+                else {
+                    transitions[state * ALPHABET_SIZE + c] = next;
+                    failure[next] = fallback;
+                    queue.add(next);
+                }
+            }
+        }
+    }
+
+    long match(String statement)
+    {
+        long result = 0;
+        int state = 0;
+        for (int i = 0; i < statement.length(); i++) {
+            int c = toLowerAscii(statement.charAt(i));
+            // anchors are ASCII only, so any other character restarts the automaton
+            state = c < ALPHABET_SIZE ? transitions[state * ALPHABET_SIZE + c] : 0;
+            result |= outputs[state];
+        }
+        return result;
+    }
+
+    private static int[] newState()
+    {
+        int[] state = new int[ALPHABET_SIZE];
+        Arrays.fill(state, -1);
+        return state;
+    }
+
+    private static int toLowerAscii(char c)
+    {
+        return (c >= 'A' && c <= 'Z') ? c + ('a' - 'A') : c;
+    }
+}
@@ -31,7 +31,7 @@ public class ArraySelectPattern
 
     private ArraySelectPattern()
     {
-        super(Pattern.compile("(ARRAY[ \n]*\\([ \n]*SELECT)", CASE_INSENSITIVE));
+        super(Pattern.compile("(ARRAY[ \n]*\\([ \n]*SELECT)", CASE_INSENSITIVE), "array");
     }
 
     @Override
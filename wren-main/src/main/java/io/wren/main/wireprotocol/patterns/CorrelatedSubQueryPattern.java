@@ -39,7 +39,7 @@ public class CorrelatedSubQueryPattern
                         " *FROM pg_catalog.pg_statistic_ext stat\n" +
                         " *WHERE stxrelid = '\\d*'\n" +
                         " *ORDER BY 1",
-                CASE_INSENSITIVE));
+                CASE_INSENSITIVE), "pg_statistic_ext");
     }
 
     @Override
@@ -35,6 +35,7 @@ public class JdbcGetArrayDelimiterPattern
     protected JdbcGetArrayDelimiterPattern(PGType<?> type)
     {
         super(Pattern.compile("(?i)^ *SELECT e\\.typdelim FROM pg_catalog\\.pg_type t, pg_catalog.pg_type e WHERE t\\.oid = \\$1 and t\\.typelem = e\\.oid", Pattern.CASE_INSENSITIVE),
+                "typdelim",
                 List.of(new Parameter(IntegerType.INTEGER, type.oid())));
         this.type = type;
     }
@@ -38,6 +38,7 @@ public class JdbcGetArrayElementOidPattern
         super(Pattern.compile("SELECT e\\.oid, n\\.nspname = ANY\\(current_schemas\\(true\\)\\), n\\.nspname, e\\.typname FROM pg_catalog\\.pg_type t " +
                                 "JOIN pg_catalog\\.pg_type e ON t\\.typelem = e\\.oid JOIN pg_catalog\\.pg_namespace n ON t\\.typnamespace = n\\.oid WHERE t\\.oid = \\$1",
                         Pattern.CASE_INSENSITIVE),
+                "typelem",
                 List.of(new Parameter(IntegerType.INTEGER, type.oid())));
         this.type = type;
     }
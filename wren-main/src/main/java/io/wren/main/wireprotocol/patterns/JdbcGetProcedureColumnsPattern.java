@@ -29,7 +29,7 @@ public class JdbcGetProcedureColumnsPattern
     {
         super(Pattern.compile("(?i)^ *SELECT n.nspname,p.proname,p.prorettype,p.proargtypes, t.typtype,t.typrelid,  p.proargnames, p.proargmodes, p.proallargtypes, p.oid  " +
                 "FROM pg_catalog.pg_proc p, pg_catalog.pg_namespace n, pg_catalog.pg_type t  WHERE p.pronamespace=n.oid AND p.prorettype=t.oid  ORDER BY n.nspname, p.proname, " +
-                "p.oid::text", Pattern.CASE_INSENSITIVE));
+                "p.oid::text", Pattern.CASE_INSENSITIVE), "pg_proc");
     }
 
     @Override
@@ -39,6 +39,7 @@ public class JdbcGetSQLTypeQueryPattern
                                 "from generate_series\\(1, array_upper\\(current_schemas\\(false\\), 1\\)\\) as s\\(r\\) \\) as r +using \\( nspname \\) *\\) as sp +ON " +
                                 "sp\\.nspoid = typnamespace +WHERE pg_type\\.oid = \\$1 +ORDER BY sp\\.r, pg_type\\.oid DESC",
                         Pattern.CASE_INSENSITIVE),
+                "array_in",
                 List.of(new Parameter(BigIntType.BIGINT, (long) type.oid())));
         this.type = type;
     }
@@ -35,7 +35,7 @@ public class JdbcQueryUnkownTypeQueryPattern
     public JdbcQueryUnkownTypeQueryPattern(PGType<?> type)
     {
         super(Pattern.compile("(?i)^ *SELECT n\\.nspname = ANY\\(current_schemas\\(true\\)\\), n\\.nspname, t\\.typname FROM pg_catalog\\.pg_type t JOIN pg_catalog\\.pg_namespace n ON t\\.typnamespace = n\\.oid WHERE t\\.oid = \\$1",
-                Pattern.CASE_INSENSITIVE), List.of(new Parameter(INTEGER, type.oid())));
+                Pattern.CASE_INSENSITIVE), "typnamespace", List.of(new Parameter(INTEGER, type.oid())));
         this.type = type;
     }
 
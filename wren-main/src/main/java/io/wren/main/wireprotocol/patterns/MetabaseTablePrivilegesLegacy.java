@@ -45,7 +45,7 @@ public class MetabaseTablePrivilegesLegacy
                         "select t\\.\\*\n" +
                         "from table_privileges t\n" +
                         "where t\\.select or t\\.update or t\\.insert or t\\.delete",
-                Pattern.CASE_INSENSITIVE));
+                Pattern.CASE_INSENSITIVE), "table_privileges");
     }
 
     @Override
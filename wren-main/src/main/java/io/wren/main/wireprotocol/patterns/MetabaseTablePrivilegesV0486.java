@@ -50,7 +50,7 @@ public class MetabaseTablePrivilegesV0486
                         "\\)\n" +
                         "select t\\.\\*\n" +
                         "from table_privileges t",
-                Pattern.CASE_INSENSITIVE));
+                Pattern.CASE_INSENSITIVE), "table_privileges");
     }
 
     @Override
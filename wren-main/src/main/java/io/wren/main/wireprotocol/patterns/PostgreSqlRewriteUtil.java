@@ -24,6 +24,8 @@ import io.wren.main.wireprotocol.PreparedStatement;
 import java.util.List;
 import java.util.Optional;
 
+import static com.google.common.collect.ImmutableList.toImmutableList;
+
 public final class PostgreSqlRewriteUtil
 {
     private PostgreSqlRewriteUtil() {}
@@ -54,28 +56,73 @@ public final class PostgreSqlRewriteUtil
             .add(new JdbcGetArrayElementOidPattern(PGArray.EMPTY_RECORD_ARRAY))
             .build();
 
+    private static final AnchorMatcher PATTERNS_ANCHORS = new AnchorMatcher(PATTERNS.stream().map(QueryPattern::getAnchor).collect(toImmutableList()));
+
+    private static final AnchorMatcher WITH_PARAMS_PATTERNS_ANCHORS = new AnchorMatcher(WITH_PARAMS_PATTERNS.stream().map(QueryWithParamPattern::getAnchor).collect(toImmutableList()));
+
     public static String rewrite(String statement)
     {
-        return PATTERNS.stream()
-                .filter(pattern -> pattern.matcher(statement).find())
-                .findFirst()
-                .map(pattern -> pattern.rewrite(statement))
-                .orElse(statement);
+        // The patterns are tried in order, but only the ones whose anchor occurs in the statement run their regex.
+        long candidates = PATTERNS_ANCHORS.match(statement);
+        for (int i = 0; candidates != 0 && i < PATTERNS.size(); i++) {
+            if ((candidates & (1L << i)) != 0 && PATTERNS.get(i).matcher(statement).find()) {
+                return PATTERNS.get(i).rewrite(statement);
+            }
+        }
+        return statement;
+    }
+
+    /**
+     * JDBC will transfer the prepared parameter sign `?` to `$[0-9]+`.
+     * e.g SELECT ? as c1, ? as c2  -> SELECT $1 as c1, $2 c2
+     * We need to transfer it back to `?` to match the syntax of presto.
+     */
+    public static String rewritePreparedChar(String statement)
+    {
+        int index = statement.indexOf('$');
+        if (index < 0) {
+            return statement;
+        }
+        StringBuilder builder = new StringBuilder(statement.length());
+        int start = 0;
+        while (index >= 0) {
+            int end = index + 1;
+            while (end < statement.length() && statement.charAt(end) >= '0' && statement.charAt(end) <= '9') {
+                end++;
+            }
+            if (end > index + 1) {
+                builder.append(statement, start, index).append('?');
+                start = end;
+            }
+            index = statement.indexOf('$', end);
+        }
+        return builder.append(statement, start, statement.length()).toString();
     }
 
     public static Portal rewriteWithParameters(Portal portal)
     {
         String statement = portal.getPreparedStatement().getStatement();
+        long candidates = WITH_PARAMS_PATTERNS_ANCHORS.match(statement);
+        if (candidates == 0) {
+            return portal;
+        }
         List<Parameter> parameters = portal.getParameters();
-        Optional<String> rewrittenSql = WITH_PARAMS_PATTERNS.stream()
-                .filter(pattern -> pattern.matcher(statement).find() && pattern.matchParams(parameters))
-                .findFirst()
-                .map(pattern -> pattern.rewrite(statement));
+        Optional<String> rewrittenSql = Optional.empty();
+        for (int i = 0; i < WITH_PARAMS_PATTERNS.size(); i++) {
+            QueryWithParamPattern pattern = WITH_PARAMS_PATTERNS.get(i);
+            if ((candidates & (1L << i)) != 0 && pattern.matcher(statement).find() && pattern.matchParams(parameters)) {
+                rewrittenSql = Optional.of(pattern.rewrite(statement));
+                break;
+            }
+        }
 
         PreparedStatement preparedStatement = new PreparedStatement(portal.getPreparedStatement().getName(),
                 rewrittenSql.orElse(statement),
+                rewrittenSql.isPresent() ? Optional.empty() : portal.getPreparedStatement().getParsedStatement(),
                 portal.getPreparedStatement().getCacheStatement(),
+                portal.getPreparedStatement().getCachedTables(),
                 rewrittenSql.isPresent() ? List.of() : portal.getPreparedStatement().getParamTypeOids(),
+                portal.getPreparedStatement().getModels(),
                 portal.getPreparedStatement().getOriginalStatement(),
                 portal.getPreparedStatement().isSessionCommand(),
                 portal.getPreparedStatement().getQueryLevel());
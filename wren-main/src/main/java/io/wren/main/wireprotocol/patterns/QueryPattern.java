@@ -20,10 +20,16 @@ import java.util.regex.Pattern;
 public abstract class QueryPattern
 {
     private final Pattern pattern;
+    private final String anchor;
 
-    public QueryPattern(Pattern pattern)
+    /**
+     * @param anchor a literal that occurs, ignoring case, in every statement matched by the pattern.
+     * It's used to skip the regex for the statements that can't match.
+     */
+    public QueryPattern(Pattern pattern, String anchor)
     {
         this.pattern = pattern;
+        this.anchor = anchor;
     }
 
     protected abstract String rewrite(String statement);
@@ -32,4 +38,9 @@ public abstract class QueryPattern
     {
         return this.pattern.matcher(statement);
     }
+
+    String getAnchor()
+    {
+        return anchor;
+    }
 }
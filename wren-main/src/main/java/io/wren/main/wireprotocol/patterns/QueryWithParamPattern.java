@@ -23,11 +23,17 @@ import java.util.regex.Pattern;
 public abstract class QueryWithParamPattern
 {
     private final Pattern pattern;
+    private final String anchor;
     private final List<Parameter> expectedParameterList;
 
-    protected QueryWithParamPattern(Pattern pattern, List<Parameter> expectedParameterList)
+    /**
+     * @param anchor a literal that occurs, ignoring case, in every statement matched by the pattern.
+     * It's used to skip the regex for the statements that can't match.
+     */
+    protected QueryWithParamPattern(Pattern pattern, String anchor, List<Parameter> expectedParameterList)
     {
         this.pattern = pattern;
+        this.anchor = anchor;
         this.expectedParameterList = expectedParameterList;
     }
 
@@ -38,6 +44,11 @@ public abstract class QueryWithParamPattern
         return this.pattern.matcher(statement);
     }
 
+    String getAnchor()
+    {
+        return anchor;
+    }
+
     protected boolean matchParams(List<Parameter> actualParameterList)
     {
         if (this.expectedParameterList.size() != actualParameterList.size()) {
@@ -23,7 +23,7 @@ public class SetSessionPattern
 
     private SetSessionPattern()
     {
-        super(Pattern.compile("(?i)^ *SET +SESSION"));
+        super(Pattern.compile("(?i)^ *SET +SESSION"), "session");
     }
 
     @Override
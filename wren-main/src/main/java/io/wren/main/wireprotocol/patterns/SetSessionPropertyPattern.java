@@ -29,7 +29,7 @@ public class SetSessionPropertyPattern
 
     private SetSessionPropertyPattern()
     {
-        super(Pattern.compile("(?i)^ *SET +SESSION +(?<property>[a-zA-Z0-9_]+)( *=| +TO) +(?<value>(.*))"));
+        super(Pattern.compile("(?i)^ *SET +SESSION +(?<property>[a-zA-Z0-9_]+)( *=| +TO) +(?<value>(.*))"), "session");
     }
 
     @Override
@@ -23,7 +23,7 @@ public class ShowDateStylePattern
 
     private ShowDateStylePattern()
     {
-        super(Pattern.compile("(?i)^ *SHOW +DateStyle"));
+        super(Pattern.compile("(?i)^ *SHOW +DateStyle"), "datestyle");
     }
 
     @Override
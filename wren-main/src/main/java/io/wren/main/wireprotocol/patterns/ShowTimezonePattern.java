@@ -23,7 +23,7 @@ public class ShowTimezonePattern
 
     public ShowTimezonePattern()
     {
-        super(Pattern.compile("(?i)^ *show timezone", Pattern.CASE_INSENSITIVE));
+        super(Pattern.compile("(?i)^ *show timezone", Pattern.CASE_INSENSITIVE), "timezone");
     }
 
     @Override
@@ -0,0 +1,293 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.wren.main.connector.bigquery;
+
+import com.google.api.gax.core.NoCredentialsProvider;
+import com.google.api.gax.grpc.GrpcTransportChannel;
+import com.google.api.gax.rpc.FixedTransportChannelProvider;
+import com.google.cloud.bigquery.TableId;
+import com.google.cloud.bigquery.storage.v1.ArrowRecordBatch;
+import com.google.cloud.bigquery.storage.v1.ArrowSchema;
+import com.google.cloud.bigquery.storage.v1.BigQueryReadClient;
+import com.google.cloud.bigquery.storage.v1.BigQueryReadGrpc;
+import com.google.cloud.bigquery.storage.v1.BigQueryReadSettings;
+import com.google.cloud.bigquery.storage.v1.CreateReadSessionRequest;
+import com.google.cloud.bigquery.storage.v1.ReadRowsRequest;
+import com.google.cloud.bigquery.storage.v1.ReadRowsResponse;
+import com.google.cloud.bigquery.storage.v1.ReadSession;
+import com.google.cloud.bigquery.storage.v1.ReadStream;
+import com.google.protobuf.ByteString;
+import io.airlift.units.DataSize;
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.Status;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.stub.StreamObserver;
+import io.wren.base.Column;
+import io.wren.base.ConnectorRecordIterator;
+import io.wren.base.WrenException;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.BigIntVector;
+import org.apache.arrow.vector.DateDayVector;
+import org.apache.arrow.vector.TimeStampMicroTZVector;
+import org.apache.arrow.vector.VarCharVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.VectorUnloader;
+import org.apache.arrow.vector.ipc.WriteChannel;
+import org.apache.arrow.vector.ipc.message.MessageSerializer;
+import org.apache.arrow.vector.types.DateUnit;
+import org.apache.arrow.vector.types.TimeUnit;
+import org.apache.arrow.vector.types.pojo.ArrowType;
+import org.apache.arrow.vector.types.pojo.Field;
+import org.apache.arrow.vector.types.pojo.Schema;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static io.wren.base.type.BigIntType.BIGINT;
+import static io.wren.base.type.DateType.DATE;
+import static io.wren.base.type.TimestampType.TIMESTAMP;
+import static io.wren.base.type.VarcharType.VARCHAR;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class TestBigQueryStorageReader
+{
+    private static final Schema SCHEMA = new Schema(List.of(
+            Field.nullable("id", new ArrowType.Int(64, true)),
+            Field.nullable("name", ArrowType.Utf8.INSTANCE),
+            Field.nullable("created", new ArrowType.Timestamp(TimeUnit.MICROSECOND, "UTC")),
+            Field.nullable("day", new ArrowType.Date(DateUnit.DAY))));
+    private static final List<Column> COLUMNS = List.of(
+            new Column("id", BIGINT),
+            new Column("name", VARCHAR),
+            new Column("created", TIMESTAMP),
+            new Column("day", DATE));
+    private static final String PARENT = "projects/wren";
+    private static final int STREAMS = 3;
+    private static final int BATCHES_PER_STREAM = 4;
+    private static final int ROWS_PER_BATCH = 100;
+
+    private final BufferAllocator allocator = new RootAllocator();
+    private String serverName;
+    private Server server;
+    private ManagedChannel channel;
+    private BigQueryReadClient readClient;
+
+    @BeforeClass
+    public void setup()
+            throws IOException
+    {
+        serverName = InProcessServerBuilder.generateName();
+        server = InProcessServerBuilder.forName(serverName)
+                .addService(new FakeBigQueryRead())
+                .build()
+                .start();
+        channel = InProcessChannelBuilder.forName(serverName).build();
+        readClient = BigQueryReadClient.create(BigQueryReadSettings.newBuilder()
+                .setCredentialsProvider(NoCredentialsProvider.create())
+                .setTransportChannelProvider(FixedTransportChannelProvider.create(GrpcTransportChannel.create(channel)))
+                .build());
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void cleanup()
+    {
+        readClient.close();
+        channel.shutdownNow();
+        server.shutdownNow();
+        allocator.close();
+    }
+
+    @Test
+    public void testReadAllStreams()
+            throws Exception
+    {
+        BigQueryStorageReader reader = new BigQueryStorageReader(readClient, 8, DataSize.of(1, DataSize.Unit.MEGABYTE));
+        List<Object[]> rows;
+        try (ConnectorRecordIterator iterator = reader.read(PARENT, TableId.of("wren", "dataset", "table"), COLUMNS)) {
+            assertThat(iterator.getColumns()).isEqualTo(COLUMNS);
+            rows = readAll(iterator);
+        }
+
+        assertThat(rows).hasSize(STREAMS * BATCHES_PER_STREAM * ROWS_PER_BATCH);
+        assertThat(rows.stream().map(row -> (long) row[0]).distinct().count()).isEqualTo(rows.size());
+        Object[] row = rows.stream().filter(values -> (long) values[0] == 1101).findAny().orElseThrow();
+        assertThat(row).containsExactly(1101L, "name-1101", LocalDateTime.of(1970, 1, 1, 0, 18, 21, 1000), LocalDate.ofEpochDay(1101));
+        Object[] nullRow = rows.stream().filter(values -> (long) values[0] == 7).findAny().orElseThrow();
+        assertThat(nullRow[1]).isNull();
+    }
+
+    @Test
+    public void testBatchLargerThanBuffer()
+            throws Exception
+    {
+        // each batch exceeds the buffer, so the streams hand over one batch at a time
+        BigQueryStorageReader reader = new BigQueryStorageReader(readClient, 8, DataSize.ofBytes(1));
+        try (ConnectorRecordIterator iterator = reader.read(PARENT, TableId.of("wren", "dataset", "table"), COLUMNS)) {
+            assertThat(readAll(iterator)).hasSize(STREAMS * BATCHES_PER_STREAM * ROWS_PER_BATCH);
+        }
+
+        // closing before the end cancels the waiting streams
+        try (ConnectorRecordIterator iterator = reader.read(PARENT, TableId.of("wren", "dataset", "table"), COLUMNS)) {
+            assertThat(iterator.hasNext()).isTrue();
+            iterator.next();
+        }
+    }
+
+    @Test
+    public void testFailedStream()
+            throws Exception
+    {
+        BigQueryStorageReader reader = new BigQueryStorageReader(readClient, 8, DataSize.of(1, DataSize.Unit.MEGABYTE));
+        try (ConnectorRecordIterator iterator = reader.read(PARENT, TableId.of("wren", "dataset", "failing"), COLUMNS)) {
+            assertThatThrownBy(() -> readAll(iterator))
+                    .isInstanceOf(WrenException.class)
+                    .hasMessageContaining("Failed to read the BigQuery storage stream");
+        }
+    }
+
+    @Test
+    public void testRetiredClientClosedAfterReads()
+            throws Exception
+    {
+        ManagedChannel readChannel = InProcessChannelBuilder.forName(serverName).build();
+        try {
+            BigQueryReadClient client = BigQueryReadClient.create(BigQueryReadSettings.newBuilder()
+                    .setCredentialsProvider(NoCredentialsProvider.create())
+                    .setTransportChannelProvider(FixedTransportChannelProvider.create(GrpcTransportChannel.create(readChannel)))
+                    .build());
+            SharedReadClient sharedClient = new SharedReadClient(client);
+            SharedReadClient.Lease lease = sharedClient.acquire();
+            BigQueryStorageReader reader = new BigQueryStorageReader(lease.getClient(), 8, DataSize.ofBytes(1));
+            try (ConnectorRecordIterator iterator = lease.hold(reader.read(PARENT, TableId.of("wren", "dataset", "table"), COLUMNS))) {
+                assertThat(iterator.hasNext()).isTrue();
+
+                // a reload retires the client while its rows are read
+                sharedClient.retire();
+                assertThat(sharedClient.isClosed()).isFalse();
+                assertThat(client.isShutdown()).isFalse();
+                assertThatThrownBy(sharedClient::acquire).isInstanceOf(IllegalStateException.class);
+                assertThat(readAll(iterator)).hasSize(STREAMS * BATCHES_PER_STREAM * ROWS_PER_BATCH);
+            }
+            assertThat(sharedClient.isClosed()).isTrue();
+            assertThat(client.isShutdown()).isTrue();
+        }
+        finally {
+            readChannel.shutdownNow();
+        }
+    }
+
+    private static List<Object[]> readAll(ConnectorRecordIterator iterator)
+    {
+        List<Object[]> rows = new ArrayList<>();
+        iterator.forEachRemaining(rows::add);
+        return rows;
+    }
+
+    private class FakeBigQueryRead
+            extends BigQueryReadGrpc.BigQueryReadImplBase
+    {
+        @Override
+        public void createReadSession(CreateReadSessionRequest request, StreamObserver<ReadSession> responseObserver)
+        {
+            String table = request.getReadSession().getTable();
+            ReadSession.Builder session = ReadSession.newBuilder()
+                    .setTable(table)
+                    .setArrowSchema(ArrowSchema.newBuilder().setSerializedSchema(serializeSchema()));
+            for (int stream = 0; stream < Math.min(STREAMS, request.getMaxStreamCount()); stream++) {
+                session.addStreams(ReadStream.newBuilder().setName(table + "/streams/" + stream));
+            }
+            responseObserver.onNext(session.build());
+            responseObserver.onCompleted();
+        }
+
+        @Override
+        public void readRows(ReadRowsRequest request, StreamObserver<ReadRowsResponse> responseObserver)
+        {
+            String streamName = request.getReadStream();
+            int stream = Integer.parseInt(streamName.substring(streamName.lastIndexOf('/') + 1));
+            for (int batch = 0; batch < BATCHES_PER_STREAM; batch++) {
+                if (streamName.contains("/failing/") && stream == 1 && batch == 1) {
+                    responseObserver.onError(Status.INVALID_ARGUMENT.withDescription("broken stream").asRuntimeException());
+                    return;
+                }
+                responseObserver.onNext(ReadRowsResponse.newBuilder()
+                        .setRowCount(ROWS_PER_BATCH)
+                        .setArrowRecordBatch(ArrowRecordBatch.newBuilder()
+                                .setSerializedRecordBatch(serializeBatch(stream * 1000 + batch * ROWS_PER_BATCH))
+                                .setRowCount(ROWS_PER_BATCH))
+                        .build());
+            }
+            responseObserver.onCompleted();
+        }
+
+        private ByteString serializeSchema()
+        {
+            ByteArrayOutputStream output = new ByteArrayOutputStream();
+            try {
+                MessageSerializer.serialize(new WriteChannel(Channels.newChannel(output)), SCHEMA);
+            }
+            catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+            return ByteString.copyFrom(output.toByteArray());
+        }
+
+        private ByteString serializeBatch(int firstId)
+        {
+            try (VectorSchemaRoot root = VectorSchemaRoot.create(SCHEMA, allocator)) {
+                BigIntVector id = (BigIntVector) root.getVector("id");
+                VarCharVector name = (VarCharVector) root.getVector("name");
+                TimeStampMicroTZVector created = (TimeStampMicroTZVector) root.getVector("created");
+                DateDayVector day = (DateDayVector) root.getVector("day");
+                root.allocateNew();
+                for (int row = 0; row < ROWS_PER_BATCH; row++) {
+                    int value = firstId + row;
+                    id.setSafe(row, value);
+                    if (value % 7 == 0) {
+                        name.setNull(row);
+                    }
+                    else {
+                        name.setSafe(row, ("name-" + value).getBytes(UTF_8));
+                    }
+                    created.setSafe(row, value * 1_000_000L + 1);
+                    day.setSafe(row, value);
+                }
+                root.setRowCount(ROWS_PER_BATCH);
+
+                ByteArrayOutputStream output = new ByteArrayOutputStream();
+                try (org.apache.arrow.vector.ipc.message.ArrowRecordBatch recordBatch = new VectorUnloader(root).getRecordBatch()) {
+                    MessageSerializer.serialize(new WriteChannel(Channels.newChannel(output)), recordBatch);
+                }
+                catch (IOException e) {
+                    throw new RuntimeException(e);
+                }
+                return ByteString.copyFrom(output.toByteArray());
+            }
+        }
+    }
+}
@@ -0,0 +1,222 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.wren.main.metadata;
+
+import io.wren.base.Column;
+import io.wren.base.ConnectorRecordIterator;
+import io.wren.base.Parameter;
+import io.wren.base.WrenException;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static io.wren.base.metadata.StandardErrorCode.GENERIC_USER_ERROR;
+import static io.wren.base.type.IntegerType.INTEGER;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class TestQueryCoalescer
+{
+    private static final List<Column> COLUMNS = List.of(new Column("c1", INTEGER));
+    private static final long BUFFER_BYTES = 1024 * 1024;
+
+    @Test
+    public void testReplay()
+            throws Exception
+    {
+        QueryCoalescer coalescer = new QueryCoalescer();
+        FakeSource source = new FakeSource(1, 2, 3);
+
+        ConnectorRecordIterator first = coalescer.execute("SELECT c1 FROM t", List.of(), BUFFER_BYTES, source::open);
+        assertThat(first.next()).containsExactly(1);
+
+        // joins the running query and starts from the first row
+        ConnectorRecordIterator second = coalescer.execute("SELECT c1 FROM t", List.of(), BUFFER_BYTES, source::open);
+        assertThat(second.getColumns()).isEqualTo(COLUMNS);
+        assertThat(readAll(second)).containsExactly(1, 2, 3);
+        assertThat(readAll(first)).containsExactly(2, 3);
+        assertThat(source.executions.get()).isEqualTo(1);
+        assertThat(coalescer.getCoalescedQueries().getTotalCount()).isEqualTo(1);
+
+        // other parameters are another query
+        coalescer.execute("SELECT c1 FROM t", List.of(new Parameter(INTEGER, 1)), BUFFER_BYTES, source::open).close();
+        assertThat(source.executions.get()).isEqualTo(2);
+
+        first.close();
+        second.close();
+        assertThat(source.closed.get()).isEqualTo(2);
+        assertThat(coalescer.getInFlightQueries()).isZero();
+
+        // the finished query isn't joined
+        readAll(coalescer.execute("SELECT c1 FROM t", List.of(), BUFFER_BYTES, source::open));
+        assertThat(source.executions.get()).isEqualTo(3);
+    }
+
+    @Test
+    public void testWaitForStart()
+            throws Exception
+    {
+        QueryCoalescer coalescer = new QueryCoalescer();
+        FakeSource source = new FakeSource(1, 2);
+        CountDownLatch executing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<List<Object>> leader = CompletableFuture.supplyAsync(() -> readAll(coalescer.execute("SELECT 1", List.of(), BUFFER_BYTES, () -> {
+            executing.countDown();
+            await(release);
+            return source.open();
+        })));
+        assertThat(executing.await(10, SECONDS)).isTrue();
+        CompletableFuture<List<Object>> follower = CompletableFuture.supplyAsync(() -> readAll(coalescer.execute("SELECT 1", List.of(), BUFFER_BYTES, source::open)));
+        while (coalescer.getCoalescedQueries().getTotalCount() == 0) {
+            Thread.sleep(10);
+        }
+        release.countDown();
+
+        assertThat(leader.get(10, SECONDS)).containsExactly(1, 2);
+        assertThat(follower.get(10, SECONDS)).containsExactly(1, 2);
+        assertThat(source.executions.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void testBufferBudget()
+            throws Exception
+    {
+        QueryCoalescer coalescer = new QueryCoalescer();
+        FakeSource source = new FakeSource(1, 2, 3);
+        long rowBytes = QueryCoalescer.estimateSize(new Object[] {1});
+
+        try (ConnectorRecordIterator first = coalescer.execute("SELECT c1 FROM t", List.of(), rowBytes, source::open)) {
+            first.next();
+            first.next();
+            // the replay buffer is over its budget, so the identical query executes on its own
+            try (ConnectorRecordIterator second = coalescer.execute("SELECT c1 FROM t", List.of(), rowBytes, source::open)) {
+                assertThat(readAll(second)).containsExactly(1, 2, 3);
+            }
+            assertThat(readAll(first)).containsExactly(3);
+        }
+        assertThat(source.executions.get()).isEqualTo(2);
+
+        // a budget of 0 disables the coalescing
+        try (ConnectorRecordIterator first = coalescer.execute("SELECT c1 FROM t", List.of(), 0, source::open);
+                ConnectorRecordIterator second = coalescer.execute("SELECT c1 FROM t", List.of(), 0, source::open)) {
+            assertThat(first).isNotSameAs(second);
+        }
+        assertThat(source.executions.get()).isEqualTo(4);
+    }
+
+    @Test
+    public void testStalledSubscriber()
+            throws Exception
+    {
+        QueryCoalescer coalescer = new QueryCoalescer();
+        FakeSource source = new FakeSource(1, 2, 3, 4, 5, 6, 7, 8, 9, 10);
+        long rowBytes = QueryCoalescer.estimateSize(new Object[] {1});
+
+        try (ConnectorRecordIterator first = coalescer.execute("SELECT c1 FROM t", List.of(), 2 * rowBytes, source::open);
+                ConnectorRecordIterator stalled = coalescer.execute("SELECT c1 FROM t", List.of(), 2 * rowBytes, source::open)) {
+            assertThat(stalled.next()).containsExactly(1);
+            // the stalled subscriber doesn't hold the rows the first one reads past the budget
+            assertThat(readAll(first)).containsExactly(1, 2, 3, 4, 5, 6, 7, 8, 9, 10);
+            assertThatThrownBy(stalled::hasNext)
+                    .isInstanceOf(WrenException.class)
+                    .hasMessageContaining("fell behind");
+        }
+        assertThat(source.executions.get()).isEqualTo(1);
+        assertThat(source.closed.get()).isEqualTo(1);
+        assertThat(coalescer.getInFlightQueries()).isZero();
+    }
+
+    @Test
+    public void testFailure()
+    {
+        QueryCoalescer coalescer = new QueryCoalescer();
+        assertThatThrownBy(() -> coalescer.execute("SELECT x", List.of(), BUFFER_BYTES, () -> {
+            throw new WrenException(GENERIC_USER_ERROR, "column x not found");
+        }))
+                .hasMessageContaining("column x not found");
+        assertThat(coalescer.getInFlightQueries()).isZero();
+    }
+
+    private static List<Object> readAll(ConnectorRecordIterator iterator)
+    {
+        List<Object> values = new ArrayList<>();
+        while (iterator.hasNext()) {
+            values.add(iterator.next()[0]);
+        }
+        return values;
+    }
+
+    private static void await(CountDownLatch latch)
+    {
+        try {
+            latch.await(10, SECONDS);
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static class FakeSource
+    {
+        private final List<Integer> values;
+        private final AtomicInteger executions = new AtomicInteger();
+        private final AtomicInteger closed = new AtomicInteger();
+
+        private FakeSource(Integer... values)
+        {
+            this.values = List.of(values);
+        }
+
+        private ConnectorRecordIterator open()
+        {
+            executions.incrementAndGet();
+            Iterator<Integer> rows = values.iterator();
+            return new ConnectorRecordIterator()
+            {
+                @Override
+                public List<Column> getColumns()
+                {
+                    return COLUMNS;
+                }
+
+                @Override
+                public boolean hasNext()
+                {
+                    return rows.hasNext();
+                }
+
+                @Override
+                public Object[] next()
+                {
+                    return new Object[] {rows.next()};
+                }
+
+                @Override
+                public void close()
+                {
+                    closed.incrementAndGet();
+                }
+            };
+        }
+    }
+}
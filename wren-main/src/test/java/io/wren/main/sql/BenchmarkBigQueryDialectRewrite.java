@@ -0,0 +1,263 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.wren.main.sql;
+
+import io.trino.sql.tree.Node;
+import io.trino.sql.tree.QualifiedName;
+import io.trino.sql.tree.Statement;
+import io.wren.base.Column;
+import io.wren.base.ConnectorRecordIterator;
+import io.wren.base.Parameter;
+import io.wren.connector.StorageClient;
+import io.wren.main.metadata.Metadata;
+import io.wren.main.pgcatalog.builder.PgFunctionBuilder;
+import io.wren.main.sql.bigquery.FlattenGroupingElements;
+import io.wren.main.sql.bigquery.RemoveParameterInTypesInCast;
+import io.wren.main.sql.bigquery.RewriteArithmetic;
+import io.wren.main.sql.bigquery.RewriteNamesToAlias;
+import io.wren.main.sql.bigquery.RewriteToBigQueryFunction;
+import io.wren.main.sql.bigquery.RewriteToBigQueryType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static io.trino.sql.SqlFormatter.Dialect.BIGQUERY;
+import static io.trino.sql.SqlFormatter.formatSql;
+import static io.wren.base.sqlrewrite.Utils.parseSql;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * TPC-H style statements shaped like the output of the planner: every model is a WITH query,
+ * and the outer query nests subqueries, casts, intervals and function calls.
+ * {@code sequential} runs the dialect rewrites as separate passes like {@code BigQuerySqlConverter} used to,
+ * {@code fused} runs them in one {@link FusedRewrite} traversal.
+ */
+@State(Scope.Thread)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@BenchmarkMode(Mode.AverageTime)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+public class BenchmarkBigQueryDialectRewrite
+{
+    private static final String MODELS = "WITH\n" +
+            "  \"Orders\" AS (SELECT o_orderkey orderkey, o_custkey custkey, o_orderstatus orderstatus, CAST(o_totalprice AS DECIMAL(15, 2)) totalprice, " +
+            "o_orderdate orderdate, o_orderpriority orderpriority FROM tpch.orders),\n" +
+            "  \"Customer\" AS (SELECT c_custkey custkey, c_name name, c_nationkey nationkey, c_mktsegment mktsegment FROM tpch.customer),\n" +
+            "  \"Lineitem\" AS (SELECT l_orderkey orderkey, l_partkey partkey, l_suppkey suppkey, l_quantity quantity, l_extendedprice extendedprice, " +
+            "l_discount discount, l_tax tax, l_returnflag returnflag, l_linestatus linestatus, l_shipdate shipdate FROM tpch.lineitem),\n" +
+            "  \"Supplier\" AS (SELECT s_suppkey suppkey, s_nationkey nationkey FROM tpch.supplier),\n" +
+            "  \"Nation\" AS (SELECT n_nationkey nationkey, n_name name, n_regionkey regionkey FROM tpch.nation),\n" +
+            "  \"Region\" AS (SELECT r_regionkey regionkey, r_name name FROM tpch.region)\n";
+
+    private static final List<String> STATEMENTS = List.of(
+            // Q1
+            MODELS + "SELECT returnflag, linestatus, sum(quantity) sum_qty, sum(extendedprice) sum_base_price, " +
+                    "sum(extendedprice * (1 - discount)) sum_disc_price, sum(extendedprice * (1 - discount) * (1 + tax)) sum_charge, " +
+                    "avg(quantity) avg_qty, avg(extendedprice) avg_price, avg(discount) avg_disc, count(*) count_order " +
+                    "FROM \"Lineitem\" WHERE shipdate <= DATE '1998-12-01' - INTERVAL '90' DAY " +
+                    "GROUP BY returnflag, linestatus ORDER BY returnflag, linestatus",
+            // Q3
+            MODELS + "SELECT l.orderkey, sum(l.extendedprice * (1 - l.discount)) revenue, o.orderdate, date_trunc('month', o.orderdate) order_month " +
+                    "FROM \"Customer\" c JOIN \"Orders\" o ON c.custkey = o.custkey JOIN \"Lineitem\" l ON l.orderkey = o.orderkey " +
+                    "WHERE c.mktsegment = 'BUILDING' AND o.orderdate < DATE '1995-03-15' AND l.shipdate > DATE '1995-03-15' " +
+                    "GROUP BY l.orderkey, o.orderdate, date_trunc('month', o.orderdate) ORDER BY revenue DESC, o.orderdate LIMIT 10",
+            // Q5
+            MODELS + "SELECT n.name, sum(l.extendedprice * (1 - l.discount)) revenue, bool_or(o.orderstatus = 'F') any_finished " +
+                    "FROM \"Customer\" c JOIN \"Orders\" o ON c.custkey = o.custkey JOIN \"Lineitem\" l ON l.orderkey = o.orderkey " +
+                    "JOIN \"Supplier\" s ON l.suppkey = s.suppkey AND c.nationkey = s.nationkey " +
+                    "JOIN \"Nation\" n ON s.nationkey = n.nationkey JOIN \"Region\" r ON n.regionkey = r.regionkey " +
+                    "WHERE r.name = 'ASIA' AND o.orderdate >= DATE '1994-01-01' AND o.orderdate < TIMESTAMP '1994-01-01 00:00:00' + INTERVAL '1' YEAR " +
+                    "GROUP BY n.name ORDER BY revenue DESC",
+            // Q8
+            MODELS + "SELECT o_year, sum(CASE WHEN nation = 'BRAZIL' THEN volume ELSE 0 END) / sum(volume) mkt_share " +
+                    "FROM (SELECT extract(YEAR FROM o.orderdate) o_year, extract(DOW FROM o.orderdate) o_dow, " +
+                    "CAST(l.extendedprice * (1 - l.discount) AS DECIMAL(15, 2)) volume, n2.name nation " +
+                    "FROM \"Lineitem\" l JOIN \"Orders\" o ON l.orderkey = o.orderkey JOIN \"Customer\" c ON o.custkey = c.custkey " +
+                    "JOIN \"Nation\" n1 ON c.nationkey = n1.nationkey JOIN \"Region\" r ON n1.regionkey = r.regionkey " +
+                    "JOIN \"Supplier\" s ON s.suppkey = l.suppkey JOIN \"Nation\" n2 ON s.nationkey = n2.nationkey " +
+                    "WHERE r.name = 'AMERICA' AND o.orderdate BETWEEN DATE '1995-01-01' AND DATE '1996-12-31') all_nations " +
+                    "GROUP BY o_year ORDER BY o_year",
+            // Q18, with an IN subquery and a grouping set
+            MODELS + "SELECT c.name, c.custkey, o.orderkey, o.orderdate, CAST(o.totalprice AS VARCHAR(20)) totalprice, sum(l.quantity) quantity, " +
+                    "every(l.quantity > 0) all_positive " +
+                    "FROM \"Customer\" c JOIN \"Orders\" o ON c.custkey = o.custkey JOIN \"Lineitem\" l ON o.orderkey = l.orderkey " +
+                    "WHERE o.orderkey IN (SELECT orderkey FROM \"Lineitem\" GROUP BY orderkey HAVING sum(quantity) > 300) " +
+                    "AND o.orderdate > TIMESTAMP '1995-01-01 00:00:00.000' - INTERVAL '6' MONTH " +
+                    "GROUP BY (c.name, c.custkey, o.orderkey, o.orderdate, CAST(o.totalprice AS VARCHAR(20))) " +
+                    "ORDER BY CAST(o.totalprice AS VARCHAR(20)) DESC, o.orderdate LIMIT 100");
+
+    private static final List<NodeRewrite> REWRITES = List.of(
+            RewriteToBigQueryFunction.INSTANCE,
+            RewriteToBigQueryType.INSTANCE,
+            RemoveParameterInTypesInCast.INSTANCE,
+            FlattenGroupingElements.INSTANCE,
+            RewriteNamesToAlias.INSTANCE,
+            RewriteArithmetic.INSTANCE);
+
+    private static final FusedRewrite FUSED = new FusedRewrite(REWRITES);
+    private static final Metadata METADATA = new FunctionMetadata();
+
+    private final List<Statement> statements = STATEMENTS.stream()
+            .map(sql -> parseSql(sql))
+            .collect(toImmutableList());
+
+    @Benchmark
+    public void sequential(Blackhole blackhole)
+    {
+        for (Statement statement : statements) {
+            blackhole.consume(rewriteSequentially(statement));
+        }
+    }
+
+    @Benchmark
+    public void fused(Blackhole blackhole)
+    {
+        for (Statement statement : statements) {
+            blackhole.consume(FUSED.rewrite(statement, METADATA));
+        }
+    }
+
+    /**
+     * Format and parse the planned statement again before the rewrite, as the converter did before it accepted the AST.
+     */
+    @Benchmark
+    public void reparseAndFused(Blackhole blackhole)
+    {
+        for (Statement statement : statements) {
+            blackhole.consume(FUSED.rewrite(parseSql(formatSql(statement)), METADATA));
+        }
+    }
+
+    private static Node rewriteSequentially(Node node)
+    {
+        for (NodeRewrite rewrite : REWRITES) {
+            node = rewrite.rewrite(node, METADATA);
+        }
+        return node;
+    }
+
+    @Test
+    public void verify()
+    {
+        for (Statement statement : statements) {
+            assertThat(formatSql(FUSED.rewrite(statement, METADATA), BIGQUERY))
+                    .isEqualTo(formatSql(rewriteSequentially(statement), BIGQUERY));
+        }
+        assertThat(formatSql(FUSED.rewrite(statements.get(2), METADATA), BIGQUERY))
+                .containsIgnoringCase("logical_or(")
+                .containsIgnoringCase("CAST(TIMESTAMP '1994-01-01 00:00:00' AS DATETIME)");
+    }
+
+    public static void main(String[] args)
+            throws RunnerException
+    {
+        new Runner(new OptionsBuilder()
+                .include(".*" + BenchmarkBigQueryDialectRewrite.class.getSimpleName() + ".*")
+                .build())
+                .run();
+    }
+
+    private static class FunctionMetadata
+            implements Metadata
+    {
+        @Override
+        public void createSchema(String name)
+        {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void dropSchemaIfExists(String name)
+        {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public QualifiedName resolveFunction(String functionName, int numArgument)
+        {
+            return QualifiedName.of(functionName);
+        }
+
+        @Override
+        public String getDefaultCatalog()
+        {
+            return "wrenai";
+        }
+
+        @Override
+        public void directDDL(String sql)
+        {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public ConnectorRecordIterator directQuery(String sql, List<Parameter> parameters)
+        {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<Column> describeQuery(String sql, List<Parameter> parameters)
+        {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean isPgCompatible()
+        {
+            return false;
+        }
+
+        @Override
+        public String getPgCatalogName()
+        {
+            return "pg_catalog";
+        }
+
+        @Override
+        public void reload() {}
+
+        @Override
+        public StorageClient getCacheStorageClient()
+        {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public PgFunctionBuilder getPgFunctionBuilder()
+        {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void close() {}
+    }
+}
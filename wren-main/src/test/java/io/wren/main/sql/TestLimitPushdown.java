@@ -0,0 +1,61 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.wren.main.sql;
+
+import org.testng.annotations.Test;
+
+import static io.trino.sql.SqlFormatter.formatSql;
+import static io.wren.base.sqlrewrite.Utils.parseSql;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TestLimitPushdown
+{
+    @Test
+    public void testAddLimit()
+    {
+        assertPushDown("SELECT a FROM t", "SELECT a FROM t LIMIT 100");
+        assertPushDown("SELECT a FROM t ORDER BY a", "SELECT a FROM t ORDER BY a LIMIT 100");
+        assertPushDown("WITH m AS (SELECT a FROM t) SELECT a FROM m", "WITH m AS (SELECT a FROM t) SELECT a FROM m LIMIT 100");
+        assertPushDown("SELECT a FROM t UNION ALL SELECT a FROM s", "SELECT a FROM t UNION ALL SELECT a FROM s LIMIT 100");
+        assertPushDown("SELECT a FROM t UNION SELECT a FROM s ORDER BY a", "SELECT a FROM t UNION SELECT a FROM s ORDER BY a LIMIT 100");
+    }
+
+    @Test
+    public void testLowerLimit()
+    {
+        assertPushDown("SELECT a FROM t ORDER BY a LIMIT 1000", "SELECT a FROM t ORDER BY a LIMIT 100");
+        assertPushDown("SELECT a FROM t LIMIT 10", "SELECT a FROM t LIMIT 10");
+        assertPushDown("SELECT a FROM t UNION ALL SELECT a FROM s LIMIT 1000", "SELECT a FROM t UNION ALL SELECT a FROM s LIMIT 100");
+    }
+
+    @Test
+    public void testWrap()
+    {
+        assertPushDown("SELECT a FROM t ORDER BY a OFFSET 10 LIMIT 1000", "SELECT * FROM (SELECT a FROM t ORDER BY a OFFSET 10 LIMIT 1000) preview LIMIT 100");
+        assertPushDown("SELECT a FROM t LIMIT ALL", "SELECT * FROM (SELECT a FROM t LIMIT ALL) preview LIMIT 100");
+        assertPushDown("SELECT a FROM t FETCH FIRST 1000 ROWS ONLY", "SELECT * FROM (SELECT a FROM t FETCH FIRST 1000 ROWS ONLY) preview LIMIT 100");
+    }
+
+    @Test
+    public void testNotQuery()
+    {
+        assertPushDown("SHOW TABLES", "SHOW TABLES");
+    }
+
+    private static void assertPushDown(String sql, String expected)
+    {
+        assertThat(formatSql(LimitPushdown.pushDown(parseSql(sql), 100))).isEqualTo(formatSql(parseSql(expected)));
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.wren.main.sqlglot;
+
+import io.airlift.units.Duration;
+import org.testng.annotations.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static io.wren.main.sqlglot.CircuitBreaker.State.CLOSED;
+import static io.wren.main.sqlglot.CircuitBreaker.State.HALF_OPEN;
+import static io.wren.main.sqlglot.CircuitBreaker.State.OPEN;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TestCircuitBreaker
+{
+    private static final Duration OPEN_DURATION = new Duration(10, SECONDS);
+
+    @Test
+    public void testOpenAfterConsecutiveFailures()
+    {
+        AtomicLong ticker = new AtomicLong();
+        CircuitBreaker circuitBreaker = new CircuitBreaker(3, OPEN_DURATION, ticker::get);
+
+        circuitBreaker.recordFailure();
+        circuitBreaker.recordFailure();
+        // a success resets the count
+        circuitBreaker.recordSuccess();
+        circuitBreaker.recordFailure();
+        circuitBreaker.recordFailure();
+        assertThat(circuitBreaker.getState()).isEqualTo(CLOSED);
+        assertThat(circuitBreaker.tryAcquire()).isTrue();
+
+        circuitBreaker.recordFailure();
+        assertThat(circuitBreaker.getState()).isEqualTo(OPEN);
+        assertThat(circuitBreaker.tryAcquire()).isFalse();
+        ticker.addAndGet(SECONDS.toNanos(10) - 1);
+        assertThat(circuitBreaker.tryAcquire()).isFalse();
+    }
+
+    @Test
+    public void testProbe()
+    {
+        AtomicLong ticker = new AtomicLong();
+        CircuitBreaker circuitBreaker = new CircuitBreaker(1, OPEN_DURATION, ticker::get);
+        circuitBreaker.recordFailure();
+        assertThat(circuitBreaker.tryAcquire()).isFalse();
+
+        ticker.addAndGet(SECONDS.toNanos(10));
+        // only one request probes the server
+        assertThat(circuitBreaker.tryAcquire()).isTrue();
+        assertThat(circuitBreaker.getState()).isEqualTo(HALF_OPEN);
+        assertThat(circuitBreaker.tryAcquire()).isFalse();
+
+        // a failed probe opens the breaker for another period
+        circuitBreaker.recordFailure();
+        assertThat(circuitBreaker.getState()).isEqualTo(OPEN);
+        ticker.addAndGet(SECONDS.toNanos(5));
+        assertThat(circuitBreaker.tryAcquire()).isFalse();
+        ticker.addAndGet(SECONDS.toNanos(5));
+        assertThat(circuitBreaker.tryAcquire()).isTrue();
+
+        circuitBreaker.recordSuccess();
+        assertThat(circuitBreaker.getState()).isEqualTo(CLOSED);
+        assertThat(circuitBreaker.tryAcquire()).isTrue();
+        assertThat(circuitBreaker.tryAcquire()).isTrue();
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.wren.main.wireprotocol;
+
+import com.google.common.collect.ImmutableList;
+import io.wren.main.wireprotocol.patterns.PostgreSqlRewriteUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Statements captured from pgjdbc, Metabase and Tableau sessions. Most of them are plain queries
+ * that don't match any pattern, which is the case the pre-filter of {@link PostgreSqlRewriteUtil} optimizes.
+ */
+@State(Scope.Thread)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@BenchmarkMode(Mode.AverageTime)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+public class BenchmarkPostgreSqlRewriteUtil
+{
+    private static final List<String> JDBC_STATEMENTS = List.of(
+            "SET extra_float_digits = 3",
+            "SET application_name = 'PostgreSQL JDBC Driver'",
+            "SELECT typinput='array_in'::regproc as is_array, typtype, typname, pg_type.oid   FROM pg_catalog.pg_type   LEFT JOIN (select ns.oid as nspoid, ns.nspname, r.r " +
+                    "from pg_namespace as ns join ( select s.r, (current_schemas(false))[s.r] as nspname from generate_series(1, array_upper(current_schemas(false), 1)) as s(r) ) " +
+                    "as r using ( nspname )        ) as sp     ON sp.nspoid = typnamespace  WHERE pg_type.oid = $1  ORDER BY sp.r, pg_type.oid DESC",
+            "SELECT n.nspname = ANY(current_schemas(true)), n.nspname, t.typname FROM pg_catalog.pg_type t JOIN pg_catalog.pg_namespace n ON t.typnamespace = n.oid WHERE t.oid = $1",
+            "SELECT e.typdelim FROM pg_catalog.pg_type t, pg_catalog.pg_type e WHERE t.oid = $1 and t.typelem = e.oid",
+            "SHOW TRANSACTION ISOLATION LEVEL",
+            "SELECT o_orderkey, o_custkey, o_totalprice FROM Orders WHERE o_orderdate >= $1 AND o_orderdate < $2 ORDER BY o_totalprice DESC LIMIT 100",
+            "SELECT c_name, sum(o_totalprice) FROM Customer c JOIN Orders o ON c.c_custkey = o.o_custkey WHERE c_mktsegment = $1 GROUP BY 1 ORDER BY 2 DESC OFFSET 10");
+
+    private static final List<String> METABASE_STATEMENTS = List.of(
+            "SET SESSION TIME ZONE 'UTC'",
+            "SELECT \"public\".\"Orders\".\"o_orderstatus\" AS \"o_orderstatus\", count(*) AS \"count\" FROM \"public\".\"Orders\" " +
+                    "GROUP BY \"public\".\"Orders\".\"o_orderstatus\" ORDER BY \"public\".\"Orders\".\"o_orderstatus\" ASC",
+            "SELECT \"source\".\"o_orderdate\" AS \"o_orderdate\", sum(\"source\".\"o_totalprice\") AS \"sum\" FROM (SELECT \"public\".\"Orders\".\"o_orderdate\" AS \"o_orderdate\", " +
+                    "\"public\".\"Orders\".\"o_totalprice\" AS \"o_totalprice\" FROM \"public\".\"Orders\" WHERE \"public\".\"Orders\".\"o_orderdate\" >= timestamp with time zone '2023-01-01 00:00:00.000Z') " +
+                    "\"source\" GROUP BY \"source\".\"o_orderdate\" ORDER BY \"source\".\"o_orderdate\" ASC",
+            "with table_privileges as (\n" +
+                    "select\n" +
+                    "  NULL as role,\n" +
+                    "  t.schemaname as schema,\n" +
+                    "  t.tablename as table,\n" +
+                    "  pg_catalog.has_table_privilege(current_user, concat('\"', t.schemaname, '\"', '.', '\"', t.tablename, '\"'), 'SELECT') as select,\n" +
+                    "  pg_catalog.has_table_privilege(current_user, concat('\"', t.schemaname, '\"', '.', '\"', t.tablename, '\"'), 'UPDATE') as update,\n" +
+                    "  pg_catalog.has_table_privilege(current_user, concat('\"', t.schemaname, '\"', '.', '\"', t.tablename, '\"'), 'INSERT') as insert,\n" +
+                    "  pg_catalog.has_table_privilege(current_user, concat('\"', t.schemaname, '\"', '.', '\"', t.tablename, '\"'), 'DELETE') as delete\n" +
+                    "from pg_catalog.pg_tables t\n" +
+                    "where t.schemaname !~ '^pg_'\n" +
+                    "  and t.schemaname <> 'information_schema'\n" +
+                    "  and pg_catalog.has_schema_privilege(current_user, t.schemaname, 'USAGE')\n" +
+                    ")\n" +
+                    "select t.*\n" +
+                    "from table_privileges t\n" +
+                    "where t.select or t.update or t.insert or t.delete",
+            "SELECT \"public\".\"Customer\".\"c_custkey\" AS \"c_custkey\", \"public\".\"Customer\".\"c_name\" AS \"c_name\" FROM \"public\".\"Customer\" LIMIT 2000");
+
+    private static final List<String> TABLEAU_STATEMENTS = List.of(
+            "set DateStyle to 'ISO'",
+            "set extra_float_digits to 2",
+            "show timezone",
+            "select oid, typbasetype from pg_type where typname = 'lo'",
+            "select relname, nspname, relkind from pg_catalog.pg_class c, pg_catalog.pg_namespace n where relkind in ('r', 'v', 'm', 'f', 'p') " +
+                    "and nspname not in ('pg_catalog', 'information_schema', 'pg_toast', 'pg_temp_1') and n.oid = relnamespace order by nspname, relname",
+            "SELECT CAST(\"Orders\".\"o_orderpriority\" AS TEXT) AS \"o_orderpriority\", SUM(\"Orders\".\"o_totalprice\") AS \"sum:o_totalprice:ok\" FROM \"public\".\"Orders\" \"Orders\" " +
+                    "GROUP BY 1",
+            "SELECT \"Lineitem\".\"l_returnflag\" AS \"l_returnflag\", \"Lineitem\".\"l_linestatus\" AS \"l_linestatus\", SUM(\"Lineitem\".\"l_quantity\") AS \"sum:l_quantity:ok\", " +
+                    "AVG(\"Lineitem\".\"l_discount\") AS \"avg:l_discount:ok\" FROM \"public\".\"Lineitem\" \"Lineitem\" WHERE (\"Lineitem\".\"l_shipdate\" <= (DATE '1998-12-01')) GROUP BY 1, 2");
+
+    private static final List<String> CORPUS = ImmutableList.<String>builder()
+            .addAll(JDBC_STATEMENTS)
+            .addAll(METABASE_STATEMENTS)
+            .addAll(TABLEAU_STATEMENTS)
+            .build();
+
+    @Benchmark
+    public void rewrite(Blackhole blackhole)
+    {
+        for (String statement : CORPUS) {
+            blackhole.consume(PostgreSqlRewriteUtil.rewrite(statement));
+        }
+    }
+
+    @Benchmark
+    public void rewritePreparedChar(Blackhole blackhole)
+    {
+        for (String statement : CORPUS) {
+            blackhole.consume(PostgreSqlRewriteUtil.rewritePreparedChar(statement));
+        }
+    }
+
+    @Test
+    public void verify()
+    {
+        assertThat(PostgreSqlRewriteUtil.rewrite(JDBC_STATEMENTS.get(5)))
+                .isEqualTo("SELECT * FROM (VALUES(ROW('read uncommitted'))) RESPONSE(transaction_isolation)");
+        assertThat(PostgreSqlRewriteUtil.rewrite(TABLEAU_STATEMENTS.get(2))).isEqualTo("SELECT 'UTC' AS TimeZone");
+        assertThat(PostgreSqlRewriteUtil.rewrite(TABLEAU_STATEMENTS.get(5))).isEqualTo(TABLEAU_STATEMENTS.get(5));
+        assertThat(PostgreSqlRewriteUtil.rewrite(METABASE_STATEMENTS.get(1))).isEqualTo(METABASE_STATEMENTS.get(1));
+        assertThat(PostgreSqlRewriteUtil.rewritePreparedChar(JDBC_STATEMENTS.get(6)))
+                .isEqualTo("SELECT o_orderkey, o_custkey, o_totalprice FROM Orders WHERE o_orderdate >= ? AND o_orderdate < ? ORDER BY o_totalprice DESC LIMIT 100");
+    }
+
+    public static void main(String[] args)
+            throws RunnerException
+    {
+        new Runner(new OptionsBuilder()
+                .include(".*" + BenchmarkPostgreSqlRewriteUtil.class.getSimpleName() + ".*")
+                .build())
+                .run();
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.wren.main.wireprotocol;
+
+import io.wren.base.AnalyzedMDL;
+import io.wren.base.SessionContext;
+import io.wren.base.WrenException;
+import io.wren.base.sqlrewrite.WrenDataLineage;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static io.wren.base.WrenMDL.EMPTY;
+import static io.wren.base.metadata.StandardErrorCode.GENERIC_USER_ERROR;
+import static io.wren.base.sqlrewrite.Utils.parseSql;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class TestPlannedStatementStore
+{
+    private static final SessionContext SESSION_CONTEXT = SessionContext.builder()
+            .setCatalog("wren")
+            .setSchema("test")
+            .build();
+
+    @Test
+    public void testShareAcrossSessions()
+    {
+        PlannedStatementStore store = new PlannedStatementStore(100);
+        AnalyzedMDL analyzedMDL = new AnalyzedMDL(EMPTY, WrenDataLineage.EMPTY, "1");
+        AtomicInteger planned = new AtomicInteger();
+
+        PlannedStatement first = store.get("SELECT 1", List.of(), SESSION_CONTEXT, analyzedMDL, table -> Optional.empty(), () -> plan(planned));
+        PlannedStatement second = store.get("SELECT 1", List.of(), SESSION_CONTEXT, analyzedMDL, table -> Optional.empty(), () -> plan(planned));
+        assertThat(second).isSameAs(first);
+        assertThat(planned.get()).isEqualTo(1);
+
+        store.get("SELECT 1", List.of(23), SESSION_CONTEXT, analyzedMDL, table -> Optional.empty(), () -> plan(planned));
+        store.get("SELECT 1", List.of(), SessionContext.builder().setCatalog("wren").setSchema("other").build(), analyzedMDL, table -> Optional.empty(), () -> plan(planned));
+        assertThat(planned.get()).isEqualTo(3);
+        assertThat(store.size()).isEqualTo(3);
+    }
+
+    @Test
+    public void testResetAfterDeploy()
+    {
+        PlannedStatementStore store = new PlannedStatementStore(100);
+        AtomicInteger planned = new AtomicInteger();
+
+        store.get("SELECT 1", List.of(), SESSION_CONTEXT, new AnalyzedMDL(EMPTY, WrenDataLineage.EMPTY, "1"), table -> Optional.empty(), () -> plan(planned));
+        store.get("SELECT 1", List.of(), SESSION_CONTEXT, new AnalyzedMDL(EMPTY, WrenDataLineage.EMPTY, "2"), table -> Optional.empty(), () -> plan(planned));
+        assertThat(planned.get()).isEqualTo(2);
+        assertThat(store.size()).isEqualTo(1);
+    }
+
+    @Test
+    public void testFailureIsNotCached()
+    {
+        PlannedStatementStore store = new PlannedStatementStore(100);
+        AnalyzedMDL analyzedMDL = new AnalyzedMDL(EMPTY, WrenDataLineage.EMPTY, "1");
+
+        assertThatThrownBy(() -> store.get("SELECT x", List.of(), SESSION_CONTEXT, analyzedMDL, table -> Optional.empty(), () -> {
+            throw new WrenException(GENERIC_USER_ERROR, "planning failed");
+        }))
+                .isInstanceOf(WrenException.class)
+                .hasMessage("planning failed");
+        assertThat(store.size()).isEqualTo(0);
+    }
+
+    @Test
+    public void testDisabled()
+    {
+        PlannedStatementStore store = new PlannedStatementStore(0);
+        AnalyzedMDL analyzedMDL = new AnalyzedMDL(EMPTY, WrenDataLineage.EMPTY, "1");
+        AtomicInteger planned = new AtomicInteger();
+
+        store.get("SELECT 1", List.of(), SESSION_CONTEXT, analyzedMDL, table -> Optional.empty(), () -> plan(planned));
+        store.get("SELECT 1", List.of(), SESSION_CONTEXT, analyzedMDL, table -> Optional.empty(), () -> plan(planned));
+        assertThat(planned.get()).isEqualTo(2);
+    }
+
+    private static PlannedStatement plan(AtomicInteger planned)
+    {
+        planned.incrementAndGet();
+        return new PlannedStatement(
+                "SELECT 1",
+                "SELECT 1",
+                parseSql("SELECT 1"),
+                PlannedStatement.CachedStatement.rewrite(SESSION_CONTEXT, "SELECT 1", table -> Optional.empty(), EMPTY),
+                List.of(),
+                List.of(),
+                false);
+    }
+}
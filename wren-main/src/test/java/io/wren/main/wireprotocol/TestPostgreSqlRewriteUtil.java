@@ -18,7 +18,11 @@ import io.wren.main.wireprotocol.patterns.PostgreSqlRewriteUtil;
 import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 
+import java.util.List;
+import java.util.Optional;
+
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertThrows;
 
 public class TestPostgreSqlRewriteUtil
 {
@@ -180,4 +184,49 @@ public class TestPostgreSqlRewriteUtil
         String actual = PostgreSqlRewriteUtil.rewrite(sql);
         assertEquals(actual, expected);
     }
+
+    @Test
+    public void testRewritePreparedChar()
+    {
+        assertEquals(PostgreSqlRewriteUtil.rewritePreparedChar("SELECT 1"), "SELECT 1");
+        assertEquals(PostgreSqlRewriteUtil.rewritePreparedChar("SELECT $1 as c1, $2 c2"), "SELECT ? as c1, ? c2");
+        assertEquals(PostgreSqlRewriteUtil.rewritePreparedChar("SELECT * FROM t WHERE c = $12"), "SELECT * FROM t WHERE c = ?");
+        assertEquals(PostgreSqlRewriteUtil.rewritePreparedChar("SELECT '$', $a, $$1"), "SELECT '$', $a, $?");
+    }
+
+    @Test
+    public void testRewriteWithParametersKeepsCachedTables()
+    {
+        // the anchor of a pattern matches, so the prepared statement is rebuilt even if the pattern doesn't
+        String statement = "SELECT typdelim FROM Orders";
+        PreparedStatement preparedStatement = new PreparedStatement(
+                "s1",
+                statement,
+                Optional.empty(),
+                Optional.of("SELECT typdelim FROM \"cache_orders\""),
+                List.of("cache_orders"),
+                List.of(),
+                List.of("Orders"),
+                statement,
+                false,
+                QueryLevel.DATASOURCE);
+
+        Portal portal = PostgreSqlRewriteUtil.rewriteWithParameters(new Portal("p1", preparedStatement, List.of(), null));
+        assertEquals(portal.getPreparedStatement().getCacheStatement(), Optional.of("SELECT typdelim FROM \"cache_orders\""));
+        assertEquals(portal.getPreparedStatement().getCachedTables(), List.of("cache_orders"));
+        assertEquals(portal.getPreparedStatement().getModels(), List.of("Orders"));
+
+        // a cache statement without the cached tables to pin is rejected
+        assertThrows(IllegalArgumentException.class, () -> new PreparedStatement(
+                "s2",
+                statement,
+                Optional.empty(),
+                Optional.of("SELECT typdelim FROM \"cache_orders\""),
+                List.of(),
+                List.of(),
+                List.of(),
+                statement,
+                false,
+                QueryLevel.DATASOURCE));
+    }
 }
@@ -0,0 +1,135 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.wren.main.wireprotocol;
+
+import io.airlift.units.Duration;
+import io.wren.base.config.PostgresWireProtocolConfig;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TestQueryHistory
+{
+    @Test
+    public void testRingBuffer()
+    {
+        QueryHistory history = new QueryHistory(new PostgresWireProtocolConfig().setQueryHistorySize(3));
+        for (int i = 0; i < 5; i++) {
+            history.add(record(String.valueOf(i), "alice", List.of("Orders"), false, 10));
+        }
+        assertThat(history.getQueries(null, null, null, 100)).extracting(QueryRecord::getQueryId)
+                .containsExactly("4", "3", "2");
+        assertThat(history.getQueries(null, null, null, 1)).extracting(QueryRecord::getQueryId)
+                .containsExactly("4");
+
+        QueryHistory disabled = new QueryHistory(new PostgresWireProtocolConfig().setQueryHistorySize(0));
+        disabled.add(record("1", "alice", List.of("Orders"), false, 10));
+        assertThat(disabled.getQueries(null, null, null, 100)).isEmpty();
+    }
+
+    @Test
+    public void testFilter()
+    {
+        QueryHistory history = new QueryHistory(new PostgresWireProtocolConfig());
+        history.add(record("1", "alice", List.of("Orders"), false, 10));
+        history.add(record("2", "bob", List.of("Orders", "Customer"), true, 10));
+        history.add(record("3", null, List.of(), false, 10));
+
+        assertThat(history.getQueries("alice", null, null, 100)).extracting(QueryRecord::getQueryId).containsExactly("1");
+        assertThat(history.getQueries(null, "orders", null, 100)).extracting(QueryRecord::getQueryId).containsExactly("2", "1");
+        assertThat(history.getQueries(null, "Customer", true, 100)).extracting(QueryRecord::getQueryId).containsExactly("2");
+        assertThat(history.getQueries(null, null, false, 100)).extracting(QueryRecord::getQueryId).containsExactly("3", "1");
+        assertThat(history.getQueries("bob", "Orders", false, 100)).isEmpty();
+    }
+
+    @Test
+    public void testSlowQueryLog()
+            throws Exception
+    {
+        Path directory = Files.createTempDirectory("slow-query");
+        File logFile = directory.resolve("log/slow-query.log").toFile();
+        QueryHistory history = new QueryHistory(new PostgresWireProtocolConfig()
+                .setSlowQueryThreshold(new Duration(1, SECONDS))
+                .setSlowQueryLogFile(logFile));
+        history.add(record("fast", "alice", List.of("Orders"), false, 10));
+        history.add(record("slow", "alice", List.of("Orders"), false, SECONDS.toMillis(2)));
+
+        long deadline = System.nanoTime() + SECONDS.toNanos(10);
+        while (logFile.length() == 0 && System.nanoTime() < deadline) {
+            MILLISECONDS.sleep(10);
+        }
+        List<String> lines = Files.readAllLines(logFile.toPath());
+        assertThat(lines).hasSize(1);
+        assertThat(lines.get(0)).contains("\"queryId\":\"slow\"").contains("\"models\":[\"Orders\"]");
+        assertThat(history.getQueries(null, null, null, 100)).hasSize(2);
+    }
+
+    @Test
+    public void testSlowQueryLogOverflow()
+            throws Exception
+    {
+        Path directory = Files.createTempDirectory("slow-query");
+        File logFile = directory.resolve("slow-query.log").toFile();
+        QueryHistory history = new QueryHistory(new PostgresWireProtocolConfig()
+                .setSlowQueryThreshold(new Duration(1, SECONDS))
+                .setSlowQueryLogFile(logFile), 1);
+        int count = 1000;
+        for (int i = 0; i < count; i++) {
+            history.add(record(String.valueOf(i), "alice", List.of("Orders"), false, SECONDS.toMillis(2)));
+        }
+
+        // the records which didn't fit in the queue are dropped instead of waiting for the writer
+        assertThat(history.getDroppedSlowQueries()).isGreaterThan(0);
+        long deadline = System.nanoTime() + SECONDS.toNanos(10);
+        while (countLines(logFile) + history.getDroppedSlowQueries() < count && System.nanoTime() < deadline) {
+            MILLISECONDS.sleep(10);
+        }
+        assertThat(countLines(logFile) + history.getDroppedSlowQueries()).isEqualTo(count);
+    }
+
+    private static long countLines(File file)
+            throws IOException
+    {
+        return file.exists() ? Files.readAllLines(file.toPath()).size() : 0;
+    }
+
+    private static QueryRecord record(String queryId, String user, List<String> models, boolean cacheHit, long elapsedMillis)
+    {
+        return new QueryRecord(
+                queryId,
+                Optional.ofNullable(user),
+                "SELECT * FROM Orders",
+                Instant.now(),
+                MILLISECONDS.toMicros(elapsedMillis),
+                Map.of("execution", MILLISECONDS.toMicros(elapsedMillis)),
+                false,
+                models,
+                1,
+                16,
+                cacheHit,
+                Optional.empty());
+    }
+}
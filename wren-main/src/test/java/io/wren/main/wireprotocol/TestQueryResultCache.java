@@ -0,0 +1,233 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.wren.main.wireprotocol;
+
+import io.airlift.units.DataSize;
+import io.airlift.units.Duration;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.UnpooledByteBufAllocator;
+import io.wren.base.Column;
+import io.wren.base.ConnectorRecordIterator;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static io.airlift.units.DataSize.Unit.BYTE;
+import static io.airlift.units.DataSize.Unit.MEGABYTE;
+import static io.wren.base.type.IntegerType.INTEGER;
+import static java.util.concurrent.TimeUnit.MINUTES;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class TestQueryResultCache
+{
+    private static final List<Column> COLUMNS = List.of(new Column("c1", INTEGER));
+    private static final Duration TTL = new Duration(1, MINUTES);
+
+    private final List<QueryResultCache> caches = new ArrayList<>();
+
+    @AfterClass(alwaysRun = true)
+    public void tearDown()
+    {
+        caches.forEach(QueryResultCache::close);
+    }
+
+    @Test
+    public void testHit()
+            throws Exception
+    {
+        QueryResultCache cache = cache(DataSize.of(1, MEGABYTE), DataSize.of(1, MEGABYTE), TTL);
+        AtomicInteger executions = new AtomicInteger();
+        QueryResultCache.Key key = key("SELECT c1 FROM t");
+
+        QueryResult miss = cache.execute(key, TTL, () -> iterator(executions, 1, 2, 3)).get(10, SECONDS);
+        assertThat(miss.isResultCacheHit()).isFalse();
+        List<ByteBuf> sent = read(miss);
+        assertThat(sent).hasSize(3);
+        assertThat(executions.get()).isEqualTo(1);
+        assertThat(cache.size()).isEqualTo(1);
+
+        QueryResult hit = cache.execute(key, TTL, () -> iterator(executions, 1, 2, 3)).get(10, SECONDS);
+        assertThat(hit.isResultCacheHit()).isTrue();
+        assertThat(hit.getColumns()).isEqualTo(COLUMNS);
+        List<ByteBuf> cached = read(hit);
+        assertThat(executions.get()).isEqualTo(1);
+        assertThat(cached).isEqualTo(sent);
+
+        // another statement or format is another result
+        read(cache.execute(key("SELECT c1 FROM t LIMIT 1"), TTL, () -> iterator(executions, 1)).get(10, SECONDS)).forEach(ByteBuf::release);
+        assertThat(executions.get()).isEqualTo(2);
+
+        cache.invalidateAll();
+        assertThat(cache.size()).isZero();
+        try (QueryResult result = cache.execute(key, TTL, () -> iterator(executions, 1, 2, 3)).get(10, SECONDS)) {
+            assertThat(result.isResultCacheHit()).isFalse();
+        }
+        sent.forEach(ByteBuf::release);
+        cached.forEach(ByteBuf::release);
+    }
+
+    @Test
+    public void testOversizedResultNotCached()
+            throws Exception
+    {
+        QueryResultCache cache = cache(DataSize.of(1, MEGABYTE), DataSize.of(32, BYTE), TTL);
+        AtomicInteger executions = new AtomicInteger();
+
+        // a DataRow of a one digit integer in text takes 12 bytes, so the last row isn't buffered but still sent
+        QueryResultCache.Key oversized = key("SELECT c1 FROM u");
+        List<ByteBuf> sent = read(cache.execute(oversized, TTL, () -> iterator(executions, 1, 2, 3, 4)).get(10, SECONDS));
+        assertThat(sent).hasSize(4);
+        sent.forEach(ByteBuf::release);
+        assertThat(cache.size()).isZero();
+
+        // the next identical query doesn't wait for the abandoned flight
+        try (QueryResult miss = cache.execute(oversized, TTL, () -> iterator(executions, 1)).get(10, SECONDS)) {
+            assertThat(miss.isResultCacheHit()).isFalse();
+        }
+        assertThat(executions.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void testFollowerNotWaitingForLeaderClient()
+            throws Exception
+    {
+        QueryResultCache cache = cache(DataSize.of(1, MEGABYTE), DataSize.of(1, MEGABYTE), TTL);
+        AtomicInteger executions = new AtomicInteger();
+        QueryResultCache.Key key = key("SELECT c1 FROM t");
+        CountDownLatch running = new CountDownLatch(1);
+
+        CompletableFuture<QueryResult> leader = cache.execute(key, TTL, () -> {
+            awaitUninterruptibly(running);
+            return iterator(executions, 1, 2, 3);
+        });
+        CompletableFuture<QueryResult> follower = cache.execute(key, TTL, () -> iterator(executions, 1, 2, 3));
+        assertThat(follower).isNotDone();
+
+        running.countDown();
+        // the leader hasn't sent any row to its client yet
+        try (QueryResult leaderResult = leader.get(10, SECONDS);
+                QueryResult followerResult = follower.get(10, SECONDS)) {
+            assertThat(leaderResult.isResultCacheHit()).isFalse();
+            assertThat(followerResult.isResultCacheHit()).isTrue();
+            List<ByteBuf> rows = read(followerResult);
+            assertThat(rows).hasSize(3);
+            rows.forEach(ByteBuf::release);
+        }
+        assertThat(executions.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void testLeaderFailure()
+            throws Exception
+    {
+        QueryResultCache cache = cache(DataSize.of(1, MEGABYTE), DataSize.of(1, MEGABYTE), TTL);
+        AtomicInteger executions = new AtomicInteger();
+        QueryResultCache.Key key = key("SELECT c1 FROM t");
+
+        assertThatThrownBy(() -> cache.execute(key, TTL, () -> {
+            throw new IllegalStateException("failed");
+        }).get(10, SECONDS)).hasRootCauseInstanceOf(IllegalStateException.class);
+        assertThat(cache.size()).isZero();
+
+        try (QueryResult result = cache.execute(key, TTL, () -> iterator(executions, 1)).get(10, SECONDS)) {
+            assertThat(result.isResultCacheHit()).isFalse();
+        }
+        assertThat(executions.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void testDisabled()
+    {
+        QueryResultCache cache = cache(DataSize.of(0, BYTE), DataSize.of(1, MEGABYTE), TTL);
+        assertThat(cache.isEnabled()).isFalse();
+        assertThat(cache(DataSize.of(1, MEGABYTE), DataSize.of(1, MEGABYTE), new Duration(0, MINUTES)).isEnabled()).isFalse();
+    }
+
+    private QueryResultCache cache(DataSize maxSize, DataSize maxEntrySize, Duration ttl)
+    {
+        QueryResultCache cache = new QueryResultCache(maxSize, maxEntrySize, ttl);
+        caches.add(cache);
+        return cache;
+    }
+
+    private static QueryResultCache.Key key(String statement)
+    {
+        return new QueryResultCache.Key(1, statement, List.of(), Optional.of("wren"), Optional.of("test"), false, List.of());
+    }
+
+    /**
+     * Read the messages the way {@link ResultSetSender} does.
+     */
+    private static List<ByteBuf> read(QueryResult result)
+            throws Exception
+    {
+        List<ByteBuf> messages = new ArrayList<>();
+        try (result) {
+            while (result.hasNext()) {
+                messages.add(result.nextDataRow(UnpooledByteBufAllocator.DEFAULT, List.of(INTEGER), null));
+            }
+        }
+        return messages;
+    }
+
+    private static void awaitUninterruptibly(CountDownLatch latch)
+    {
+        try {
+            latch.await();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static ConnectorRecordIterator iterator(AtomicInteger executions, Integer... values)
+    {
+        executions.incrementAndGet();
+        Iterator<Integer> rows = List.of(values).iterator();
+        return new ConnectorRecordIterator()
+        {
+            @Override
+            public List<Column> getColumns()
+            {
+                return COLUMNS;
+            }
+
+            @Override
+            public boolean hasNext()
+            {
+                return rows.hasNext();
+            }
+
+            @Override
+            public Object[] next()
+            {
+                return new Object[] {rows.next()};
+            }
+
+            @Override
+            public void close() {}
+        };
+    }
+}
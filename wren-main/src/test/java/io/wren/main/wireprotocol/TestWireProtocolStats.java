@@ -0,0 +1,105 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.wren.main.wireprotocol;
+
+import io.wren.base.WrenException;
+import io.wren.base.config.PostgresWireProtocolConfig;
+import org.testng.annotations.Test;
+
+import java.util.Optional;
+
+import static io.wren.base.metadata.StandardErrorCode.GENERIC_USER_ERROR;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+public class TestWireProtocolStats
+{
+    @Test
+    public void testQueryFinished()
+    {
+        WireProtocolStats stats = new WireProtocolStats(new QueryHistory(new PostgresWireProtocolConfig()));
+        QueryTrace trace = new QueryTrace("1", Optional.of("alice"), "SELECT 1");
+        trace.record(QueryPhase.WREN_REWRITE, System.nanoTime() - 1_000_000);
+        trace.startExecution();
+        trace.firstRow();
+        trace.firstRow();
+        trace.addRows(10);
+        trace.setCacheHit(true);
+
+        stats.queryFinished(trace);
+        assertThat(trace.isFinished()).isTrue();
+        assertThat(trace.getPhaseNanos(QueryPhase.WREN_REWRITE)).isGreaterThanOrEqualTo(1_000_000);
+        assertThat(stats.getPhaseTime(QueryPhase.WREN_REWRITE).getAllTime().getCount()).isEqualTo(1);
+        assertThat(stats.getPhaseTime(QueryPhase.FIRST_ROW).getAllTime().getCount()).isEqualTo(1);
+        assertThat(stats.getPhaseTime(QueryPhase.PARSE).getAllTime().getCount()).isEqualTo(0);
+        assertThat(stats.getQueryTime().getAllTime().getCount()).isEqualTo(1);
+        assertThat(stats.getCompletedQueries().getTotalCount()).isEqualTo(1);
+        assertThat(stats.getCacheHits().getTotalCount()).isEqualTo(1);
+        assertThat(stats.getOutputRows().getTotalCount()).isEqualTo(10);
+
+        // a trace is reported only once, even if both the execution and the sender finish it
+        stats.queryFinished(trace);
+        assertThat(stats.getCompletedQueries().getTotalCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void testPhases()
+    {
+        WireProtocolStats stats = new WireProtocolStats(new QueryHistory(new PostgresWireProtocolConfig()));
+        QueryTrace planned = new QueryTrace("1", Optional.empty(), "SELECT * FROM Orders");
+        planned.record(QueryPhase.PARSE, System.nanoTime() - 1_000_000);
+        planned.record(QueryPhase.FORMAT, System.nanoTime() - 3_000_000);
+        planned.record(QueryPhase.PLANNING, System.nanoTime() - 5_000_000);
+        stats.queryFinished(planned);
+
+        QueryTrace reused = new QueryTrace("2", Optional.empty(), "SELECT * FROM Orders");
+        reused.plannedStatementHit();
+        stats.queryFinished(reused);
+
+        // each phase is a timer of its own, formatting doesn't count as parsing
+        assertThat(stats.getPhaseTime(QueryPhase.PARSE).getAllTime().getCount()).isEqualTo(1);
+        assertThat(stats.getPhaseTime(QueryPhase.FORMAT).getAllTime().getCount()).isEqualTo(1);
+        assertThat(stats.getPhaseTime(QueryPhase.FORMAT).getAllTime().getMin()).isGreaterThanOrEqualTo(3);
+        assertThat(stats.getPhaseTime(QueryPhase.PARSE).getAllTime().getMax())
+                .isGreaterThanOrEqualTo(1)
+                .isLessThan(stats.getPhaseTime(QueryPhase.FORMAT).getAllTime().getMin());
+        assertThat(stats.getPhaseTime(QueryPhase.POSTGRES_REWRITE).getAllTime().getCount()).isEqualTo(0);
+
+        // a plan taken from the planned statement store is a zero planning sample
+        assertThat(reused.isRecorded(QueryPhase.PLANNING)).isTrue();
+        assertThat(reused.getPhaseNanos(QueryPhase.PLANNING)).isEqualTo(0);
+        assertThat(reused.isRecorded(QueryPhase.PARSE)).isFalse();
+        assertThat(stats.getPhaseTime(QueryPhase.PLANNING).getAllTime().getCount()).isEqualTo(2);
+        assertThat(stats.getPhaseTime(QueryPhase.PLANNING).getAllTime().getMin()).isEqualTo(0);
+        assertThat(stats.getPlannedStatementHits().getTotalCount()).isEqualTo(1);
+        assertThat(QueryRecord.from(reused).isPlannedStatementHit()).isTrue();
+        assertThat(QueryRecord.from(reused).getPhaseMicros()).containsExactly(entry("planning", 0L));
+        assertThat(QueryRecord.from(planned).getPhaseMicros()).containsOnlyKeys("parse", "format", "planning");
+    }
+
+    @Test
+    public void testQueryFailed()
+    {
+        WireProtocolStats stats = new WireProtocolStats(new QueryHistory(new PostgresWireProtocolConfig()));
+        QueryTrace trace = new QueryTrace("1", Optional.empty(), "SELECT * FROM unknown");
+        trace.fail(new WrenException(GENERIC_USER_ERROR, "table unknown not found"));
+
+        stats.queryFinished(trace);
+        assertThat(trace.getFailure()).hasValue("table unknown not found");
+        assertThat(stats.getFailedQueries().getTotalCount()).isEqualTo(1);
+        assertThat(stats.getCompletedQueries().getTotalCount()).isEqualTo(0);
+        assertThat(trace.toString()).contains("failure=table unknown not found");
+    }
+}
@@ -19,9 +19,12 @@ import io.wren.main.wireprotocol.MessagePlanner;
 import org.testng.annotations.Test;
 
 import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
 
+import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
 import static io.wren.main.wireprotocol.message.Bind.bind;
 import static io.wren.main.wireprotocol.message.Describe.describePortal;
 import static io.wren.main.wireprotocol.message.Describe.describeStatement;
@@ -87,4 +90,55 @@ public class TestMessagePlanner
         assertThat(planned.get(5)).isInstanceOf(ExecuteAndSendRowDescription.class);
         assertThat(planned.get(6)).isInstanceOf(SendResult.class);
     }
+
+    @Test
+    public void testPipelineExecute()
+    {
+        List<String> events = new ArrayList<>();
+        CompletableFuture<Runnable> first = new CompletableFuture<>();
+        CompletableFuture<Runnable> second = new CompletableFuture<>();
+        List<Plan> plans = List.of(
+                pipelined("first", first, events),
+                pipelined("second", second, events),
+                (channel, session) -> () -> events.add("barrier"),
+                pipelined("third", CompletableFuture.completedFuture(() -> events.add("third")), events));
+
+        CompletableFuture<Void> written = MessagePlanner.execute(plans, CompletableFuture.completedFuture(null), null, null, directExecutor());
+        // the second plan starts without waiting for the response of the first one
+        assertThat(events).containsExactly("start first", "start second");
+
+        second.complete(() -> events.add("second"));
+        assertThat(events).containsExactly("start first", "start second");
+        assertThat(written).isNotDone();
+
+        first.complete(() -> events.add("first"));
+        assertThat(events).containsExactly("start first", "start second", "first", "second", "barrier", "start third", "third");
+        assertThat(written).isCompleted();
+    }
+
+    @Test
+    public void testPipelineAfterPreviousBatch()
+    {
+        List<String> events = new ArrayList<>();
+        CompletableFuture<Void> previous = new CompletableFuture<>();
+        CompletableFuture<Void> written = MessagePlanner.execute(
+                List.of(pipelined("next", CompletableFuture.completedFuture(() -> events.add("next")), events)),
+                previous,
+                null,
+                null,
+                directExecutor());
+        assertThat(events).isEmpty();
+
+        previous.completeExceptionally(new RuntimeException("previous batch failed"));
+        assertThat(events).containsExactly("start next", "next");
+        assertThat(written).isCompleted();
+    }
+
+    private static PipelinedPlan pipelined(String name, CompletableFuture<Runnable> response, List<String> events)
+    {
+        return (channel, session) -> {
+            events.add("start " + name);
+            return response;
+        };
+    }
 }
@@ -22,8 +22,10 @@ import io.wren.base.sql.SqlConverter;
 import io.wren.cache.CacheService;
 import io.wren.cache.NOPCacheService;
 import io.wren.main.connector.CacheServiceManager;
+import io.wren.main.connector.JdbcCacheService;
 import io.wren.main.metadata.Metadata;
 import io.wren.main.metadata.MetadataManager;
+import io.wren.main.metadata.QueryCoalescer;
 import io.wren.main.pgcatalog.builder.PgFunctionBuilderManager;
 import io.wren.main.sql.SqlConverterManager;
 
@@ -35,9 +37,11 @@ public class MainModule
     protected void setup(Binder binder)
     {
         binder.bind(Metadata.class).to(MetadataManager.class).in(Scopes.SINGLETON);
+        binder.bind(QueryCoalescer.class).in(Scopes.SINGLETON);
         binder.bind(SqlConverter.class).to(SqlConverterManager.class).in(Scopes.SINGLETON);
         binder.bind(CacheService.class).to(CacheServiceManager.class).in(Scopes.SINGLETON);
         binder.bind(NOPCacheService.class).in(Scopes.SINGLETON);
+        binder.bind(JdbcCacheService.class).in(Scopes.SINGLETON);
         binder.bind(PgFunctionBuilderManager.class).in(Scopes.SINGLETON);
         binder.bind(ConfigManager.class).in(Scopes.SINGLETON);
     }
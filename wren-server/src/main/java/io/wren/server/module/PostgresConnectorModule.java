@@ -18,7 +18,6 @@ import com.google.inject.Binder;
 import com.google.inject.Scopes;
 import io.airlift.configuration.AbstractConfigurationAwareModule;
 import io.wren.base.config.PostgresConfig;
-import io.wren.main.connector.postgres.PostgresCacheService;
 import io.wren.main.connector.postgres.PostgresMetadata;
 import io.wren.main.connector.postgres.PostgresSqlConverter;
 
@@ -32,7 +31,6 @@ public class PostgresConnectorModule
     {
         configBinder(binder).bindConfig(PostgresConfig.class);
         binder.bind(PostgresSqlConverter.class).in(Scopes.SINGLETON);
-        binder.bind(PostgresCacheService.class).in(Scopes.SINGLETON);
         binder.bind(PostgresMetadata.class).in(Scopes.SINGLETON);
     }
 }
@@ -29,6 +29,8 @@ import io.wren.main.web.ConfigResource;
 import io.wren.main.web.CouchbaseResource;
 import io.wren.main.web.DuckDBResource;
 import io.wren.main.web.MDLResource;
+import io.wren.main.web.MetricsResource;
+import io.wren.main.web.QueryResource;
 import io.wren.main.web.WrenExceptionMapper;
 
 import static io.airlift.jaxrs.JaxrsBinder.jaxrsBinder;
@@ -45,6 +47,8 @@ public class WebModule
         jaxrsBinder(binder).bind(ConfigResource.class);
         jaxrsBinder(binder).bind(DuckDBResource.class);
         jaxrsBinder(binder).bind(CouchbaseResource.class);
+        jaxrsBinder(binder).bind(MetricsResource.class);
+        jaxrsBinder(binder).bind(QueryResource.class);
         jaxrsBinder(binder).bindInstance(new WrenExceptionMapper());
         binder.bind(PreviewService.class).in(Scopes.SINGLETON);
         binder.bind(ValidationService.class).in(Scopes.SINGLETON);
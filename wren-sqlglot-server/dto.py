@@ -5,3 +5,9 @@ class TranspileDTO(BaseModel):
     sql: str
     read: str
     write: str
+
+
+class BatchTranspileDTO(BaseModel):
+    statements: list[str]
+    read: str
+    write: str
@@ -6,7 +6,7 @@ import sqlglot
 import uvicorn
 from fastapi import FastAPI
 
-from dto import TranspileDTO
+from dto import BatchTranspileDTO, TranspileDTO
 
 if sys.version_info < (3, 10):
     sys.exit('Python < 3.10 is not supported')
@@ -35,5 +35,18 @@ def transpile(dto: TranspileDTO):
     return {'sql': transpiled}
 
 
+@app.post("/sqlglot/transpile/batch")
+def transpile_batch(dto: BatchTranspileDTO):
+    # a statement which fails to transpile doesn't fail the others
+    results = []
+    for sql in dto.statements:
+        try:
+            results.append({'sql': sqlglot.transpile(sql, read=dto.read, write=dto.write)[0], 'error': None})
+        except Exception as e:
+            logger.debug(f'Failed to transpile {sql}: {e}')
+            results.append({'sql': None, 'error': str(e)})
+    return {'results': results}
+
+
 if __name__ == "__main__":
     uvicorn.run(app, host='0.0.0.0', port=int(os.getenv('SQLGLOT_PORT', 8000)))
@@ -31,6 +31,7 @@ import org.intellij.lang.annotations.Language;
 
 import javax.annotation.Nullable;
 
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
@@ -40,7 +41,9 @@ import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.time.ZonedDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 import static com.google.common.collect.ImmutableList.toImmutableList;
 import static io.wren.base.type.BigIntType.BIGINT;
@@ -109,6 +112,24 @@ public class TestingWireProtocolClient
         out.flush();
     }
 
+    /**
+     * Send a StartupMessage with additional run-time parameters, e.g. search_path.
+     */
+    public void sendStartUpMessage(int version, String password, String database, String user, Map<String, String> parameters)
+            throws IOException
+    {
+        StringBuilder startup = new StringBuilder(new String(getStartUpByteArray(password, database, user), UTF_8));
+        parameters.forEach((key, value) -> startup.append(key).append('\0').append(value).append('\0'));
+        byte[] startupBytes = startup.toString().getBytes(UTF_8);
+        int len = 4 + startupBytes.length + 4;
+        ByteBuf buffer = Unpooled.buffer();
+        buffer.writeInt(len);
+        buffer.writeInt(version);
+        buffer.writeBytes(startupBytes);
+        out.write(buffer.array(), 0, len);
+        out.flush();
+    }
+
     private byte[] getStartUpByteArray(String password, String database, String user)
     {
         return String.format("password\0%s\0database\0%s\0user\0%s\0", password, database, user).getBytes(UTF_8);
@@ -990,6 +1011,29 @@ public class TestingWireProtocolClient
         return fields.build();
     }
 
+    /**
+     * Read the backend messages up to ReadyForQuery without decoding them.
+     * The listener gets the type of every message as soon as its header arrives, which is used to time the responses.
+     */
+    public void readUntilReadyForQuery(Consumer<Character> listener)
+            throws IOException
+    {
+        while (true) {
+            byte[] header = in.readNBytes(1 + 4);
+            if (header.length < 1 + 4) {
+                throw new EOFException("Connection closed before ReadyForQuery");
+            }
+            ByteBuffer headerBuffer = ByteBuffer.wrap(header);
+            char type = (char) headerBuffer.get();
+            int totalLength = headerBuffer.getInt() - 4;
+            listener.accept(type);
+            in.skipNBytes(totalLength);
+            if (type == 'Z') {
+                return;
+            }
+        }
+    }
+
     public void printResult(ImmutableList<PGType<?>> types, FormatCodes.FormatCode[] formatCodes)
             throws IOException
     {
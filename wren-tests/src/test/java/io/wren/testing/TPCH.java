@@ -51,7 +51,9 @@ public class TPCH
         PARTSUPP
     }
 
-    private final List<String> queries;
+    public record Query(int number, String sql) {}
+
+    private final List<Query> queries;
     private final Map<Table, String> paths;
     private final List<Model> models;
 
@@ -75,7 +77,7 @@ public class TPCH
                 .collect(toImmutableList());
     }
 
-    public static List<String> getQueries()
+    public static List<Query> getQueries()
     {
         return INSTANCE.queries;
     }
@@ -85,11 +87,11 @@ public class TPCH
         return INSTANCE.paths.get(table);
     }
 
-    private List<String> buildQueries()
+    private List<Query> buildQueries()
     {
         return IntStream.range(1, 23)
                 .filter(i -> i != 15) // views not supported
-                .mapToObj(this::getTpchQuery)
+                .mapToObj(i -> new Query(i, getTpchQuery(i)))
                 .collect(toImmutableList());
     }
 
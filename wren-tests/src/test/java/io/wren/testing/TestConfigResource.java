@@ -16,8 +16,10 @@ package io.wren.testing;
 
 import com.google.common.collect.ImmutableMap;
 import com.google.inject.Key;
+import io.airlift.units.DataSize;
 import io.wren.base.client.duckdb.DuckDBConfig;
 import io.wren.base.config.ConfigManager;
+import io.wren.base.config.ConfigSnapshot;
 import io.wren.base.config.PostgresWireProtocolConfig;
 import io.wren.base.config.WrenConfig;
 import io.wren.base.dto.Manifest;
@@ -27,6 +29,7 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static io.wren.base.client.duckdb.DuckDBConfig.DUCKDB_CACHE_TASK_RETRY_DELAY;
 import static io.wren.base.client.duckdb.DuckDBConfig.DUCKDB_MAX_CACHE_QUERY_TIMEOUT;
@@ -146,4 +149,27 @@ public class TestConfigResource
         assertThat(getConfig(PG_WIRE_PROTOCOL_NETTY_THREAD_COUNT)).isEqualTo(configEntry(PG_WIRE_PROTOCOL_NETTY_THREAD_COUNT, String.valueOf(postgresWireProtocolConfig.getNettyThreadCount())));
         assertThat(getConfig(PG_WIRE_PROTOCOL_AUTH_FILE)).isEqualTo(configEntry(PG_WIRE_PROTOCOL_AUTH_FILE, postgresWireProtocolConfig.getAuthFile().getPath()));
     }
+
+    @Test
+    public void testInvalidConfigWontBePublished()
+    {
+        ConfigManager configManager = server().getInstance(Key.get(ConfigManager.class));
+        patchConfig(List.of(configEntry(DUCKDB_MEMORY_LIMIT, "2GB")));
+        ConfigSnapshot before = configManager.getSnapshot();
+
+        AtomicReference<ConfigSnapshot> notified = new AtomicReference<>();
+        configManager.addListener((previous, current) -> notified.set(current));
+        assertThatThrownBy(() -> patchConfig(List.of(configEntry(DUCKDB_MEMORY_LIMIT, "1GB"), configEntry(WREN_DATASOURCE_TYPE, "notfound"))))
+                .hasMessageFindingMatch(".*400 Bad Request.*");
+        assertThat(configManager.getSnapshot()).isSameAs(before);
+        assertThat(getConfig(DUCKDB_MEMORY_LIMIT)).isEqualTo(configEntry(DUCKDB_MEMORY_LIMIT, "2GB"));
+        assertThat(notified.get()).isNull();
+
+        patchConfig(List.of(configEntry(DUCKDB_MEMORY_LIMIT, "1GB")));
+        ConfigSnapshot after = configManager.getSnapshot();
+        assertThat(after.getVersion()).isEqualTo(before.getVersion() + 1);
+        assertThat(after.changedKeys(before)).containsExactly(DUCKDB_MEMORY_LIMIT);
+        assertThat(after.getConfig(DuckDBConfig.class).getMemoryLimit()).isEqualTo(DataSize.valueOf("1GB"));
+        assertThat(notified.get()).isSameAs(after);
+    }
 }
@@ -16,6 +16,7 @@ package io.wren.testing;
 
 import com.google.common.collect.ImmutableMap;
 import com.google.inject.Key;
+import io.wren.base.ConnectorRecordIterator;
 import io.wren.base.dto.Manifest;
 import io.wren.main.connector.duckdb.DuckDBMetadata;
 import io.wren.main.web.dto.QueryResultDto;
@@ -200,6 +201,34 @@ public class TestDuckDBResource
         }
     }
 
+    @Test
+    public void testReloadWithRunningQuery()
+            throws Exception
+    {
+        DuckDBMetadata metadata = getInstance(Key.get(DuckDBMetadata.class));
+        try (ConnectorRecordIterator iterator = metadata.directQuery("SELECT * FROM range(10)", List.of())) {
+            // the running query keeps its connection while the pool and then the client are replaced
+            assertThatCode(() -> setDuckDBSessionSQL(SESSION_SQL_1)).doesNotThrowAnyException();
+            assertThatCode(() -> setDuckDBInitSQL(INIT_SQL_1)).doesNotThrowAnyException();
+            int rows = 0;
+            while (iterator.hasNext()) {
+                iterator.next();
+                rows++;
+            }
+            assertThat(rows).isEqualTo(10);
+        }
+
+        // the failed swap keeps the previous pool
+        assertWebApplicationException(() -> setDuckDBSessionSQL(INVALID_SQL))
+                .hasErrorMessageMatches(".*Parser Error: syntax error at or near \"xxx\"");
+        assertThat(getDuckDBSessionSQL()).isEqualTo(SESSION_SQL_1);
+        assertThat(queryDuckDB("SELECT current_setting('s3_region') AS s3_region;"))
+                .extracting(QueryResultDto::getData)
+                .isNotNull()
+                .asList().element(0)
+                .isEqualTo(new String[] {"us-east-2"});
+    }
+
     @Test
     public void testAppendSessionSQLBeforeSet()
     {
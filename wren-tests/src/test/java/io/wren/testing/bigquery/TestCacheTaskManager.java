@@ -38,6 +38,8 @@ import java.io.IOException;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
 
 import static com.google.common.collect.ImmutableSet.toImmutableSet;
 import static io.wren.base.CatalogSchemaTableName.catalogSchemaTableName;
@@ -163,6 +165,50 @@ public class TestCacheTaskManager
         })).hasMessageContaining("Query time limit exceeded");
     }
 
+    @Test
+    public void testCacheQueryNotBlockedByCacheTasks()
+            throws Exception
+    {
+        DuckDBConfig duckDBConfig = new DuckDBConfig();
+        duckDBConfig.setMaxConcurrentTasks(1);
+        duckDBConfig.setMaxConcurrentCacheQueries(1);
+        ConfigManager configManager = new ConfigManager(
+                new WrenConfig(),
+                new PostgresConfig(),
+                new BigQueryConfig(),
+                duckDBConfig,
+                new PostgresWireProtocolConfig(),
+                new DuckdbS3StyleStorageConfig(),
+                new DuckDBConnectorConfig(),
+                new SnowflakeConfig(),
+                new CouchbaseConfig());
+
+        try (CacheTaskManager taskManager = new CacheTaskManager(duckDBConfig, new PgMetastoreImpl(configManager, getInstance(Key.get(DuckDBSqlConverter.class))))) {
+            CountDownLatch refreshing = new CountDownLatch(1);
+            CompletableFuture<Void> running = taskManager.addCacheTask(() -> {
+                try {
+                    refreshing.await();
+                }
+                catch (InterruptedException e) {
+                    throw new RuntimeException(e);
+                }
+            });
+            CompletableFuture<Void> queued = taskManager.addCacheTask(() -> {});
+            assertThat(taskManager.getCacheTaskQueueDepth()).isEqualTo(1);
+
+            // the cache query runs on its own pool while the cache tasks are busy
+            assertThat(taskManager.addCacheQueryTask(() -> 1)).isEqualTo(1);
+            assertThat(taskManager.getCacheQueryQueueDepth()).isEqualTo(0);
+            assertThat(taskManager.getCacheQueryWaitTime().getAllTime().getCount()).isEqualTo(1);
+
+            refreshing.countDown();
+            running.get(10, SECONDS);
+            queued.get(10, SECONDS);
+            assertThat(taskManager.getCacheTaskQueueDepth()).isEqualTo(0);
+            assertThat(taskManager.getCacheTaskWaitTime().getAllTime().getCount()).isEqualTo(2);
+        }
+    }
+
     @Test
     public void testAddCacheQueryDDLTask()
     {
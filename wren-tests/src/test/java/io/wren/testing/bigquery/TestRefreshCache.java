@@ -20,14 +20,17 @@ import io.wren.base.CatalogSchemaTableName;
 import io.wren.base.WrenMDL;
 import io.wren.base.dto.CacheInfo;
 import io.wren.cache.CacheInfoPair;
+import io.wren.cache.CachedTablePin;
 import io.wren.cache.TaskInfo;
 import io.wren.main.WrenMetastore;
 import org.testng.annotations.Test;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.function.Supplier;
 
+import static com.google.common.collect.ImmutableSet.toImmutableSet;
 import static io.wren.base.CatalogSchemaTableName.catalogSchemaTableName;
 import static io.wren.cache.TaskInfo.TaskStatus.QUEUED;
 import static java.util.Objects.requireNonNull;
@@ -84,6 +87,41 @@ public class TestRefreshCache
         return refreshed;
     }
 
+    @Test
+    public void testRetainPinnedTable()
+    {
+        WrenMDL mdl = wrenMDL.get();
+        CatalogSchemaTableName ordersName = catalogSchemaTableName(mdl.getCatalog(), mdl.getSchema(), "Orders");
+        CacheInfo orders = mdl.getCacheInfo(ordersName)
+                .orElseThrow(() -> new RuntimeException("Orders not found"));
+        String before = cachedTableMapping.get().convertToCachedTable(ordersName).orElseThrow(AssertionError::new);
+
+        Optional<CachedTablePin> pin = cachedTableMapping.get().pinTables(List.of(before));
+        assertThat(pin).isPresent();
+        cacheManager.get().createTask(new AnalyzedMDL(mdl, null), orders).join();
+        cacheManager.get().untilTaskDone(ordersName);
+
+        // the refreshed table is mapped, but the pinned one is kept for its reader
+        String after = cachedTableMapping.get().convertToCachedTable(ordersName).orElseThrow(AssertionError::new);
+        assertThat(after).isNotEqualTo(before);
+        assertThat(duckdbTables()).contains(before, after);
+        assertThat(cachedTableMapping.get().getRetainedTableCount()).isEqualTo(1);
+        assertThat(cachedTableMapping.get().getRetainedTableRows()).isGreaterThan(0);
+
+        pin.get().close();
+        assertThat(duckdbTables()).doesNotContain(before).contains(after);
+        assertThat(cachedTableMapping.get().getRetainedTableCount()).isEqualTo(0);
+        // a dropped table can't be pinned anymore
+        assertThat(cachedTableMapping.get().pinTables(List.of(before))).isEmpty();
+    }
+
+    private Set<String> duckdbTables()
+    {
+        return queryDuckdb("show tables").stream()
+                .map(table -> table[0].toString())
+                .collect(toImmutableSet());
+    }
+
     // todo need a proper test
     @Test(enabled = false)
     public void testRefreshCache()
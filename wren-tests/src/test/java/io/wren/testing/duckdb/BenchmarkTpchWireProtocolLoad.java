@@ -0,0 +1,355 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.wren.testing.duckdb;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.google.common.collect.ImmutableMap;
+import com.google.inject.Key;
+import io.airlift.json.JsonCodec;
+import io.wren.base.dto.Manifest;
+import io.wren.main.connector.duckdb.DuckDBMetadata;
+import io.wren.testing.TPCH;
+import io.wren.testing.TestingWireProtocolClient;
+import io.wren.testing.TestingWrenServer;
+import org.testng.annotations.Test;
+
+import javax.annotation.Nullable;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static io.airlift.json.JsonCodec.jsonCodec;
+import static java.lang.String.format;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Locale.ENGLISH;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * An end-to-end load test of the wire protocol server: N concurrent pgwire clients run the TPC-H queries
+ * against the TPC-H models on DuckDB, with the simple and the extended query protocol.
+ * <p>
+ * The report is written as JSON. For each protocol it has the throughput and the latency percentiles,
+ * and for each query the time split into planning (Parse to ParseComplete, extended protocol only),
+ * execution (until the first DataRow) and encoding (from the first DataRow to CommandComplete), as observed by the client.
+ */
+public class BenchmarkTpchWireProtocolLoad
+        extends AbstractWireProtocolTestWithDuckDB
+{
+    private static final JsonCodec<LoadReport> LOAD_REPORT_CODEC = jsonCodec(LoadReport.class);
+
+    public enum Protocol
+    {
+        SIMPLE,
+        EXTENDED
+    }
+
+    @Override
+    protected Optional<Manifest> getManifest()
+    {
+        return Optional.of(Manifest.builder()
+                .setCatalog("wren")
+                .setSchema("tpch")
+                .setModels(TPCH.getModels("tpch"))
+                .build());
+    }
+
+    @Override
+    protected void initDuckDB(TestingWrenServer wrenServer)
+            throws Exception
+    {
+        StringBuilder initSQL = new StringBuilder("CREATE SCHEMA tpch;\n");
+        for (TPCH.Table table : TPCH.Table.values()) {
+            initSQL.append(format("CREATE TABLE tpch.%s AS SELECT * FROM read_parquet('%s');\n", table.name().toLowerCase(ENGLISH), TPCH.getDataPath(table)));
+        }
+        DuckDBMetadata metadata = wrenServer.getInstance(Key.get(DuckDBMetadata.class));
+        metadata.setInitSQL(initSQL.toString());
+        metadata.reload();
+    }
+
+    @Test
+    public void verify()
+            throws Exception
+    {
+        int clients = 2;
+        int rounds = 1;
+        LoadReport report = run(clients, rounds);
+
+        assertThat(report.protocols()).containsOnlyKeys(Protocol.SIMPLE, Protocol.EXTENDED);
+        for (ProtocolReport protocolReport : report.protocols().values()) {
+            assertThat(protocolReport.queries()).hasSize(TPCH.getQueries().size());
+            assertThat(protocolReport.queries()).allSatisfy(query -> {
+                assertThat(query.count()).isEqualTo(clients * rounds);
+                assertThat(query.errors()).as("errors of q%s", query.query()).isEqualTo(0);
+                assertThat(query.latency().p50()).isGreaterThan(0);
+            });
+        }
+        assertThat(report.protocols().get(Protocol.SIMPLE).queries().get(0).planning()).isNull();
+        assertThat(report.protocols().get(Protocol.EXTENDED).queries().get(0).planning()).isNotNull();
+        assertThat(LOAD_REPORT_CODEC.toJson(report)).contains("\"throughput\"");
+    }
+
+    public LoadReport run(int clients, int rounds)
+            throws Exception
+    {
+        ImmutableMap.Builder<Protocol, ProtocolReport> protocols = ImmutableMap.builder();
+        for (Protocol protocol : Protocol.values()) {
+            protocols.put(protocol, run(protocol, clients, rounds));
+        }
+        return new LoadReport(clients, rounds, protocols.build());
+    }
+
+    private ProtocolReport run(Protocol protocol, int clients, int rounds)
+            throws Exception
+    {
+        List<TPCH.Query> queries = TPCH.getQueries();
+        ExecutorService executor = Executors.newFixedThreadPool(clients);
+        try {
+            long start = System.nanoTime();
+            List<Future<List<List<Sample>>>> futures = new ArrayList<>();
+            for (int i = 0; i < clients; i++) {
+                int clientIndex = i;
+                futures.add(executor.submit(() -> runClient(protocol, queries, rounds, new Random(clientIndex))));
+            }
+
+            List<List<Sample>> samples = IntStream.range(0, queries.size())
+                    .mapToObj(i -> (List<Sample>) new ArrayList<Sample>())
+                    .collect(toImmutableList());
+            for (Future<List<List<Sample>>> future : futures) {
+                List<List<Sample>> clientSamples = future.get();
+                for (int i = 0; i < queries.size(); i++) {
+                    samples.get(i).addAll(clientSamples.get(i));
+                }
+            }
+            long elapsed = System.nanoTime() - start;
+
+            List<Sample> all = samples.stream().flatMap(List::stream).collect(toImmutableList());
+            return new ProtocolReport(
+                    all.size() * 1_000_000_000.0 / elapsed,
+                    Distribution.of(all.stream().mapToLong(Sample::latency).toArray()),
+                    IntStream.range(0, queries.size())
+                            .mapToObj(i -> QueryReport.of(queries.get(i).number(), samples.get(i)))
+                            .collect(toImmutableList()));
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private List<List<Sample>> runClient(Protocol protocol, List<TPCH.Query> queries, int rounds, Random random)
+            throws IOException
+    {
+        List<List<Sample>> samples = queries.stream()
+                .map(query -> (List<Sample>) new ArrayList<Sample>())
+                .collect(toImmutableList());
+        List<Integer> order = IntStream.range(0, queries.size()).boxed().collect(toImmutableList());
+        try (TestingWireProtocolClient client = startUp()) {
+            for (int round = 0; round < rounds; round++) {
+                List<Integer> shuffled = new ArrayList<>(order);
+                Collections.shuffle(shuffled, random);
+                for (int index : shuffled) {
+                    samples.get(index).add(execute(client, protocol, queries.get(index).sql()));
+                }
+            }
+        }
+        return samples;
+    }
+
+    private static Sample execute(TestingWireProtocolClient client, Protocol protocol, String query)
+            throws IOException
+    {
+        ResponseTimer timer = new ResponseTimer(System.nanoTime());
+        switch (protocol) {
+            case SIMPLE -> client.sendSimpleQuery(query);
+            case EXTENDED -> {
+                client.sendParse("", query, List.of());
+                client.sendBind("", "", List.of());
+                client.sendDescribe('P', "");
+                client.sendExecute("", 0);
+                client.sendSync();
+            }
+        }
+        client.readUntilReadyForQuery(timer);
+        return timer.toSample();
+    }
+
+    private TestingWireProtocolClient startUp()
+            throws IOException
+    {
+        TestingWireProtocolClient client = wireProtocolClient();
+        client.sendStartUpMessage(196608, MOCK_PASSWORD, "wren", "canner", Map.of("search_path", "tpch"));
+        client.readUntilReadyForQuery(type -> {});
+        return client;
+    }
+
+    /**
+     * Records when each kind of backend message arrives for one query.
+     */
+    private static class ResponseTimer
+            implements Consumer<Character>
+    {
+        private final long sent;
+        private long planned;
+        private long firstRow;
+        private long completed;
+        private boolean failed;
+
+        private ResponseTimer(long sent)
+        {
+            this.sent = sent;
+        }
+
+        @Override
+        public void accept(Character type)
+        {
+            long now = System.nanoTime();
+            switch (type) {
+                case '1' -> planned = now;
+                case 'D' -> {
+                    if (firstRow == 0) {
+                        firstRow = now;
+                    }
+                }
+                case 'C' -> completed = now;
+                case 'E' -> failed = true;
+                case 'Z' -> {
+                    if (completed == 0) {
+                        completed = now;
+                    }
+                }
+                default -> {}
+            }
+        }
+
+        private Sample toSample()
+        {
+            long end = System.nanoTime();
+            long executed = firstRow == 0 ? completed : firstRow;
+            long executionStart = planned == 0 ? sent : planned;
+            return new Sample(
+                    end - sent,
+                    planned == 0 ? -1 : planned - sent,
+                    executed - executionStart,
+                    completed - executed,
+                    failed);
+        }
+    }
+
+    private record Sample(long latency, long planning, long execution, long encoding, boolean failed) {}
+
+    public record LoadReport(
+            @JsonProperty("clients") int clients,
+            @JsonProperty("rounds") int rounds,
+            @JsonProperty("protocols") Map<Protocol, ProtocolReport> protocols) {}
+
+    public record ProtocolReport(
+            @JsonProperty("throughput") double throughput,
+            @JsonProperty("latency") Distribution latency,
+            @JsonProperty("queries") List<QueryReport> queries) {}
+
+    public record QueryReport(
+            @JsonProperty("query") int query,
+            @JsonProperty("count") int count,
+            @JsonProperty("errors") int errors,
+            @JsonProperty("latency") Distribution latency,
+            @JsonProperty("planning") @Nullable Distribution planning,
+            @JsonProperty("execution") Distribution execution,
+            @JsonProperty("encoding") Distribution encoding)
+    {
+        private static QueryReport of(int query, List<Sample> samples)
+        {
+            long[] planning = samples.stream().mapToLong(Sample::planning).filter(nanos -> nanos >= 0).toArray();
+            return new QueryReport(
+                    query,
+                    samples.size(),
+                    (int) samples.stream().filter(Sample::failed).count(),
+                    Distribution.of(samples.stream().mapToLong(Sample::latency).toArray()),
+                    planning.length == 0 ? null : Distribution.of(planning),
+                    Distribution.of(samples.stream().mapToLong(Sample::execution).toArray()),
+                    Distribution.of(samples.stream().mapToLong(Sample::encoding).toArray()));
+        }
+    }
+
+    /**
+     * Percentiles in milliseconds.
+     */
+    public record Distribution(
+            @JsonProperty("p50") double p50,
+            @JsonProperty("p95") double p95,
+            @JsonProperty("p99") double p99,
+            @JsonProperty("max") double max,
+            @JsonProperty("mean") double mean)
+    {
+        private static Distribution of(long[] nanos)
+        {
+            if (nanos.length == 0) {
+                return new Distribution(0, 0, 0, 0, 0);
+            }
+            long[] sorted = nanos.clone();
+            Arrays.sort(sorted);
+            return new Distribution(
+                    toMillis(percentile(sorted, 0.50)),
+                    toMillis(percentile(sorted, 0.95)),
+                    toMillis(percentile(sorted, 0.99)),
+                    toMillis(sorted[sorted.length - 1]),
+                    toMillis(Arrays.stream(sorted).average().orElse(0)));
+        }
+
+        private static long percentile(long[] sorted, double quantile)
+        {
+            return sorted[(int) Math.min(sorted.length - 1, Math.ceil(quantile * sorted.length) - 1)];
+        }
+
+        private static double toMillis(double nanos)
+        {
+            return nanos / 1_000_000.0;
+        }
+    }
+
+    /**
+     * Usage: BenchmarkTpchWireProtocolLoad [clients] [rounds] [output]
+     */
+    public static void main(String[] args)
+            throws Exception
+    {
+        int clients = args.length > 0 ? Integer.parseInt(args[0]) : 8;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+        Path output = Path.of(args.length > 2 ? args[2] : "tpch-load.json");
+
+        BenchmarkTpchWireProtocolLoad benchmark = new BenchmarkTpchWireProtocolLoad();
+        benchmark.init();
+        try {
+            String json = LOAD_REPORT_CODEC.toJson(benchmark.run(clients, rounds));
+            Files.writeString(output, json, UTF_8);
+            System.out.println(json);
+        }
+        finally {
+            benchmark.close();
+        }
+    }
+}
@@ -0,0 +1,174 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.wren.testing.duckdb;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.inject.Key;
+import io.netty.channel.epoll.Epoll;
+import io.wren.main.netty.Transport;
+import io.wren.main.wireprotocol.PostgresNetty;
+import io.wren.testing.TestingWireProtocolClient;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static io.wren.base.config.PostgresWireProtocolConfig.PG_WIRE_PROTOCOL_NETTY_TRANSPORT;
+import static java.util.Objects.requireNonNull;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Connection churn and query throughput of the wire protocol server with each netty transport.
+ */
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@BenchmarkMode(Mode.Throughput)
+@Threads(32)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class BenchmarkWireProtocolConnections
+        extends AbstractWireProtocolTestWithDuckDB
+{
+    @Param({"NIO", "AUTO"})
+    public String transport = "AUTO";
+
+    @Override
+    protected Optional<String> getWrenMDLPath()
+    {
+        return Optional.of(requireNonNull(getClass().getClassLoader().getResource("duckdb/mdl.json")).getPath());
+    }
+
+    @Override
+    protected Map<String, String> properties()
+    {
+        return ImmutableMap.of(PG_WIRE_PROTOCOL_NETTY_TRANSPORT, transport);
+    }
+
+    @Setup
+    public void setup()
+            throws Exception
+    {
+        init();
+    }
+
+    @TearDown
+    public void tearDown()
+            throws IOException
+    {
+        close();
+    }
+
+    @State(Scope.Thread)
+    public static class Connection
+    {
+        private TestingWireProtocolClient client;
+
+        @Setup
+        public void setup(BenchmarkWireProtocolConnections benchmark)
+                throws IOException
+        {
+            client = benchmark.startUp();
+        }
+
+        @TearDown
+        public void tearDown()
+                throws IOException
+        {
+            client.sendTerminate();
+            client.close();
+        }
+    }
+
+    @Benchmark
+    public void connectionChurn()
+            throws IOException
+    {
+        try (TestingWireProtocolClient client = startUp()) {
+            client.sendTerminate();
+        }
+    }
+
+    @Benchmark
+    public void simpleQuery(Connection connection)
+            throws IOException
+    {
+        query(connection.client);
+    }
+
+    @Test
+    public void verify()
+            throws IOException
+    {
+        Transport expected = Epoll.isAvailable() ? Transport.EPOLL : Transport.NIO;
+        assertThat(server().getInstance(Key.get(PostgresNetty.class)).getTransport()).isEqualTo(expected);
+
+        connectionChurn();
+        try (TestingWireProtocolClient client = startUp()) {
+            query(client);
+            query(client);
+            client.sendTerminate();
+        }
+    }
+
+    private TestingWireProtocolClient startUp()
+            throws IOException
+    {
+        TestingWireProtocolClient client = wireProtocolClient();
+        client.sendStartUpMessage(196608, MOCK_PASSWORD, "test", "canner");
+        client.assertAuthOk();
+        assertDefaultPgConfigResponse(client);
+        client.assertReadyForQuery('I');
+        return client;
+    }
+
+    private static void query(TestingWireProtocolClient client)
+            throws IOException
+    {
+        client.sendSimpleQuery("select * from (values ('rows1', 10), ('rows2', 10)) as t(col1, col2)");
+        client.assertAndGetRowDescriptionFields();
+        client.assertDataRow("rows1,10");
+        client.assertDataRow("rows2,10");
+        client.assertCommandComplete("SELECT 2");
+        client.assertReadyForQuery('I');
+    }
+
+    public static void main(String[] args)
+            throws RunnerException
+    {
+        new Runner(new OptionsBuilder()
+                .include(".*" + BenchmarkWireProtocolConnections.class.getSimpleName() + ".*")
+                .build())
+                .run();
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.wren.testing.duckdb;
+
+import com.google.inject.Key;
+import io.wren.main.wireprotocol.QueryHistory;
+import io.wren.main.wireprotocol.QueryRecord;
+import org.testng.annotations.Test;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Optional;
+
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TestQueryTrace
+        extends AbstractWireProtocolTestWithDuckDB
+{
+    @Override
+    protected Optional<String> getWrenMDLPath()
+    {
+        return Optional.of(requireNonNull(getClass().getClassLoader().getResource("duckdb/mdl.json")).getPath());
+    }
+
+    @Test
+    public void testPhases()
+            throws Exception
+    {
+        String sql = "SELECT orderkey FROM Orders WHERE orderkey = 1";
+        executeQuery(sql);
+        QueryRecord planned = waitForQueries(sql, 1).get(0);
+        assertThat(planned.isPlannedStatementHit()).isFalse();
+        assertThat(planned.getPhaseMicros()).containsKeys(
+                "planning",
+                "pattern_rewrite",
+                "wren_rewrite",
+                "parse",
+                "postgres_rewrite",
+                "format",
+                "cache_rewrite",
+                "sql_convert",
+                "execution");
+        // the sub phases of the planning are disjoint
+        long planningSubPhases = planned.getPhaseMicros().get("pattern_rewrite")
+                + planned.getPhaseMicros().get("wren_rewrite")
+                + planned.getPhaseMicros().get("parse")
+                + planned.getPhaseMicros().get("postgres_rewrite")
+                + planned.getPhaseMicros().get("format")
+                + planned.getPhaseMicros().get("cache_rewrite");
+        assertThat(planningSubPhases).isLessThanOrEqualTo(planned.getPhaseMicros().get("planning"));
+
+        // another connection takes the plan from the planned statement store
+        executeQuery(sql);
+        QueryRecord reused = waitForQueries(sql, 2).get(0);
+        assertThat(reused.getQueryId()).isNotEqualTo(planned.getQueryId());
+        assertThat(reused.isPlannedStatementHit()).isTrue();
+        assertThat(reused.getPhaseMicros()).containsEntry("planning", 0L);
+        assertThat(reused.getPhaseMicros()).doesNotContainKeys("pattern_rewrite", "wren_rewrite", "parse", "postgres_rewrite", "format", "cache_rewrite");
+        assertThat(reused.getPhaseMicros()).containsKeys("sql_convert", "execution");
+    }
+
+    private void executeQuery(String sql)
+            throws SQLException
+    {
+        try (Connection connection = createConnection();
+                Statement statement = connection.createStatement();
+                ResultSet resultSet = statement.executeQuery(sql)) {
+            assertThat(resultSet.next()).isTrue();
+        }
+    }
+
+    /**
+     * The trace is reported once its rows are sent, which may be after the client read them.
+     */
+    private List<QueryRecord> waitForQueries(String sql, int count)
+            throws InterruptedException
+    {
+        long deadline = System.nanoTime() + SECONDS.toNanos(10);
+        while (true) {
+            List<QueryRecord> queries = getInstance(Key.get(QueryHistory.class)).getQueries(null, "Orders", null, 100).stream()
+                    .filter(query -> query.getStatement().equals(sql))
+                    .collect(toImmutableList());
+            if (queries.size() >= count || System.nanoTime() > deadline) {
+                assertThat(queries).hasSize(count);
+                return queries;
+            }
+            MILLISECONDS.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,196 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.wren.testing.duckdb;
+
+import com.google.common.cache.CacheStats;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.io.Resources;
+import com.google.inject.Key;
+import io.wren.base.ConnectorRecordIterator;
+import io.wren.base.WrenMDL;
+import io.wren.base.dto.Manifest;
+import io.wren.base.dto.View;
+import io.wren.base.wireprotocol.PgMetastore;
+import io.wren.main.WrenMetastore;
+import io.wren.main.connector.duckdb.DuckDBMetadata;
+import io.wren.main.pgcatalog.PgCatalogManager;
+import io.wren.main.pgcatalog.PgCatalogManagerImpl;
+import io.wren.testing.RequireWrenServer;
+import io.wren.testing.TestingWrenServer;
+import org.testng.annotations.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static com.google.common.collect.ImmutableSet.toImmutableSet;
+import static io.wren.base.config.WrenConfig.DataSourceType.DUCKDB;
+import static io.wren.base.config.WrenConfig.WREN_DATASOURCE_TYPE;
+import static io.wren.base.config.WrenConfig.WREN_DIRECTORY;
+import static io.wren.base.config.WrenConfig.WREN_MAX_CONCURRENT_VIEW_DESCRIPTIONS;
+import static io.wren.base.dto.Column.column;
+import static io.wren.base.dto.Manifest.MANIFEST_JSON_CODEC;
+import static io.wren.base.dto.Model.model;
+import static io.wren.base.dto.View.view;
+import static java.lang.String.format;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Objects.requireNonNull;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TestViewDescription
+        extends RequireWrenServer
+{
+    // not a multiple of the DDL batch size
+    private static final int VIEW_COUNT = 150;
+
+    @Override
+    protected TestingWrenServer createWrenServer()
+            throws Exception
+    {
+        Path mdlDir = Files.createTempDirectory("wrenmdls");
+        Files.write(mdlDir.resolve("wrenmdl.json"), MANIFEST_JSON_CODEC.toJsonBytes(manifest(List.of())));
+
+        ImmutableMap.Builder<String, String> properties = ImmutableMap.<String, String>builder()
+                .put(WREN_DIRECTORY, mdlDir.toAbsolutePath().toString())
+                .put(WREN_DATASOURCE_TYPE, DUCKDB.name())
+                .put(WREN_MAX_CONCURRENT_VIEW_DESCRIPTIONS, "4");
+
+        TestingWrenServer testing = TestingWrenServer.builder()
+                .setRequiredConfigs(properties.build())
+                .build();
+        String initSQL = Resources.toString(requireNonNull(getClass().getClassLoader().getResource("duckdb/init.sql")).toURI().toURL(), UTF_8);
+        initSQL = initSQL.replaceAll("basePath", requireNonNull(getClass().getClassLoader().getResource("tpch/data")).getPath());
+        DuckDBMetadata metadata = testing.getInstance(Key.get(DuckDBMetadata.class));
+        metadata.setInitSQL(initSQL);
+        metadata.reload();
+        return testing;
+    }
+
+    @Test
+    public void testDescriptionCachedAcrossSyncs()
+            throws Exception
+    {
+        List<View> views = views("cached", VIEW_COUNT);
+        CacheStats before = stats();
+        sync(views);
+        assertThat(listTables()).containsAll(names(views));
+        assertThat(stats().minus(before).missCount()).isEqualTo(VIEW_COUNT);
+
+        // the planned SQL of the views didn't change, so they aren't described again
+        before = stats();
+        sync(views);
+        assertThat(listTables()).containsAll(names(views));
+        CacheStats second = stats().minus(before);
+        assertThat(second.missCount()).isZero();
+        assertThat(second.hitCount()).isEqualTo(VIEW_COUNT);
+    }
+
+    @Test
+    public void testDescriptionInvalidatedByPlannedSql()
+            throws Exception
+    {
+        List<View> views = views("changed", 10);
+        sync(views);
+
+        List<View> changed = new ArrayList<>(views);
+        changed.set(0, view("changed_0", "SELECT orderkey, 1000 AS n FROM Orders"));
+        CacheStats before = stats();
+        sync(changed);
+        CacheStats stats = stats().minus(before);
+        assertThat(stats.missCount()).isEqualTo(1);
+        assertThat(stats.hitCount()).isEqualTo(9);
+        assertThat(describeTable("changed_0")).containsExactly("orderkey", "n");
+    }
+
+    @Test(timeOut = 60_000)
+    public void testDescriptionFailure()
+            throws Exception
+    {
+        List<View> views = new ArrayList<>(views("failure", 20));
+        views.set(7, view("failure_7", "SELECT no_such_function(orderkey) AS n FROM Orders"));
+        // the other views are still described, and the pool of the descriptions isn't left waiting for the failed one
+        sync(views);
+        Set<String> tables = listTables();
+        assertThat(tables).doesNotContain("failure_7");
+        assertThat(tables).containsAll(names(views).stream().filter(name -> !name.equals("failure_7")).collect(toImmutableSet()));
+    }
+
+    private void sync(List<View> views)
+            throws Exception
+    {
+        getInstance(Key.get(WrenMetastore.class)).setWrenMDL(WrenMDL.fromManifest(manifest(views)), null);
+        getInstance(Key.get(PgCatalogManager.class)).syncPgMetastore();
+    }
+
+    private CacheStats stats()
+    {
+        return ((PgCatalogManagerImpl) getInstance(Key.get(PgCatalogManager.class))).getDescribedViewStats();
+    }
+
+    private Set<String> listTables()
+            throws Exception
+    {
+        return query("SELECT table_name FROM information_schema.tables WHERE table_schema = 'tpch'").stream()
+                .map(row -> (String) row[0])
+                .collect(toImmutableSet());
+    }
+
+    private List<String> describeTable(String name)
+            throws Exception
+    {
+        return query(format("SELECT column_name FROM information_schema.columns WHERE table_schema = 'tpch' AND table_name = '%s' ORDER BY ordinal_position", name)).stream()
+                .map(row -> (String) row[0])
+                .collect(toImmutableList());
+    }
+
+    private List<Object[]> query(String sql)
+            throws Exception
+    {
+        ImmutableList.Builder<Object[]> rows = ImmutableList.builder();
+        try (ConnectorRecordIterator iterator = getInstance(Key.get(PgMetastore.class)).directQuery(sql, List.of())) {
+            while (iterator.hasNext()) {
+                rows.add(iterator.next());
+            }
+        }
+        return rows.build();
+    }
+
+    private static List<View> views(String prefix, int count)
+    {
+        return IntStream.range(0, count)
+                .mapToObj(i -> view(prefix + "_" + i, format("SELECT orderkey, %s AS n FROM Orders", i)))
+                .collect(toImmutableList());
+    }
+
+    private static Set<String> names(List<View> views)
+    {
+        return views.stream().map(View::getName).collect(toImmutableSet());
+    }
+
+    private static Manifest manifest(List<View> views)
+    {
+        return Manifest.builder()
+                .setCatalog("wrenai")
+                .setSchema("tpch")
+                .setModels(List.of(model("Orders", "SELECT * FROM tpch.orders", List.of(column("orderkey", "integer", null, false, "o_orderkey")))))
+                .setViews(views)
+                .build();
+    }
+}
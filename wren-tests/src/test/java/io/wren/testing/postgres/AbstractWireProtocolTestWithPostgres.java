@@ -15,6 +15,9 @@
 package io.wren.testing.postgres;
 
 import com.google.common.collect.ImmutableMap;
+import io.wren.base.client.duckdb.DuckDBConfig;
+import io.wren.base.client.duckdb.DuckDBSettingSQL;
+import io.wren.base.client.duckdb.DuckdbClient;
 import io.wren.base.dto.Manifest;
 import io.wren.testing.AbstractWireProtocolTest;
 import io.wren.testing.TestingPostgreSqlServer;
@@ -22,6 +25,9 @@ import io.wren.testing.TestingWrenServer;
 
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.List;
+
+import static java.lang.String.format;
 
 public abstract class AbstractWireProtocolTestWithPostgres
         extends AbstractWireProtocolTest
@@ -64,6 +70,43 @@ public abstract class AbstractWireProtocolTestWithPostgres
 
     protected void prepareData() {}
 
+    protected void injectTableToPostgres(List<TestingData> dataList)
+    {
+        DuckDBConfig duckDBConfig = new DuckDBConfig();
+        DuckDBSettingSQL duckDBSettingSQL = new DuckDBSettingSQL();
+
+        String init = format("""
+                        INSTALL postgres;
+                        LOAD postgres;
+                        ATTACH 'dbname=%s user=%s host=%s password=%s port=%s' AS db (TYPE POSTGRES);
+                        """,
+                testingPostgreSqlServer.getDatabase(),
+                testingPostgreSqlServer.getUser(),
+                testingPostgreSqlServer.getHost(),
+                testingPostgreSqlServer.getPassword(),
+                testingPostgreSqlServer.getPort());
+        duckDBSettingSQL.setInitSQL(init);
+        duckDBConfig.setHomeDirectory("/tmp");
+        DuckdbClient duckdbClient = DuckdbClient.builder()
+                .setCacheStorageConfig(null)
+                .setDuckDBConfig(duckDBConfig)
+                .setDuckDBSettingSQL(duckDBSettingSQL)
+                .build();
+        try {
+            for (TestingData data : dataList) {
+                duckdbClient.executeDDL(format("create table db.tpch.%s as select * from '%s'", data.tableName, data.resourcePath));
+            }
+        }
+        catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+        finally {
+            duckdbClient.close();
+        }
+    }
+
+    protected record TestingData(String tableName, String resourcePath) {}
+
     @Override
     protected String getDefaultCatalog()
     {
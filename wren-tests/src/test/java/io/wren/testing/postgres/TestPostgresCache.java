@@ -0,0 +1,111 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.wren.testing.postgres;
+
+import com.google.common.collect.ImmutableList;
+import com.google.inject.Key;
+import io.wren.base.CatalogSchemaTableName;
+import io.wren.base.ConnectorRecordIterator;
+import io.wren.base.WrenTypes;
+import io.wren.base.dto.Manifest;
+import io.wren.base.dto.Model;
+import io.wren.base.wireprotocol.PgMetastore;
+import io.wren.cache.CacheInfoPair;
+import io.wren.cache.CacheManager;
+import io.wren.cache.CachedTableMapping;
+import io.wren.cache.TaskInfo;
+import org.testng.annotations.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+
+import static io.wren.base.CatalogSchemaTableName.catalogSchemaTableName;
+import static io.wren.base.dto.Column.column;
+import static java.lang.String.format;
+import static java.util.Objects.requireNonNull;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TestPostgresCache
+        extends AbstractWireProtocolTestWithPostgres
+{
+    private static final CatalogSchemaTableName CUSTOMER = catalogSchemaTableName("wren", "tpch", "Customer");
+
+    @Override
+    protected void prepareData()
+    {
+        String customer = requireNonNull(getClass().getClassLoader().getResource("tpch/data/customer.parquet")).getPath();
+        injectTableToPostgres(List.of(new TestingData("customer", customer)));
+    }
+
+    @Override
+    protected Optional<String> getWrenMDLPath()
+    {
+        try {
+            Path mdl = Files.createTempFile("cache_postgres_mdl", ".json");
+            Files.write(mdl, Manifest.MANIFEST_JSON_CODEC.toJsonBytes(Manifest.builder()
+                    .setCatalog("wren")
+                    .setSchema("tpch")
+                    .setModels(List.of(Model.model("Customer",
+                            "select * from tpch.customer",
+                            List.of(
+                                    column("custkey", WrenTypes.INTEGER, null, true, "c_custkey"),
+                                    column("name", WrenTypes.VARCHAR, null, true, "c_name"),
+                                    column("acctbal", WrenTypes.DECIMAL, null, true, "c_acctbal")),
+                            true)))
+                    .build()));
+            return Optional.of(mdl.toString());
+        }
+        catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Test
+    public void testStreamCache()
+            throws Exception
+    {
+        waitCacheReady();
+        CacheInfoPair cacheInfoPair = getInstance(Key.get(CachedTableMapping.class)).getCacheInfoPair("wren", "tpch", "Customer");
+        assertThat(cacheInfoPair.getErrorMessage()).isEmpty();
+
+        List<Object[]> duckdbResult = queryDuckdb(format("select count(*), count(distinct custkey), count(name) from \"%s\"", cacheInfoPair.getRequiredTableName()));
+        assertThat(duckdbResult.get(0)).containsExactly(1500L, 1500L, 1500L);
+
+        TaskInfo taskInfo = getTaskInfo(CUSTOMER);
+        assertThat(taskInfo.getLoadedRows()).isEqualTo(1500L);
+    }
+
+    private void waitCacheReady()
+            throws InterruptedException
+    {
+        CachedTableMapping cachedTableMapping = getInstance(Key.get(CachedTableMapping.class));
+        for (int i = 0; i < 30 && cachedTableMapping.getCacheInfoPair("wren", "tpch", "Customer") == null; i++) {
+            Thread.sleep(1000);
+        }
+        getInstance(Key.get(CacheManager.class)).untilTaskDone(CUSTOMER);
+    }
+
+    private List<Object[]> queryDuckdb(String statement)
+    {
+        try (ConnectorRecordIterator iterator = getInstance(Key.get(PgMetastore.class)).directQuery(statement, ImmutableList.of())) {
+            return ImmutableList.copyOf(iterator);
+        }
+        catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
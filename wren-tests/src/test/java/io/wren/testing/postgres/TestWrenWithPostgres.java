@@ -16,9 +16,6 @@ package io.wren.testing.postgres;
 
 import com.google.common.collect.ImmutableList;
 import io.wren.base.WrenTypes;
-import io.wren.base.client.duckdb.DuckDBConfig;
-import io.wren.base.client.duckdb.DuckDBSettingSQL;
-import io.wren.base.client.duckdb.DuckdbClient;
 import io.wren.base.dto.Column;
 import io.wren.base.dto.Manifest;
 import io.wren.base.dto.Model;
@@ -31,7 +28,6 @@ import static io.wren.base.dto.Column.caluclatedColumn;
 import static io.wren.base.dto.Column.column;
 import static io.wren.base.dto.TableReference.tableReference;
 import static io.wren.testing.WebApplicationExceptionAssert.assertWebApplicationException;
-import static java.lang.String.format;
 import static java.util.Objects.requireNonNull;
 import static org.assertj.core.api.Assertions.assertThatNoException;
 
@@ -58,43 +54,6 @@ public class TestWrenWithPostgres
         injectTableToPostgres(List.of(new TestingData("customer", customer)));
     }
 
-    private void injectTableToPostgres(List<TestingData> dataList)
-    {
-        DuckDBConfig duckDBConfig = new DuckDBConfig();
-        DuckDBSettingSQL duckDBSettingSQL = new DuckDBSettingSQL();
-
-        String init = format("""
-                        INSTALL postgres;
-                        LOAD postgres;
-                        ATTACH 'dbname=%s user=%s host=%s password=%s port=%s' AS db (TYPE POSTGRES);
-                        """,
-                testingPostgreSqlServer.getDatabase(),
-                testingPostgreSqlServer.getUser(),
-                testingPostgreSqlServer.getHost(),
-                testingPostgreSqlServer.getPassword(),
-                testingPostgreSqlServer.getPort());
-        duckDBSettingSQL.setInitSQL(init);
-        duckDBConfig.setHomeDirectory("/tmp");
-        DuckdbClient duckdbClient = DuckdbClient.builder()
-                .setCacheStorageConfig(null)
-                .setDuckDBConfig(duckDBConfig)
-                .setDuckDBSettingSQL(duckDBSettingSQL)
-                .build();
-        try {
-            for (TestingData data : dataList) {
-                duckdbClient.executeDDL(format("create table db.tpch.%s as select * from '%s'", data.tableName, data.resourcePath));
-            }
-        }
-        catch (Exception e) {
-            throw new RuntimeException(e);
-        }
-        finally {
-            duckdbClient.close();
-        }
-    }
-
-    private record TestingData(String tableName, String resourcePath) {}
-
     @Test
     public void testCalculatedScope()
     {
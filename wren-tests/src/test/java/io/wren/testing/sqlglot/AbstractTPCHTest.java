@@ -59,7 +59,7 @@ public abstract class AbstractTPCHTest
     protected Object[][] queries()
     {
         return TPCH.getQueries().stream()
-                .map(query -> new Object[] {query})
+                .map(query -> new Object[] {query.sql()})
                 .toArray(Object[][]::new);
     }
 
@@ -14,7 +14,9 @@
 
 package io.wren.testing.sqlglot;
 
+import io.airlift.units.Duration;
 import io.wren.base.SessionContext;
+import io.wren.base.WrenException;
 import io.wren.base.config.SQLGlotConfig;
 import io.wren.main.sqlglot.SQLGlot;
 import io.wren.main.sqlglot.SQLGlotConverter;
@@ -24,11 +26,16 @@ import org.testng.annotations.AfterClass;
 import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
 
+import java.util.List;
+import java.util.Optional;
+
 import static io.wren.base.config.SQLGlotConfig.createConfigWithFreePort;
 import static io.wren.main.sqlglot.SQLGlot.Dialect.BIGQUERY;
 import static io.wren.main.sqlglot.SQLGlot.Dialect.DUCKDB;
 import static io.wren.main.sqlglot.SQLGlot.Dialect.SNOWFLAKE;
+import static java.util.concurrent.TimeUnit.MINUTES;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 @Test
 public class TestSQLGlotConverter
@@ -181,6 +188,47 @@ public class TestSQLGlotConverter
                 "SELECT t.`transform(Customer.orders, (orderItem) -> orderItem.orderstatus)` FROM t");
     }
 
+    @Test
+    public void testConvertAll()
+    {
+        SQLGlotConverter sqlGlotConverter = SQLGlotConverter.builder()
+                .setSQLGlot(sqlglot)
+                .setWriteDialect(DUCKDB)
+                .build();
+
+        long hits = sqlglot.getCacheHitCount();
+        assertThat(sqlGlotConverter.convertAll(List.of("SELECT ARRAY[4,5,6][1]", "SELECT FROM WHERE", "SELECT substring('Thomas' from 2 for 3)"), DEFAULT_SESSION_CONTEXT))
+                .containsExactly(Optional.of("SELECT ([4, 5, 6])[1]"), Optional.empty(), Optional.of("SELECT SUBSTRING('Thomas', 2, 3)"));
+        // the statements converted by the batch are cached
+        assertConvert(sqlGlotConverter, "SELECT ARRAY[4,5,6][1]", "SELECT ([4, 5, 6])[1]");
+        assertThat(sqlglot.getCacheHitCount()).isEqualTo(hits + 1);
+    }
+
+    @Test
+    public void testCircuitBreaker()
+    {
+        // no server listens on the port
+        SQLGlotConfig config = createConfigWithFreePort();
+        config.setCircuitBreakerFailureThreshold(2);
+        config.setCircuitBreakerOpenDuration(new Duration(10, MINUTES));
+        try (SQLGlot unavailable = new SQLGlot(config)) {
+            SQLGlotConverter sqlGlotConverter = SQLGlotConverter.builder()
+                    .setSQLGlot(unavailable)
+                    .setWriteDialect(DUCKDB)
+                    .build();
+            for (int i = 0; i < 2; i++) {
+                assertThatThrownBy(() -> sqlGlotConverter.convert("SELECT 1", DEFAULT_SESSION_CONTEXT))
+                        .isInstanceOf(WrenException.class)
+                        .cause()
+                        .hasMessageContaining("Failed to send the request");
+            }
+            assertThatThrownBy(() -> sqlGlotConverter.convert("SELECT 1", DEFAULT_SESSION_CONTEXT))
+                    .isInstanceOf(WrenException.class)
+                    .cause()
+                    .hasMessageContaining("circuit breaker is open");
+        }
+    }
+
     private static void assertConvert(SQLGlotConverter sqlGlotConverter, String sql, String expected)
     {
         assertThat(sqlGlotConverter.convert(sql, DEFAULT_SESSION_CONTEXT)).isEqualTo(expected);